@@ -114,4 +114,27 @@ public @interface BeanDefinition {
      */
     boolean cacheHashCode() default false;
 
+    /**
+     * Whether to generate 'with' methods for each property.
+     * <p>
+     * Setting this to true will generate a {@code withXxx(value)} method for each property.
+     * Each method returns a new bean that shares all the unchanged values of this bean,
+     * only copying and validating the new value.
+     * If the value is the same as the current value then the same bean is returned.
+     * The setting only applies to final immutable beans that do not specify
+     * {@link ImmutableConstructor} or {@link ImmutablePreBuild} and do not extend another bean.
+     */
+    boolean withMethods() default false;
+
+    /**
+     * Whether to generate a specialized serializer for the binary format.
+     * <p>
+     * Setting this to true will cause the meta-bean to implement {@code BinBeanSerializer},
+     * which reads and writes the fields directly rather than via each meta-property.
+     * The binary data is identical to that produced and accepted without the setting.
+     * The setting only applies to final immutable beans that are not generic,
+     * do not use the 'light' style and do not extend another bean.
+     */
+    boolean binSerializer() default false;
+
 }
@@ -16,7 +16,10 @@
 package org.joda.beans;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -27,6 +30,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -39,10 +43,15 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.joda.beans.impl.direct.DirectBean;
 import org.joda.beans.impl.flexi.FlexiBean;
+import org.joda.beans.impl.light.LightMetaBean;
 import org.joda.beans.impl.map.MapBean;
+import org.joda.beans.impl.record.RecordBean;
 import org.joda.collect.grid.DenseGrid;
 import org.joda.collect.grid.Grid;
 import org.joda.collect.grid.ImmutableGrid;
@@ -78,6 +87,11 @@ public final class JodaBeanUtils {
      * The cache of meta-beans.
      */
     private static final ConcurrentHashMap<Class<?>, MetaBean> metaBeans = new ConcurrentHashMap<Class<?>, MetaBean>();
+    /**
+     * The cache of meta-properties for each bean class, used to avoid allocation.
+     */
+    private static final ConcurrentHashMap<Class<?>, MetaProperty<?>[]> metaPropertyArrays =
+            new ConcurrentHashMap<Class<?>, MetaProperty<?>[]>();
     /**
      * The cache of meta-beans.
      */
@@ -99,6 +113,8 @@ public final class JodaBeanUtils {
      * A {@code Class} may use a static initializer block to call {@code registerMetaBean}.
      * The edge case where the class is loaded but not initialized is handled
      * by forcing the class to be initialized if necessary.
+     * If a {@link MetaBeanIndex} has been loaded, indexed beans are found
+     * without initializing the bean class.
      * 
      * @param cls  the class to get the meta-bean for, not null
      * @return the meta-bean, not null
@@ -107,18 +123,45 @@ public final class JodaBeanUtils {
     public static MetaBean metaBean(Class<?> cls) {
         MetaBean meta = metaBeans.get(cls);
         if (meta == null) {
-            return metaBeanLookup(cls);
+            return metaBeanLookup(cls, false);
+        }
+        return meta;
+    }
+
+    /**
+     * Gets the meta-bean for a class, optionally synthesizing one for a bean without generated code.
+     * <p>
+     * This behaves as {@link #metaBean(Class)}, except when no meta-bean is registered.
+     * In that case, if {@code synthesize} is true and the class is a bean that declares
+     * fields annotated with {@link PropertyDefinition}, a meta-bean is synthesized and registered.
+     * The synthesized meta-bean is a {@link LightMetaBean}, which resolves the reflective
+     * field, method and constructor access once, so the same rules apply, notably that
+     * there must be a constructor matching the property definitions.
+     * <p>
+     * A bean without generated code can opt in by calling this from its {@code metaBean()} method.
+     * 
+     * @param cls  the class to get the meta-bean for, not null
+     * @param synthesize  true to synthesize a meta-bean if none is registered
+     * @return the meta-bean, not null
+     * @throws IllegalArgumentException if unable to obtain the meta-bean
+     */
+    public static MetaBean metaBean(Class<?> cls, boolean synthesize) {
+        MetaBean meta = metaBeans.get(cls);
+        if (meta == null) {
+            return metaBeanLookup(cls, synthesize);
         }
         return meta;
     }
 
     // lookup the MetaBean outside the fast path, aiding hotspot inlining
-    private static MetaBean metaBeanLookup(Class<?> cls) {
+    private static MetaBean metaBeanLookup(Class<?> cls, boolean synthesize) {
         // handle dynamic beans
         if (cls == FlexiBean.class) {
             return new FlexiBean().metaBean();
         } else if (cls == MapBean.class) {
             return new MapBean().metaBean();
+        } else if (cls == RecordBean.class) {
+            return new RecordBean().metaBean();
         } else if (DynamicBean.class.isAssignableFrom(cls)) {
             try {
                 return cls.asSubclass(DynamicBean.class).newInstance().metaBean();
@@ -128,6 +171,11 @@ public final class JodaBeanUtils {
                 throw new IllegalArgumentException("Unable to find meta-bean for a DynamicBean: " + cls.getName(), ex);
             }
         }
+        // the index can provide the meta-bean without initializing the bean class
+        MetaBean indexed = MetaBeanIndex.find(cls);
+        if (indexed != null) {
+            return indexed;
+        }
         // a Class can be loaded without being initialized
         // in this state, the static initializers have not run, and thus the metabean not registered
         // here initialization is forced to handle that scenario
@@ -142,11 +190,29 @@ public final class JodaBeanUtils {
         }
         MetaBean meta = metaBeans.get(cls);
         if (meta == null) {
+            if (synthesize && Bean.class.isAssignableFrom(cls)) {
+                return metaBeanSynthesize(cls.asSubclass(Bean.class));
+            }
             throw new IllegalArgumentException("Unable to find meta-bean: " + cls.getName());
         }
         return meta;
     }
 
+    // creates and registers a meta-bean for a bean that has no generated code
+    private static MetaBean metaBeanSynthesize(Class<? extends Bean> cls) {
+        MetaBean meta;
+        try {
+            meta = LightMetaBean.of(cls);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Unable to synthesize meta-bean: " + cls.getName(), ex);
+        }
+        if (meta.metaPropertyCount() == 0) {
+            throw new IllegalArgumentException("Unable to find meta-bean: " + cls.getName());
+        }
+        MetaBean existing = metaBeans.putIfAbsent(cls, meta);
+        return existing != null ? existing : meta;
+    }
+
     /**
      * Registers a meta-bean.
      * <p>
@@ -163,6 +229,18 @@ public final class JodaBeanUtils {
         }
     }
 
+    /**
+     * Gets the bean types that have registered a meta-bean.
+     * <p>
+     * This is a snapshot of the registry, which can be used to record
+     * the beans that an application uses, such as for warm-up.
+     * 
+     * @return the registered bean types, not null
+     */
+    public static Set<Class<?>> registeredBeanTypes() {
+        return Collections.unmodifiableSet(new HashSet<Class<?>>(metaBeans.keySet()));
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Gets the standard string format converter.
@@ -432,6 +510,38 @@ public final class JodaBeanUtils {
      * @return true if equal
      */
     public static boolean propertiesEqual(Bean bean1, Bean bean2) {
+        MetaProperty<?>[] metaProperties1 = metaPropertyArray(bean1);
+        MetaProperty<?>[] metaProperties2 = metaPropertyArray(bean2);
+        if (metaProperties1 == null || metaProperties2 == null) {
+            return propertiesEqualDynamic(bean1, bean2);
+        }
+        if (metaProperties1.length != metaProperties2.length) {
+            return false;
+        }
+        if (metaProperties1 == metaProperties2) {
+            for (MetaProperty<?> mp : metaProperties1) {
+                if (equal(mp.get(bean1), mp.get(bean2)) == false) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        MetaBean metaBean2 = bean2.metaBean();
+        for (MetaProperty<?> mp : metaProperties1) {
+            if (metaBean2.metaPropertyExists(mp.name()) == false) {
+                return false;
+            }
+        }
+        for (MetaProperty<?> mp : metaProperties1) {
+            if (equal(mp.get(bean1), metaBean2.metaProperty(mp.name()).get(bean2)) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // compares using the property names, as the properties of a dynamic bean can change
+    private static boolean propertiesEqualDynamic(Bean bean1, Bean bean2) {
         Set<String> names = bean1.propertyNames();
         if (names.equals(bean2.propertyNames()) == false) {
             return false;
@@ -458,10 +568,17 @@ public final class JodaBeanUtils {
      */
     public static int propertiesHashCode(Bean bean) {
         int hash = 7;
-        Set<String> names = bean.propertyNames();
-        for (String name : names) {
-            Object value = bean.property(name).get();
-            hash += hashCode(value);
+        MetaProperty<?>[] metaProperties = metaPropertyArray(bean);
+        if (metaProperties == null) {
+            Set<String> names = bean.propertyNames();
+            for (String name : names) {
+                Object value = bean.property(name).get();
+                hash += hashCode(value);
+            }
+        } else {
+            for (MetaProperty<?> mp : metaProperties) {
+                hash += hashCode(mp.get(bean));
+            }
         }
         return hash;
     }
@@ -477,6 +594,30 @@ public final class JodaBeanUtils {
      * @return the string form of the bean, not null
      */
     public static String propertiesToString(Bean bean, String prefix) {
+        MetaProperty<?>[] metaProperties = metaPropertyArray(bean);
+        if (metaProperties == null) {
+            return propertiesToStringDynamic(bean, prefix);
+        }
+        StringBuilder buf;
+        if (prefix != null) {
+            buf = new StringBuilder((metaProperties.length) * 32 + prefix.length()).append(prefix);
+        } else {
+            buf = new StringBuilder((metaProperties.length) * 32);
+        }
+        buf.append('{');
+        if (metaProperties.length > 0) {
+            for (MetaProperty<?> mp : metaProperties) {
+                Object value = mp.get(bean);
+                buf.append(mp.name()).append('=').append(value).append(',').append(' ');
+            }
+            buf.setLength(buf.length() - 2);
+        }
+        buf.append('}');
+        return buf.toString();
+    }
+
+    // uses the property names, as the properties of a dynamic bean can change
+    private static String propertiesToStringDynamic(Bean bean, String prefix) {
         Set<String> names = bean.propertyNames();
         StringBuilder buf;
         if (prefix != null) {
@@ -496,12 +637,41 @@ public final class JodaBeanUtils {
         return buf.toString();
     }
 
+    /**
+     * Gets the cached array of meta-properties for a bean.
+     * <p>
+     * Dynamic beans are not cached, as the set of properties can change.
+     * 
+     * @param bean  the bean, not null
+     * @return the meta-properties, null if the bean is dynamic
+     */
+    private static MetaProperty<?>[] metaPropertyArray(Bean bean) {
+        if (bean instanceof DynamicBean) {
+            return null;
+        }
+        MetaProperty<?>[] metaProperties = metaPropertyArrays.get(bean.getClass());
+        if (metaProperties == null) {
+            MetaBean metaBean = bean.metaBean();
+            List<MetaProperty<?>> list = new ArrayList<MetaProperty<?>>(metaBean.metaPropertyCount());
+            for (MetaProperty<?> mp : metaBean.metaPropertyIterable()) {
+                list.add(mp);
+            }
+            metaProperties = list.toArray(new MetaProperty<?>[list.size()]);
+            MetaProperty<?>[] existing = metaPropertyArrays.putIfAbsent(bean.getClass(), metaProperties);
+            if (existing != null) {
+                metaProperties = existing;
+            }
+        }
+        return metaProperties;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Clones a bean.
      * <p>
      * This performs a deep clone. There is no protection against cycles in
      * the object graph beyond {@code StackOverflowError}.
+     * Immutable beans, and immutable values within the bean, are shared rather than cloned.
      * 
      * @param <T>  the type of the bean
      * @param original  the original bean to clone, null returns null
@@ -519,22 +689,55 @@ public final class JodaBeanUtils {
      * <p>
      * This performs a deep clone. There is no protection against cycles in
      * the object graph beyond {@code StackOverflowError}.
-     * This differs from {@link #clone()} in that immutable beans are also cloned.
+     * This differs from {@link #clone(Bean)} in that the root bean is cloned even if it is immutable.
      * 
      * @param <T>  the type of the bean
      * @param original  the original bean to clone, not null
      * @return the cloned bean, not null
      */
     public static <T extends Bean> T cloneAlways(T original) {
-        @SuppressWarnings("unchecked")
-        BeanBuilder<T> builder = (BeanBuilder<T>) original.metaBean().builder();
-        for (MetaProperty<?> mp : original.metaBean().metaPropertyIterable()) {
-            if (mp.style().isBuildable()) {
-                Object value = mp.get(original);
-                builder.set(mp.name(), Cloner.INSTANCE.clone(value));
-            }
+        return Cloner.INSTANCE.cloneBean(original, CloneContext.SIMPLE);
+    }
+
+    /**
+     * Clones a bean preserving the shape of the object graph.
+     * <p>
+     * This performs a deep clone where an object that is referenced more than once
+     * in the original is cloned once, with the clone referenced in the same places.
+     * Cycles through mutable beans with a public no-arg constructor, collections,
+     * maps and arrays are preserved. A cycle that passes through any other bean is rejected.
+     * 
+     * @param <T>  the type of the bean
+     * @param original  the original bean to clone, null returns null
+     * @return the cloned bean, null if null input
+     * @throws IllegalArgumentException if the object graph contains a cycle that cannot be cloned
+     */
+    public static <T extends Bean> T cloneGraph(T original) {
+        if (original == null || original instanceof ImmutableBean) {
+            return original;
         }
-        return builder.build();
+        return Cloner.INSTANCE.cloneBean(original, new CloneContext(new IdentityHashMap<Object, Object>(), null));
+    }
+
+    /**
+     * Clones a bean using the specified executor to clone large collections and arrays.
+     * <p>
+     * This performs a deep clone in the same way as {@link #clone(Bean)}.
+     * Collections and arrays of at least 1024 elements are split into chunks
+     * that are cloned by tasks submitted to the executor.
+     * The elements must therefore be safe to clone on other threads.
+     * 
+     * @param <T>  the type of the bean
+     * @param original  the original bean to clone, null returns null
+     * @param executor  the executor to use, not null
+     * @return the cloned bean, null if null input
+     */
+    public static <T extends Bean> T cloneParallel(T original, ExecutorService executor) {
+        notNull(executor, "executor");
+        if (original == null || original instanceof ImmutableBean) {
+            return original;
+        }
+        return Cloner.INSTANCE.cloneBean(original, new CloneContext(null, executor));
     }
 
     //-----------------------------------------------------------------------
@@ -933,6 +1136,51 @@ public final class JodaBeanUtils {
         }
     }
 
+    //-------------------------------------------------------------------------
+    /**
+     * The state of a single clone operation.
+     */
+    private static final class CloneContext {
+        /** The context for a simple clone. */
+        static final CloneContext SIMPLE = new CloneContext(null, null);
+        /** Marker for a bean that is being built. */
+        static final Object IN_PROGRESS = new Object();
+        /** The map of original to clone, null if references are not preserved. */
+        final IdentityHashMap<Object, Object> cloned;
+        /** The executor, null if sequential. */
+        final ExecutorService executor;
+
+        CloneContext(IdentityHashMap<Object, Object> cloned, ExecutorService executor) {
+            this.cloned = cloned;
+            this.executor = executor;
+        }
+
+        // records the clone before its contents are cloned, so that cycles are preserved
+        void started(Object original, Object clone) {
+            if (cloned != null) {
+                cloned.put(original, clone);
+            }
+        }
+    }
+
+    /**
+     * The plan for cloning a bean class.
+     */
+    private static final class ClonePlan {
+        /** The buildable meta-properties. */
+        final MetaProperty<?>[] metaProperties;
+        /** Whether the value of each meta-property can be shared. */
+        final boolean[] shared;
+        /** The no-arg constructor of a mutable bean, null if the builder must be used. */
+        final Constructor<?> constructor;
+
+        ClonePlan(MetaProperty<?>[] metaProperties, boolean[] shared, Constructor<?> constructor) {
+            this.metaProperties = metaProperties;
+            this.shared = shared;
+            this.constructor = constructor;
+        }
+    }
+
     //-------------------------------------------------------------------------
     /**
      * Clones an object.
@@ -940,6 +1188,11 @@ public final class JodaBeanUtils {
     @SuppressWarnings({ "rawtypes", "unchecked" })
     private static class Cloner {
         public static final Cloner INSTANCE = getInstance();
+        /** The minimum number of elements to clone in parallel. */
+        private static final int PARALLEL_THRESHOLD = 1024;
+        /** The cache of clone plans. */
+        private final ConcurrentHashMap<Class<?>, ClonePlan> plans = new ConcurrentHashMap<Class<?>, ClonePlan>();
+
         private static Cloner getInstance() {
             try {
                 Class.forName("org.joda.collect.grid.Grid");
@@ -957,55 +1210,239 @@ public final class JodaBeanUtils {
         Cloner() {
         }
 
-        Object clone(Object value) {
+        //-------------------------------------------------------------------------
+        // finds or creates the plan for the bean
+        ClonePlan plan(Bean bean) {
+            if (bean instanceof DynamicBean) {
+                return createPlan(bean);
+            }
+            ClonePlan plan = plans.get(bean.getClass());
+            if (plan == null) {
+                plan = createPlan(bean);
+                plans.putIfAbsent(bean.getClass(), plan);
+            }
+            return plan;
+        }
+
+        private ClonePlan createPlan(Bean bean) {
+            MetaBean metaBean = bean.metaBean();
+            List<MetaProperty<?>> buildable = new ArrayList<MetaProperty<?>>();
+            boolean writable = true;
+            for (MetaProperty<?> mp : metaBean.metaPropertyIterable()) {
+                if (mp.style().isBuildable()) {
+                    buildable.add(mp);
+                    writable &= mp.style().isWritable() && mp.style().isReadable();
+                }
+            }
+            MetaProperty<?>[] metaProperties = buildable.toArray(new MetaProperty<?>[buildable.size()]);
+            boolean[] shared = new boolean[metaProperties.length];
+            for (int i = 0; i < metaProperties.length; i++) {
+                shared[i] = isShared(metaProperties[i].propertyType());
+            }
+            // a mutable bean can be created before its properties are cloned, allowing cycles
+            Constructor<?> constructor = null;
+            if (writable && bean instanceof ImmutableBean == false && bean instanceof DynamicBean == false) {
+                try {
+                    constructor = bean.getClass().getConstructor();
+                } catch (NoSuchMethodException ex) {
+                    // use the builder
+                }
+            }
+            return new ClonePlan(metaProperties, shared, constructor);
+        }
+
+        // checks if values of the type can always be shared, overridden to handle additional types
+        boolean isShared(Class<?> type) {
+            if (type.isPrimitive() || type.isEnum() || ImmutableBean.class.isAssignableFrom(type)) {
+                return true;
+            }
+            if (type.isArray() || Bean.class.isAssignableFrom(type) || Iterable.class.isAssignableFrom(type) ||
+                    Map.class.isAssignableFrom(type) || java.util.Date.class.isAssignableFrom(type)) {
+                return false;
+            }
+            // a final type that is not cloned will always be shared
+            return Modifier.isFinal(type.getModifiers()) && isCloned(type) == false;
+        }
+
+        // checks if the type is cloned, overridden to handle additional types
+        boolean isCloned(Class<?> type) {
+            return false;
+        }
+
+        //-------------------------------------------------------------------------
+        <T extends Bean> T cloneBean(T original, CloneContext context) {
+            ClonePlan plan = plan(original);
+            MetaProperty<?>[] metaProperties = plan.metaProperties;
+            boolean[] shared = plan.shared;
+            if (context.cloned != null) {
+                Object existing = context.cloned.get(original);
+                if (existing == CloneContext.IN_PROGRESS) {
+                    throw new IllegalArgumentException("Unable to clone cycle through bean: " + original.getClass().getName());
+                }
+                if (existing != null) {
+                    return (T) existing;
+                }
+                if (plan.constructor != null) {
+                    T clone = (T) instantiate(plan.constructor);
+                    context.started(original, clone);
+                    for (int i = 0; i < metaProperties.length; i++) {
+                        MetaProperty<Object> mp = (MetaProperty<Object>) metaProperties[i];
+                        Object value = mp.get(original);
+                        mp.set(clone, shared[i] ? value : copy(value, context));
+                    }
+                    return clone;
+                }
+                context.started(original, CloneContext.IN_PROGRESS);
+            }
+            BeanBuilder<T> builder = (BeanBuilder<T>) original.metaBean().builder();
+            for (int i = 0; i < metaProperties.length; i++) {
+                MetaProperty<?> mp = metaProperties[i];
+                Object value = mp.get(original);
+                builder.set(mp.name(), shared[i] ? value : copy(value, context));
+            }
+            T clone = builder.build();
+            context.started(original, clone);
+            return clone;
+        }
+
+        private Object instantiate(Constructor<?> constructor) {
+            try {
+                return constructor.newInstance();
+            } catch (InvocationTargetException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException("Unable to create bean: " + constructor.getDeclaringClass().getName(), ex.getCause());
+            } catch (Exception ex) {
+                throw new IllegalStateException("Unable to create bean: " + constructor.getDeclaringClass().getName(), ex);
+            }
+        }
+
+        // clones a value, handling shared references
+        final Object copy(Object value, CloneContext context) {
+            if (value == null) {
+                return null;
+            }
+            if (context.cloned == null) {
+                return clone(value, context);
+            }
+            Object existing = context.cloned.get(value);
+            if (existing == CloneContext.IN_PROGRESS) {
+                throw new IllegalArgumentException("Unable to clone cycle through bean: " + value.getClass().getName());
+            }
+            if (existing != null) {
+                return existing;
+            }
+            Object clone = clone(value, context);
+            if (clone != value) {
+                context.cloned.put(value, clone);
+            }
+            return clone;
+        }
+
+        Object clone(Object value, CloneContext context) {
             if (value == null) {
                 return value;
+            } else if (value instanceof ImmutableBean) {
+                return value;
             } else if (value instanceof Bean) {
-                return cloneAlways((Bean) value);
+                return cloneBean((Bean) value, context);
             } else if (value instanceof SortedSet) {
                 SortedSet set = (SortedSet) value;
-                return cloneIterable(set, new TreeSet(set.comparator()));
+                return cloneIterable(set, new TreeSet(set.comparator()), context);
             } else if (value instanceof Set) {
-                return cloneIterable((Set) value, new LinkedHashSet());
+                return cloneIterable((Set) value, new LinkedHashSet(), context);
             } else if (value instanceof Iterable) {
-                return cloneIterable((Iterable) value, new ArrayList());
+                return cloneIterable((Iterable) value, new ArrayList(), context);
             } else if (value instanceof SortedMap) {
                 SortedMap map = (SortedMap) value;
-                return cloneMap(map, new TreeMap(map.comparator()));
+                return cloneMap(map, new TreeMap(map.comparator()), context);
             } else if (value instanceof Map) {
-                return cloneMap((Map) value, new LinkedHashMap());
+                return cloneMap((Map) value, new LinkedHashMap(), context);
             } else if (value.getClass().isArray()) {
-                return cloneArray(value);
+                return cloneArray(value, context);
             } else if (value instanceof java.util.Date) {
                 return ((java.util.Date) value).clone();
             }
             return value;
         }
 
-        Object cloneIterable(Iterable original, Collection cloned) {
+        Object cloneIterable(Iterable original, Collection cloned, CloneContext context) {
+            context.started(original, cloned);
+            if (context.executor != null && original instanceof Collection && ((Collection) original).size() >= PARALLEL_THRESHOLD) {
+                cloned.addAll(Arrays.asList(cloneParallel(((Collection) original).toArray(), context.executor)));
+                return cloned;
+            }
             for (Object item : original) {
-                cloned.add(clone(item));
+                cloned.add(copy(item, context));
             }
             return cloned;
         }
 
-        Object cloneMap(Map original, Map cloned) {
+        Object cloneMap(Map original, Map cloned, CloneContext context) {
+            context.started(original, cloned);
             for (Object item : original.entrySet()) {
                 Entry entry = (Entry) item;
-                cloned.put(clone(entry.getKey()), clone(entry.getValue()));
+                cloned.put(copy(entry.getKey(), context), copy(entry.getValue(), context));
             }
             return cloned;
         }
 
-        Object cloneArray(Object original) {
-            int len = Array.getLength(original);
-            Class<?> arrayType = original.getClass().getComponentType();
-            Object copy = Array.newInstance(arrayType, len);
-            for (int i = 0; i < len; i++) {
-                Array.set(copy, i, clone(Array.get(original, i)));
+        Object cloneArray(Object original, CloneContext context) {
+            Class<?> componentType = original.getClass().getComponentType();
+            if (componentType.isPrimitive()) {
+                int len = Array.getLength(original);
+                Object copy = Array.newInstance(componentType, len);
+                System.arraycopy(original, 0, copy, 0, len);
+                return copy;
+            }
+            Object[] array = (Object[]) original;
+            Object[] copy = (Object[]) Array.newInstance(componentType, array.length);
+            context.started(original, copy);
+            if (isShared(componentType)) {
+                System.arraycopy(array, 0, copy, 0, array.length);
+            } else if (context.executor != null && array.length >= PARALLEL_THRESHOLD) {
+                Object[] clonedElements = cloneParallel(array, context.executor);
+                System.arraycopy(clonedElements, 0, copy, 0, array.length);
+            } else {
+                for (int i = 0; i < array.length; i++) {
+                    copy[i] = copy(array[i], context);
+                }
             }
             return copy;
         }
+
+        // clones the elements in chunks using the executor, cloning sequentially within each chunk
+        private Object[] cloneParallel(final Object[] elements, ExecutorService executor) {
+            final Object[] result = new Object[elements.length];
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int start = 0; start < elements.length; start += PARALLEL_THRESHOLD) {
+                final int from = start;
+                final int to = Math.min(start + PARALLEL_THRESHOLD, elements.length);
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = from; i < to; i++) {
+                            result[i] = copy(elements[i], CloneContext.SIMPLE);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Clone interrupted", ex);
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) ex.getCause();
+                    }
+                    throw new IllegalStateException("Clone failed", ex.getCause());
+                }
+            }
+            return result;
+        }
     }
 
     //-------------------------------------------------------------------------
@@ -1018,50 +1455,65 @@ public final class JodaBeanUtils {
         }
 
         @Override
-        Object clone(Object value) {
+        boolean isShared(Class<?> type) {
+            if (ImmutableCollection.class.isAssignableFrom(type) ||
+                    ImmutableMap.class.isAssignableFrom(type) ||
+                    ImmutableMultimap.class.isAssignableFrom(type) ||
+                    ImmutableTable.class.isAssignableFrom(type)) {
+                return true;
+            }
+            return super.isShared(type);
+        }
+
+        @Override
+        boolean isCloned(Class<?> type) {
+            return Multimap.class.isAssignableFrom(type) || Table.class.isAssignableFrom(type) || super.isCloned(type);
+        }
+
+        @Override
+        Object clone(Object value, CloneContext context) {
             if (value == null) {
                 return value;
             } else if (value instanceof ImmutableMap ||
                     value instanceof ImmutableCollection ||
-                    value instanceof ImmutableMap ||
                     value instanceof ImmutableMultimap ||
                     value instanceof ImmutableTable) {
                 return value;
-            } else if (value instanceof Multiset) {
-                return cloneAlways((Bean) value);
             } else if (value instanceof SortedMultiset) {
                 SortedMultiset set = (SortedMultiset) value;
-                return cloneIterable(set, TreeMultiset.create(set.comparator()));
+                return cloneIterable(set, TreeMultiset.create(set.comparator()), context);
             } else if (value instanceof Multiset) {
-                return cloneIterable((Multiset) value, LinkedHashMultiset.create());
+                return cloneIterable((Multiset) value, LinkedHashMultiset.create(), context);
             } else if (value instanceof SetMultimap) {
-                return cloneMultimap((Multimap) value, LinkedHashMultimap.create());
+                return cloneMultimap((Multimap) value, LinkedHashMultimap.create(), context);
             } else if (value instanceof ListMultimap) {
-                return cloneMultimap((Multimap) value, ArrayListMultimap.create());
+                return cloneMultimap((Multimap) value, ArrayListMultimap.create(), context);
             } else if (value instanceof Multimap) {
-                return cloneMultimap((Multimap) value, ArrayListMultimap.create());
+                return cloneMultimap((Multimap) value, ArrayListMultimap.create(), context);
             } else if (value instanceof BiMap) {
-                return cloneMap((BiMap) value, HashBiMap.create());
+                return cloneMap((BiMap) value, HashBiMap.create(), context);
             } else if (value instanceof Table) {
-                return cloneTable((Table) value, HashBasedTable.create());
+                return cloneTable((Table) value, HashBasedTable.create(), context);
             }
-            return super.clone(value);
+            return super.clone(value, context);
         }
 
-        Object cloneMultimap(Multimap original, Multimap cloned) {
+        Object cloneMultimap(Multimap original, Multimap cloned, CloneContext context) {
+            context.started(original, cloned);
             for (Object key : original.keySet()) {
                 Collection values = original.get(key);
                 for (Object value : values) {
-                    cloned.put(clone(key), clone(value));
+                    cloned.put(copy(key, context), copy(value, context));
                 }
             }
             return cloned;
         }
 
-        Object cloneTable(Table original, Table cloned) {
+        Object cloneTable(Table original, Table cloned, CloneContext context) {
+            context.started(original, cloned);
             for (Object item : original.cellSet()) {
                 Table.Cell cell = (Table.Cell) item;
-                cloned.put(clone(cell.getRowKey()), clone(cell.getColumnKey()), clone(cell.getValue()));
+                cloned.put(copy(cell.getRowKey(), context), copy(cell.getColumnKey(), context), copy(cell.getValue(), context));
             }
             return cloned;
         }
@@ -1077,25 +1529,36 @@ public final class JodaBeanUtils {
         }
 
         @Override
-        Object clone(Object value) {
+        boolean isShared(Class<?> type) {
+            return ImmutableGrid.class.isAssignableFrom(type) || super.isShared(type);
+        }
+
+        @Override
+        boolean isCloned(Class<?> type) {
+            return Grid.class.isAssignableFrom(type) || super.isCloned(type);
+        }
+
+        @Override
+        Object clone(Object value, CloneContext context) {
             if (value == null) {
                 return value;
             } else if (value instanceof ImmutableGrid) {
                 return value;
             } else if (value instanceof DenseGrid) {
                 Grid grid = (Grid) value;
-                return cloneGrid(grid, DenseGrid.create(grid.rowCount(), grid.columnCount()));
+                return cloneGrid(grid, DenseGrid.create(grid.rowCount(), grid.columnCount()), context);
             } else if (value instanceof Grid) {
                 Grid grid = (Grid) value;
-                return cloneGrid(grid, SparseGrid.create(grid.rowCount(), grid.columnCount()));
+                return cloneGrid(grid, SparseGrid.create(grid.rowCount(), grid.columnCount()), context);
             }
-            return super.clone(value);
+            return super.clone(value, context);
         }
 
-        Object cloneGrid(Grid original, Grid cloned) {
+        Object cloneGrid(Grid original, Grid cloned, CloneContext context) {
+            context.started(original, cloned);
             for (Object item : original.cells()) {
                 Grid.Cell cell = (Grid.Cell) item;
-                cloned.put(cell.getRow(), cell.getColumn(), clone(cell.getValue()));
+                cloned.put(cell.getRow(), cell.getColumn(), copy(cell.getValue(), context));
             }
             return cloned;
         }
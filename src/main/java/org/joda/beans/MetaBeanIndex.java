@@ -0,0 +1,154 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of meta-beans, written by the code generator, used to find meta-beans cheaply.
+ * <p>
+ * The code generator can write an index of the beans that it processes, see the
+ * {@code -index} option of {@code BeanCodeGen}. The index is a properties file
+ * stored at {@link #RESOURCE}, where each key is the name of a bean class and the
+ * value is the name of the class holding the meta-bean in a static {@code INSTANCE} field.
+ * The value is empty if the meta-bean is held by the bean class itself.
+ * <p>
+ * Once loaded, {@link JodaBeanUtils#metaBean(Class)} uses the index to obtain the meta-bean
+ * of an indexed bean by initializing only the class holding the meta-bean.
+ * Without the index, the bean class itself must be initialized, running all its static
+ * initializers, and those of every class they reference, before the meta-bean is registered.
+ * <p>
+ * This class is thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class MetaBeanIndex {
+
+    /**
+     * The location of the index resource.
+     */
+    public static final String RESOURCE = "META-INF/joda-beans/meta-bean-index.properties";
+    /**
+     * The indexed bean class names, mapped to the name of the meta-bean holder.
+     */
+    private static final ConcurrentHashMap<String, String> index = new ConcurrentHashMap<String, String>();
+    /**
+     * The meta-beans obtained from the index.
+     */
+    private static final ConcurrentHashMap<Class<?>, MetaBean> resolved = new ConcurrentHashMap<Class<?>, MetaBean>();
+
+    /**
+     * Restricted constructor.
+     */
+    private MetaBeanIndex() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Loads all the meta-bean indexes visible to the specified class loader.
+     * <p>
+     * No bean classes are loaded or initialized by this method.
+     * 
+     * @param classLoader  the class loader to search, not null
+     * @return the number of beans indexed, not including those already indexed
+     * @throws IllegalArgumentException if an index cannot be read
+     */
+    public static int load(ClassLoader classLoader) {
+        JodaBeanUtils.notNull(classLoader, "classLoader");
+        int count = 0;
+        try {
+            Enumeration<URL> urls = classLoader.getResources(RESOURCE);
+            while (urls.hasMoreElements()) {
+                count += load(urls.nextElement());
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Unable to load meta-bean index: " + ex.getMessage(), ex);
+        }
+        return count;
+    }
+
+    // loads a single index
+    private static int load(URL url) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = url.openStream();
+        try {
+            properties.load(new InputStreamReader(in, "UTF-8"));
+        } finally {
+            in.close();
+        }
+        int count = 0;
+        for (Entry<Object, Object> entry : properties.entrySet()) {
+            if (index.putIfAbsent(entry.getKey().toString().trim(), entry.getValue().toString().trim()) == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the meta-bean of a bean using the index.
+     * 
+     * @param cls  the bean class, not null
+     * @return the meta-bean, null if not indexed or unable to obtain
+     */
+    static MetaBean find(Class<?> cls) {
+        MetaBean meta = resolved.get(cls);
+        if (meta != null) {
+            return meta;
+        }
+        String holder = index.get(cls.getName());
+        if (holder == null || holder.length() == 0) {
+            return null;
+        }
+        try {
+            Class<?> holderClass = Class.forName(holder, true, cls.getClassLoader());
+            Field field = holderClass.getDeclaredField("INSTANCE");
+            field.setAccessible(true);
+            meta = (MetaBean) field.get(null);
+        } catch (ClassNotFoundException ex) {
+            return null;
+        } catch (NoSuchFieldException ex) {
+            return null;
+        } catch (IllegalAccessException ex) {
+            return null;
+        } catch (ClassCastException ex) {
+            return null;
+        }
+        if (meta == null || meta.beanType() != cls) {
+            return null;
+        }
+        MetaBean existing = resolved.putIfAbsent(cls, meta);
+        return existing != null ? existing : meta;
+    }
+
+    /**
+     * Clears the index, intended for testing.
+     */
+    static void clear() {
+        index.clear();
+        resolved.clear();
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.DynamicBean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.PropertyStyle;
+
+/**
+ * Compares beans to produce a patch, and applies patches to beans.
+ * <p>
+ * The comparison walks the two beans property by property.
+ * Where both values of a property are beans with the same meta-bean, the comparison
+ * descends into them, so a change to a nested bean is reported against the nested property.
+ * All other values, including collections, are compared as a whole.
+ * <p>
+ * The comparison is designed to be fast when the beans share structure, as is the
+ * case when one bean was derived from the other using 'with' methods or a builder.
+ * Values that are the same instance are skipped without further checks.
+ * Nested immutable beans whose hash codes differ are known to be different without
+ * calling {@code equals}, which is cheap when the hash code is cached.
+ * <p>
+ * Applying a patch rebuilds only the beans on the paths of the changes.
+ * Unchanged nested beans and values are shared with the original bean.
+ * <p>
+ * This class is thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class BeanDiff {
+
+    /**
+     * Restricted constructor.
+     */
+    private BeanDiff() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Compares two beans, producing a patch that converts the first into the second.
+     * <p>
+     * The beans must have the same meta-bean.
+     * Derived and write-only properties are not compared.
+     * 
+     * @param base  the base bean, not null
+     * @param changed  the changed bean, not null
+     * @return the patch, empty if the beans are equal, not null
+     * @throws IllegalArgumentException if the beans have different meta-beans
+     */
+    public static BeanPatch diff(Bean base, Bean changed) {
+        JodaBeanUtils.notNull(base, "base");
+        JodaBeanUtils.notNull(changed, "changed");
+        if (base == changed) {
+            return BeanPatch.EMPTY;
+        }
+        if (base.metaBean().equals(changed.metaBean()) == false) {
+            throw new IllegalArgumentException(
+                    "Beans must have the same meta-bean: " + base.metaBean().beanName() + " and " + changed.metaBean().beanName());
+        }
+        List<PropertyChange> changes = new ArrayList<PropertyChange>();
+        diff(changes, new ArrayList<MetaProperty<?>>(), base, changed);
+        if (changes.isEmpty()) {
+            return BeanPatch.EMPTY;
+        }
+        return new BeanPatch(Collections.unmodifiableList(changes));
+    }
+
+    // compares each property, using the path as a stack to avoid allocation until a change is found
+    private static void diff(List<PropertyChange> changes, List<MetaProperty<?>> path, Bean base, Bean changed) {
+        for (MetaProperty<?> metaProperty : base.metaBean().metaPropertyIterable()) {
+            PropertyStyle style = metaProperty.style();
+            if (style.isReadable() == false || style.isDerived()) {
+                continue;
+            }
+            Object oldValue = metaProperty.get(base);
+            Object newValue = metaProperty.get(changed);
+            if (oldValue == newValue) {
+                continue;
+            }
+            if (isNested(oldValue, newValue)) {
+                Bean oldBean = (Bean) oldValue;
+                Bean newBean = (Bean) newValue;
+                if (oldBean instanceof ImmutableBean &&
+                        oldBean.hashCode() == newBean.hashCode() && oldBean.equals(newBean)) {
+                    continue;
+                }
+                path.add(metaProperty);
+                diff(changes, path, oldBean, newBean);
+                path.remove(path.size() - 1);
+                
+            } else if (JodaBeanUtils.equal(oldValue, newValue) == false) {
+                List<MetaProperty<?>> changePath = new ArrayList<MetaProperty<?>>(path.size() + 1);
+                changePath.addAll(path);
+                changePath.add(metaProperty);
+                changes.add(new PropertyChange(Collections.unmodifiableList(changePath), oldValue, newValue));
+            }
+        }
+    }
+
+    // checks if the two values are beans that can be compared property by property
+    private static boolean isNested(Object oldValue, Object newValue) {
+        if (oldValue instanceof Bean && newValue instanceof Bean &&
+                oldValue instanceof DynamicBean == false && newValue instanceof DynamicBean == false) {
+            return ((Bean) oldValue).metaBean().equals(((Bean) newValue).metaBean());
+        }
+        return false;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Applies a patch to a bean, returning the patched bean.
+     * <p>
+     * The input bean is not altered.
+     * The result is built using the meta-bean builder, copying the unchanged properties.
+     * Only the beans on the path of a change are rebuilt, all other values are shared.
+     * <p>
+     * The old value of each change is checked against the current value of the bean,
+     * ensuring that the patch is applied to the state it was created from.
+     * 
+     * @param <T>  the type of the bean
+     * @param patch  the patch to apply, not null
+     * @param bean  the bean to apply the patch to, not null
+     * @return the patched bean, the same bean if the patch is empty, not null
+     * @throws IllegalArgumentException if the patch does not match the bean
+     */
+    public static <T extends Bean> T apply(BeanPatch patch, T bean) {
+        JodaBeanUtils.notNull(patch, "patch");
+        JodaBeanUtils.notNull(bean, "bean");
+        if (patch.isEmpty()) {
+            return bean;
+        }
+        return apply(patch.getChanges(), 0, bean);
+    }
+
+    // applies the changes at the specified depth in the path
+    private static <T extends Bean> T apply(List<PropertyChange> changes, int depth, T bean) {
+        // group the changes by the meta-property at this depth
+        Map<MetaProperty<?>, Object> updates = new LinkedHashMap<MetaProperty<?>, Object>();
+        Map<MetaProperty<?>, List<PropertyChange>> nested = new LinkedHashMap<MetaProperty<?>, List<PropertyChange>>();
+        for (PropertyChange change : changes) {
+            List<MetaProperty<?>> path = change.getPath();
+            MetaProperty<?> metaProperty = path.get(depth);
+            if (path.size() == depth + 1) {
+                Object current = metaProperty.get(bean);
+                if (JodaBeanUtils.equal(current, change.getOldValue()) == false) {
+                    throw new IllegalArgumentException("Patch does not match bean, property '" + change.getPathName() +
+                            "' expected " + JodaBeanUtils.toString(change.getOldValue()) +
+                            " but was " + JodaBeanUtils.toString(current));
+                }
+                if (updates.containsKey(metaProperty) || nested.containsKey(metaProperty)) {
+                    throw new IllegalArgumentException("Patch contains conflicting changes: " + change.getPathName());
+                }
+                updates.put(metaProperty, change.getNewValue());
+            } else {
+                if (updates.containsKey(metaProperty)) {
+                    throw new IllegalArgumentException("Patch contains conflicting changes: " + change.getPathName());
+                }
+                List<PropertyChange> list = nested.get(metaProperty);
+                if (list == null) {
+                    list = new ArrayList<PropertyChange>();
+                    nested.put(metaProperty, list);
+                }
+                list.add(change);
+            }
+        }
+        // rebuild the nested beans
+        for (Entry<MetaProperty<?>, List<PropertyChange>> entry : nested.entrySet()) {
+            MetaProperty<?> metaProperty = entry.getKey();
+            Object current = metaProperty.get(bean);
+            if (current instanceof Bean == false) {
+                throw new IllegalArgumentException("Patch does not match bean, property '" +
+                        entry.getValue().get(0).getPathName() + "' is not within a bean");
+            }
+            updates.put(metaProperty, apply(entry.getValue(), depth + 1, (Bean) current));
+        }
+        return rebuild(bean, updates);
+    }
+
+    // rebuilds the bean, copying the properties that are not updated
+    @SuppressWarnings("unchecked")
+    private static <T extends Bean> T rebuild(T bean, Map<MetaProperty<?>, Object> updates) {
+        MetaBean metaBean = bean.metaBean();
+        BeanBuilder<? extends Bean> builder = metaBean.builder();
+        for (MetaProperty<?> metaProperty : metaBean.metaPropertyIterable()) {
+            if (updates.containsKey(metaProperty)) {
+                builder.set(metaProperty, updates.get(metaProperty));
+            } else if (metaProperty.style().isBuildable() && metaProperty.style().isReadable()) {
+                builder.set(metaProperty, metaProperty.get(bean));
+            }
+        }
+        return (T) builder.build();
+    }
+
+}
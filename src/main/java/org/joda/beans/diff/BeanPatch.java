@@ -0,0 +1,162 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.joda.beans.JodaBeanUtils;
+
+/**
+ * A patch, consisting of an ordered list of property changes.
+ * <p>
+ * A patch is normally created using {@link BeanDiff#diff} and applied using {@link BeanDiff#apply}.
+ * <p>
+ * This class is immutable and thread-safe, provided the values are immutable.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class BeanPatch implements Iterable<PropertyChange> {
+
+    /**
+     * An empty patch.
+     */
+    public static final BeanPatch EMPTY = new BeanPatch(Collections.<PropertyChange>emptyList());
+
+    /** The changes. */
+    private final List<PropertyChange> changes;
+
+    /**
+     * Obtains an instance from a list of changes.
+     * 
+     * @param changes  the changes, not null
+     * @return the patch, not null
+     */
+    public static BeanPatch of(List<PropertyChange> changes) {
+        JodaBeanUtils.notNull(changes, "changes");
+        if (changes.isEmpty()) {
+            return EMPTY;
+        }
+        List<PropertyChange> copy = new ArrayList<PropertyChange>(changes);
+        for (PropertyChange change : copy) {
+            JodaBeanUtils.notNull(change, "changes");
+        }
+        return new BeanPatch(Collections.unmodifiableList(copy));
+    }
+
+    /**
+     * Obtains an instance from an array of changes.
+     * 
+     * @param changes  the changes, not null
+     * @return the patch, not null
+     */
+    public static BeanPatch of(PropertyChange... changes) {
+        JodaBeanUtils.notNull(changes, "changes");
+        return of(Arrays.asList(changes));
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param changes  the changes, validated and unmodifiable
+     */
+    BeanPatch(List<PropertyChange> changes) {
+        this.changes = changes;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the changes.
+     * 
+     * @return the unmodifiable list of changes, not null
+     */
+    public List<PropertyChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Checks if the patch is empty.
+     * 
+     * @return true if there are no changes
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Gets the number of changes.
+     * 
+     * @return the number of changes
+     */
+    public int size() {
+        return changes.size();
+    }
+
+    @Override
+    public Iterator<PropertyChange> iterator() {
+        return changes.iterator();
+    }
+
+    /**
+     * Returns the patch that reverses this patch.
+     * <p>
+     * Applying the reversed patch to the result of applying this patch
+     * restores the original values.
+     * 
+     * @return the reversed patch, not null
+     */
+    public BeanPatch reverse() {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        List<PropertyChange> reversed = new ArrayList<PropertyChange>(changes.size());
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            reversed.add(changes.get(i).reverse());
+        }
+        return new BeanPatch(Collections.unmodifiableList(reversed));
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof BeanPatch) {
+            return changes.equals(((BeanPatch) obj).changes);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return changes.hashCode();
+    }
+
+    /**
+     * Returns a string that summarises the patch.
+     * 
+     * @return a summary string, not null
+     */
+    @Override
+    public String toString() {
+        return "BeanPatch" + changes;
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+
+/**
+ * A single change within a {@link BeanPatch}.
+ * <p>
+ * The change is identified by a path of meta-properties, starting at the root bean.
+ * A path with more than one element refers to a property of a nested bean.
+ * <p>
+ * This class is immutable and thread-safe, provided the values are immutable.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class PropertyChange {
+
+    /** The path of meta-properties from the root bean. */
+    private final List<MetaProperty<?>> path;
+    /** The old value. */
+    private final Object oldValue;
+    /** The new value. */
+    private final Object newValue;
+
+    /**
+     * Obtains an instance.
+     * 
+     * @param path  the path of meta-properties from the root bean, not empty
+     * @param oldValue  the old value, may be null
+     * @param newValue  the new value, may be null
+     * @return the change, not null
+     */
+    public static PropertyChange of(List<? extends MetaProperty<?>> path, Object oldValue, Object newValue) {
+        JodaBeanUtils.notEmpty(path, "path");
+        List<MetaProperty<?>> copy = new ArrayList<MetaProperty<?>>(path);
+        for (MetaProperty<?> metaProperty : copy) {
+            JodaBeanUtils.notNull(metaProperty, "path");
+        }
+        return new PropertyChange(Collections.unmodifiableList(copy), oldValue, newValue);
+    }
+
+    /**
+     * Obtains an instance for a property of the root bean.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @param oldValue  the old value, may be null
+     * @param newValue  the new value, may be null
+     * @return the change, not null
+     */
+    public static PropertyChange of(MetaProperty<?> metaProperty, Object oldValue, Object newValue) {
+        JodaBeanUtils.notNull(metaProperty, "metaProperty");
+        List<MetaProperty<?>> path = Collections.<MetaProperty<?>>singletonList(metaProperty);
+        return new PropertyChange(path, oldValue, newValue);
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param path  the path, validated and unmodifiable
+     * @param oldValue  the old value
+     * @param newValue  the new value
+     */
+    PropertyChange(List<MetaProperty<?>> path, Object oldValue, Object newValue) {
+        this.path = path;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the path of meta-properties from the root bean to the changed property.
+     * 
+     * @return the unmodifiable path, not empty
+     */
+    public List<MetaProperty<?>> getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the path as a string, such as 'address.street'.
+     * 
+     * @return the path of property names separated by dots, not null
+     */
+    public String getPathName() {
+        if (path.size() == 1) {
+            return path.get(0).name();
+        }
+        StringBuilder buf = new StringBuilder(32);
+        for (MetaProperty<?> metaProperty : path) {
+            if (buf.length() > 0) {
+                buf.append('.');
+            }
+            buf.append(metaProperty.name());
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Gets the meta-property that changed, which is the last element in the path.
+     * 
+     * @return the meta-property, not null
+     */
+    public MetaProperty<?> getMetaProperty() {
+        return path.get(path.size() - 1);
+    }
+
+    /**
+     * Gets the old value.
+     * 
+     * @return the old value, may be null
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Gets the new value.
+     * 
+     * @return the new value, may be null
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * Returns the change that reverses this change, swapping the old and new values.
+     * 
+     * @return the reversed change, not null
+     */
+    public PropertyChange reverse() {
+        return new PropertyChange(path, newValue, oldValue);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof PropertyChange) {
+            PropertyChange other = (PropertyChange) obj;
+            return path.equals(other.path) &&
+                    JodaBeanUtils.equal(oldValue, other.oldValue) &&
+                    JodaBeanUtils.equal(newValue, other.newValue);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = getClass().hashCode();
+        hash = hash * 31 + path.hashCode();
+        hash = hash * 31 + JodaBeanUtils.hashCode(oldValue);
+        hash = hash * 31 + JodaBeanUtils.hashCode(newValue);
+        return hash;
+    }
+
+    /**
+     * Returns a string that summarises the change.
+     * 
+     * @return a summary string, not null
+     */
+    @Override
+    public String toString() {
+        return getPathName() + ": " + JodaBeanUtils.toString(oldValue) + " -> " + JodaBeanUtils.toString(newValue);
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+/**
+ * Support for comparing two beans and applying the differences to another bean.
+ * <p>
+ * {@link org.joda.beans.diff.BeanDiff} compares two beans property by property,
+ * descending into nested beans, to produce a {@link org.joda.beans.diff.BeanPatch}.
+ * The patch can then be applied to a bean, rebuilding only the parts of the bean that changed.
+ */
+package org.joda.beans.diff;
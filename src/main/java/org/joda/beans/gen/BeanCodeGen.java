@@ -15,29 +15,73 @@
  */
 package org.joda.beans.gen;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBeanIndex;
 
 /**
  * Code generator for the beans.
  * <p>
  * This reads in a {@code .java} file, parses it, and writes out an updated version.
+ * <p>
+ * Files are processed in parallel, with messages output in file order.
+ * If a cache file is specified, the hash of the content of each file is stored in it,
+ * allowing files that are unchanged since the previous run to be skipped.
+ * <p>
+ * In watch mode, the generator runs until interrupted, regenerating each file as it changes.
  * 
  * @author Stephen Colebourne
  */
 public class BeanCodeGen {
 
+    /**
+     * The encoding of the files.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    /**
+     * The line separator, as written by the generator.
+     */
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+    /**
+     * The header of the cache file.
+     */
+    private static final String CACHE_HEADER = "# BeanCodeGen cache ";
+    /**
+     * The default interval between checks for changed files in watch mode.
+     */
+    private static final long DEFAULT_WATCH_MILLIS = 200;
+    /**
+     * The pattern matching the declaration of a class, interface or enum.
+     */
+    private static final Pattern TYPE_DECLARATION = Pattern.compile("(?:@?[A-Za-z]+ +)*(?:class|interface|enum) +([A-Za-z0-9_$]+).*");
+
     /**
      * Main method.
      * <p>
@@ -62,11 +106,21 @@ public class BeanCodeGen {
             System.out.println("    -config=[f]       config file: jdk6/guava', default guava");
             System.out.println("    -verbose=[v]      output logging with verbosity from 0 to 3, default 1");
             System.out.println("    -nowrite          output messages rather than writing, default is to write");
+            System.out.println("    -index=[f]        write the meta-bean index to file f, no default");
+            System.out.println("    -cache=[f]        skip files unchanged since the last run, using cache file f, no default");
+            System.out.println("    -threads=[n]      process files using n threads, default the number of processors");
+            System.out.println("    -watch            keep running, regenerating files as they change, default false");
+            System.out.println("    -watch=[ms]       keep running, checking for changed files every ms milliseconds");
             System.exit(0);
         }
         try {
-            int changed = gen.process();
-            System.out.println("Finished, found " + changed + " changed files");
+            if (gen.watchMillis > 0) {
+                // runs until the process is terminated
+                gen.watch(gen.watchRoot, gen.watchRecurse, gen.watchMillis);
+            } else {
+                int changed = gen.process();
+                System.out.println("Finished, found " + changed + " changed files");
+            }
             System.exit(0);
         } catch (Exception ex) {
             System.out.println();
@@ -93,6 +147,10 @@ public class BeanCodeGen {
         boolean recurse = false;
         int verbosity = 1;
         boolean write = true;
+        File indexFile = null;
+        File cacheFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long watchMillis = 0;
         File file = null;
         BeanGenConfig config = null;
         if (args.length == 0) {
@@ -123,6 +181,16 @@ public class BeanCodeGen {
                 verbosity = Integer.parseInt(arg.substring(3));
             } else if (arg.equals("-nowrite")) {
                 write = false;
+            } else if (arg.startsWith("-index=")) {
+                indexFile = new File(arg.substring(7));
+            } else if (arg.startsWith("-cache=")) {
+                cacheFile = new File(arg.substring(7));
+            } else if (arg.startsWith("-threads=")) {
+                threads = Integer.parseInt(arg.substring(9));
+            } else if (arg.equals("-watch")) {
+                watchMillis = DEFAULT_WATCH_MILLIS;
+            } else if (arg.startsWith("-watch=")) {
+                watchMillis = Long.parseLong(arg.substring(7));
             } else {
                 throw new IllegalArgumentException("Unknown argument: " + arg);
             }
@@ -135,7 +203,13 @@ public class BeanCodeGen {
         }
         config.setIndent(indent);
         config.setPrefix(prefix);
-        return new BeanCodeGen(files, config, verbosity, write);
+        BeanCodeGen gen = new BeanCodeGen(files, config, verbosity, write, indexFile);
+        gen.setThreads(threads);
+        gen.setCacheFile(cacheFile);
+        gen.watchRoot = file;
+        gen.watchRecurse = recurse;
+        gen.watchMillis = watchMillis;
+        return gen;
     }
 
     /**
@@ -179,6 +253,22 @@ public class BeanCodeGen {
     private final int verbosity;
     /** Whether to write or not. */
     private final boolean write;
+    /** The meta-bean index file, null if not writing an index. */
+    private final File indexFile;
+    /** The meta-bean index, bean class name to meta-bean holder class name. */
+    private final SortedMap<String, String> index = new TreeMap<String, String>();
+    /** The number of threads to use. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /** The cache file, null if not caching. */
+    private File cacheFile;
+    /** The state of each file from the last run, keyed by absolute path. */
+    private final SortedMap<String, CacheEntry> state = new TreeMap<String, CacheEntry>();
+    /** The root to watch, set from the command line. */
+    private File watchRoot;
+    /** Whether to watch recursively, set from the command line. */
+    private boolean watchRecurse;
+    /** The interval between checks in watch mode, zero if not watching, set from the command line. */
+    private long watchMillis;
 
     /**
      * Creates the generator for a single bean.
@@ -206,6 +296,7 @@ public class BeanCodeGen {
         config.setPrefix(prefix);
         this.verbosity = verbosity;
         this.write = write;
+        this.indexFile = null;
     }
 
     /**
@@ -219,6 +310,25 @@ public class BeanCodeGen {
      * @param write  whether to write or not
      */
     public BeanCodeGen(List<File> files, BeanGenConfig config, int verbosity, boolean write) {
+        this(files, config, verbosity, write, null);
+    }
+
+    /**
+     * Creates the generator for a single bean, also writing a meta-bean index.
+     * <p>
+     * To generate, use {@link #process()}.
+     * The index lists every bean found in the files, whether changed or not.
+     * An existing index is merged, replacing only the entries for the files processed,
+     * thus a run over some of the files retains the entries for the other beans.
+     * See {@link MetaBeanIndex}, which loads the index at runtime.
+     * 
+     * @param files  the files to process, not null
+     * @param config  the configuration to use, not null
+     * @param verbosity  the verbosity, from 0 to 3
+     * @param write  whether to write or not
+     * @param indexFile  the meta-bean index file to write, null to not write an index
+     */
+    public BeanCodeGen(List<File> files, BeanGenConfig config, int verbosity, boolean write, File indexFile) {
         JodaBeanUtils.notNull(files, "files");
         JodaBeanUtils.notNull(config, "config");
         if (verbosity < 0 || verbosity > 3) {
@@ -228,6 +338,34 @@ public class BeanCodeGen {
         this.config = config;
         this.verbosity = verbosity;
         this.write = write;
+        this.indexFile = indexFile;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sets the number of threads to process files with.
+     * <p>
+     * The default is the number of available processors.
+     * 
+     * @param threads  the number of threads, one or greater
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid threads: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the cache file, used to skip files that are unchanged since the last run.
+     * <p>
+     * The cache is ignored if the indent, prefix or configuration has changed.
+     * It is not written if the generator is not writing.
+     * 
+     * @param cacheFile  the cache file, null to not use a cache
+     */
+    public void setCacheFile(File cacheFile) {
+        this.cacheFile = cacheFile;
     }
 
     //-----------------------------------------------------------------------
@@ -239,11 +377,7 @@ public class BeanCodeGen {
      * @return the number of changed files
      */
     public int process() throws Exception {
-        int changed = 0;
-        for (File child : files) {
-            changed += (processFile(child) != null ? 1 : 0);
-        }
-        return changed;
+        return processFiles().size();
     }
 
     /**
@@ -254,24 +388,259 @@ public class BeanCodeGen {
      * @return the list of changed files, not null
      */
     public List<File> processFiles() throws Exception {
+        String cacheKey = cacheKey();
+        Map<String, CacheEntry> cache = readCache(cacheKey);
+        // merge with the cache, so that files not processed in this run are retained
+        state.clear();
+        for (Entry<String, CacheEntry> entry : cache.entrySet()) {
+            if (new File(entry.getKey()).isFile()) {
+                state.put(entry.getKey(), entry.getValue());
+            }
+        }
+        readIndex();
+        List<File> changed = processFiles(files, cache, null);
+        processIndex();
+        writeCache(cacheKey);
+        return changed;
+    }
+
+    /**
+     * Watches the files, regenerating each file as it changes.
+     * <p>
+     * The files passed to the constructor are processed first.
+     * The root is then checked for changes every interval until the thread is interrupted.
+     * The configuration and the state of each file are held in memory between changes,
+     * so only the added and modified files are parsed and generated.
+     * <p>
+     * A file is considered to be modified if its last modified time or length changes.
+     * An error in a file is output and the file skipped until it is next modified,
+     * while the other modified files are still processed.
+     * Any other error is output and watching continues.
+     * 
+     * @param root  the file or directory to watch, not null
+     * @param recurse  whether to watch the directory recursively
+     * @param pollMillis  the interval between checks for changes, in milliseconds, one or greater
+     * @throws InterruptedException when the thread is interrupted
+     */
+    public void watch(File root, boolean recurse, long pollMillis) throws Exception {
+        JodaBeanUtils.notNull(root, "root");
+        if (pollMillis < 1) {
+            throw new IllegalArgumentException("Invalid poll interval: " + pollMillis);
+        }
+        processFiles();
+        String cacheKey = cacheKey();
+        List<File> found = findFiles(root, recurse);
+        Map<File, List<Long>> stamps = stamps(found);
+        if (verbosity >= 1) {
+            System.out.println("Watching " + found.size() + " files in " + root);
+        }
+        while (true) {
+            Thread.sleep(pollMillis);
+            try {
+                found = findFiles(root, recurse);
+                Map<File, List<Long>> latest = stamps(found);
+                List<File> modified = new ArrayList<File>();
+                for (File file : found) {
+                    if (latest.get(file).equals(stamps.get(file)) == false) {
+                        modified.add(file);
+                    }
+                }
+                boolean removed = false;
+                for (File file : stamps.keySet()) {
+                    if (latest.containsKey(file) == false) {
+                        CacheEntry entry = state.remove(file.getAbsolutePath());
+                        if (entry != null) {
+                            if (entry.beanName != null) {
+                                index.remove(entry.beanName);
+                            }
+                            removed = true;
+                        }
+                    }
+                }
+                if (modified.isEmpty() && removed == false) {
+                    continue;
+                }
+                // the stamps were taken before reading, so edits made during generation are seen next time
+                stamps = latest;
+                Map<File, BeanCodeGenException> failures = new LinkedHashMap<File, BeanCodeGenException>();
+                List<File> changed = processFiles(modified, state, failures);
+                // files written by the generator have changed again
+                if (write) {
+                    stamps.putAll(stamps(changed));
+                }
+                processIndex();
+                writeCache(cacheKey);
+            } catch (IOException ex) {
+                System.out.println("Error updating index or cache: " + ex.getMessage());
+            } catch (RuntimeException ex) {
+                // an unexpected error must not stop watching, the files are processed again when next modified
+                System.out.println("Error processing changed files: " + ex);
+            }
+        }
+    }
+
+    /**
+     * Processes the specified files, updating the state and meta-bean index.
+     * <p>
+     * If failures are not being collected, the generated files are only written
+     * once every file has been processed successfully.
+     * If they are being collected, a file that fails is skipped and the others are written.
+     * 
+     * @param toProcess  the files to process, not null
+     * @param cache  the cache, not null
+     * @param failures  the map to add failures to, null to throw the first failure
+     * @return the list of changed files, not null
+     */
+    private List<File> processFiles(
+            List<File> toProcess,
+            Map<String, CacheEntry> cache,
+            Map<File, BeanCodeGenException> failures) throws Exception {
+
+        long start = System.nanoTime();
+        List<FileResult> results = processAll(toProcess, cache, failures);
         List<File> changed = new ArrayList<File>();
-        for (File child : files) {
-            File file = processFile(child);
-            if (file != null) {
-                changed.add(file);
+        int skipped = 0;
+        for (FileResult result : results) {
+            if (result.updated != null) {
+                try {
+                    writeFileAtomic(result.file, result.updated);
+                } catch (IOException ex) {
+                    if (failures == null) {
+                        throw new BeanCodeGenException("Unable to write file, " + changed.size() +
+                                " other files were already written: " + ex.getMessage(), ex, result.file);
+                    }
+                    failures.put(result.file, new BeanCodeGenException("Unable to write file: " + ex.getMessage(), ex, result.file));
+                    continue;
+                }
+            }
+            if (result.message != null) {
+                System.out.println(result.message);
+            }
+            if (result.changed) {
+                changed.add(result.file);
+            }
+            if (result.skipped) {
+                skipped++;
+            }
+            // replace any index entries previously obtained from this file
+            CacheEntry previous = state.put(result.file.getAbsolutePath(), result.entry);
+            if (previous != null && previous.beanName != null) {
+                index.remove(previous.beanName);
+            }
+            if (result.declaredName != null) {
+                index.remove(result.declaredName);
+            }
+            if (result.entry.beanName != null) {
+                index.put(result.entry.beanName, result.entry.metaName);
+            }
+        }
+        if (failures != null) {
+            for (BeanCodeGenException ex : failures.values()) {
+                System.out.println(ex.getMessage());
             }
         }
+        if (verbosity >= 1) {
+            long millis = (System.nanoTime() - start) / 1000000;
+            System.out.println("Processed " + results.size() + " files in " + millis + "ms using " + threads +
+                    " threads, " + (results.size() - skipped) + " parsed, " + skipped + " unchanged since last run, " +
+                    changed.size() + " changed");
+        }
         return changed;
     }
 
+    private static Map<File, List<Long>> stamps(List<File> files) {
+        Map<File, List<Long>> stamps = new HashMap<File, List<Long>>();
+        for (File file : files) {
+            stamps.put(file, Arrays.asList(file.lastModified(), file.length()));
+        }
+        return stamps;
+    }
+
+    /**
+     * Processes all the files, using multiple threads if configured.
+     * <p>
+     * No files are written, allowing the caller to write them once all have succeeded.
+     * 
+     * @param toProcess  the files to process, not null
+     * @param cache  the cache, not null
+     * @param failures  the map to add failures to, null to throw the first failure
+     * @return the results in file order, excluding failures, not null
+     */
+    private List<FileResult> processAll(
+            List<File> toProcess,
+            final Map<String, CacheEntry> cache,
+            Map<File, BeanCodeGenException> failures) throws Exception {
+
+        List<FileResult> results = new ArrayList<FileResult>(toProcess.size());
+        if (threads == 1 || toProcess.size() <= 1) {
+            for (File file : toProcess) {
+                try {
+                    results.add(processFile(file, cache));
+                } catch (Exception ex) {
+                    failure(file, ex, failures);
+                }
+            }
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, toProcess.size()));
+        try {
+            List<Future<FileResult>> futures = new ArrayList<Future<FileResult>>(toProcess.size());
+            for (final File file : toProcess) {
+                futures.add(executor.submit(new Callable<FileResult>() {
+                    @Override
+                    public FileResult call() throws Exception {
+                        return processFile(file, cache);
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof Exception) {
+                        failure(toProcess.get(i), (Exception) ex.getCause(), failures);
+                    } else {
+                        throw ex;
+                    }
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // adds the failure to the map, or throws it if failures are not being collected
+    private static void failure(File file, Exception ex, Map<File, BeanCodeGenException> failures) throws Exception {
+        if (failures == null) {
+            throw ex;
+        }
+        if (ex instanceof BeanCodeGenException) {
+            failures.put(file, (BeanCodeGenException) ex);
+        } else {
+            failures.put(file, new BeanCodeGenException(ex.toString(), ex, file));
+        }
+    }
+
     /**
      * Processes the bean, generating the code.
+     * <p>
+     * This is invoked in parallel, so must not alter the state of this class.
+     * Any updated content is returned in the result rather than written.
      * 
      * @param file  the file to process, not null
-     * @return not-null if changed
+     * @param cache  the cache, not null
+     * @return the result, not null
      */
-    private File processFile(File file) throws Exception {
-        List<String> original = readFile(file);
+    private FileResult processFile(File file, Map<String, CacheEntry> cache) throws Exception {
+        byte[] bytes = readBytes(file);
+        String hash = hash(bytes);
+        CacheEntry cached = cache.get(file.getAbsolutePath());
+        if (cached != null && hash.equals(cached.hash)) {
+            return new FileResult(file, false, true, cached, cached.beanName, null, verbosity == 3 ? file + "  [unchanged since last run]" : null);
+        }
+        List<String> original = toLines(bytes);
+        String declaredName = declaredName(file, original);
         List<String> content = new ArrayList<String>(original);
         BeanGen gen;
         try {
@@ -283,62 +652,376 @@ public class BeanCodeGen {
             throw new BeanCodeGenException(ex.getMessage(), ex, file);
         }
         if (gen.isBean()) {
-            if (verbosity >= 2) {
-                System.out.print(file + "  [processing]");
-            }
+            String message = (verbosity >= 2 ? file + "  [processing]" : null);
+            String beanName = beanName(gen, original);
+            String metaName = gen.getData().isBeanStyleLight() ? "" : beanName + "$Meta";
             gen.process();
             if (content.equals(original) == false) {
+                CacheEntry entry;
+                byte[] updated = null;
                 if (write) {
                     if (verbosity >= 2) {
-                        System.out.println(" [writing]");
+                        message += " [writing]";
                     } else if (verbosity == 1) {
-                        System.out.println(file + "  [writing]");
+                        message = file + "  [writing]";
                     }
-                    writeFile(file, content);
+                    updated = toBytes(content);
+                    entry = new CacheEntry(hash(updated), beanName, metaName);
                 } else {
                     if (verbosity >= 2) {
-                        System.out.println(" [changed not written]");
+                        message += " [changed not written]";
                     } else if (verbosity == 1) {
-                        System.out.println(file + "  [changed not written]");
+                        message = file + "  [changed not written]";
                     }
+                    // the file on disk is out of date, so not cacheable, but must still be indexed
+                    entry = new CacheEntry(null, beanName, metaName);
                 }
-                return file;
+                return new FileResult(file, true, false, entry, declaredName, updated, message);
             } else {
                 if (verbosity >= 2) {
-                    System.out.println(" [no change]");
+                    message += " [no change]";
                 }
+                return new FileResult(file, false, false, new CacheEntry(hash, beanName, metaName), declaredName, null, message);
             }
         } else {
-            if (verbosity == 3) {
-                System.out.println(file + "  [ignored]");
+            String message = (verbosity == 3 ? file + "  [ignored]" : null);
+            return new FileResult(file, false, false, new CacheEntry(hash, null, null), declaredName, null, message);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains the fully qualified name of the bean for the meta-bean index.
+     * <p>
+     * The name is in the form returned by {@link Class#getName()}, thus a nested bean
+     * is named using the chain of enclosing classes, such as {@code Outer$Inner}.
+     * 
+     * @param gen  the bean generator, not null
+     * @param content  the content of the file, not null
+     * @return the bean name, not null
+     */
+    private static String beanName(BeanGen gen, List<String> content) {
+        StringBuilder buf = new StringBuilder(packagePrefix(content));
+        for (String enclosing : enclosingClasses(content)) {
+            buf.append(enclosing).append('$');
+        }
+        return buf.append(gen.getData().getTypeRaw()).toString();
+    }
+
+    // finds the classes enclosing the bean definition, outermost first, by matching braces
+    private static List<String> enclosingClasses(List<String> content) {
+        // the name of the class that each open brace belongs to, null if not a class
+        List<String> open = new ArrayList<String>();
+        String declared = null;
+        for (String line : content) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("@BeanDefinition")) {
+                break;
+            }
+            if (trimmed.startsWith("//") || trimmed.startsWith("/*") || trimmed.startsWith("*")) {
+                continue;
+            }
+            Matcher matcher = TYPE_DECLARATION.matcher(trimmed);
+            if (matcher.matches()) {
+                declared = matcher.group(1);
+            }
+            for (int i = 0; i < trimmed.length(); i++) {
+                char ch = trimmed.charAt(i);
+                if (ch == '{') {
+                    open.add(declared);
+                    declared = null;
+                } else if (ch == '}' && open.isEmpty() == false) {
+                    open.remove(open.size() - 1);
+                }
+            }
+        }
+        List<String> enclosing = new ArrayList<String>();
+        for (String name : open) {
+            if (name != null) {
+                enclosing.add(name);
+            }
+        }
+        return enclosing;
+    }
+
+    /**
+     * Obtains the fully qualified name of the top-level class that the file name declares.
+     * <p>
+     * This is used to remove the index entry of a file that is no longer a bean.
+     * 
+     * @param file  the file, not null
+     * @param content  the content of the file, not null
+     * @return the class name, not null
+     */
+    private static String declaredName(File file, List<String> content) {
+        String name = file.getName();
+        if (name.endsWith(".java")) {
+            name = name.substring(0, name.length() - 5);
+        }
+        return packagePrefix(content) + name;
+    }
+
+    private static String packagePrefix(List<String> content) {
+        for (String line : content) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("package ") && trimmed.indexOf(';') > 8) {
+                return trimmed.substring(8, trimmed.indexOf(';')).trim() + ".";
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Reads the existing meta-bean index, so that it can be merged.
+     */
+    private void readIndex() throws Exception {
+        index.clear();
+        if (indexFile == null || indexFile.exists() == false) {
+            return;
+        }
+        for (String line : toLines(readBytes(indexFile))) {
+            String trimmed = line.trim();
+            int pos = trimmed.indexOf('=');
+            if (trimmed.startsWith("#") == false && pos > 0) {
+                index.put(trimmed.substring(0, pos).trim(), trimmed.substring(pos + 1).trim());
+            }
+        }
+    }
+
+    /**
+     * Writes the meta-bean index if it has changed.
+     */
+    private void processIndex() throws Exception {
+        if (indexFile == null) {
+            return;
+        }
+        List<String> content = new ArrayList<String>();
+        content.add("# Meta-bean index, generated by BeanCodeGen");
+        for (Entry<String, String> entry : index.entrySet()) {
+            content.add(entry.getKey() + "=" + entry.getValue());
+        }
+        if (indexFile.exists() && toLines(readBytes(indexFile)).equals(content)) {
+            return;
+        }
+        if (write) {
+            if (verbosity >= 1) {
+                System.out.println(indexFile + "  [writing index]");
+            }
+            File parent = indexFile.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            writeFileAtomic(indexFile, toBytes(content));
+        } else if (verbosity >= 1) {
+            System.out.println(indexFile + "  [index changed not written]");
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains the key that the cache is valid for.
+     * <p>
+     * This is a hash of the indent, prefix and configuration.
+     * 
+     * @return the key, not null
+     */
+    private String cacheKey() {
+        StringBuilder buf = new StringBuilder();
+        buf.append(BeanCodeGen.class.getPackage().getImplementationVersion()).append('\n');
+        buf.append(config.getIndent()).append('\n');
+        buf.append(config.getPrefix()).append('\n');
+        buf.append(new TreeMap<String, CopyGen>(config.getCopyGenerators()).keySet()).append('\n');
+        buf.append(new TreeMap<String, BuilderGen>(config.getBuilderGenerators()).keySet()).append('\n');
+        buf.append(new TreeMap<String, String>(config.getBuilderTypes())).append('\n');
+        buf.append(new TreeMap<String, String>(config.getImmutableVarArgs())).append('\n');
+        buf.append(new TreeMap<String, String>(config.getImmutableGetClones())).append('\n');
+        buf.append(new TreeSet<String>(config.getInvalidImmutableTypes()));
+        return hash(buf.toString().getBytes(UTF8));
+    }
+
+    /**
+     * Reads the cache, returning an empty cache if the file is missing or for a different key.
+     * <p>
+     * Each line of the cache file is the file path, hash, bean name and meta-bean holder name,
+     * separated by tabs, where the bean names are absent if the file is not a bean.
+     * 
+     * @param cacheKey  the cache key, not null
+     * @return the cache, keyed by absolute file path, not null
+     */
+    private Map<String, CacheEntry> readCache(String cacheKey) throws Exception {
+        Map<String, CacheEntry> cache = new HashMap<String, CacheEntry>();
+        if (cacheFile == null || cacheFile.exists() == false) {
+            return cache;
+        }
+        List<String> lines = toLines(readBytes(cacheFile));
+        if (lines.isEmpty() || lines.get(0).equals(CACHE_HEADER + cacheKey) == false) {
+            return cache;
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            String[] split = line.split("\t", -1);
+            if (split.length == 2) {
+                cache.put(split[0], new CacheEntry(split[1], null, null));
+            } else if (split.length == 4) {
+                cache.put(split[0], new CacheEntry(split[1], split[2], split[3]));
             }
         }
-        return null;
+        return cache;
+    }
+
+    /**
+     * Writes the state of each file to the cache.
+     * 
+     * @param cacheKey  the cache key, not null
+     */
+    private void writeCache(String cacheKey) throws Exception {
+        if (cacheFile == null || write == false) {
+            return;
+        }
+        List<String> content = new ArrayList<String>(state.size() + 1);
+        content.add(CACHE_HEADER + cacheKey);
+        for (Entry<String, CacheEntry> entry : state.entrySet()) {
+            CacheEntry value = entry.getValue();
+            if (value.hash != null) {
+                if (value.beanName != null) {
+                    content.add(entry.getKey() + "\t" + value.hash + "\t" + value.beanName + "\t" + value.metaName);
+                } else {
+                    content.add(entry.getKey() + "\t" + value.hash);
+                }
+            }
+        }
+        File parent = cacheFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        writeFileAtomic(cacheFile, toBytes(content));
     }
 
     //-----------------------------------------------------------------------
-    private List<String> readFile(File file) throws Exception {
-        List<String> content = new ArrayList<String>(100);
-        BufferedReader is = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+    private static byte[] readBytes(File file) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream((int) Math.min(file.length() + 1, Integer.MAX_VALUE));
+        InputStream in = new FileInputStream(file);
         try {
-            String line;
-            while ((line = is.readLine()) != null) {
-                content.add(line);
+            byte[] buf = new byte[8192];
+            int count;
+            while ((count = in.read(buf)) >= 0) {
+                baos.write(buf, 0, count);
             }
-            return content;
+            return baos.toByteArray();
         } finally {
-            is.close();
+            in.close();
         }
     }
 
-    private void writeFile(File file, List<String> content) throws Exception {
-        PrintWriter os = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8")));
+    // splits the content into lines in the same way as BufferedReader
+    private static List<String> toLines(byte[] bytes) {
+        String text = new String(bytes, UTF8);
+        List<String> content = new ArrayList<String>(text.length() / 40 + 1);
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            if (ch == '\n' || ch == '\r') {
+                content.add(text.substring(start, i));
+                if (ch == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            content.add(text.substring(start));
+        }
+        return content;
+    }
+
+    private static byte[] toBytes(List<String> content) {
+        StringBuilder buf = new StringBuilder(content.size() * 40);
+        for (String line : content) {
+            buf.append(line).append(LINE_SEPARATOR);
+        }
+        return buf.toString().getBytes(UTF8);
+    }
+
+    private static String hash(byte[] bytes) {
         try {
-            for (String line : content) {
-                os.println(line);
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            StringBuilder buf = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                buf.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return buf.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // writes to a temporary file in the same directory, then renames it over the target
+    // the prefix is fixed as createTempFile rejects prefixes shorter than three characters
+    private static void writeFileAtomic(File file, byte[] bytes) throws IOException {
+        File target = file.getAbsoluteFile();
+        File temp = File.createTempFile("beancodegen", ".tmp", target.getParentFile());
+        try {
+            OutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(bytes);
+            } finally {
+                out.close();
+            }
+            // rename does not replace an existing file on some platforms
+            if (temp.renameTo(target) == false && (target.delete() == false || temp.renameTo(target) == false)) {
+                throw new IOException("Unable to replace file: " + target);
             }
         } finally {
-            os.close();
+            temp.delete();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The cached state of a file.
+     */
+    private static final class CacheEntry {
+        /** The hash of the file content, null if not cacheable. */
+        private final String hash;
+        /** The bean name, null if not a bean. */
+        private final String beanName;
+        /** The meta-bean holder name, null if not a bean. */
+        private final String metaName;
+
+        CacheEntry(String hash, String beanName, String metaName) {
+            this.hash = hash;
+            this.beanName = beanName;
+            this.metaName = metaName;
+        }
+    }
+
+    /**
+     * The result of processing a file.
+     */
+    private static final class FileResult {
+        /** The file. */
+        private final File file;
+        /** Whether the file changed. */
+        private final boolean changed;
+        /** Whether the file was skipped as unchanged since the last run. */
+        private final boolean skipped;
+        /** The cache entry, not null. */
+        private final CacheEntry entry;
+        /** The name of the class declared by the file, null if not known. */
+        private final String declaredName;
+        /** The updated content to write, null if none. */
+        private final byte[] updated;
+        /** The message to output, null if none. */
+        private final String message;
+
+        FileResult(File file, boolean changed, boolean skipped, CacheEntry entry, String declaredName, byte[] updated, String message) {
+            this.file = file;
+            this.changed = changed;
+            this.skipped = skipped;
+            this.entry = entry;
+            this.declaredName = declaredName;
+            this.updated = updated;
+            this.message = message;
         }
     }
 
@@ -43,6 +43,10 @@ class BeanData {
     private String factoryName;
     /** Whether to cache the hash code. */
     private boolean cacheHashCode;
+    /** Whether to generate 'with' methods. */
+    private boolean withMethods;
+    /** Whether to generate a binary serializer. */
+    private boolean binSerializer;
     /** Whether the class is immutable. */
     private boolean immutable;
     /** Whether the class can be constructed. */
@@ -347,6 +351,40 @@ class BeanData {
         this.cacheHashCode = cacheHashCode;
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Gets whether to generate 'with' methods.
+     * @return the flag
+     */
+    public boolean isWithMethods() {
+        return withMethods;
+    }
+
+    /**
+     * Sets whether to generate 'with' methods.
+     * @param withMethods  the flag
+     */
+    public void setWithMethods(boolean withMethods) {
+        this.withMethods = withMethods;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets whether to generate a binary serializer.
+     * @return the flag
+     */
+    public boolean isBinSerializer() {
+        return binSerializer;
+    }
+
+    /**
+     * Sets whether to generate a binary serializer.
+     * @param binSerializer  the flag
+     */
+    public void setBinSerializer(boolean binSerializer) {
+        this.binSerializer = binSerializer;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Gets whether property change support is needed.
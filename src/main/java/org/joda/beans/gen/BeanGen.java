@@ -18,7 +18,9 @@ package org.joda.beans.gen;
 import java.beans.ConstructorProperties;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
@@ -41,6 +43,9 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 import org.joda.beans.impl.light.LightMetaBean;
+import org.joda.beans.ser.bin.BinBeanInput;
+import org.joda.beans.ser.bin.BinBeanOutput;
+import org.joda.beans.ser.bin.BinBeanSerializer;
 
 /**
  * Code generator for a bean.
@@ -70,6 +75,18 @@ class BeanGen {
         PRIMITIVE_EQUALS.add("long");
         // not float or double, as Double.equals is not the same as double ==
     }
+    /** Types read and written directly by generated binary serializers. */
+    private static final Map<String, String> BIN_TYPES = new HashMap<String, String>();
+    static {
+        BIN_TYPES.put("String", "String");
+        BIN_TYPES.put("int", "Int");
+        BIN_TYPES.put("long", "Long");
+        BIN_TYPES.put("short", "Short");
+        BIN_TYPES.put("byte", "Byte");
+        BIN_TYPES.put("double", "Double");
+        BIN_TYPES.put("float", "Float");
+        BIN_TYPES.put("boolean", "Boolean");
+    }
 
     /** The content to process. */
     private final File file;
@@ -140,12 +157,14 @@ class BeanGen {
             generateImmutableBuilderMethod();
             generateArgBasedConstructor();
             generateBuilderBasedConstructor();
+            generateSharingConstructor();
             generateMetaBean();
             generatePropertyByName();
             generatePropertyNames();
             generateGettersSetters();
             generateSeparator();
             generateImmutableToBuilder();
+            generateWithMethods();
             generateClone();
             generateEquals();
             generateHashCode();
@@ -392,6 +411,41 @@ class BeanGen {
         }
     }
 
+    private void generateSharingConstructor() {
+        if (data.isWithMethods() == false) {
+            return;
+        }
+        List<PropertyGen> nonDerived = nonDerivedProperties();
+        if (nonDerived.size() == 0) {
+            return;
+        }
+        insertRegion.add("\t/**");
+        insertRegion.add("\t * Restricted constructor used by the 'with' methods.");
+        insertRegion.add("\t * The new value has already been copied and validated, the other values are shared.");
+        insertRegion.add("\t * @param base  the bean to share the unchanged values of, not null");
+        insertRegion.add("\t * @param changed  the index of the changed property");
+        insertRegion.add("\t * @param value  the new value of the changed property");
+        insertRegion.add("\t */");
+        boolean unchecked = data.isTypeGeneric();
+        for (PropertyGen prop : nonDerived) {
+            unchecked |= prop.getData().getFieldType().contains("<");
+        }
+        if (unchecked) {
+            insertRegion.add("\t@SuppressWarnings(\"unchecked\")");
+        }
+        insertRegion.add("\tprivate " + data.getTypeRaw() + "(" + data.getTypeNoExtends() + " base, int changed, Object value) {");
+        for (int i = 0; i < nonDerived.size(); i++) {
+            PropertyData prop = nonDerived.get(i).getData();
+            String cast = PropertyGen.propertyType(prop.getFieldType());
+            insertRegion.add("\t\tthis." + prop.getFieldName() + " = (changed == " + i + " ? (" + cast + ") value : base." + prop.getFieldName() + ");");
+        }
+        if (data.getImmutableValidator() != null) {
+            insertRegion.add("\t\t" + data.getImmutableValidator() + "();");
+        }
+        insertRegion.add("\t}");
+        insertRegion.add("");
+    }
+
     //-----------------------------------------------------------------------
     private void generateMeta() {
         if (data.isBeanStyleLight()) {
@@ -617,6 +671,56 @@ class BeanGen {
         }
     }
 
+    private void generateWithMethods() {
+        if (data.isWithMethods() == false) {
+            return;
+        }
+        List<PropertyGen> nonDerived = nonDerivedProperties();
+        for (PropertyGen changed : nonDerived) {
+            PropertyData prop = changed.getData();
+            String name = prop.getPropertyName();
+            String field = "this." + prop.getFieldName();
+            insertRegion.add("\t/**");
+            insertRegion.add("\t * Returns a copy of this bean with the {@code " + name + "} property changed.");
+            insertRegion.add("\t * <p>");
+            insertRegion.add("\t * Only the new value is copied and validated, the other values are shared with this bean.");
+            insertRegion.add("\t * @param " + name + "  the new value of the property" + prop.getNotNullJavadoc());
+            insertRegion.add("\t * @return a bean with the new value, this bean if the value is unchanged, not null");
+            insertRegion.add("\t */");
+            insertRegion.add("\tpublic " + data.getTypeNoExtends() + " with" + prop.getUpperName() + "(" + changed.getBuilderType() + " " + name + ") {");
+            String fieldType = prop.getFieldType();
+            if (fieldType.equals("double") || fieldType.equals("float")) {
+                data.ensureImport(JodaBeanUtils.class);
+                insertRegion.add("\t\tif (JodaBeanUtils.equal(" + field + ", " + name + ")) {");
+            } else {
+                insertRegion.add("\t\tif (" + field + " == " + name + ") {");
+            }
+            insertRegion.add("\t\t\treturn this;");
+            insertRegion.add("\t\t}");
+            if (prop.isValidated()) {
+                insertRegion.add("\t\t" + prop.getValidationMethodName() + "(" + name + ", \"" + name + "\");");
+            }
+            // copy the new value using the same code as the constructor
+            String newValue = name;
+            List<String> copy = changed.generateConstructorAssign("");
+            String plainAssign = "\t\t" + field + " = " + name + ";";
+            if (copy.size() > 0 && (copy.size() > 1 || copy.get(0).equals(plainAssign) == false)) {
+                newValue = name + "Copy";
+                if (copy.size() == 1 && copy.get(0).startsWith("\t\t" + field + " = ")) {
+                    insertRegion.add("\t\t" + fieldType + " " + newValue + " = " + copy.get(0).substring(field.length() + 5));
+                } else {
+                    insertRegion.add("\t\t" + fieldType + " " + newValue + ";");
+                    for (String line : copy) {
+                        insertRegion.add(line.replace(field, newValue));
+                    }
+                }
+            }
+            insertRegion.add("\t\treturn new " + data.getTypeNoExtends() + "(this, " + nonDerived.indexOf(changed) + ", " + newValue + ");");
+            insertRegion.add("\t}");
+            insertRegion.add("");
+        }
+    }
+
     private void generateClone() {
         if (data.isSkipCloneGeneration() ||
                 data.isManualClone() ||
@@ -827,6 +931,10 @@ class BeanGen {
         if (data.isTypeGeneric()) {
             insertRegion.add("\t" + data.getEffectiveMetaScope() + "static " + finalType + 
                     "class Meta" + data.getTypeGeneric(true) + " extends " + superMeta + " {");
+        } else if (data.isBinSerializer()) {
+            data.ensureImport(BinBeanSerializer.class);
+            insertRegion.add("\t" + data.getEffectiveMetaScope() + "static " + finalType + 
+                    "class Meta extends " + superMeta + " implements BinBeanSerializer<" + data.getTypeRaw() + "> {");
         } else {
             insertRegion.add("\t" + data.getEffectiveMetaScope() + "static " + finalType + 
                     "class Meta extends " + superMeta + " {");
@@ -841,6 +949,7 @@ class BeanGen {
         insertRegion.add("");
         generateMetaPropertyConstants();
         generateMetaPropertyMapSetup();
+        generateMetaBinNames();
         insertRegion.add("\t\t/**");
         insertRegion.add("\t\t * Restricted constructor.");
         insertRegion.add("\t\t */");
@@ -857,6 +966,7 @@ class BeanGen {
         generateMetaGetPropertyValue();
         generateMetaSetPropertyValue();
         generateMetaValidate();
+        generateMetaBinSerializer();
         insertRegion.add("\t}");
         insertRegion.add("");
     }
@@ -1045,6 +1155,116 @@ class BeanGen {
         insertRegion.add("");
     }
 
+    private void generateMetaBinNames() {
+        if (data.isBinSerializer() == false) {
+            return;
+        }
+        List<PropertyGen> nonDerived = nonDerivedProperties();
+        data.ensureImport(BinBeanOutput.class);
+        insertRegion.add("\t\t/**");
+        insertRegion.add("\t\t * The encoded names of the serialized properties.");
+        insertRegion.add("\t\t */");
+        insertRegion.add("\t\tprivate final byte[][] " + config.getPrefix() + "binNames$ = BinBeanOutput.encodeNames(" + (nonDerived.size() == 0 ? ");" : ""));
+        for (int i = 0; i < nonDerived.size(); i++) {
+            String line = "\t\t\t\t\"" + nonDerived.get(i).getData().getPropertyName() + "\"";
+            line += (i + 1 == nonDerived.size() ? ");" : ",");
+            insertRegion.add(line);
+        }
+        insertRegion.add("");
+    }
+
+    private void generateMetaBinSerializer() {
+        if (data.isBinSerializer() == false) {
+            return;
+        }
+        data.ensureImport(IOException.class);
+        data.ensureImport(BinBeanInput.class);
+        List<PropertyGen> nonDerived = nonDerivedProperties();
+        String type = data.getTypeRaw();
+        String binNames = config.getPrefix() + "binNames$";
+        generateIndentedSeparator();
+        insertRegion.add("\t\t@Override");
+        insertRegion.add("\t\tpublic Class<" + type + "> binBeanType() {");
+        insertRegion.add("\t\t\treturn " + type + ".class;");
+        insertRegion.add("\t\t}");
+        insertRegion.add("");
+        // primitives are always written, other values only if not null
+        List<String> sizeLines = new ArrayList<String>();
+        List<String> writeLines = new ArrayList<String>();
+        int primitives = 0;
+        insertRegion.add("\t\t@Override");
+        insertRegion.add("\t\tpublic void writeBin(" + type + " bean, BinBeanOutput out) throws IOException {");
+        for (int i = 0; i < nonDerived.size(); i++) {
+            PropertyData prop = nonDerived.get(i).getData();
+            String binType = binType(prop);
+            String writeName = "out.writeName(" + binNames + "[" + i + "]);";
+            if (binType == null) {
+                String value = prop.getPropertyName() + "$";
+                insertRegion.add("\t\t\tObject " + value + " = out.extractValue(this." + prop.getMetaFieldName() + ", bean);");
+                sizeLines.add("\t\t\tsize += (" + value + " != null ? 1 : 0);");
+                writeLines.add("\t\t\tif (" + value + " != null) {");
+                writeLines.add("\t\t\t\t" + writeName);
+                writeLines.add("\t\t\t\tout.writeProperty(this." + prop.getMetaFieldName() + ", " + value + ");");
+                writeLines.add("\t\t\t}");
+            } else if (binType.equals("String")) {
+                String value = "bean." + prop.getFieldName();
+                sizeLines.add("\t\t\tsize += (" + value + " != null ? 1 : 0);");
+                writeLines.add("\t\t\tif (" + value + " != null) {");
+                writeLines.add("\t\t\t\t" + writeName);
+                writeLines.add("\t\t\t\tout.writeString(" + value + ");");
+                writeLines.add("\t\t\t}");
+            } else {
+                primitives++;
+                String method = (binType.equals("Short") || binType.equals("Byte") ? "Int" : binType);
+                writeLines.add("\t\t\t" + writeName);
+                writeLines.add("\t\t\tout.write" + method + "(bean." + prop.getFieldName() + ");");
+            }
+        }
+        insertRegion.add("\t\t\tint size = " + primitives + ";");
+        insertRegion.addAll(sizeLines);
+        insertRegion.add("\t\t\tout.writeBeanHeader(size);");
+        insertRegion.addAll(writeLines);
+        insertRegion.add("\t\t}");
+        insertRegion.add("");
+        // the index of the last property is the hint for the next, matching data in property order first time
+        insertRegion.add("\t\t@Override");
+        insertRegion.add("\t\tpublic " + type + " readBin(BinBeanInput in, int propertyCount) throws Exception {");
+        insertRegion.add("\t\t\t" + type + ".Builder builder = new " + type + ".Builder();");
+        insertRegion.add("\t\t\tint index = -1;");
+        insertRegion.add("\t\t\tfor (int i = 0; i < propertyCount; i++) {");
+        insertRegion.add("\t\t\t\tindex = in.readName(" + binNames + ", index + 1);");
+        insertRegion.add("\t\t\t\tswitch (index) {");
+        for (int i = 0; i < nonDerived.size(); i++) {
+            PropertyData prop = nonDerived.get(i).getData();
+            String binType = binType(prop);
+            String metaField = "this." + prop.getMetaFieldName();
+            insertRegion.add("\t\t\t\t\tcase " + i + ":  // " + prop.getPropertyName());
+            if (binType == null) {
+                insertRegion.add("\t\t\t\t\t\tbuilder.set(" + metaField + ", in.readProperty(" + metaField + "));");
+            } else {
+                insertRegion.add("\t\t\t\t\t\tbuilder." + prop.getFieldName() + " = in.read" + binType + "(" + metaField + ");");
+            }
+            insertRegion.add("\t\t\t\t\t\tbreak;");
+        }
+        insertRegion.add("\t\t\t\t\tdefault:");
+        insertRegion.add("\t\t\t\t\t\tin.readOther(this, builder);");
+        insertRegion.add("\t\t\t\t\t\tbreak;");
+        insertRegion.add("\t\t\t\t}");
+        insertRegion.add("\t\t\t}");
+        insertRegion.add("\t\t\treturn builder.build();");
+        insertRegion.add("\t\t}");
+        insertRegion.add("");
+    }
+
+    // the suffix of the read and write methods for types handled directly, null to use the meta-property
+    private static String binType(PropertyData prop) {
+        String getStyle = prop.getGetStyle();
+        if (getStyle.equals("manual") || getStyle.startsWith("optional") || prop.getType().equals(prop.getBuilderType()) == false) {
+            return null;
+        }
+        return BIN_TYPES.get(prop.getType());
+    }
+
     //-----------------------------------------------------------------------
     private void generateBuilderClass() {
         if ((data.isMutable() && data.isBuilderScopeVisible() == false) || data.isBeanStyleLight()) {
@@ -88,6 +88,10 @@ class BeanParser {
     private static final Pattern HIERARCHY_PATTERN = Pattern.compile(".*[ ,(]hierarchy[ ]*[=][ ]*[\"]([a-zA-Z]*)[\"].*");
     /** The cacheHashCode pattern. */
     private static final Pattern CACHE_HASH_CODE_PATTERN = Pattern.compile(".*[ ,(]cacheHashCode[ ]*[=][ ]*(true|false).*");
+    /** The withMethods pattern. */
+    private static final Pattern WITH_METHODS_PATTERN = Pattern.compile(".*[ ,(]withMethods[ ]*[=][ ]*(true|false).*");
+    /** The binSerializer pattern. */
+    private static final Pattern BIN_SERIALIZER_PATTERN = Pattern.compile(".*[ ,(]binSerializer[ ]*[=][ ]*(true|false).*");
     /** The cloneStyle pattern. */
     private static final Pattern CLONE_STYLE_PATTERN = Pattern.compile(".*[ ,(]cloneStyle[ ]*[=][ ]*[\"]([a-zA-Z]*)[\"].*");
 
@@ -166,6 +170,8 @@ class BeanParser {
         }
         data.setFactoryName(parseFactoryName(beanDefIndex));
         data.setCacheHashCode(parseCacheHashCode(beanDefIndex));
+        data.setWithMethods(parseWithMethods(beanDefIndex));
+        data.setBinSerializer(parseBinSerializer(beanDefIndex));
         data.setCloneStyle(parseCloneStyle(beanDefIndex));
         if (data.isCloneStyleValid() == false) {
             throw new BeanCodeGenException("Invalid clone style: " + data.getCloneStyle(), file, beanDefIndex);
@@ -249,6 +255,21 @@ class BeanParser {
         if (data.isCacheHashCode()) {
             data.setCacheHashCode(data.isImmutable() && data.isManualEqualsHashCode() == false);
         }
+        if (data.isWithMethods()) {
+            if (data.isImmutable() == false || data.isTypeFinal() == false || data.isRootClass() == false ||
+                    data.getImmutableConstructor() > CONSTRUCTOR_NONE || data.getImmutablePreBuild() != null) {
+                throw new BeanCodeGenException("@BeanDefinition(withMethods) is only valid on final immutable beans " +
+                        "with no bean superclass, no @ImmutableConstructor and no @ImmutablePreBuild: " +
+                        data.getTypeRaw(), file, beanDefIndex);
+            }
+        }
+        if (data.isBinSerializer()) {
+            if (data.isImmutable() == false || data.isTypeFinal() == false || data.isRootClass() == false ||
+                    data.isTypeGeneric() || data.isBeanStyleLight()) {
+                throw new BeanCodeGenException("@BeanDefinition(binSerializer) is only valid on final immutable beans " +
+                        "with no bean superclass, no type parameters and not using the light style: " + data.getTypeRaw(), file, beanDefIndex);
+            }
+        }
         return new BeanGen(file, content, config, data, properties, autoStartIndex, autoEndIndex);
     }
 
@@ -350,6 +371,24 @@ class BeanParser {
         return false;
     }
 
+    private boolean parseWithMethods(int defLine) {
+        String line = content.get(defLine).trim();
+        Matcher matcher = WITH_METHODS_PATTERN.matcher(line);
+        if (matcher.matches()) {
+            return Boolean.valueOf(matcher.group(1));
+        }
+        return false;
+    }
+
+    private boolean parseBinSerializer(int defLine) {
+        String line = content.get(defLine).trim();
+        Matcher matcher = BIN_SERIALIZER_PATTERN.matcher(line);
+        if (matcher.matches()) {
+            return Boolean.valueOf(matcher.group(1));
+        }
+        return false;
+    }
+
     private String parseCloneStyle(int defLine) {
         String line = content.get(defLine).trim();
         Matcher matcher = CLONE_STYLE_PATTERN.matcher(line);
@@ -344,7 +344,7 @@ class PropertyGen {
         return propertyType(data.getType());
     }
 
-    private String propertyType(String type) {
+    static String propertyType(String type) {
         if (type.equals("boolean")) {
             return "Boolean";
         }
@@ -29,6 +29,11 @@ import org.joda.beans.PropertyMap;
  */
 public abstract class BasicMetaBean implements MetaBean {
 
+    /**
+     * The ordinals used by {@code IndexedBeanBuilder}, created when first needed.
+     */
+    private volatile IndexedBeanBuilder.Ordinals ordinals;
+
     @Override
     public PropertyMap createPropertyMap(Bean bean) {
         return BasicPropertyMap.of(bean);
@@ -64,6 +69,22 @@ public abstract class BasicMetaBean implements MetaBean {
         return metaPropertyMap().values();
     }
 
+    /**
+     * Gets the ordinals of the meta-properties, used by {@code IndexedBeanBuilder}.
+     * <p>
+     * The ordinals are held by the meta-bean so that they do not outlive it.
+     * 
+     * @return the ordinals, not null
+     */
+    IndexedBeanBuilder.Ordinals ordinals() {
+        IndexedBeanBuilder.Ordinals result = ordinals;
+        if (result == null) {
+            result = new IndexedBeanBuilder.Ordinals(this);
+            ordinals = result;
+        }
+        return result;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Returns a string that summarises the meta-bean.
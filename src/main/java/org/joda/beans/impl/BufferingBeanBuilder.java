@@ -31,6 +31,9 @@ import org.joda.beans.MetaProperty;
  * <p>
  * This is useful for cases where the builder data might be manipulated before
  * the final build. The buffer can be directly mutated.
+ * <p>
+ * Where direct access to the buffer is not needed, {@link IndexedBeanBuilder}
+ * is faster as it buffers the data in an array rather than a concurrent map.
  * 
  * @author Stephen Colebourne
  * @param <T>  the bean type
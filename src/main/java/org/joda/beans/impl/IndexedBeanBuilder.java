@@ -0,0 +1,316 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.DynamicMetaBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.impl.light.LightMetaBean;
+import org.joda.beans.impl.reflection.ReflectiveMetaBean;
+
+/**
+ * Implementation of {@code BeanBuilder} that buffers data in an array.
+ * <p>
+ * This is useful for cases where the builder data might be manipulated before
+ * the final build, such as in a {@code SerDeserializer}. It is an alternative to
+ * {@link BufferingBeanBuilder} that holds the data in an array indexed by the
+ * ordinal of each meta-property, avoiding a map per builder.
+ * The ordinals are calculated once and held by meta-beans that extend {@link BasicMetaBean},
+ * including generated meta-beans, and by {@link LightMetaBean} and {@link ReflectiveMetaBean},
+ * so that they are shared by all builders.
+ * For other meta-beans they are calculated for each builder.
+ * <p>
+ * Meta-properties that are not part of the meta-bean, such as those of a dynamic bean,
+ * are buffered in a map and passed to the underlying builder after the others.
+ * <p>
+ * This class is mutable and not thread-safe.
+ * 
+ * @author Stephen Colebourne
+ * @param <T>  the bean type
+ */
+public class IndexedBeanBuilder<T extends Bean>
+        implements BeanBuilder<T> {
+
+    /**
+     * The marker for a value that has not been set.
+     */
+    private static final Object NOT_SET = new Object();
+
+    /**
+     * The target meta-bean.
+     */
+    private final MetaBean metaBean;
+    /**
+     * The ordinals of the meta-properties.
+     */
+    private final Ordinals ordinals;
+    /**
+     * The buffered data, by ordinal.
+     */
+    private final Object[] values;
+    /**
+     * The buffered data for meta-properties without an ordinal, null if none.
+     */
+    private Map<MetaProperty<?>, Object> overflow;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Constructs the builder wrapping the target bean.
+     * 
+     * @param metaBean  the target meta-bean, not null
+     * @return a new untyped builder, not null
+     */
+    public static IndexedBeanBuilder<?> of(MetaBean metaBean) {
+        return new IndexedBeanBuilder<Bean>(metaBean);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Constructs the builder wrapping the target bean.
+     * 
+     * @param metaBean  the target meta-bean, not null
+     */
+    public IndexedBeanBuilder(MetaBean metaBean) {
+        if (metaBean == null) {
+            throw new NullPointerException("MetaBean must not be null");
+        }
+        this.metaBean = metaBean;
+        this.ordinals = ordinals(metaBean);
+        this.values = new Object[ordinals.metaProperties.length];
+        Arrays.fill(values, NOT_SET);
+    }
+
+    // finds the ordinals, using those held by the meta-bean where possible
+    static Ordinals ordinals(MetaBean metaBean) {
+        if (metaBean instanceof BasicMetaBean && metaBean instanceof DynamicMetaBean == false) {
+            return ((BasicMetaBean) metaBean).ordinals();
+        }
+        if (metaBean instanceof LightMetaBean) {
+            return ((LightMetaBean<?>) metaBean).ordinals();
+        }
+        if (metaBean instanceof ReflectiveMetaBean) {
+            return ((ReflectiveMetaBean) metaBean).ordinals();
+        }
+        return new Ordinals(metaBean);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the meta-beans.
+     * 
+     * @return the meta-bean, not null
+     */
+    public MetaBean getMetaBean() {
+        return metaBean;
+    }
+
+    /**
+     * Checks whether a value has been set for the specified meta-property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return true if a value has been set, even if null
+     */
+    public boolean isSet(MetaProperty<?> metaProperty) {
+        int ordinal = ordinals.ordinal(metaProperty);
+        if (ordinal >= 0) {
+            return values[ordinal] != NOT_SET;
+        }
+        return overflow != null && overflow.containsKey(metaProperty);
+    }
+
+    /**
+     * Removes any value set for the specified meta-property.
+     * <p>
+     * The underlying builder will not be passed a value for the meta-property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return this, for chaining, not null
+     */
+    public IndexedBeanBuilder<T> remove(MetaProperty<?> metaProperty) {
+        int ordinal = ordinals.ordinal(metaProperty);
+        if (ordinal >= 0) {
+            values[ordinal] = NOT_SET;
+        } else if (overflow != null) {
+            overflow.remove(metaProperty);
+        }
+        return this;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the buffered value associated with the specified property name.
+     * 
+     * @param propertyName  the property name, not null
+     * @return the current value in the builder, null if not found or value is null
+     */
+    @Override
+    public Object get(String propertyName) {
+        int ordinal = ordinals.index.indexOf(propertyName);
+        if (ordinal >= 0) {
+            Object value = values[ordinal];
+            return value != NOT_SET ? value : null;
+        }
+        return get(getMetaBean().metaProperty(propertyName));
+    }
+
+    /**
+     * Gets the buffered value associated with the specified property name.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return the current value in the builder, null if not found or value is null
+     */
+    @Override
+    public Object get(MetaProperty<?> metaProperty) {
+        int ordinal = ordinals.ordinal(metaProperty);
+        if (ordinal >= 0) {
+            Object value = values[ordinal];
+            return value != NOT_SET ? value : null;
+        }
+        return overflow != null ? overflow.get(metaProperty) : null;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public BeanBuilder<T> set(String propertyName, Object value) {
+        int ordinal = ordinals.index.indexOf(propertyName);
+        if (ordinal >= 0) {
+            values[ordinal] = value;
+            return this;
+        }
+        return set(getMetaBean().metaProperty(propertyName), value);
+    }
+
+    @Override
+    public BeanBuilder<T> set(MetaProperty<?> metaProperty, Object value) {
+        int ordinal = ordinals.ordinal(metaProperty);
+        if (ordinal >= 0) {
+            values[ordinal] = value;
+        } else {
+            if (overflow == null) {
+                overflow = new LinkedHashMap<MetaProperty<?>, Object>();
+            }
+            overflow.put(metaProperty, value);
+        }
+        return this;
+    }
+
+    @Override
+    public BeanBuilder<T> setString(String propertyName, String value) {
+        return setString(getMetaBean().metaProperty(propertyName), value);
+    }
+
+    @Override
+    public BeanBuilder<T> setString(MetaProperty<?> metaProperty, String value) {
+        Object object = JodaBeanUtils.stringConverter().convertFromString(metaProperty.propertyType(), value);
+        return set(metaProperty, object);
+    }
+
+    @Override
+    public BeanBuilder<T> setAll(Map<String, ? extends Object> propertyValueMap) {
+        for (Entry<String, ? extends Object> entry : propertyValueMap.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public T build() {
+        @SuppressWarnings("unchecked")
+        BeanBuilder<T> builder = (BeanBuilder<T>) getMetaBean().builder();
+        MetaProperty<?>[] metaProperties = ordinals.metaProperties;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != NOT_SET) {
+                builder.set(metaProperties[i], values[i]);
+            }
+        }
+        if (overflow != null) {
+            for (Entry<MetaProperty<?>, Object> entry : overflow.entrySet()) {
+                builder.set(entry.getKey(), entry.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a string that summarises the builder.
+     * 
+     * @return a summary string, not null
+     */
+    @Override
+    public String toString() {
+        return "BeanBuilder for " + metaBean.beanName();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The ordinals of the meta-properties of a meta-bean.
+     * <p>
+     * This is held by meta-beans so that it is shared by all builders.
+     * This class is immutable and thread-safe.
+     */
+    public static final class Ordinals {
+        /** The meta-properties, by ordinal. */
+        private final MetaProperty<?>[] metaProperties;
+        /** The index of property names. */
+        private final PropertyNameIndex index;
+
+        /**
+         * Obtains an instance from an existing index of the property names.
+         * 
+         * @param metaProperties  the meta-properties, in the order of the index, not null
+         * @param index  the index of the property names, not null
+         * @return the ordinals, not null
+         */
+        public static Ordinals of(MetaProperty<?>[] metaProperties, PropertyNameIndex index) {
+            JodaBeanUtils.notNull(metaProperties, "metaProperties");
+            JodaBeanUtils.notNull(index, "index");
+            return new Ordinals(metaProperties, index);
+        }
+
+        Ordinals(MetaBean metaBean) {
+            Map<String, MetaProperty<?>> map = metaBean.metaPropertyMap();
+            this.metaProperties = map.values().toArray(new MetaProperty<?>[map.size()]);
+            this.index = PropertyNameIndex.of(map.keySet());
+        }
+
+        private Ordinals(MetaProperty<?>[] metaProperties, PropertyNameIndex index) {
+            this.metaProperties = metaProperties;
+            this.index = index;
+        }
+
+        // finds the ordinal, -1 if the meta-property is not part of the meta-bean
+        int ordinal(MetaProperty<?> metaProperty) {
+            int ordinal = index.indexOf(metaProperty.name());
+            if (ordinal >= 0) {
+                MetaProperty<?> mp = metaProperties[ordinal];
+                if (mp == metaProperty || mp.equals(metaProperty)) {
+                    return ordinal;
+                }
+            }
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable index from property name to property ordinal.
+ * <p>
+ * The index is a perfect hash of the names, built once when the index is created.
+ * The names are split into buckets, and for each bucket a displacement is searched for
+ * that places every name in the bucket in a free slot of the table (hash and displace).
+ * Thus looking up a name reads the displacement of its bucket, then probes a single slot,
+ * followed by one string comparison. There are no collisions to resolve.
+ * The ordinals are dense, from zero to one less than the number of names, in the
+ * order that the names were supplied, allowing meta-properties and builder values
+ * to be held in arrays.
+ * <p>
+ * The table is at most a small multiple of the number of names. If two names share
+ * a hash code, or the names cannot be placed, a seeded hash of the characters is
+ * tried instead, failing after a fixed number of seeds.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class PropertyNameIndex {
+
+    /** An empty index. */
+    private static final PropertyNameIndex EMPTY = new PropertyNameIndex(new String[0]);
+    /** The number of displacements to try before growing the table. */
+    private static final int MAX_DISPLACEMENT = 1 << 12;
+    /** The number of times the table can double in size before trying another hash. */
+    private static final int MAX_GROWTH = 2;
+    /** The number of hashes to try before failing. */
+    private static final int MAX_SEEDS = 8;
+
+    /** The names, in ordinal order. */
+    private final String[] names;
+    /** The names, in slot order, null if the slot is empty. */
+    private final String[] slotNames;
+    /** The ordinals, in slot order. */
+    private final int[] slotOrdinals;
+    /** The displacement of each bucket. */
+    private final int[] displacements;
+    /** The mask for the slots. */
+    private final int slotMask;
+    /** The mask for the buckets. */
+    private final int bucketMask;
+    /** The seed of the hash, zero to use the string hash code. */
+    private final int seed;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains an index for the specified property names.
+     * 
+     * @param names  the property names, not null, no nulls, no duplicates
+     * @return the index, not null
+     * @throws IllegalArgumentException if a name is duplicated
+     */
+    public static PropertyNameIndex of(String... names) {
+        if (names == null) {
+            throw new NullPointerException("Names must not be null");
+        }
+        if (names.length == 0) {
+            return EMPTY;
+        }
+        return new PropertyNameIndex(names.clone());
+    }
+
+    /**
+     * Obtains an index for the specified property names.
+     * 
+     * @param names  the property names, not null, no nulls, no duplicates
+     * @return the index, not null
+     * @throws IllegalArgumentException if a name is duplicated
+     */
+    public static PropertyNameIndex of(Collection<String> names) {
+        if (names == null) {
+            throw new NullPointerException("Names must not be null");
+        }
+        return of(names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param names  the names, not null
+     */
+    private PropertyNameIndex(String[] names) {
+        this.names = names;
+        checkNames(names);
+        int bucketCount = Integer.highestOneBit(Math.max(names.length / 2, 1));
+        int minSlotCount = Integer.highestOneBit(Math.max(names.length * 2 - 1, 1)) << 1;
+        int[] disp = new int[bucketCount];
+        int seed = 0;
+        int slotCount = minSlotCount;
+        int[] hashes = hashes(names, seed);
+        int[] slots = (hashes != null ? place(hashes, bucketCount, slotCount, disp) : null);
+        while (slots == null) {
+            if (hashes != null && slotCount < (minSlotCount << MAX_GROWTH)) {
+                slotCount <<= 1;
+            } else {
+                // two names share a hash, or the table would be too large, so try another hash
+                seed++;
+                if (seed == MAX_SEEDS) {
+                    throw new IllegalArgumentException("Unable to index property names: " + Arrays.toString(names));
+                }
+                hashes = hashes(names, seed);
+                slotCount = minSlotCount;
+            }
+            slots = (hashes != null ? place(hashes, bucketCount, slotCount, disp) : null);
+        }
+        this.seed = seed;
+        this.displacements = disp;
+        this.bucketMask = bucketCount - 1;
+        this.slotMask = slotCount - 1;
+        this.slotNames = new String[slotCount];
+        this.slotOrdinals = new int[slotCount];
+        for (int i = 0; i < names.length; i++) {
+            slotNames[slots[i]] = names[i];
+            slotOrdinals[slots[i]] = i;
+        }
+    }
+
+    // validates the names
+    private static void checkNames(String[] names) {
+        Set<String> seen = new HashSet<String>();
+        for (String name : names) {
+            if (name == null) {
+                throw new NullPointerException("Name must not be null");
+            }
+            if (seen.add(name) == false) {
+                throw new IllegalArgumentException("Duplicate property name: " + name);
+            }
+        }
+    }
+
+    // hashes the names, returning null if two names share a hash, as no displacement can separate them
+    private static int[] hashes(String[] names, int seed) {
+        int[] hashes = new int[names.length];
+        Set<Integer> seen = new HashSet<Integer>();
+        for (int i = 0; i < names.length; i++) {
+            hashes[i] = hash(names[i], seed);
+            if (seen.add(hashes[i]) == false) {
+                return null;
+            }
+        }
+        return hashes;
+    }
+
+    // places the names in slots, largest bucket first, returning null if the table is too small
+    private static int[] place(final int[] hashes, int bucketCount, int slotCount, int[] disp) {
+        List<List<Integer>> buckets = new ArrayList<List<Integer>>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < hashes.length; i++) {
+            buckets.get(mix(hashes[i], 0) & (bucketCount - 1)).add(i);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            order[i] = i;
+        }
+        final List<List<Integer>> sizes = buckets;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer bucket1, Integer bucket2) {
+                return sizes.get(bucket2).size() - sizes.get(bucket1).size();
+            }
+        });
+        boolean[] used = new boolean[slotCount];
+        int[] slots = new int[hashes.length];
+        int[] trial = new int[hashes.length];
+        for (Integer bucketIndex : order) {
+            List<Integer> bucket = buckets.get(bucketIndex);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            int d = 0;
+            while (tryPlace(hashes, bucket, d, slotCount, used, trial) == false) {
+                d++;
+                if (d == MAX_DISPLACEMENT) {
+                    return null;
+                }
+            }
+            disp[bucketIndex] = d;
+            for (int i = 0; i < bucket.size(); i++) {
+                used[trial[i]] = true;
+                slots[bucket.get(i)] = trial[i];
+            }
+        }
+        return slots;
+    }
+
+    // tries to place a bucket using a displacement
+    private static boolean tryPlace(int[] hashes, List<Integer> bucket, int d, int slotCount, boolean[] used, int[] trial) {
+        for (int i = 0; i < bucket.size(); i++) {
+            int slot = mix(hashes[bucket.get(i)], d + 1) & (slotCount - 1);
+            if (used[slot]) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (trial[j] == slot) {
+                    return false;
+                }
+            }
+            trial[i] = slot;
+        }
+        return true;
+    }
+
+    // the base hash of the name, the string hash code if the seed is zero
+    private static int hash(String name, int seed) {
+        if (seed == 0) {
+            return name.hashCode();
+        }
+        int hash = seed * 0x9E3779B9;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    // mixes the hash with the seed
+    private static int mix(int hash, int seed) {
+        int h = (hash ^ (seed * 0x85EBCA6B)) * 0x9E3779B9;
+        h ^= h >>> 15;
+        h *= 0x27D4EB2F;
+        return h ^ (h >>> 16);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of names in the index.
+     * 
+     * @return the number of names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Gets the name at the specified ordinal.
+     * 
+     * @param ordinal  the ordinal, from zero to {@code size() - 1}
+     * @return the name, not null
+     * @throws IndexOutOfBoundsException if the ordinal is invalid
+     */
+    public String name(int ordinal) {
+        return names[ordinal];
+    }
+
+    /**
+     * Gets the ordinal of the specified name.
+     * 
+     * @param name  the name to find, null returns -1
+     * @return the ordinal, -1 if not found
+     */
+    public int indexOf(Object name) {
+        if (name instanceof String == false) {
+            return -1;
+        }
+        String str = (String) name;
+        int hash = hash(str, seed);
+        int slot = mix(hash, displacements[mix(hash, 0) & bucketMask] + 1) & slotMask;
+        String candidate = slotNames[slot];
+        if (candidate == str || (candidate != null && candidate.equals(str))) {
+            return slotOrdinals[slot];
+        }
+        return -1;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a string that summarises the index.
+     * 
+     * @return a summary string, not null
+     */
+    @Override
+    public String toString() {
+        return "PropertyNameIndex" + Arrays.toString(names);
+    }
+
+}
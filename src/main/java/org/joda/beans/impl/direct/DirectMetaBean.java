@@ -15,6 +15,7 @@
  */
 package org.joda.beans.impl.direct;
 
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.joda.beans.Bean;
@@ -39,7 +40,9 @@ public abstract class DirectMetaBean extends BasicMetaBean {
     @SuppressWarnings("unchecked")
     @Override
     public <R> MetaProperty<R> metaProperty(String propertyName) {
-        MetaProperty<?> mp = metaPropertyGet(propertyName);
+        Map<String, MetaProperty<?>> map = metaPropertyMap();
+        MetaProperty<?> mp = (map instanceof DirectMetaPropertyMap ?
+                ((DirectMetaPropertyMap) map).get(propertyName) : metaPropertyGet(propertyName));
         if (mp == null) {
             return metaPropertyNotFound(propertyName);
         }
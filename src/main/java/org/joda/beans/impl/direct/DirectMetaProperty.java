@@ -32,6 +32,8 @@ import org.joda.beans.impl.BasicMetaProperty;
  * A meta-property implementation designed for use by the code generator.
  * <p>
  * This meta-property uses reflection to find the {@code Field} to obtain the annotations.
+ * The field is only found when first needed, as many applications never query the
+ * annotations or generic type, and finding it walks the class hierarchy.
  * 
  * @param <P>  the type of the property content
  * @author Stephen Colebourne
@@ -44,8 +46,8 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
     private final Class<P> propertyType;
     /** The declaring type. */
     private final Class<?> declaringType;
-    /** The field implementing the property. */
-    private final Field field;
+    /** The reflected data, resolved when first needed, using the racy single-check idiom. */
+    private volatile Resolved resolved;
     /** The style. */
     private final PropertyStyle style;
 
@@ -61,8 +63,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
      */
     public static <P> DirectMetaProperty<P> ofReadWrite(
             MetaBean metaBean, String propertyName, Class<?> declaringType, Class<P> propertyType) {
-        Field field = findField(metaBean, propertyName);
-        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.READ_WRITE, field);
+        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.READ_WRITE);
     }
 
     /**
@@ -77,8 +78,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
      */
     public static <P> DirectMetaProperty<P> ofReadOnly(
             MetaBean metaBean, String propertyName, Class<?> declaringType, Class<P> propertyType) {
-        Field field = findField(metaBean, propertyName);
-        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.READ_ONLY, field);
+        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.READ_ONLY);
     }
 
     /**
@@ -93,8 +93,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
      */
     public static <P> DirectMetaProperty<P> ofWriteOnly(
             MetaBean metaBean, String propertyName, Class<?> declaringType, Class<P> propertyType) {
-        Field field = findField(metaBean, propertyName);
-        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.WRITE_ONLY, field);
+        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.WRITE_ONLY);
     }
 
     /**
@@ -109,8 +108,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
      */
     public static <P> DirectMetaProperty<P> ofReadOnlyBuildable(
             MetaBean metaBean, String propertyName, Class<?> declaringType, Class<P> propertyType) {
-        Field field = findField(metaBean, propertyName);
-        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.READ_ONLY_BUILDABLE, field);
+        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.READ_ONLY_BUILDABLE);
     }
 
     /**
@@ -125,8 +123,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
      */
     public static <P> DirectMetaProperty<P> ofDerived(
             MetaBean metaBean, String propertyName, Class<?> declaringType, Class<P> propertyType) {
-        Field field = findField(metaBean, propertyName);
-        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.DERIVED, field);
+        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.DERIVED);
     }
 
     /**
@@ -141,8 +138,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
      */
     public static <P> DirectMetaProperty<P> ofImmutable(
             MetaBean metaBean, String propertyName, Class<?> declaringType, Class<P> propertyType) {
-        Field field = findField(metaBean, propertyName);
-        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.IMMUTABLE, field);
+        return new DirectMetaProperty<P>(metaBean, propertyName, declaringType, propertyType, PropertyStyle.IMMUTABLE);
     }
 
     private static Field findField(MetaBean metaBean, String propertyName) {
@@ -172,10 +168,9 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
      * @param declaringType  the declaring type, not null
      * @param propertyType  the property type, not null
      * @param style  the style, not null
-     * @param field  the reflected field, not null
      */
     private DirectMetaProperty(MetaBean metaBean, String propertyName, Class<?> declaringType,
-            Class<P> propertyType, PropertyStyle style, Field field) {
+            Class<P> propertyType, PropertyStyle style) {
         super(propertyName);
         if (metaBean == null) {
             throw new NullPointerException("MetaBean must not be null");
@@ -193,7 +188,20 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
         this.propertyType = propertyType;
         this.declaringType = declaringType;
         this.style = style;
-        this.field = field;  // may be null
+    }
+
+    /**
+     * Gets the reflected data, finding the field if necessary.
+     * 
+     * @return the reflected data, not null
+     */
+    private Resolved resolved() {
+        Resolved result = resolved;
+        if (result == null) {
+            result = new Resolved(findField(metaBean, name()), propertyType);
+            resolved = result;
+        }
+        return result;
     }
 
     //-----------------------------------------------------------------------
@@ -214,10 +222,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
 
     @Override
     public Type propertyGenericType() {
-        if (field == null) {
-            return propertyType;
-        }
-        return field.getGenericType();
+        return resolved().genericType;
     }
 
     @Override
@@ -227,6 +232,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
 
     @Override
     public <A extends Annotation> A annotation(Class<A> annotationClass) {
+        Field field = resolved().field;
         if (field == null) {
             throw new UnsupportedOperationException("Field not found for property: " + name());
         }
@@ -239,10 +245,7 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
 
     @Override
     public List<Annotation> annotations() {
-        if (field == null) {
-            return Collections.emptyList();
-        }
-        return Arrays.asList(field.getDeclaredAnnotations());
+        return resolved().annotations;
     }
 
     //-----------------------------------------------------------------------
@@ -259,4 +262,28 @@ public final class DirectMetaProperty<P> extends BasicMetaProperty<P> {
         meta.propertySet(bean, name(), value, false);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * The data obtained by reflection, immutable once created.
+     */
+    private static final class Resolved {
+        /** The field implementing the property, null if not found. */
+        private final Field field;
+        /** The generic type of the property. */
+        private final Type genericType;
+        /** The annotations, unmodifiable. */
+        private final List<Annotation> annotations;
+
+        private Resolved(Field field, Class<?> propertyType) {
+            this.field = field;
+            if (field == null) {
+                this.genericType = propertyType;
+                this.annotations = Collections.emptyList();
+            } else {
+                this.genericType = field.getGenericType();
+                this.annotations = Collections.unmodifiableList(Arrays.asList(field.getDeclaredAnnotations()));
+            }
+        }
+    }
+
 }
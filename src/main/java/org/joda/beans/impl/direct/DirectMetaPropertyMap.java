@@ -25,13 +25,15 @@ import java.util.Map;
 import java.util.Set;
 
 import org.joda.beans.MetaProperty;
+import org.joda.beans.impl.PropertyNameIndex;
 
 /**
  * A map of name to meta-property designed for use by the code generator.
  * <p>
  * This meta-property map implementation is designed primarily for code-generation.
  * It stores a reference to the meta-bean and the meta-properties.
- * The meta-properties are accessed using {@link DirectMetaBean#metaPropertyGet(String)}.
+ * The meta-properties are held in an array, and found by name using a {@link PropertyNameIndex}.
+ * Names not in the index, such as aliases, are looked up using {@link DirectMetaBean#metaPropertyGet(String)}.
  * <p>
  * This class is immutable and thread-safe.
  * 
@@ -42,6 +44,10 @@ public final class DirectMetaPropertyMap implements Map<String, MetaProperty<?>>
 
     /** The meta-bean. */
     private final DirectMetaBean metaBean;
+    /** The index of property names, created when first needed. */
+    private volatile PropertyNameIndex index;
+    /** The meta-properties, in index order. */
+    private final Entry<String, MetaProperty<?>>[] metaProperties;
     /** The property names. */
     private final Set<String> keys;
     /** The meta-properties. */
@@ -73,11 +79,30 @@ public final class DirectMetaPropertyMap implements Map<String, MetaProperty<?>>
         for (int i = 0; i < propertyNames.length; i++) {
             metaProperties[i + parentSize] = new AbstractMap.SimpleImmutableEntry(propertyNames[i], metaBean.metaPropertyGet(propertyNames[i]));
         }
+        this.metaProperties = metaProperties;
         keys = new Keys(metaProperties);
         values = new Values(metaProperties);
         entries = new Entries(metaProperties);
     }
 
+    /**
+     * Gets the index of property names, creating it if necessary.
+     * 
+     * @return the index, not null
+     */
+    private PropertyNameIndex index() {
+        PropertyNameIndex result = index;
+        if (result == null) {
+            String[] names = new String[metaProperties.length];
+            for (int i = 0; i < metaProperties.length; i++) {
+                names[i] = metaProperties[i].getKey();
+            }
+            result = PropertyNameIndex.of(names);
+            index = result;
+        }
+        return result;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public int size() {
@@ -92,7 +117,12 @@ public final class DirectMetaPropertyMap implements Map<String, MetaProperty<?>>
     @SuppressWarnings("unchecked")
     @Override
     public MetaProperty<Object> get(Object propertyName) {
-        if (propertyName  instanceof String) {
+        int ordinal = index().indexOf(propertyName);
+        if (ordinal >= 0) {
+            return (MetaProperty<Object>) metaProperties[ordinal].getValue();
+        }
+        if (propertyName instanceof String) {
+            // handles aliases
             return (MetaProperty<Object>) metaBean.metaPropertyGet((String) propertyName);
         }
         return null;
@@ -100,14 +130,13 @@ public final class DirectMetaPropertyMap implements Map<String, MetaProperty<?>>
 
     @Override
     public boolean containsKey(Object propertyName) {
-        return propertyName instanceof String &&
-                metaBean.metaPropertyGet(propertyName.toString()) != null;
+        return get(propertyName) != null;
     }
 
     @Override
     public boolean containsValue(Object value) {
         return value instanceof MetaProperty &&
-                metaBean.metaPropertyGet(((MetaProperty<?>) value).name()) != null;
+                get(((MetaProperty<?>) value).name()) != null;
     }
 
     //-----------------------------------------------------------------------
@@ -15,14 +15,20 @@
  */
 package org.joda.beans.impl.flexi;
 
-import java.io.ObjectStreamException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 import org.joda.beans.DynamicBean;
 import org.joda.beans.DynamicMetaBean;
@@ -40,6 +46,11 @@ import org.joda.beans.impl.BasicProperty;
  * Each flexi-bean has a different set of properties.
  * As such, there is one instance of meta-bean for each flexi-bean.
  * <p>
+ * Internally, the property names are held in a shape that is shared by all flexi-beans
+ * with the same property names added in the same order, with each bean holding only
+ * an array of values. Flexi-beans with many properties, or unusual sets of properties,
+ * hold their properties in a map instead.
+ * <p>
  * The keys of a flexi-bean must be simple identifiers as per '[a-zA-z_][a-zA-z0-9_]*'.
  * 
  * @author Stephen Colebourne
@@ -50,13 +61,19 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
 
     /** Serialization version. */
     private static final long serialVersionUID = 1L;
-    /** Valid regex for keys. */
-    private static final Pattern VALID_KEY = Pattern.compile("[a-zA-z_][a-zA-z0-9_]*");
-
-    /** The meta-bean. */
-    private final transient FlexiMetaBean metaBean = new FlexiMetaBean(this);  // CSIGNORE
-    /** The underlying data. */
-    volatile Map<String, Object> data = Collections.emptyMap();// CSIGNORE
+    /** The serialized form, which is a map of the data. */
+    private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("data", Map.class)};
+    /** The empty values. */
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    /** The meta-bean, created when first needed. */
+    private transient FlexiMetaBean metaBean;
+    /** The shape, null if the data is held in the map. */
+    private transient FlexiShape shape = FlexiShape.EMPTY;
+    /** The values, in the order of the shape. */
+    private transient Object[] values = EMPTY_VALUES;
+    /** The underlying data, null if the data is held in the shape. */
+    private transient Map<String, Object> map;
 
     //-----------------------------------------------------------------------
     /**
@@ -83,25 +100,62 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      * @param copyFrom  the bean to copy from, not null
      */
     public FlexiBean(FlexiBean copyFrom) {
-        putAll(copyFrom.data);
+        putAll(copyFrom);
     }
 
-    // resolve to setup transient field
-    private Object readResolve() throws ObjectStreamException {
-        return new FlexiBean(this);
+    // write the data as a map, compatible with earlier versions
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("data", size() == 0 ? Collections.<String, Object>emptyMap() : new LinkedHashMap<String, Object>(toMap()));
+        out.writeFields();
+    }
+
+    // read the data as a map
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Map<String, Object> data = (Map<String, Object>) fields.get("data", null);
+        clear();
+        if (data != null) {
+            putAll(data);
+        }
     }
 
     //-----------------------------------------------------------------------
     /**
-     * Gets the internal data map.
+     * Switches the storage from the shape to a map.
      * 
-     * @return the data, not null
+     * @return the map, not null
      */
-    private Map<String, Object> dataWritable() {
-        if (data == Collections.EMPTY_MAP) {
-            data = new LinkedHashMap<String, Object>();
+    private Map<String, Object> toDictionary() {
+        Map<String, Object> dictionary = new LinkedHashMap<String, Object>();
+        FlexiShape currentShape = shape;
+        Object[] currentValues = values;
+        for (int i = 0; i < currentShape.size(); i++) {
+            dictionary.put(currentShape.name(i), currentValues[i]);
         }
-        return data;
+        map = dictionary;
+        shape = null;
+        values = EMPTY_VALUES;
+        return dictionary;
+    }
+
+    /**
+     * Gets a snapshot of the property names.
+     * 
+     * @return the property names, not null
+     */
+    String[] names() {
+        Map<String, Object> dictionary = map;
+        if (dictionary != null) {
+            return dictionary.keySet().toArray(new String[dictionary.size()]);
+        }
+        FlexiShape currentShape = shape;
+        String[] names = new String[currentShape.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = currentShape.name(i);
+        }
+        return names;
     }
 
     //-----------------------------------------------------------------------
@@ -111,7 +165,8 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      * @return the number of properties
      */
     public int size() {
-        return data.size();
+        Map<String, Object> dictionary = map;
+        return dictionary != null ? dictionary.size() : shape.size();
     }
 
     /**
@@ -133,7 +188,12 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      * @return the value of the property, may be null
      */
     public Object get(String propertyName) {
-        return data.get(propertyName);
+        Map<String, Object> dictionary = map;
+        if (dictionary != null) {
+            return dictionary.get(propertyName);
+        }
+        int index = shape.indexOf(propertyName);
+        return index >= 0 ? values[index] : null;
     }
 
     /**
@@ -289,10 +349,29 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      * @return the old value of the property, may be null
      */
     public Object put(String propertyName, Object newValue) {
-        if (VALID_KEY.matcher(propertyName).matches() == false) {
-            throw new IllegalArgumentException("Invalid key for FlexiBean: " + propertyName);
+        Map<String, Object> dictionary = map;
+        if (dictionary == null) {
+            FlexiShape currentShape = shape;
+            int index = currentShape.indexOf(propertyName);
+            if (index >= 0) {
+                Object oldValue = values[index];
+                values[index] = newValue;
+                return oldValue;
+            }
+            // validates the name if not a known transition
+            FlexiShape newShape = currentShape.with(propertyName);
+            if (newShape != null) {
+                Object[] newValues = Arrays.copyOf(values, newShape.size());
+                newValues[newShape.size() - 1] = newValue;
+                values = newValues;
+                shape = newShape;
+                return null;
+            }
+            dictionary = toDictionary();
+        } else if (dictionary.containsKey(propertyName) == false) {
+            FlexiShape.validate(propertyName);
         }
-        return dataWritable().put(propertyName, newValue);
+        return dictionary.put(propertyName, newValue);
     }
 
     /**
@@ -305,14 +384,12 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
     public void putAll(Map<String, Object> map) {
         if (map.size() > 0) {
             for (String key : map.keySet()) {
-                if (VALID_KEY.matcher(key).matches() == false) {
-                    throw new IllegalArgumentException("Invalid key for FlexiBean: " + key);
+                if (contains(key) == false) {
+                    FlexiShape.validate(key);
                 }
             }
-            if (data == Collections.EMPTY_MAP) {
-                data = new LinkedHashMap<String, Object>(map);
-            } else {
-                data.putAll(map);
+            for (Entry<String, Object> entry : map.entrySet()) {
+                put(entry.getKey(), entry.getValue());
             }
         }
     }
@@ -326,10 +403,17 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      */
     public void putAll(FlexiBean other) {
         if (other.size() > 0) {
-            if (data == Collections.EMPTY_MAP) {
-                data = new LinkedHashMap<String, Object>(other.data);
+            FlexiShape otherShape = other.shape;
+            Object[] otherValues = other.values;
+            if (size() == 0 && otherShape != null && otherValues.length == otherShape.size()) {
+                // share the shape
+                values = otherValues.clone();
+                shape = otherShape;
+                map = null;
             } else {
-                data.putAll(other.data);
+                for (String name : other.names()) {
+                    put(name, other.get(name));
+                }
             }
         }
     }
@@ -349,9 +433,9 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      * Removes all properties.
      */
     public void clear() {
-        if (data != Collections.EMPTY_MAP) {
-            data.clear();
-        }
+        values = EMPTY_VALUES;
+        shape = FlexiShape.EMPTY;
+        map = null;
     }
 
     //-----------------------------------------------------------------------
@@ -362,7 +446,8 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      * @return true if the property exists
      */
     public boolean propertyExists(String propertyName) {
-        return data.containsKey(propertyName);
+        Map<String, Object> dictionary = map;
+        return dictionary != null ? dictionary.containsKey(propertyName) : shape.indexOf(propertyName) >= 0;
     }
 
     /**
@@ -375,7 +460,7 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
         if (propertyExists(propertyName) == false) {
             throw new NoSuchElementException("Unknown property: " + propertyName);
         }
-        return data.get(propertyName);
+        return get(propertyName);
     }
 
     /**
@@ -391,17 +476,64 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
     //-----------------------------------------------------------------------
     @Override
     public DynamicMetaBean metaBean() {
-        return metaBean;
+        FlexiMetaBean meta = metaBean;
+        if (meta == null) {
+            meta = new FlexiMetaBean(this);
+            metaBean = meta;
+        }
+        return meta;
     }
 
     @Override
     public Property<Object> property(String name) {
-        return BasicProperty.of(this, FlexiMetaProperty.of(metaBean, name));
+        return BasicProperty.of(this, FlexiMetaProperty.of(metaBean(), name));
     }
 
     @Override
     public Set<String> propertyNames() {
-        return data.keySet();
+        return new AbstractSet<String>() {
+            @Override
+            public int size() {
+                return FlexiBean.this.size();
+            }
+            @Override
+            public boolean contains(Object obj) {
+                return obj instanceof String && propertyExists((String) obj);
+            }
+            @Override
+            public boolean remove(Object obj) {
+                if (contains(obj)) {
+                    propertyRemove((String) obj);
+                    return true;
+                }
+                return false;
+            }
+            @Override
+            public Iterator<String> iterator() {
+                final String[] names = names();
+                return new Iterator<String>() {
+                    private int index;
+                    @Override
+                    public boolean hasNext() {
+                        return index < names.length;
+                    }
+                    @Override
+                    public String next() {
+                        if (index >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return names[index++];
+                    }
+                    @Override
+                    public void remove() {
+                        if (index == 0) {
+                            throw new IllegalStateException();
+                        }
+                        propertyRemove(names[index - 1]);
+                    }
+                };
+            }
+        };
     }
 
     @Override
@@ -413,9 +545,26 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
 
     @Override
     public void propertyRemove(String propertyName) {
-        if (data != Collections.EMPTY_MAP) {
-            data.remove(propertyName);
+        Map<String, Object> dictionary = map;
+        if (dictionary == null) {
+            FlexiShape currentShape = shape;
+            int index = currentShape.indexOf(propertyName);
+            if (index < 0) {
+                return;
+            }
+            FlexiShape newShape = currentShape.without(index);
+            if (newShape != null) {
+                Object[] currentValues = values;
+                Object[] newValues = new Object[currentValues.length - 1];
+                System.arraycopy(currentValues, 0, newValues, 0, index);
+                System.arraycopy(currentValues, index + 1, newValues, index, newValues.length - index);
+                values = newValues;
+                shape = newShape;
+                return;
+            }
+            dictionary = toDictionary();
         }
+        dictionary.remove(propertyName);
     }
 
     //-----------------------------------------------------------------------
@@ -428,7 +577,17 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
         if (size() == 0) {
             return Collections.emptyMap();
         }
-        return Collections.unmodifiableMap(new LinkedHashMap<String, Object>(data));
+        Map<String, Object> dictionary = map;
+        if (dictionary != null) {
+            return Collections.unmodifiableMap(new LinkedHashMap<String, Object>(dictionary));
+        }
+        FlexiShape currentShape = shape;
+        Object[] currentValues = values;
+        Map<String, Object> copy = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < currentShape.size(); i++) {
+            copy.put(currentShape.name(i), currentValues[i]);
+        }
+        return Collections.unmodifiableMap(copy);
     }
 
     //-----------------------------------------------------------------------
@@ -455,11 +614,35 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
         }
         if (obj instanceof FlexiBean) {
             FlexiBean other = (FlexiBean) obj;
-            return this.data.equals(other.data);
+            FlexiShape thisShape = this.shape;
+            Object[] thisValues = this.values;
+            Object[] otherValues = other.values;
+            if (thisShape != null && thisShape == other.shape && thisValues.length == otherValues.length) {
+                for (int i = 0; i < thisValues.length; i++) {
+                    if (equalValue(thisValues[i], otherValues[i]) == false) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (size() != other.size()) {
+                return false;
+            }
+            for (String name : names()) {
+                if (other.propertyExists(name) == false || equalValue(get(name), other.get(name)) == false) {
+                    return false;
+                }
+            }
+            return true;
         }
         return super.equals(obj);
     }
 
+    // compares values as a map would, so arrays are compared by identity
+    private static boolean equalValue(Object value1, Object value2) {
+        return value1 == null ? value2 == null : value1.equals(value2);
+    }
+
     /**
      * Returns a suitable hash code.
      * 
@@ -467,7 +650,13 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      */
     @Override
     public int hashCode() {
-        return data.hashCode();
+        // matches the hash code of the equivalent map
+        int hash = 0;
+        for (String name : names()) {
+            Object value = get(name);
+            hash += name.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+        return hash;
     }
 
     /**
@@ -479,7 +668,7 @@ public final class FlexiBean extends BasicBean implements DynamicBean, Serializa
      */
     @Override
     public String toString() {
-        return getClass().getSimpleName() + data.toString();
+        return getClass().getSimpleName() + toMap().toString();
     }
 
 }
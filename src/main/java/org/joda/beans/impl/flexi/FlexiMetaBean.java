@@ -15,9 +15,10 @@
  */
 package org.joda.beans.impl.flexi;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.joda.beans.Bean;
@@ -86,13 +87,13 @@ class FlexiMetaBean implements DynamicMetaBean {
 
     @Override
     public Iterable<MetaProperty<?>> metaPropertyIterable() {
-        if (bean.data.isEmpty()) {
+        if (bean.size() == 0) {
             return Collections.emptySet();
         }
         return new Iterable<MetaProperty<?>>() {
-            private final Iterator<String> it = bean.data.keySet().iterator();
             @Override
             public Iterator<MetaProperty<?>> iterator() {
+                final Iterator<String> it = Arrays.asList(bean.names()).iterator();
                 return new Iterator<MetaProperty<?>>() {
                     @Override
                     public boolean hasNext() {
@@ -114,11 +115,11 @@ class FlexiMetaBean implements DynamicMetaBean {
 
     @Override
     public Map<String, MetaProperty<?>> metaPropertyMap() {
-        if (bean.data.isEmpty()) {
+        if (bean.size() == 0) {
             return Collections.emptyMap();
         }
-        Map<String, MetaProperty<?>> map = new HashMap<String, MetaProperty<?>>();
-        for (String name : bean.data.keySet()) {
+        Map<String, MetaProperty<?>> map = new LinkedHashMap<String, MetaProperty<?>>();
+        for (String name : bean.names()) {
             map.put(name, FlexiMetaProperty.of(this, name));
         }
         return Collections.unmodifiableMap(map);
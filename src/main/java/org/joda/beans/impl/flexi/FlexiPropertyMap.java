@@ -17,6 +17,7 @@ package org.joda.beans.impl.flexi;
 
 import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
@@ -68,7 +69,7 @@ final class FlexiPropertyMap
 
     @Override
     public boolean containsKey(Object obj) {
-        return bean.data.containsKey(obj);
+        return obj instanceof String && bean.propertyExists((String) obj);
     }
 
     @Override
@@ -78,7 +79,7 @@ final class FlexiPropertyMap
 
     @Override
     public Set<String> keySet() {
-        return bean.data.keySet();
+        return bean.propertyNames();
     }
 
     @Override
@@ -95,7 +96,7 @@ final class FlexiPropertyMap
             }
             @Override
             public Iterator<Entry<String, Property<?>>> iterator() {
-                final Iterator<String> it = bean.data.keySet().iterator();
+                final Iterator<String> it = Arrays.asList(bean.names()).iterator();
                 return new Iterator<Entry<String, Property<?>>>() {
                     @Override
                     public boolean hasNext() {
@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl.flexi;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.joda.beans.impl.PropertyNameIndex;
+
+/**
+ * The shape of a flexi-bean, being its ordered set of property names.
+ * <p>
+ * Shapes are shared between flexi-beans, in the style of hidden classes.
+ * Each shape maps the property names to the indexes of a value array held by the bean.
+ * Adding a property to a bean moves it to the shape reached by a transition from its
+ * current shape, with transitions cached so that beans built by adding the same properties
+ * in the same order share the same shape instance.
+ * <p>
+ * Transitions are weakly referenced, so a shape no longer used by any bean can be garbage
+ * collected. Each shape references its parent, keeping the path to every live shape intact.
+ * The number of live transitions from any one shape, and the number of properties in a shape,
+ * are limited, so that flexi-beans used as general purpose maps with unrelated keys do not
+ * create large numbers of shapes. Such beans hold their properties in a map instead.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+final class FlexiShape {
+
+    /** Valid regex for keys. */
+    private static final Pattern VALID_KEY = Pattern.compile("[a-zA-z_][a-zA-z0-9_]*");
+    /** The shape with no properties. */
+    static final FlexiShape EMPTY = new FlexiShape(new String[0], null);
+    /** The maximum number of transitions from the empty shape. */
+    private static final int MAX_ROOT_TRANSITIONS = 1024;
+    /** The maximum number of transitions per shape. */
+    private static final int MAX_TRANSITIONS = 32;
+    /** The maximum number of properties in a shape. */
+    private static final int MAX_SIZE = 64;
+
+    /** The property names, in order. */
+    private final String[] names;
+    /** The index of property names. */
+    private final PropertyNameIndex index;
+    /** The shape this was a transition from, null for the empty shape. */
+    private final FlexiShape parent;
+    /** The cached transitions, keyed by the added property name. */
+    private final ConcurrentHashMap<String, WeakReference<FlexiShape>> transitions =
+            new ConcurrentHashMap<String, WeakReference<FlexiShape>>(4);
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param names  the property names, not null
+     * @param parent  the shape this is a transition from, null for the empty shape
+     */
+    private FlexiShape(String[] names, FlexiShape parent) {
+        this.names = names;
+        this.index = PropertyNameIndex.of(names);
+        this.parent = parent;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Validates a property name.
+     * 
+     * @param propertyName  the property name
+     * @throws IllegalArgumentException if the name is invalid
+     */
+    static void validate(String propertyName) {
+        if (VALID_KEY.matcher(propertyName).matches() == false) {
+            throw new IllegalArgumentException("Invalid key for FlexiBean: " + propertyName);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of properties.
+     * 
+     * @return the size
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Gets the property name at the specified index.
+     * 
+     * @param index  the index
+     * @return the property name, not null
+     */
+    String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Gets the index of the specified property name.
+     * 
+     * @param propertyName  the property name, may be null
+     * @return the index, -1 if not found
+     */
+    int indexOf(Object propertyName) {
+        return index.indexOf(propertyName);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the shape with the specified property added at the end.
+     * <p>
+     * The property must not already be in this shape.
+     * Null is returned if the shape would be too large, this shape has too many transitions,
+     * or the names cannot be indexed, in which case the caller should store the properties in a map.
+     * 
+     * @param propertyName  the property name to add, not null
+     * @return the shape, null if no shape should be used
+     * @throws IllegalArgumentException if the name is invalid
+     */
+    FlexiShape with(String propertyName) {
+        WeakReference<FlexiShape> ref = transitions.get(propertyName);
+        FlexiShape next = (ref != null ? ref.get() : null);
+        if (next != null) {
+            return next;
+        }
+        validate(propertyName);
+        if (names.length >= MAX_SIZE || isFull()) {
+            return null;
+        }
+        String[] newNames = new String[names.length + 1];
+        System.arraycopy(names, 0, newNames, 0, names.length);
+        newNames[names.length] = propertyName;
+        try {
+            next = new FlexiShape(newNames, this);
+        } catch (IllegalArgumentException ex) {
+            // the names have colliding hash codes
+            return null;
+        }
+        WeakReference<FlexiShape> newRef = new WeakReference<FlexiShape>(next);
+        while (true) {
+            ref = transitions.putIfAbsent(propertyName, newRef);
+            if (ref == null) {
+                return next;
+            }
+            FlexiShape existing = ref.get();
+            if (existing != null) {
+                return existing;
+            }
+            if (transitions.replace(propertyName, ref, newRef)) {
+                return next;
+            }
+        }
+    }
+
+    // checks if there are too many transitions, removing those that have been garbage collected
+    private boolean isFull() {
+        int max = (names.length == 0 ? MAX_ROOT_TRANSITIONS : MAX_TRANSITIONS);
+        if (transitions.size() < max) {
+            return false;
+        }
+        for (Iterator<WeakReference<FlexiShape>> it = transitions.values().iterator(); it.hasNext(); ) {
+            if (it.next().get() == null) {
+                it.remove();
+            }
+        }
+        return transitions.size() >= max;
+    }
+
+    /**
+     * Gets the shape with the property at the specified index removed.
+     * 
+     * @param removeIndex  the index to remove
+     * @return the shape, null if no shape should be used
+     */
+    FlexiShape without(int removeIndex) {
+        FlexiShape shape = EMPTY;
+        for (int i = 0; i < names.length && shape != null; i++) {
+            if (i != removeIndex) {
+                shape = shape.with(names[i]);
+            }
+        }
+        return shape;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "FlexiShape" + Arrays.toString(names);
+    }
+
+}
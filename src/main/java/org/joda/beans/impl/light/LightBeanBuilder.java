@@ -17,6 +17,7 @@ package org.joda.beans.impl.light;
 
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanBuilder;
@@ -51,7 +52,7 @@ class LightBeanBuilder<B extends Bean>
     //-----------------------------------------------------------------------
     @Override
     public Object get(String propertyName) {
-        return get(metaBean.metaProperty(propertyName));
+        return data[index(propertyName)];
     }
 
     @Override
@@ -62,7 +63,8 @@ class LightBeanBuilder<B extends Bean>
     //-----------------------------------------------------------------------
     @Override
     public BeanBuilder<B> set(String propertyName, Object value) {
-        return set(metaBean.metaProperty(propertyName), value);
+        data[index(propertyName)] = value;
+        return this;
     }
 
     @Override
@@ -90,17 +92,25 @@ class LightBeanBuilder<B extends Bean>
         return this;
     }
 
+    // the ordinal of the property is the index in the constructor
+    private int index(String propertyName) {
+        int ordinal = metaBean.propertyOrdinal(propertyName);
+        if (ordinal < 0) {
+            throw new NoSuchElementException("Property not found: " + propertyName);
+        }
+        return ordinal;
+    }
+
     private int index(MetaProperty<?> metaProperty) {
-        try {
+        if (metaProperty instanceof LightMetaProperty<?> && metaProperty.metaBean() == metaBean) {
             return ((LightMetaProperty<?>) metaProperty).getConstructorIndex();
-        } catch (ClassCastException ex) {
-            for (MetaProperty<?> mp : metaBean.metaPropertyIterable()) {
-                if (mp.equals(metaProperty)) {
-                    return ((LightMetaProperty<?>) mp).getConstructorIndex();
-                }
-            }
-            throw ex;
         }
+        // a meta-property of another meta-bean that is equal to one of this meta-bean
+        int ordinal = metaBean.propertyOrdinal(metaProperty.name());
+        if (ordinal >= 0 && metaBean.metaProperty(metaProperty.name()).equals(metaProperty)) {
+            return ordinal;
+        }
+        throw new ClassCastException("Meta-property is not part of " + metaBean.beanName() + ": " + metaProperty);
     }
 
     //-----------------------------------------------------------------------
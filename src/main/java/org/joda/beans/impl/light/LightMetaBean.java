@@ -21,8 +21,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -35,6 +36,8 @@ import org.joda.beans.MetaProperty;
 import org.joda.beans.PropertyDefinition;
 import org.joda.beans.PropertyMap;
 import org.joda.beans.impl.BasicPropertyMap;
+import org.joda.beans.impl.IndexedBeanBuilder;
+import org.joda.beans.impl.PropertyNameIndex;
 
 /**
  * A light meta-bean implementation that operates using reflection.
@@ -52,6 +55,14 @@ public final class LightMetaBean<T extends Bean> implements MetaBean {
     private final Class<? extends Bean> beanType;
     /** The meta-property instances of the bean. */
     private final Map<String, MetaProperty<?>> metaPropertyMap;
+    /** The index of property names. */
+    private final PropertyNameIndex index;
+    /** The meta-property instances of the bean, in index order. */
+    private final MetaProperty<?>[] metaProperties;
+    /** The ordinals used by {@code IndexedBeanBuilder}, created when first needed. */
+    private volatile IndexedBeanBuilder.Ordinals ordinals;
+    /** The fields of the bean, in index order. */
+    private final Field[] fields;
     /** The constructor to use. */
     private final Constructor<T> constructor;
     /** The construction data array. */
@@ -81,9 +92,10 @@ public final class LightMetaBean<T extends Bean> implements MetaBean {
             throw new NullPointerException("Bean class must not be null");
         }
         this.beanType = beanType;
-        Map<String, MetaProperty<?>> map = new HashMap<String, MetaProperty<?>>();
+        Map<String, MetaProperty<?>> map = new LinkedHashMap<String, MetaProperty<?>>();
         Field[] fields = beanType.getDeclaredFields();
         List<Class<?>> propertyTypes = new ArrayList<Class<?>>();
+        List<Field> propertyFields = new ArrayList<Field>();
         for (Field field : fields) {
             if (!Modifier.isStatic(field.getModifiers()) && field.getAnnotation(PropertyDefinition.class) != null) {
                 PropertyDefinition pdef = field.getAnnotation(PropertyDefinition.class);
@@ -96,6 +108,7 @@ public final class LightMetaBean<T extends Bean> implements MetaBean {
                     }
                     map.put(name, mp);
                     propertyTypes.add(field.getType());
+                    propertyFields.add(field);
                 } else if (!pdef.get().equals("")) {
                     String getterName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
                     Method getMethod = null;
@@ -123,11 +136,16 @@ public final class LightMetaBean<T extends Bean> implements MetaBean {
                         map.put(name, MutableLightMetaProperty.of(
                                 this, field, getMethod, setMethod, name, propertyTypes.size()));
                     }
+                    field.setAccessible(true);
                     propertyTypes.add(field.getType());
+                    propertyFields.add(field);
                 }
             }
         }
         this.metaPropertyMap = Collections.unmodifiableMap(map);
+        this.index = PropertyNameIndex.of(map.keySet());
+        this.metaProperties = map.values().toArray(new MetaProperty<?>[map.size()]);
+        this.fields = propertyFields.toArray(new Field[propertyFields.size()]);
         this.constructor = findConstructor(beanType, propertyTypes);
         this.constructionData = buildConstructionData(constructor);
     }
@@ -255,7 +273,59 @@ public final class LightMetaBean<T extends Bean> implements MetaBean {
         }
     }
 
+    /**
+     * Gets the ordinal of the property, which is also the index in the constructor.
+     * 
+     * @param propertyName  the property name, may be null
+     * @return the ordinal, -1 if not found
+     */
+    int propertyOrdinal(Object propertyName) {
+        return index.indexOf(propertyName);
+    }
+
     //-----------------------------------------------------------------------
+    /**
+     * Returns a copy of the bean with the value of one property changed.
+     * <p>
+     * The values of the other properties are read directly from the fields of the bean
+     * and passed to the constructor, thus immutable values and collections are shared
+     * with the original bean rather than being copied via a builder.
+     * If the new value is the same as the current value, the bean is returned unchanged.
+     * 
+     * @param bean  the bean to copy, not null
+     * @param metaProperty  the meta-property to change, not null
+     * @param value  the new value of the property, may be null
+     * @return the bean with the new value, not null
+     * @throws NoSuchElementException if the property is not part of this meta-bean
+     */
+    public T with(T bean, MetaProperty<?> metaProperty, Object value) {
+        if (bean == null) {
+            throw new NullPointerException("Bean must not be null");
+        }
+        if (metaProperty == null) {
+            throw new NullPointerException("MetaProperty must not be null");
+        }
+        int ordinal = index.indexOf(metaProperty.name());
+        if (ordinal < 0 || metaProperties[ordinal].equals(metaProperty) == false) {
+            throw new NoSuchElementException("Property not found: " + metaProperty.name());
+        }
+        try {
+            Object[] args = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                args[i] = fields[i].get(bean);
+            }
+            Object current = args[ordinal];
+            if (current == value || (fields[ordinal].getType().isPrimitive() && current.equals(value))) {
+                return bean;
+            }
+            args[ordinal] = value;
+            return build(args);
+            
+        } catch (IllegalAccessException ex) {
+            throw new UnsupportedOperationException("Property cannot be read: " + metaProperty.name(), ex);
+        }
+    }
+
     @Override
     public BeanBuilder<T> builder() {
         return new LightBeanBuilder<T>(this, constructionData.clone());
@@ -285,22 +355,22 @@ public final class LightMetaBean<T extends Bean> implements MetaBean {
 
     @Override
     public boolean metaPropertyExists(String propertyName) {
-        return metaPropertyMap.containsKey(propertyName);
+        return index.indexOf(propertyName) >= 0;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <R> MetaProperty<R> metaProperty(String propertyName) {
-        MetaProperty<?> metaProperty = metaPropertyMap.get(propertyName);
-        if (metaProperty == null) {
+        int ordinal = index.indexOf(propertyName);
+        if (ordinal < 0) {
             throw new NoSuchElementException("Property not found: " + propertyName);
         }
-        return (MetaProperty<R>) metaProperty;
+        return (MetaProperty<R>) metaProperties[ordinal];
     }
 
     @Override
     public Iterable<MetaProperty<?>> metaPropertyIterable() {
-        return metaPropertyMap.values();
+        return Collections.unmodifiableList(Arrays.asList(metaProperties));
     }
 
     @Override
@@ -308,6 +378,22 @@ public final class LightMetaBean<T extends Bean> implements MetaBean {
         return metaPropertyMap;
     }
 
+    /**
+     * Gets the ordinals of the meta-properties, used by {@code IndexedBeanBuilder}.
+     * <p>
+     * The ordinals share the index of property names held by this meta-bean.
+     * 
+     * @return the ordinals, not null
+     */
+    public IndexedBeanBuilder.Ordinals ordinals() {
+        IndexedBeanBuilder.Ordinals result = ordinals;
+        if (result == null) {
+            result = IndexedBeanBuilder.Ordinals.of(metaProperties, index);
+            ordinals = result;
+        }
+        return result;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public boolean equals(Object obj) {
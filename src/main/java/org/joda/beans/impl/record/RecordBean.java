@@ -0,0 +1,281 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl.record;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.beans.DynamicBean;
+import org.joda.beans.Property;
+import org.joda.beans.impl.BasicProperty;
+
+/**
+ * Implementation of a dynamic bean that stores its values in an array.
+ * <p>
+ * A record-bean holds a reference to its schema, a {@link RecordMetaBean}, and an array of
+ * values, one for each column of the schema. The schema is shared by all records with the
+ * same columns, so each record is much smaller than the equivalent {@code MapBean} or
+ * {@code FlexiBean}. Values can be accessed by column position or name.
+ * <p>
+ * Properties can be added and removed, which moves the record to a different schema.
+ * This is much slower than setting values, thus records are best created from a schema
+ * containing all the required columns.
+ * <p>
+ * This class is not thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class RecordBean implements DynamicBean, Cloneable, Serializable {
+
+    /** Serialization version. */
+    private static final long serialVersionUID = 1L;
+
+    /** The schema. */
+    private RecordMetaBean schema;
+    /** The values, in column order. */
+    private Object[] values;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an empty record with no columns.
+     */
+    public RecordBean() {
+        this(RecordMetaBean.EMPTY);
+    }
+
+    /**
+     * Creates a record using the specified schema with all values set to null.
+     * 
+     * @param schema  the schema, not null
+     */
+    public RecordBean(RecordMetaBean schema) {
+        this(schema, new Object[schema.columnCount()]);
+    }
+
+    /**
+     * Creates a record without copying the values.
+     * 
+     * @param schema  the schema, not null
+     * @param values  the values, matching the schema, not null
+     */
+    RecordBean(RecordMetaBean schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of columns in the record.
+     * 
+     * @return the number of columns
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Gets the value of the column at the specified position.
+     * 
+     * @param columnIndex  the column index
+     * @return the value, may be null
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public Object get(int columnIndex) {
+        return values[columnIndex];
+    }
+
+    /**
+     * Sets the value of the column at the specified position.
+     * 
+     * @param columnIndex  the column index
+     * @param value  the value, may be null
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void set(int columnIndex, Object value) {
+        values[columnIndex] = value;
+    }
+
+    /**
+     * Gets the value of the specified column.
+     * 
+     * @param columnName  the column name, not null
+     * @return the value, null if the column does not exist
+     */
+    public Object get(String columnName) {
+        int columnIndex = schema.columnIndex(columnName);
+        return columnIndex >= 0 ? values[columnIndex] : null;
+    }
+
+    /**
+     * Sets the value of the specified column, adding the column if necessary.
+     * 
+     * @param columnName  the column name, not empty
+     * @param value  the value, may be null
+     */
+    public void set(String columnName, Object value) {
+        int columnIndex = schema.columnIndex(columnName);
+        if (columnIndex < 0) {
+            propertyDefine(columnName, Object.class);
+            columnIndex = values.length - 1;
+        }
+        values[columnIndex] = value;
+    }
+
+    /**
+     * Checks if the record contains the specified column.
+     * 
+     * @param columnName  the column name, null returns false
+     * @return true if the column exists
+     */
+    public boolean contains(String columnName) {
+        return schema.columnIndex(columnName) >= 0;
+    }
+
+    /**
+     * Returns a map representing the contents of the record.
+     * 
+     * @return the unmodifiable map of column name to value, in column order, not null
+     */
+    public Map<String, Object> toMap() {
+        if (values.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < values.length; i++) {
+            map.put(schema.columnName(i), values[i]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public RecordMetaBean metaBean() {
+        return schema;
+    }
+
+    @Override
+    public Property<Object> property(String name) {
+        return BasicProperty.of(this, schema.<Object>metaProperty(name));
+    }
+
+    /**
+     * Gets the set of column names.
+     * <p>
+     * The set is the set of columns of the current schema.
+     * 
+     * @return the unmodifiable set of column names, not null
+     */
+    @Override
+    public Set<String> propertyNames() {
+        return schema.metaPropertyMap().keySet();
+    }
+
+    @Override
+    public void propertyDefine(String propertyName, Class<?> propertyType) {
+        if (schema.columnIndex(propertyName) < 0) {
+            schema = schema.withColumn(propertyName);
+            values = Arrays.copyOf(values, values.length + 1);
+        }
+    }
+
+    @Override
+    public void propertyRemove(String propertyName) {
+        int columnIndex = schema.columnIndex(propertyName);
+        if (columnIndex >= 0) {
+            Object[] newValues = new Object[values.length - 1];
+            System.arraycopy(values, 0, newValues, 0, columnIndex);
+            System.arraycopy(values, columnIndex + 1, newValues, columnIndex, newValues.length - columnIndex);
+            schema = schema.withoutColumn(columnIndex);
+            values = newValues;
+        }
+    }
+
+    @Override
+    public RecordBean clone() {
+        return new RecordBean(schema, values.clone());
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Compares this record to another.
+     * <p>
+     * Records are equal if they have the same columns and values,
+     * independent of the order of the columns.
+     * The values are compared using {@code equals}, as a map would compare them.
+     * 
+     * @param obj  the object to compare to, null returns false
+     * @return true if the records are equal
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof RecordBean) {
+            RecordBean other = (RecordBean) obj;
+            if (values.length != other.values.length) {
+                return false;
+            }
+            boolean sameSchema = (schema == other.schema);
+            for (int i = 0; i < values.length; i++) {
+                int otherIndex = sameSchema ? i : other.schema.columnIndex(schema.columnName(i));
+                if (otherIndex < 0) {
+                    return false;
+                }
+                Object value = values[i];
+                Object otherValue = other.values[otherIndex];
+                if (value == null ? otherValue != null : value.equals(otherValue) == false) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a suitable hash code.
+     * 
+     * @return a hash code
+     */
+    @Override
+    public int hashCode() {
+        // a record compares as its map of column name to value would, so has the same hash code
+        int hash = 0;
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            hash += schema.columnName(i).hashCode() ^ (value != null ? value.hashCode() : 0);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a string that summarises the bean.
+     * <p>
+     * The string contains the class name and properties.
+     * 
+     * @return a summary string, not null
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + toMap().toString();
+    }
+
+}
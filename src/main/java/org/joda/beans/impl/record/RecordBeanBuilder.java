@@ -0,0 +1,191 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl.record;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.MetaProperty;
+
+/**
+ * Implementation of a meta-bean builder for {@code RecordBean}.
+ * <p>
+ * The builder starts from the schema most recently built by a builder of the same
+ * meta-bean, so that records read one after another with the same columns are
+ * built directly into a correctly sized array of the shared schema.
+ * 
+ * @author Stephen Colebourne
+ */
+class RecordBeanBuilder implements BeanBuilder<RecordBean> {
+
+    /**
+     * The schema the builder was obtained from.
+     */
+    private final RecordMetaBean base;
+    /**
+     * The schema being targeted, which contains at least the columns of the base.
+     */
+    private final RecordMetaBean target;
+    /**
+     * The values, in the column order of the target.
+     */
+    private final Object[] values;
+    /**
+     * Whether each column of the target has been set, null if the target is the base.
+     */
+    private final boolean[] setFlags;
+    /**
+     * The names of the columns not in the target, null if none.
+     */
+    private List<String> extraNames;
+    /**
+     * The values of the columns not in the target, null if none.
+     */
+    private List<Object> extraValues;
+
+    /**
+     * Creates the builder.
+     * 
+     * @param base  the schema the builder was obtained from, not null
+     */
+    RecordBeanBuilder(RecordMetaBean base) {
+        this.base = base;
+        this.target = base.buildHint();
+        this.values = new Object[target.columnCount()];
+        this.setFlags = (target != base ? new boolean[values.length] : null);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+        // lenient getter
+        int columnIndex = target.columnIndex(propertyName);
+        if (columnIndex >= 0) {
+            return values[columnIndex];
+        }
+        if (extraNames != null) {
+            int extraIndex = extraNames.indexOf(propertyName);
+            if (extraIndex >= 0) {
+                return extraValues.get(extraIndex);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object get(MetaProperty<?> metaProperty) {
+        // this approach allows meta-property from one bean to be used with another
+        return get(metaProperty.name());
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public RecordBeanBuilder set(String propertyName, Object value) {
+        int columnIndex = target.columnIndex(propertyName);
+        if (columnIndex >= 0) {
+            values[columnIndex] = value;
+            if (setFlags != null) {
+                setFlags[columnIndex] = true;
+            }
+            return this;
+        }
+        if (extraNames == null) {
+            extraNames = new ArrayList<String>();
+            extraValues = new ArrayList<Object>();
+        }
+        int extraIndex = extraNames.indexOf(propertyName);
+        if (extraIndex >= 0) {
+            extraValues.set(extraIndex, value);
+        } else {
+            extraNames.add(propertyName);
+            extraValues.add(value);
+        }
+        return this;
+    }
+
+    @Override
+    public RecordBeanBuilder set(MetaProperty<?> metaProperty, Object value) {
+        // this approach allows meta-property from one bean to be used with another
+        return set(metaProperty.name(), value);
+    }
+
+    @Override
+    public RecordBeanBuilder setString(String propertyName, String value) {
+        // no type information to perform a conversion
+        return set(propertyName, value);
+    }
+
+    @Override
+    public RecordBeanBuilder setString(MetaProperty<?> metaProperty, String value) {
+        // no type information to perform a conversion
+        return set(metaProperty.name(), value);
+    }
+
+    @Override
+    public RecordBeanBuilder setAll(Map<String, ? extends Object> propertyValueMap) {
+        for (Entry<String, ? extends Object> entry : propertyValueMap.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public RecordBean build() {
+        if (extraNames == null && allSet()) {
+            return new RecordBean(target, values);
+        }
+        // the columns differ from the target, so find the matching schema
+        List<String> names = new ArrayList<String>();
+        List<Object> newValues = new ArrayList<Object>();
+        for (int i = 0; i < values.length; i++) {
+            if (setFlags == null || setFlags[i] || base.columnIndex(target.columnName(i)) >= 0) {
+                names.add(target.columnName(i));
+                newValues.add(values[i]);
+            }
+        }
+        if (extraNames != null) {
+            names.addAll(extraNames);
+            newValues.addAll(extraValues);
+        }
+        RecordMetaBean schema = RecordMetaBean.of(names);
+        if (schema != base) {
+            base.buildHint(schema);
+        }
+        return new RecordBean(schema, newValues.toArray());
+    }
+
+    // checks if every column of the target has been set
+    private boolean allSet() {
+        if (setFlags != null) {
+            for (boolean flag : setFlags) {
+                if (flag == false) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "RecordBeanBuilder";
+    }
+
+}
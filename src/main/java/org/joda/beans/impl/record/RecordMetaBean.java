@@ -0,0 +1,332 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl.record;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.DynamicMetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.impl.BasicMetaBean;
+import org.joda.beans.impl.PropertyNameIndex;
+
+/**
+ * The meta-bean of a record-bean, being an immutable schema of columns.
+ * <p>
+ * Unlike other dynamic meta-beans, a single instance is shared by all records with the
+ * same columns in the same order. Each column has a fixed position in the value array
+ * of the record, allowing positional access. Schemas are interned, thus records created
+ * with the same columns, including those read by {@code JodaBeanSer}, share the same schema.
+ * <p>
+ * As the schema is shared, it cannot be changed. Defining or removing a property on
+ * a {@link RecordBean} moves that record to a different schema.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class RecordMetaBean extends BasicMetaBean implements DynamicMetaBean, Serializable {
+
+    /** Serialization version. */
+    private static final long serialVersionUID = 1L;
+    /** The maximum number of interned schemas. */
+    private static final int MAX_INTERNED = 1024;
+    /** The interned schemas. */
+    private static final ConcurrentHashMap<List<String>, RecordMetaBean> INTERNED =
+            new ConcurrentHashMap<List<String>, RecordMetaBean>();
+    /** The schema with no columns. */
+    static final RecordMetaBean EMPTY = of();
+
+    /** The column names, in order. */
+    private final String[] names;
+    /** The index of column names. */
+    private final transient PropertyNameIndex index;
+    /** The meta-properties, in column order. */
+    private final transient RecordMetaProperty[] metaProperties;
+    /** The meta-property map. */
+    private final transient Map<String, MetaProperty<?>> metaPropertyMap;
+    /** The schema most recently built from this schema, used to size builders. */
+    private transient volatile RecordMetaBean buildHint;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains a schema with the specified columns.
+     * 
+     * @param columnNames  the column names, in order, not null
+     * @return the schema, not null
+     * @throws IllegalArgumentException if a name is empty or duplicated
+     */
+    public static RecordMetaBean of(String... columnNames) {
+        if (columnNames == null) {
+            throw new NullPointerException("Column names must not be null");
+        }
+        return of(Arrays.asList(columnNames));
+    }
+
+    /**
+     * Obtains a schema with the specified columns.
+     * 
+     * @param columnNames  the column names, in order, not null
+     * @return the schema, not null
+     * @throws IllegalArgumentException if a name is empty or duplicated
+     */
+    public static RecordMetaBean of(List<String> columnNames) {
+        if (columnNames == null) {
+            throw new NullPointerException("Column names must not be null");
+        }
+        RecordMetaBean schema = INTERNED.get(columnNames);
+        if (schema != null) {
+            return schema;
+        }
+        String[] names = columnNames.toArray(new String[columnNames.size()]);
+        for (String name : names) {
+            if (name == null || name.length() == 0) {
+                throw new IllegalArgumentException("Invalid column name for RecordBean: " + name);
+            }
+        }
+        schema = new RecordMetaBean(names);
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return schema;
+        }
+        RecordMetaBean existing = INTERNED.putIfAbsent(Collections.unmodifiableList(Arrays.asList(names)), schema);
+        return existing != null ? existing : schema;
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param names  the column names, not null
+     */
+    private RecordMetaBean(String[] names) {
+        this.names = names;
+        this.index = PropertyNameIndex.of(names);
+        this.metaProperties = new RecordMetaProperty[names.length];
+        Map<String, MetaProperty<?>> map = new LinkedHashMap<String, MetaProperty<?>>();
+        for (int i = 0; i < names.length; i++) {
+            metaProperties[i] = new RecordMetaProperty(this, names[i], i);
+            map.put(names[i], metaProperties[i]);
+        }
+        this.metaPropertyMap = Collections.unmodifiableMap(map);
+    }
+
+    // intern on deserialization
+    private Object readResolve() {
+        return of(names);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of columns.
+     * 
+     * @return the number of columns
+     */
+    public int columnCount() {
+        return names.length;
+    }
+
+    /**
+     * Gets the name of the column at the specified position.
+     * 
+     * @param columnIndex  the column index
+     * @return the column name, not null
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public String columnName(int columnIndex) {
+        return names[columnIndex];
+    }
+
+    /**
+     * Gets the position of the specified column.
+     * 
+     * @param columnName  the column name, may be null
+     * @return the column index, -1 if not found
+     */
+    public int columnIndex(String columnName) {
+        return index.indexOf(columnName);
+    }
+
+    /**
+     * Gets the schema with the specified column added at the end.
+     * 
+     * @param columnName  the column name to add, not null
+     * @return the schema, not null
+     * @throws IllegalArgumentException if the name is empty or already present
+     */
+    public RecordMetaBean withColumn(String columnName) {
+        String[] newNames = Arrays.copyOf(names, names.length + 1);
+        newNames[names.length] = columnName;
+        return of(newNames);
+    }
+
+    /**
+     * Gets the schema with the column at the specified position removed.
+     * 
+     * @param columnIndex  the column index to remove
+     * @return the schema, not null
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public RecordMetaBean withoutColumn(int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= names.length) {
+            throw new IndexOutOfBoundsException("Invalid column index: " + columnIndex);
+        }
+        String[] newNames = new String[names.length - 1];
+        System.arraycopy(names, 0, newNames, 0, columnIndex);
+        System.arraycopy(names, columnIndex + 1, newNames, columnIndex, newNames.length - columnIndex);
+        return of(newNames);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates a record using this schema with all values set to null.
+     * 
+     * @return the record, not null
+     */
+    public RecordBean createRecord() {
+        return new RecordBean(this);
+    }
+
+    /**
+     * Creates a record using this schema with the specified values.
+     * 
+     * @param values  the values, in column order, not null
+     * @return the record, not null
+     * @throws IllegalArgumentException if the number of values does not match the number of columns
+     */
+    public RecordBean createRecord(Object... values) {
+        if (values.length != names.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + names.length + " values but found " + values.length + " for " + this);
+        }
+        return new RecordBean(this, values.clone());
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the schema to use as the starting point of a builder.
+     * 
+     * @return the schema, not null
+     */
+    RecordMetaBean buildHint() {
+        RecordMetaBean hint = buildHint;
+        return hint != null ? hint : this;
+    }
+
+    /**
+     * Sets the schema most recently built from this schema.
+     * 
+     * @param built  the schema, not null
+     */
+    void buildHint(RecordMetaBean built) {
+        buildHint = built;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public BeanBuilder<RecordBean> builder() {
+        return new RecordBeanBuilder(this);
+    }
+
+    @Override
+    public Class<RecordBean> beanType() {
+        return RecordBean.class;
+    }
+
+    @Override
+    public int metaPropertyCount() {
+        return names.length;
+    }
+
+    @Override
+    public boolean metaPropertyExists(String propertyName) {
+        return index.indexOf(propertyName) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R> MetaProperty<R> metaProperty(String propertyName) {
+        int columnIndex = index.indexOf(propertyName);
+        if (columnIndex >= 0) {
+            return (MetaProperty<R>) metaProperties[columnIndex];
+        }
+        // do not check if exists
+        return (MetaProperty<R>) new RecordMetaProperty(this, propertyName, -1);
+    }
+
+    @Override
+    public Iterable<MetaProperty<?>> metaPropertyIterable() {
+        return metaPropertyMap.values();
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+        return metaPropertyMap;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Always throws an exception as the schema is immutable.
+     * Use {@link RecordBean#propertyDefine(String, Class)} instead.
+     * 
+     * @param propertyName  the property name, not null
+     * @param propertyType  the property type, not null
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void metaPropertyDefine(String propertyName, Class<?> propertyType) {
+        throw new UnsupportedOperationException("RecordMetaBean is immutable, use RecordBean.propertyDefine()");
+    }
+
+    /**
+     * Always throws an exception as the schema is immutable.
+     * Use {@link RecordBean#propertyRemove(String)} instead.
+     * 
+     * @param propertyName  the property name, null ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void metaPropertyRemove(String propertyName) {
+        throw new UnsupportedOperationException("RecordMetaBean is immutable, use RecordBean.propertyRemove()");
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof RecordMetaBean) {
+            return Arrays.equals(names, ((RecordMetaBean) obj).names);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return "MetaBean:RecordBean" + Arrays.toString(names);
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl.record;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.beans.Bean;
+import org.joda.beans.MetaBean;
+import org.joda.beans.PropertyStyle;
+import org.joda.beans.impl.BasicMetaProperty;
+
+/**
+ * A meta-property using a {@code RecordBean} for storage.
+ * <p>
+ * A meta-property for a column of the schema accesses the value by position.
+ * 
+ * @author Stephen Colebourne
+ */
+final class RecordMetaProperty extends BasicMetaProperty<Object> {
+
+    /** The meta-bean. */
+    private final RecordMetaBean metaBean;
+    /** The column index, -1 if not a column of the meta-bean. */
+    private final int columnIndex;
+
+    /**
+     * Constructor.
+     * 
+     * @param metaBean  the meta-bean, not null
+     * @param propertyName  the property name, not empty
+     * @param columnIndex  the column index, -1 if not a column of the meta-bean
+     */
+    RecordMetaProperty(RecordMetaBean metaBean, String propertyName, int columnIndex) {
+        super(propertyName);
+        this.metaBean = metaBean;
+        this.columnIndex = columnIndex;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public MetaBean metaBean() {
+        return metaBean;
+    }
+
+    @Override
+    public Class<?> declaringType() {
+        return RecordBean.class;
+    }
+
+    @Override
+    public Class<Object> propertyType() {
+        return Object.class;
+    }
+
+    @Override
+    public Class<Object> propertyGenericType() {
+        return Object.class;
+    }
+
+    @Override
+    public PropertyStyle style() {
+        return PropertyStyle.READ_WRITE;
+    }
+
+    @Override
+    public List<Annotation> annotations() {
+        return Collections.emptyList();
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(Bean bean) {
+        RecordBean record = (RecordBean) bean;
+        if (columnIndex >= 0 && record.metaBean() == metaBean) {
+            return record.get(columnIndex);
+        }
+        // this approach allows meta-property from one schema to be used with another
+        return record.get(name());
+    }
+
+    @Override
+    public void set(Bean bean, Object value) {
+        RecordBean record = (RecordBean) bean;
+        if (columnIndex >= 0 && record.metaBean() == metaBean) {
+            record.set(columnIndex, value);
+        } else {
+            record.set(name(), value);
+        }
+    }
+
+}
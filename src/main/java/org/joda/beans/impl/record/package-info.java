@@ -0,0 +1,24 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+/**
+ * Implementation of Joda-Beans holding values in an array.
+ * <p>
+ * A {@code RecordBean} is a dynamic bean whose meta-bean is a shared, immutable column schema.
+ * This is similar to a {@code MapBean}, but with far less memory per instance, making it
+ * suitable for large numbers of records with the same properties.
+ */
+package org.joda.beans.impl.record;
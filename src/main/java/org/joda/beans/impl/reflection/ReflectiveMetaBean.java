@@ -17,8 +17,9 @@ package org.joda.beans.impl.reflection;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -29,6 +30,8 @@ import org.joda.beans.MetaProperty;
 import org.joda.beans.PropertyMap;
 import org.joda.beans.impl.BasicBeanBuilder;
 import org.joda.beans.impl.BasicPropertyMap;
+import org.joda.beans.impl.IndexedBeanBuilder;
+import org.joda.beans.impl.PropertyNameIndex;
 
 /**
  * A standard meta-bean implementation.
@@ -44,6 +47,12 @@ public final class ReflectiveMetaBean implements MetaBean {
     private final Class<? extends Bean> beanType;
     /** The meta-property instances of the bean. */
     private final Map<String, MetaProperty<?>> metaPropertyMap;
+    /** The index of property names. */
+    private final PropertyNameIndex index;
+    /** The meta-property instances of the bean, in index order. */
+    private final MetaProperty<?>[] metaProperties;
+    /** The ordinals used by {@code IndexedBeanBuilder}, created when first needed. */
+    private volatile IndexedBeanBuilder.Ordinals ordinals;
 
     /**
      * Factory to create a meta-bean avoiding duplicate generics.
@@ -67,7 +76,7 @@ public final class ReflectiveMetaBean implements MetaBean {
             throw new NullPointerException("Bean class must not be null");
         }
         this.beanType = beanType;
-        Map<String, MetaProperty<?>> map = new HashMap<String, MetaProperty<?>>();
+        Map<String, MetaProperty<?>> map = new LinkedHashMap<String, MetaProperty<?>>();
         Field[] fields = beanType.getDeclaredFields();
         for (Field field : fields) {
             if (MetaProperty.class.isAssignableFrom(field.getType()) && Modifier.isStatic(field.getModifiers())) {
@@ -91,6 +100,8 @@ public final class ReflectiveMetaBean implements MetaBean {
         }
         
         this.metaPropertyMap = Collections.unmodifiableMap(map);
+        this.index = PropertyNameIndex.of(map.keySet());
+        this.metaProperties = map.values().toArray(new MetaProperty<?>[map.size()]);
     }
 
     //-----------------------------------------------------------------------
@@ -130,22 +141,22 @@ public final class ReflectiveMetaBean implements MetaBean {
 
     @Override
     public boolean metaPropertyExists(String propertyName) {
-        return metaPropertyMap.containsKey(propertyName);
+        return index.indexOf(propertyName) >= 0;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <R> MetaProperty<R> metaProperty(String propertyName) {
-        MetaProperty<?> metaProperty = metaPropertyMap.get(propertyName);
-        if (metaProperty == null) {
+        int ordinal = index.indexOf(propertyName);
+        if (ordinal < 0) {
             throw new NoSuchElementException("Property not found: " + propertyName);
         }
-        return (MetaProperty<R>) metaProperty;
+        return (MetaProperty<R>) metaProperties[ordinal];
     }
 
     @Override
     public Iterable<MetaProperty<?>> metaPropertyIterable() {
-        return metaPropertyMap.values();
+        return Collections.unmodifiableList(Arrays.asList(metaProperties));
     }
 
     @Override
@@ -153,6 +164,22 @@ public final class ReflectiveMetaBean implements MetaBean {
         return metaPropertyMap;
     }
 
+    /**
+     * Gets the ordinals of the meta-properties, used by {@code IndexedBeanBuilder}.
+     * <p>
+     * The ordinals share the index of property names held by this meta-bean.
+     * 
+     * @return the ordinals, not null
+     */
+    public IndexedBeanBuilder.Ordinals ordinals() {
+        IndexedBeanBuilder.Ordinals result = ordinals;
+        if (result == null) {
+            result = IndexedBeanBuilder.Ordinals.of(metaProperties, index);
+            ordinals = result;
+        }
+        return result;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public boolean equals(Object obj) {
@@ -0,0 +1,202 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.io.Serializable;
+
+/**
+ * The result of aggregating a numeric value over a group of beans.
+ * <p>
+ * The count is the number of beans in the group.
+ * The sum, minimum, maximum and average are calculated over the non-null values.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class BeanAggregate implements Serializable {
+
+    /**
+     * An empty aggregate.
+     */
+    public static final BeanAggregate EMPTY =
+            new BeanAggregate(0, 0, 0d, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    /** Serialization version. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of beans.
+     */
+    private final long count;
+    /**
+     * The number of non-null values.
+     */
+    private final long valueCount;
+    /**
+     * The sum of the values.
+     */
+    private final double sum;
+    /**
+     * The minimum value.
+     */
+    private final double min;
+    /**
+     * The maximum value.
+     */
+    private final double max;
+
+    /**
+     * Restricted constructor.
+     */
+    BeanAggregate(long count, long valueCount, double sum, double min, double max) {
+        this.count = count;
+        this.valueCount = valueCount;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of beans.
+     * 
+     * @return the number of beans
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of non-null values.
+     * 
+     * @return the number of values
+     */
+    public long getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Gets the sum of the values.
+     * 
+     * @return the sum, zero if there are no values
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the minimum value.
+     * 
+     * @return the minimum, positive infinity if there are no values
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the maximum value.
+     * 
+     * @return the maximum, negative infinity if there are no values
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the average of the values.
+     * 
+     * @return the average, NaN if there are no values
+     */
+    public double getAverage() {
+        return valueCount == 0 ? Double.NaN : sum / valueCount;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Combines this aggregate with another, as though the two groups were one.
+     * 
+     * @param other  the other aggregate, not null
+     * @return the combined aggregate, not null
+     */
+    public BeanAggregate combinedWith(BeanAggregate other) {
+        return new BeanAggregate(
+                count + other.count, valueCount + other.valueCount, sum + other.sum,
+                Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof BeanAggregate) {
+            BeanAggregate other = (BeanAggregate) obj;
+            return count == other.count && valueCount == other.valueCount &&
+                    Double.doubleToLongBits(sum) == Double.doubleToLongBits(other.sum) &&
+                    Double.doubleToLongBits(min) == Double.doubleToLongBits(other.min) &&
+                    Double.doubleToLongBits(max) == Double.doubleToLongBits(other.max);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(sum) ^ Double.doubleToLongBits(min) * 31 ^ Double.doubleToLongBits(max) * 17;
+        return (int) (count ^ valueCount * 13 ^ bits ^ (bits >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "BeanAggregate[count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", average=" + getAverage() + "]";
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Mutable accumulator.
+     */
+    static final class Accumulator {
+        long count;
+        long valueCount;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void add(Number value) {
+            count++;
+            if (value != null) {
+                double val = value.doubleValue();
+                valueCount++;
+                sum += val;
+                min = Math.min(min, val);
+                max = Math.max(max, val);
+            }
+        }
+
+        void add(Accumulator other) {
+            count += other.count;
+            valueCount += other.valueCount;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        BeanAggregate toAggregate() {
+            return new BeanAggregate(count, valueCount, sum, min, max);
+        }
+    }
+
+}
@@ -0,0 +1,467 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+
+/**
+ * A comparator of beans using one or more {@link BeanQuery} keys.
+ * <p>
+ * Each key is ascending or descending, with nulls first or last.
+ * The result of each key query must be {@link Comparable}.
+ * <p>
+ * As a comparator, each query is evaluated on both beans in every comparison.
+ * The {@link #sort(Collection)} methods are more efficient for large collections,
+ * evaluating each query once per bean and holding numeric keys in primitive arrays.
+ * <p>
+ * This class is immutable and thread-safe if the queries are.
+ * 
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public final class BeanComparator<T extends Bean> implements Comparator<T> {
+
+    /**
+     * The size below which insertion sort is used.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    /**
+     * The minimum number of beans in each parallel chunk.
+     */
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * The keys.
+     */
+    private final Key[] keys;
+
+    //-------------------------------------------------------------------------
+    /**
+     * Creates a builder.
+     * 
+     * @param <T>  the type of the bean
+     * @return the builder, not null
+     */
+    public static <T extends Bean> Builder<T> builder() {
+        return new Builder<T>();
+    }
+
+    /**
+     * Creates a comparator sorting ascending by each key in turn, with nulls last.
+     * 
+     * @param <T>  the type of the bean
+     * @param keys  the queries to sort by, in order of priority, not empty
+     * @return the comparator, not null
+     */
+    public static <T extends Bean> BeanComparator<T> ascending(BeanQuery<?>... keys) {
+        JodaBeanUtils.notNull(keys, "keys");
+        Builder<T> builder = builder();
+        for (BeanQuery<?> key : keys) {
+            builder.ascending(key);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param keys  the keys, not empty
+     */
+    private BeanComparator(Key[] keys) {
+        this.keys = keys;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Compares two beans.
+     * 
+     * @param bean1  the first bean, not null
+     * @param bean2  the second bean, not null
+     * @return negative if the first bean is less, zero if equal, positive if greater
+     */
+    @Override
+    public int compare(T bean1, T bean2) {
+        for (Key key : keys) {
+            int cmp = key.compareValues(key.query.get(bean1), key.query.get(bean2));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sorts the beans, evaluating each query once per bean.
+     * <p>
+     * The sort is stable.
+     * 
+     * @param beans  the beans to sort, not null
+     * @return the sorted beans, not null
+     */
+    public List<T> sort(Collection<? extends T> beans) {
+        return sort(beans, null);
+    }
+
+    /**
+     * Sorts the beans, evaluating each query once per bean, using the executor for large inputs.
+     * <p>
+     * The sort is stable. Large inputs are split into chunks that are sorted
+     * by tasks submitted to the executor and then merged.
+     * 
+     * @param beans  the beans to sort, not null
+     * @param executor  the executor, null to sort sequentially
+     * @return the sorted beans, not null
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> sort(Collection<? extends T> beans, ExecutorService executor) {
+        JodaBeanUtils.notNull(beans, "beans");
+        Object[] array = beans.toArray();
+        int size = array.length;
+        KeyColumn[] columns = new KeyColumn[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            columns[k] = keys[k].extract(array);
+        }
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        new RowSorter(columns, rows).sort(executor);
+        List<T> result = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++) {
+            result.add((T) array[rows[i]]);
+        }
+        return result;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(64).append("BeanComparator[");
+        for (int k = 0; k < keys.length; k++) {
+            if (k > 0) {
+                buf.append(", ");
+            }
+            buf.append(keys[k]);
+        }
+        return buf.append(']').toString();
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A builder for the comparator.
+     * 
+     * @param <T>  the type of the bean
+     */
+    public static final class Builder<T extends Bean> {
+        /** The keys. */
+        private final List<Key> keys = new ArrayList<Key>();
+
+        /**
+         * Restricted constructor.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Adds an ascending key, with nulls last.
+         * 
+         * @param query  the query, typically a meta-property, not null
+         * @return this, for chaining, not null
+         */
+        public Builder<T> ascending(BeanQuery<?> query) {
+            return key(query, false, false);
+        }
+
+        /**
+         * Adds a descending key, with nulls last.
+         * 
+         * @param query  the query, typically a meta-property, not null
+         * @return this, for chaining, not null
+         */
+        public Builder<T> descending(BeanQuery<?> query) {
+            return key(query, true, false);
+        }
+
+        /**
+         * Adds a key.
+         * 
+         * @param query  the query, typically a meta-property, not null
+         * @param descending  true for descending, false for ascending
+         * @param nullsFirst  true to sort nulls first, false to sort nulls last
+         * @return this, for chaining, not null
+         */
+        public Builder<T> key(BeanQuery<?> query, boolean descending, boolean nullsFirst) {
+            JodaBeanUtils.notNull(query, "query");
+            keys.add(new Key(query, descending, nullsFirst));
+            return this;
+        }
+
+        /**
+         * Builds the comparator.
+         * 
+         * @return the comparator, not null
+         * @throws IllegalStateException if no keys have been added
+         */
+        public BeanComparator<T> build() {
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("At least one key must be added");
+            }
+            return new BeanComparator<T>(keys.toArray(new Key[keys.size()]));
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A single sort key.
+     */
+    private static final class Key {
+        final BeanQuery<?> query;
+        final boolean descending;
+        final boolean nullsFirst;
+
+        Key(BeanQuery<?> query, boolean descending, boolean nullsFirst) {
+            this.query = query;
+            this.descending = descending;
+            this.nullsFirst = nullsFirst;
+        }
+
+        @SuppressWarnings("unchecked")
+        int compareValues(Object value1, Object value2) {
+            if (value1 == null || value2 == null) {
+                return compareNulls(value1 == null, value2 == null);
+            }
+            int cmp = ((Comparable<Object>) value1).compareTo(value2);
+            return descending ? -cmp : cmp;
+        }
+
+        int compareNulls(boolean null1, boolean null2) {
+            if (null1 == null2) {
+                return 0;
+            }
+            return (null1 == nullsFirst) ? -1 : 1;
+        }
+
+        // evaluates the query for each bean, using a primitive array where possible
+        KeyColumn extract(Object[] beans) {
+            int size = beans.length;
+            Object[] values = new Object[size];
+            boolean integral = true;
+            boolean floating = true;
+            for (int i = 0; i < size; i++) {
+                Object value = query.get((Bean) beans[i]);
+                values[i] = value;
+                if (value != null) {
+                    integral &= value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+                    floating &= value instanceof Double || value instanceof Float;
+                }
+            }
+            if (integral || floating) {
+                boolean[] nulls = new boolean[size];
+                long[] longs = integral ? new long[size] : null;
+                double[] doubles = integral ? null : new double[size];
+                for (int i = 0; i < size; i++) {
+                    Number value = (Number) values[i];
+                    if (value == null) {
+                        nulls[i] = true;
+                    } else if (integral) {
+                        longs[i] = value.longValue();
+                    } else {
+                        doubles[i] = value.doubleValue();
+                    }
+                }
+                return new KeyColumn(this, null, longs, doubles, nulls);
+            }
+            return new KeyColumn(this, values, null, null, null);
+        }
+
+        @Override
+        public String toString() {
+            return query + (descending ? " desc" : " asc") + (nullsFirst ? " nulls first" : " nulls last");
+        }
+    }
+
+    /**
+     * The extracted values of a key, one array element per bean.
+     */
+    private static final class KeyColumn {
+        final Key key;
+        final Object[] objects;
+        final long[] longs;
+        final double[] doubles;
+        final boolean[] nulls;
+
+        KeyColumn(Key key, Object[] objects, long[] longs, double[] doubles, boolean[] nulls) {
+            this.key = key;
+            this.objects = objects;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.nulls = nulls;
+        }
+
+        int compare(int row1, int row2) {
+            if (objects != null) {
+                return key.compareValues(objects[row1], objects[row2]);
+            }
+            if (nulls[row1] || nulls[row2]) {
+                return key.compareNulls(nulls[row1], nulls[row2]);
+            }
+            int cmp;
+            if (longs != null) {
+                long value1 = longs[row1];
+                long value2 = longs[row2];
+                cmp = (value1 < value2 ? -1 : (value1 == value2 ? 0 : 1));
+            } else {
+                cmp = Double.compare(doubles[row1], doubles[row2]);
+            }
+            return key.descending ? -cmp : cmp;
+        }
+    }
+
+    /**
+     * A stable merge sort of row numbers by the extracted keys.
+     */
+    private static final class RowSorter {
+        final KeyColumn[] columns;
+        final int[] rows;
+        final int[] aux;
+
+        RowSorter(KeyColumn[] columns, int[] rows) {
+            this.columns = columns;
+            this.rows = rows;
+            this.aux = new int[rows.length];
+        }
+
+        int compareRows(int row1, int row2) {
+            for (KeyColumn column : columns) {
+                int cmp = column.compare(row1, row2);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+
+        void sort(ExecutorService executor) {
+            int size = rows.length;
+            if (executor == null || size < PARALLEL_THRESHOLD * 2) {
+                mergeSort(0, size);
+                return;
+            }
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            int chunkSize = Math.max(PARALLEL_THRESHOLD, (size + parallelism - 1) / parallelism);
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            for (int start = 0; start < size; start += chunkSize) {
+                final int from = start;
+                final int to = Math.min(start + chunkSize, size);
+                tasks.add(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        mergeSort(from, to);
+                        return null;
+                    }
+                });
+            }
+            run(executor, tasks);
+            // merge adjacent sorted runs, doubling the run length each pass
+            for (int run = chunkSize; run < size; run *= 2) {
+                tasks.clear();
+                for (int start = 0; start + run < size; start += run * 2) {
+                    final int from = start;
+                    final int mid = start + run;
+                    final int to = Math.min(start + run * 2, size);
+                    tasks.add(new Callable<Object>() {
+                        @Override
+                        public Object call() {
+                            merge(from, mid, to);
+                            return null;
+                        }
+                    });
+                }
+                run(executor, tasks);
+            }
+        }
+
+        private void run(ExecutorService executor, List<Callable<Object>> tasks) {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>(tasks.size());
+            for (Callable<Object> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Object> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Sort interrupted", ex);
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) ex.getCause();
+                    }
+                    throw new IllegalStateException("Sort failed", ex.getCause());
+                }
+            }
+        }
+
+        void mergeSort(int from, int to) {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                for (int i = from + 1; i < to; i++) {
+                    int row = rows[i];
+                    int j = i;
+                    while (j > from && compareRows(rows[j - 1], row) > 0) {
+                        rows[j] = rows[j - 1];
+                        j--;
+                    }
+                    rows[j] = row;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(from, mid);
+            mergeSort(mid, to);
+            merge(from, mid, to);
+        }
+
+        void merge(int from, int mid, int to) {
+            if (compareRows(rows[mid - 1], rows[mid]) <= 0) {
+                return;  // already in order
+            }
+            System.arraycopy(rows, from, aux, from, to - from);
+            int i = from;
+            int j = mid;
+            for (int k = from; k < to; k++) {
+                if (i >= mid) {
+                    rows[k] = aux[j++];
+                } else if (j >= to || compareRows(aux[i], aux[j]) <= 0) {
+                    rows[k] = aux[i++];
+                } else {
+                    rows[k] = aux[j++];
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,416 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+
+/**
+ * A filter that selects beans based on the result of a {@link BeanQuery}.
+ * <p>
+ * Filters are used by {@link BeanQueryEngine}, which can use a {@link BeanIndex}
+ * to evaluate an equality or range filter where the index has the same query.
+ * A filter is itself a query returning {@code Boolean}.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @author Stephen Colebourne
+ */
+public abstract class BeanFilter implements BeanQuery<Boolean> {
+
+    /**
+     * The filter that matches all beans.
+     */
+    private static final BeanFilter ALL = new BeanFilter() {
+        @Override
+        public boolean matches(Bean bean) {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "all";
+        }
+    };
+
+    /**
+     * Obtains a filter that matches all beans.
+     * 
+     * @return the filter, not null
+     */
+    public static BeanFilter all() {
+        return ALL;
+    }
+
+    /**
+     * Obtains a filter that matches where the query returns true.
+     * 
+     * @param query  the query returning a boolean, not null
+     * @return the filter, not null
+     */
+    public static BeanFilter of(final BeanQuery<Boolean> query) {
+        JodaBeanUtils.notNull(query, "query");
+        if (query instanceof BeanFilter) {
+            return (BeanFilter) query;
+        }
+        return new BeanFilter() {
+            @Override
+            public boolean matches(Bean bean) {
+                return Boolean.TRUE.equals(query.get(bean));
+            }
+
+            @Override
+            public String toString() {
+                return query.toString();
+            }
+        };
+    }
+
+    /**
+     * Obtains a filter that matches where the query result equals the value.
+     * 
+     * @param query  the query, typically a meta-property, not null
+     * @param value  the value to match, null matches a null result
+     * @return the filter, not null
+     */
+    public static BeanFilter equalTo(BeanQuery<?> query, Object value) {
+        JodaBeanUtils.notNull(query, "query");
+        return new In(query, Collections.singleton(value));
+    }
+
+    /**
+     * Obtains a filter that matches where the query result is null.
+     * 
+     * @param query  the query, typically a meta-property, not null
+     * @return the filter, not null
+     */
+    public static BeanFilter isNull(BeanQuery<?> query) {
+        return equalTo(query, null);
+    }
+
+    /**
+     * Obtains a filter that matches where the query result equals one of the values.
+     * 
+     * @param query  the query, typically a meta-property, not null
+     * @param values  the values to match, not null
+     * @return the filter, not null
+     */
+    public static BeanFilter in(BeanQuery<?> query, Collection<?> values) {
+        JodaBeanUtils.notNull(query, "query");
+        JodaBeanUtils.notNull(values, "values");
+        return new In(query, Collections.unmodifiableSet(new LinkedHashSet<Object>(values)));
+    }
+
+    /**
+     * Obtains a filter that matches where the query result is within a range.
+     * <p>
+     * The query result must be {@link Comparable} with the bounds.
+     * A null query result never matches.
+     * 
+     * @param <K>  the type of the query result
+     * @param query  the query, typically a meta-property, not null
+     * @param from  the lower bound, null for no lower bound
+     * @param fromInclusive  true if the lower bound is included
+     * @param to  the upper bound, null for no upper bound
+     * @param toInclusive  true if the upper bound is included
+     * @return the filter, not null
+     */
+    public static <K extends Comparable<? super K>> BeanFilter between(
+            BeanQuery<K> query, K from, boolean fromInclusive, K to, boolean toInclusive) {
+        JodaBeanUtils.notNull(query, "query");
+        return new Range(query, from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * Obtains a filter that matches where the query result is within a range, inclusive of both bounds.
+     * 
+     * @param <K>  the type of the query result
+     * @param query  the query, typically a meta-property, not null
+     * @param from  the lower bound, inclusive, null for no lower bound
+     * @param to  the upper bound, inclusive, null for no upper bound
+     * @return the filter, not null
+     */
+    public static <K extends Comparable<? super K>> BeanFilter between(BeanQuery<K> query, K from, K to) {
+        return between(query, from, true, to, true);
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Obtains a filter that matches where all the filters match.
+     * 
+     * @param filters  the filters, not null
+     * @return the filter, not null
+     */
+    public static BeanFilter and(BeanFilter... filters) {
+        JodaBeanUtils.notNull(filters, "filters");
+        return new And(Arrays.asList(filters.clone()));
+    }
+
+    /**
+     * Obtains a filter that matches where any of the filters match.
+     * 
+     * @param filters  the filters, not null
+     * @return the filter, not null
+     */
+    public static BeanFilter or(final BeanFilter... filters) {
+        JodaBeanUtils.notNull(filters, "filters");
+        final List<BeanFilter> list = Arrays.asList(filters.clone());
+        return new BeanFilter() {
+            @Override
+            public boolean matches(Bean bean) {
+                for (BeanFilter filter : list) {
+                    if (filter.matches(bean)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public String toString() {
+                return "or" + list;
+            }
+        };
+    }
+
+    /**
+     * Obtains a filter that matches where the specified filter does not match.
+     * 
+     * @param filter  the filter to negate, not null
+     * @return the filter, not null
+     */
+    public static BeanFilter not(final BeanFilter filter) {
+        JodaBeanUtils.notNull(filter, "filter");
+        return new BeanFilter() {
+            @Override
+            public boolean matches(Bean bean) {
+                return filter.matches(bean) == false;
+            }
+
+            @Override
+            public String toString() {
+                return "not[" + filter + "]";
+            }
+        };
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Restricted constructor.
+     */
+    BeanFilter() {
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Checks if the bean matches the filter.
+     * 
+     * @param bean  the bean to check, not null
+     * @return true if the bean matches
+     */
+    public abstract boolean matches(Bean bean);
+
+    /**
+     * Queries whether the bean matches the filter.
+     * 
+     * @param bean  the bean to check, not null
+     * @return true if the bean matches, not null
+     */
+    @Override
+    public Boolean get(Bean bean) {
+        return Boolean.valueOf(matches(bean));
+    }
+
+    /**
+     * Finds the beans that could match using the index, null if the index cannot be used.
+     * <p>
+     * The result may contain beans that do not match, so the filter must still be applied.
+     * 
+     * @param <T>  the type of the bean
+     * @param indexes  the available indexes, not null
+     * @return the candidate beans, null if the indexes are not suitable
+     */
+    <T extends Bean> List<T> candidates(List<BeanIndex<?, T>> indexes) {
+        return null;
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Matches a set of values.
+     */
+    private static final class In extends BeanFilter {
+        private final BeanQuery<?> query;
+        private final Set<?> values;
+
+        In(BeanQuery<?> query, Set<?> values) {
+            this.query = query;
+            this.values = values;
+        }
+
+        @Override
+        public boolean matches(Bean bean) {
+            return values.contains(query.get(bean));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <T extends Bean> List<T> candidates(List<BeanIndex<?, T>> indexes) {
+            if (values.contains(null)) {
+                return null;  // nulls are not indexed
+            }
+            for (BeanIndex<?, T> index : indexes) {
+                if (index.getQuery().equals(query)) {
+                    BeanIndex<Object, T> objIndex = (BeanIndex<Object, T>) index;
+                    if (values.size() == 1) {
+                        return objIndex.get(values.iterator().next());
+                    }
+                    List<T> result = new ArrayList<T>();
+                    for (Object value : values) {
+                        result.addAll(objIndex.get(value));
+                    }
+                    return result;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return query + " in " + values;
+        }
+    }
+
+    /**
+     * Matches a range of values.
+     */
+    private static final class Range extends BeanFilter {
+        private final BeanQuery<?> query;
+        private final Comparable<Object> from;
+        private final boolean fromInclusive;
+        private final Comparable<Object> to;
+        private final boolean toInclusive;
+
+        @SuppressWarnings("unchecked")
+        Range(BeanQuery<?> query, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+            this.query = query;
+            this.from = (Comparable<Object>) from;
+            this.fromInclusive = fromInclusive;
+            this.to = (Comparable<Object>) to;
+            this.toInclusive = toInclusive;
+        }
+
+        @Override
+        public boolean matches(Bean bean) {
+            Object value = query.get(bean);
+            if (value == null) {
+                return false;
+            }
+            if (from != null) {
+                int cmp = from.compareTo(value);
+                if (cmp > 0 || (cmp == 0 && fromInclusive == false)) {
+                    return false;
+                }
+            }
+            if (to != null) {
+                int cmp = to.compareTo(value);
+                if (cmp < 0 || (cmp == 0 && toInclusive == false)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <T extends Bean> List<T> candidates(List<BeanIndex<?, T>> indexes) {
+            // an index sorted by a comparator may order the keys differently to compareTo
+            for (BeanIndex<?, T> index : indexes) {
+                if (index.getQuery().equals(query)) {
+                    if (index instanceof SortedBeanIndex && ((SortedBeanIndex<?, T>) index).isNaturalOrder()) {
+                        return isEmptyRange() ? new ArrayList<T>() :
+                                ((SortedBeanIndex<Object, T>) index).range(from, fromInclusive, to, toInclusive);
+                    }
+                    if (index instanceof ConcurrentBeanIndex && ((ConcurrentBeanIndex<?, T>) index).isNaturalOrder()) {
+                        return isEmptyRange() ? new ArrayList<T>() :
+                                ((ConcurrentBeanIndex<Object, T>) index).range(from, fromInclusive, to, toInclusive);
+                    }
+                }
+            }
+            return null;
+        }
+
+        // checks if no value can be in the range, as the sorted map rejects such bounds
+        private boolean isEmptyRange() {
+            if (from == null || to == null) {
+                return false;
+            }
+            int cmp = from.compareTo(to);
+            return cmp > 0 || (cmp == 0 && (fromInclusive == false || toInclusive == false));
+        }
+
+        @Override
+        public String toString() {
+            return query + " in " + (fromInclusive ? "[" : "(") + from + "," + to + (toInclusive ? "]" : ")");
+        }
+    }
+
+    /**
+     * Matches all of a list of filters.
+     */
+    private static final class And extends BeanFilter {
+        private final List<BeanFilter> filters;
+
+        And(List<BeanFilter> filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public boolean matches(Bean bean) {
+            for (BeanFilter filter : filters) {
+                if (filter.matches(bean) == false) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        <T extends Bean> List<T> candidates(List<BeanIndex<?, T>> indexes) {
+            for (BeanFilter filter : filters) {
+                List<T> candidates = filter.candidates(indexes);
+                if (candidates != null) {
+                    return candidates;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "and" + filters;
+        }
+    }
+
+}
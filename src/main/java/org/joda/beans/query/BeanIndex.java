@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.List;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+
+/**
+ * A secondary index over a collection of beans.
+ * <p>
+ * An index groups beans by the value of a {@link BeanQuery}, typically a meta-property,
+ * allowing beans to be looked up by that value without scanning the collection.
+ * The index is maintained incrementally as beans are added and removed.
+ * <p>
+ * Beans where the query returns null are not indexed.
+ * The key of a bean is obtained when the bean is added and removed, thus a mutable
+ * bean must be removed from the index before the indexed property is changed.
+ * 
+ * @param <K>  the type of the key
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public interface BeanIndex<K, T extends Bean> {
+
+    /**
+     * Gets the query used to obtain the key from each bean.
+     * 
+     * @return the query, not null
+     */
+    BeanQuery<K> getQuery();
+
+    /**
+     * Gets the number of beans in the index.
+     * 
+     * @return the number of beans
+     */
+    int size();
+
+    /**
+     * Gets the beans that have the specified key.
+     * 
+     * @param key  the key to find, null returns an empty list
+     * @return the beans with the key, in the order added, unmodifiable, not null
+     */
+    List<T> get(K key);
+
+    /**
+     * Checks if any bean has the specified key.
+     * 
+     * @param key  the key to find, null returns false
+     * @return true if at least one bean has the key
+     */
+    boolean containsKey(K key);
+
+    /**
+     * Adds a bean to the index.
+     * 
+     * @param bean  the bean to add, not null
+     * @return true if the bean was indexed, false if its key is null
+     */
+    boolean add(T bean);
+
+    /**
+     * Removes a bean from the index.
+     * <p>
+     * The first bean equal to the specified bean with the same key is removed.
+     * 
+     * @param bean  the bean to remove, not null
+     * @return true if the bean was removed
+     */
+    boolean remove(T bean);
+
+}
@@ -0,0 +1,763 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.bin.JodaBeanBinReader;
+import org.joda.beans.ser.bin.JodaBeanBinWriter;
+
+/**
+ * A hash join between two collections of beans.
+ * <p>
+ * The beans are matched where the keys are equal, each key being formed from one or
+ * more {@link BeanQuery} results. A key where any query returns null matches nothing.
+ * <p>
+ * A hash table is built from the smaller collection, and the larger collection
+ * is then probed against it. If an executor is specified, large probe collections are
+ * split into partitions that are probed by tasks submitted to the executor.
+ * <p>
+ * If spilling is enabled and both inputs exceed the limit, the inputs are partitioned
+ * by key into temporary files in the binary format, and each pair of partitions is joined
+ * in turn, reading the larger side of the pair in chunks. A pair where both sides still
+ * exceed the limit is partitioned again, unless the keys cannot be split any further.
+ * The inputs are only iterated once, so to bound the memory used they should produce
+ * the beans lazily, such as from a file, rather than hold them in memory.
+ * The beans in the result are then copies read back from the files rather than the
+ * original instances, and the result itself is held in memory.
+ * <p>
+ * The order of the results is not defined.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @param <L>  the type of the left bean
+ * @param <R>  the type of the right bean
+ * @author Stephen Colebourne
+ */
+public final class BeanJoin<L extends Bean, R extends Bean> {
+
+    /**
+     * The minimum number of beans in each parallel partition.
+     */
+    private static final int PARALLEL_THRESHOLD = 8192;
+    /**
+     * The number of bits of the hash code used to partition at each level when spilling.
+     */
+    private static final int PARTITION_BITS = 4;
+    /**
+     * The number of partitions at each level when spilling.
+     */
+    private static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+    /**
+     * The maximum level of partitioning, at which all the bits of the hash code are used.
+     */
+    private static final int MAX_PARTITION_LEVEL = 32 / PARTITION_BITS;
+    /**
+     * The marker for the end of a chain in the hash table.
+     */
+    private static final int END = -1;
+
+    /**
+     * The queries forming the left key.
+     */
+    private final BeanQuery<?>[] leftKeys;
+    /**
+     * The queries forming the right key.
+     */
+    private final BeanQuery<?>[] rightKeys;
+    /**
+     * The executor, null if sequential.
+     */
+    private final ExecutorService executor;
+    /**
+     * The settings to spill with, null if not spilling.
+     */
+    private final JodaBeanSer spillSettings;
+    /**
+     * The type of the left beans, null if not spilling.
+     */
+    private final Class<L> leftType;
+    /**
+     * The type of the right beans, null if not spilling.
+     */
+    private final Class<R> rightType;
+    /**
+     * The maximum number of beans in the hash table before spilling.
+     */
+    private final int maxBuildSize;
+    /**
+     * The directory for temporary files, null for the system default.
+     */
+    private final File tempDirectory;
+
+    //-------------------------------------------------------------------------
+    /**
+     * Creates a join on a single key.
+     * 
+     * @param <L>  the type of the left bean
+     * @param <R>  the type of the right bean
+     * @param leftKey  the query for the key of the left beans, not null
+     * @param rightKey  the query for the key of the right beans, not null
+     * @return the join, not null
+     */
+    public static <L extends Bean, R extends Bean> BeanJoin<L, R> on(BeanQuery<?> leftKey, BeanQuery<?> rightKey) {
+        JodaBeanUtils.notNull(leftKey, "leftKey");
+        JodaBeanUtils.notNull(rightKey, "rightKey");
+        return new BeanJoin<L, R>(new BeanQuery<?>[] {leftKey}, new BeanQuery<?>[] {rightKey}, null, null, null, null, 0, null);
+    }
+
+    /**
+     * Creates a join on a composite key.
+     * <p>
+     * The lists must be the same size, with the first left query matched to the first
+     * right query, the second to the second, and so on.
+     * 
+     * @param <L>  the type of the left bean
+     * @param <R>  the type of the right bean
+     * @param leftKeys  the queries for the key of the left beans, not empty
+     * @param rightKeys  the queries for the key of the right beans, not empty
+     * @return the join, not null
+     */
+    public static <L extends Bean, R extends Bean> BeanJoin<L, R> on(
+            List<? extends BeanQuery<?>> leftKeys, List<? extends BeanQuery<?>> rightKeys) {
+        JodaBeanUtils.notEmpty(leftKeys, "leftKeys");
+        JodaBeanUtils.notEmpty(rightKeys, "rightKeys");
+        if (leftKeys.size() != rightKeys.size()) {
+            throw new IllegalArgumentException("Left and right keys must be the same size");
+        }
+        return new BeanJoin<L, R>(
+                leftKeys.toArray(new BeanQuery<?>[leftKeys.size()]),
+                rightKeys.toArray(new BeanQuery<?>[rightKeys.size()]), null, null, null, null, 0, null);
+    }
+
+    /**
+     * Restricted constructor.
+     */
+    private BeanJoin(
+            BeanQuery<?>[] leftKeys, BeanQuery<?>[] rightKeys, ExecutorService executor,
+            JodaBeanSer spillSettings, Class<L> leftType, Class<R> rightType, int maxBuildSize, File tempDirectory) {
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.executor = executor;
+        this.spillSettings = spillSettings;
+        this.leftType = leftType;
+        this.rightType = rightType;
+        this.maxBuildSize = maxBuildSize;
+        this.tempDirectory = tempDirectory;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a copy of this join that probes large collections using the executor.
+     * 
+     * @param executor  the executor, null to probe sequentially
+     * @return the new join, not null
+     */
+    public BeanJoin<L, R> withExecutor(ExecutorService executor) {
+        return new BeanJoin<L, R>(leftKeys, rightKeys, executor, spillSettings, leftType, rightType, maxBuildSize, tempDirectory);
+    }
+
+    /**
+     * Returns a copy of this join that spills to temporary files when the hash table would be too large.
+     * <p>
+     * The beans must be serializable using the binary format.
+     * 
+     * @param settings  the settings to write and read the files with, not null
+     * @param leftType  the type of the left beans, not null
+     * @param rightType  the type of the right beans, not null
+     * @param maxBuildSize  the maximum number of beans in the hash table and in each chunk read, one or greater
+     * @param tempDirectory  the directory for temporary files, null for the system default
+     * @return the new join, not null
+     */
+    public BeanJoin<L, R> withSpill(
+            JodaBeanSer settings, Class<L> leftType, Class<R> rightType, int maxBuildSize, File tempDirectory) {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(leftType, "leftType");
+        JodaBeanUtils.notNull(rightType, "rightType");
+        if (maxBuildSize < 1) {
+            throw new IllegalArgumentException("Maximum build size must be one or greater");
+        }
+        return new BeanJoin<L, R>(leftKeys, rightKeys, executor, settings, leftType, rightType, maxBuildSize, tempDirectory);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Performs an inner join, returning each pair of matching beans.
+     * 
+     * @param left  the left beans, not null
+     * @param right  the right beans, not null
+     * @return the matching pairs, not null
+     * @throws IllegalStateException if spilling fails
+     */
+    public List<Match<L, R>> inner(Iterable<? extends L> left, Iterable<? extends R> right) {
+        return join(JoinType.INNER, left, right);
+    }
+
+    /**
+     * Performs a left outer join, returning each pair of matching beans
+     * together with each unmatched left bean paired with null.
+     * 
+     * @param left  the left beans, not null
+     * @param right  the right beans, not null
+     * @return the matching pairs and unmatched left beans, not null
+     * @throws IllegalStateException if spilling fails
+     */
+    public List<Match<L, R>> leftOuter(Iterable<? extends L> left, Iterable<? extends R> right) {
+        return join(JoinType.LEFT, left, right);
+    }
+
+    /**
+     * Performs an anti join, returning the left beans that match no right bean.
+     * 
+     * @param left  the left beans, not null
+     * @param right  the right beans, not null
+     * @return the unmatched left beans, not null
+     * @throws IllegalStateException if spilling fails
+     */
+    public List<L> anti(Iterable<? extends L> left, Iterable<? extends R> right) {
+        List<Match<L, R>> matches = join(JoinType.ANTI, left, right);
+        List<L> result = new ArrayList<L>(matches.size());
+        for (Match<L, R> match : matches) {
+            result.add(match.getLeft());
+        }
+        return result;
+    }
+
+    //-----------------------------------------------------------------------
+    private List<Match<L, R>> join(JoinType type, Iterable<? extends L> left, Iterable<? extends R> right) {
+        JodaBeanUtils.notNull(left, "left");
+        JodaBeanUtils.notNull(right, "right");
+        Iterator<? extends L> leftIterator = left.iterator();
+        Iterator<? extends R> rightIterator = right.iterator();
+        int limit = (spillSettings != null ? maxBuildSize + 1 : Integer.MAX_VALUE);
+        List<L> leftList = read(leftIterator, limit);
+        List<R> rightList = read(rightIterator, limit);
+        List<Match<L, R>> result = new ArrayList<Match<L, R>>();
+        if (leftIterator.hasNext() && rightIterator.hasNext()) {
+            joinSpilled(type, leftList, leftIterator, rightList, rightIterator, result);
+        } else {
+            // at least one side fits in the hash table
+            leftList.addAll(read(leftIterator, Integer.MAX_VALUE));
+            rightList.addAll(read(rightIterator, Integer.MAX_VALUE));
+            joinInMemory(type, leftList, rightList, result);
+        }
+        return result;
+    }
+
+    // reads up to the limit, stopping early only if the iterator is exhausted
+    private static <T> List<T> read(Iterator<? extends T> iterator, int limit) {
+        List<T> list = new ArrayList<T>();
+        while (list.size() < limit && iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    // joins in memory, building the hash table from the smaller side
+    private void joinInMemory(JoinType type, List<L> left, List<R> right, List<Match<L, R>> result) {
+        boolean buildLeft = left.size() < right.size();
+        List<? extends Bean> build = (buildLeft ? left : right);
+        HashTable table = new HashTable(keys(build, buildLeft ? leftKeys : rightKeys));
+        BitSet matchedBuild = new BitSet(build.size());
+        joinProbe(type, buildLeft, build, table, matchedBuild, buildLeft ? right : left, result);
+        joinUnmatchedBuild(type, buildLeft, build, matchedBuild, result);
+    }
+
+    // probes the table, adding the matches and any unmatched left probe beans
+    @SuppressWarnings("unchecked")
+    private void joinProbe(
+            JoinType type, boolean buildLeft, List<? extends Bean> build, HashTable table,
+            BitSet matchedBuild, List<? extends Bean> probe, List<Match<L, R>> result) {
+        List<ProbeResult> probeResults = probe(table, keys(probe, buildLeft ? rightKeys : leftKeys));
+        for (ProbeResult probeResult : probeResults) {
+            for (int i = 0; i < probeResult.size; i++) {
+                int buildIndex = probeResult.pairs[i * 2];
+                int probeIndex = probeResult.pairs[i * 2 + 1];
+                matchedBuild.set(buildIndex);
+                if (type == JoinType.INNER || type == JoinType.LEFT) {
+                    Bean buildBean = build.get(buildIndex);
+                    Bean probeBean = probe.get(probeIndex);
+                    result.add(buildLeft ?
+                            new Match<L, R>((L) buildBean, (R) probeBean) :
+                            new Match<L, R>((L) probeBean, (R) buildBean));
+                }
+            }
+        }
+        if (type == JoinType.INNER || buildLeft) {
+            return;
+        }
+        for (ProbeResult probeResult : probeResults) {
+            for (int i = probeResult.unmatched.nextSetBit(0); i >= 0; i = probeResult.unmatched.nextSetBit(i + 1)) {
+                result.add(new Match<L, R>((L) probe.get(probeResult.offset + i), null));
+            }
+        }
+    }
+
+    // adds any unmatched left build beans, once all the probe beans have been processed
+    @SuppressWarnings("unchecked")
+    private void joinUnmatchedBuild(
+            JoinType type, boolean buildLeft, List<? extends Bean> build, BitSet matchedBuild, List<Match<L, R>> result) {
+        if (type == JoinType.INNER || buildLeft == false) {
+            return;
+        }
+        for (int i = matchedBuild.nextClearBit(0); i < build.size(); i = matchedBuild.nextClearBit(i + 1)) {
+            result.add(new Match<L, R>((L) build.get(i), null));
+        }
+    }
+
+    // probes the table, in parallel partitions if large enough
+    private List<ProbeResult> probe(final HashTable table, final Object[] probeKeys) {
+        int size = probeKeys.length;
+        if (executor == null || size < PARALLEL_THRESHOLD * 2) {
+            return Collections.singletonList(probeRange(table, probeKeys, 0, size));
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int partitionSize = Math.max(PARALLEL_THRESHOLD, (size + parallelism - 1) / parallelism);
+        List<Future<ProbeResult>> futures = new ArrayList<Future<ProbeResult>>();
+        for (int start = 0; start < size; start += partitionSize) {
+            final int from = start;
+            final int to = Math.min(start + partitionSize, size);
+            futures.add(executor.submit(new Callable<ProbeResult>() {
+                @Override
+                public ProbeResult call() {
+                    return probeRange(table, probeKeys, from, to);
+                }
+            }));
+        }
+        List<ProbeResult> results = new ArrayList<ProbeResult>(futures.size());
+        for (Future<ProbeResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Join interrupted", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException("Join failed", ex.getCause());
+            }
+        }
+        return results;
+    }
+
+    private static ProbeResult probeRange(HashTable table, Object[] probeKeys, int from, int to) {
+        ProbeResult result = new ProbeResult(from, to - from);
+        for (int i = from; i < to; i++) {
+            Object key = probeKeys[i];
+            boolean matched = false;
+            if (key != null) {
+                for (int b = table.first(key); b != END; b = table.next[b]) {
+                    if (key.equals(table.keys[b])) {
+                        result.add(b, i);
+                        matched = true;
+                    }
+                }
+            }
+            if (matched == false) {
+                result.unmatched.set(i - from);
+            }
+        }
+        return result;
+    }
+
+    //-----------------------------------------------------------------------
+    // partitions both sides into temporary files by key, releasing the beans already read,
+    // then joins each pair of partitions
+    private void joinSpilled(
+            JoinType type, List<L> leftRead, Iterator<? extends L> leftIterator,
+            List<R> rightRead, Iterator<? extends R> rightIterator, List<Match<L, R>> result) {
+        List<File> tempFiles = new ArrayList<File>();
+        try {
+            SpillFile[] leftFiles = partition(leftRead, leftIterator, leftKeys, 0, tempFiles);
+            SpillFile[] rightFiles = partition(rightRead, rightIterator, rightKeys, 0, tempFiles);
+            for (int p = 0; p < PARTITION_COUNT; p++) {
+                joinPartition(type, leftFiles[p], rightFiles[p], 1, tempFiles, result);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to spill join to temporary files", ex);
+        } finally {
+            for (File file : tempFiles) {
+                file.delete();
+            }
+        }
+    }
+
+    // joins a pair of partitions, partitioning them again if both are too large
+    private void joinPartition(
+            JoinType type, SpillFile left, SpillFile right, int level,
+            List<File> tempFiles, List<Match<L, R>> result) throws IOException {
+        if (Math.min(left.size, right.size) > maxBuildSize && level < MAX_PARTITION_LEVEL) {
+            SpillFile[] leftFiles = repartition(left, leftType, leftKeys, level, tempFiles);
+            SpillFile[] rightFiles = repartition(right, rightType, rightKeys, level, tempFiles);
+            for (int p = 0; p < PARTITION_COUNT; p++) {
+                // if every bean has the same hash code, then no further split is possible
+                boolean unsplit = (leftFiles[p].size == left.size && rightFiles[p].size == right.size);
+                joinPartition(type, leftFiles[p], rightFiles[p], unsplit ? MAX_PARTITION_LEVEL : level + 1, tempFiles, result);
+            }
+            return;
+        }
+        boolean buildLeft = left.size < right.size;
+        List<Bean> build = readAll(buildLeft ? left : right, buildLeft ? leftType : rightType);
+        HashTable table = new HashTable(keys(build, buildLeft ? leftKeys : rightKeys));
+        BitSet matchedBuild = new BitSet(build.size());
+        SpillReader probeReader = new SpillReader(
+                buildLeft ? right : left, buildLeft ? rightType : leftType);
+        try {
+            for (List<Bean> chunk = probeReader.read(); chunk.size() > 0; chunk = probeReader.read()) {
+                joinProbe(type, buildLeft, build, table, matchedBuild, chunk, result);
+            }
+        } finally {
+            probeReader.close();
+        }
+        joinUnmatchedBuild(type, buildLeft, build, matchedBuild, result);
+        left.file.delete();
+        right.file.delete();
+    }
+
+    // partitions the beans already read followed by the remaining beans, releasing those already read
+    private SpillFile[] partition(
+            List<? extends Bean> beansRead, Iterator<? extends Bean> iterator, BeanQuery<?>[] keyQueries,
+            int level, List<File> tempFiles) throws IOException {
+        Partitioner partitioner = new Partitioner(keyQueries, level, tempFiles);
+        try {
+            for (Bean bean : beansRead) {
+                partitioner.write(bean);
+            }
+            beansRead.clear();
+            while (iterator.hasNext()) {
+                partitioner.write(iterator.next());
+            }
+        } finally {
+            partitioner.close();
+        }
+        return partitioner.files;
+    }
+
+    // partitions a file using the next bits of the hash code, deleting the file
+    private SpillFile[] repartition(
+            SpillFile spill, Class<? extends Bean> beanType, BeanQuery<?>[] keyQueries,
+            int level, List<File> tempFiles) throws IOException {
+        Partitioner partitioner = new Partitioner(keyQueries, level, tempFiles);
+        SpillReader reader = new SpillReader(spill, beanType);
+        try {
+            for (List<Bean> chunk = reader.read(); chunk.size() > 0; chunk = reader.read()) {
+                for (Bean bean : chunk) {
+                    partitioner.write(bean);
+                }
+            }
+        } finally {
+            reader.close();
+            partitioner.close();
+        }
+        spill.file.delete();
+        return partitioner.files;
+    }
+
+    // reads the whole file
+    private List<Bean> readAll(SpillFile spill, Class<? extends Bean> beanType) throws IOException {
+        SpillReader reader = new SpillReader(spill, beanType);
+        try {
+            List<Bean> beans = new ArrayList<Bean>(spill.size);
+            for (List<Bean> chunk = reader.read(); chunk.size() > 0; chunk = reader.read()) {
+                beans.addAll(chunk);
+            }
+            return beans;
+        } finally {
+            reader.close();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    private static Object[] keys(List<? extends Bean> beans, BeanQuery<?>[] keyQueries) {
+        Object[] keys = new Object[beans.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(beans.get(i), keyQueries);
+        }
+        return keys;
+    }
+
+    // obtains the key, a list for a composite key, null if any part is null
+    private static Object key(Bean bean, BeanQuery<?>[] keyQueries) {
+        if (keyQueries.length == 1) {
+            return keyQueries[0].get(bean);
+        }
+        Object[] parts = new Object[keyQueries.length];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = keyQueries[i].get(bean);
+            if (parts[i] == null) {
+                return null;
+            }
+        }
+        return Arrays.asList(parts);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "BeanJoin" + Arrays.toString(leftKeys) + "=" + Arrays.toString(rightKeys);
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A pair of beans matched by a join.
+     * 
+     * @param <L>  the type of the left bean
+     * @param <R>  the type of the right bean
+     */
+    public static final class Match<L, R> {
+        /** The left bean. */
+        private final L left;
+        /** The right bean. */
+        private final R right;
+
+        Match(L left, R right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Gets the left bean.
+         * 
+         * @return the left bean, not null
+         */
+        public L getLeft() {
+            return left;
+        }
+
+        /**
+         * Gets the right bean.
+         * 
+         * @return the right bean, null if the left bean was unmatched
+         */
+        public R getRight() {
+            return right;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Match) {
+                Match<?, ?> other = (Match<?, ?>) obj;
+                return JodaBeanUtils.equal(left, other.left) && JodaBeanUtils.equal(right, other.right);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return JodaBeanUtils.hashCode(left) * 31 + JodaBeanUtils.hashCode(right);
+        }
+
+        @Override
+        public String toString() {
+            return "[" + left + ", " + right + "]";
+        }
+    }
+
+    /**
+     * The type of join.
+     */
+    private static enum JoinType {
+        INNER, LEFT, ANTI
+    }
+
+    /**
+     * A hash table of key to index, chaining entries with equal hash codes.
+     */
+    private static final class HashTable {
+        final Object[] keys;
+        final int[] next;
+        private final Map<Integer, Integer> heads;
+
+        HashTable(Object[] keys) {
+            this.keys = keys;
+            this.next = new int[keys.length];
+            this.heads = new HashMap<Integer, Integer>(keys.length * 2);
+            // insert in reverse so chains are in index order
+            for (int i = keys.length - 1; i >= 0; i--) {
+                if (keys[i] != null) {
+                    Integer hash = keys[i].hashCode();
+                    Integer head = heads.put(hash, i);
+                    next[i] = (head != null ? head : END);
+                }
+            }
+        }
+
+        int first(Object key) {
+            Integer head = heads.get(key.hashCode());
+            return head != null ? head : END;
+        }
+    }
+
+    /**
+     * The result of probing a range of the probe side.
+     */
+    private static final class ProbeResult {
+        final int offset;
+        final BitSet unmatched;
+        int[] pairs = new int[32];
+        int size;
+
+        ProbeResult(int offset, int length) {
+            this.offset = offset;
+            this.unmatched = new BitSet(length);
+        }
+
+        void add(int buildIndex, int probeIndex) {
+            if (size * 2 == pairs.length) {
+                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            }
+            pairs[size * 2] = buildIndex;
+            pairs[size * 2 + 1] = probeIndex;
+            size++;
+        }
+    }
+
+    /**
+     * A temporary file of beans.
+     */
+    private static final class SpillFile {
+        final File file;
+        int size;
+
+        SpillFile(File file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Writes beans to temporary files, partitioned by the bits of the key hash code for the level.
+     */
+    private final class Partitioner {
+        final SpillFile[] files = new SpillFile[PARTITION_COUNT];
+        private final OutputStream[] outputs = new OutputStream[PARTITION_COUNT];
+        // each file needs its own writer, as a writer abbreviates types it has already written
+        private final JodaBeanBinWriter[] writers = new JodaBeanBinWriter[PARTITION_COUNT];
+        private final BeanQuery<?>[] keyQueries;
+        private final int shift;
+
+        Partitioner(BeanQuery<?>[] keyQueries, int level, List<File> tempFiles) throws IOException {
+            this.keyQueries = keyQueries;
+            this.shift = level * PARTITION_BITS;
+            try {
+                for (int p = 0; p < PARTITION_COUNT; p++) {
+                    File file = File.createTempFile("joda-beans-join", ".bin", tempDirectory);
+                    tempFiles.add(file);
+                    files[p] = new SpillFile(file);
+                    outputs[p] = new BufferedOutputStream(new FileOutputStream(file));
+                    writers[p] = spillSettings.binWriter();
+                }
+            } catch (IOException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        void write(Bean bean) throws IOException {
+            Object key = key(bean, keyQueries);
+            // null keys never match, so any partition can be used
+            int p = 0;
+            if (key != null) {
+                // spread the hash code so that each level uses well mixed bits
+                int hash = key.hashCode() * 0x9E3779B9;
+                p = (hash >>> shift) & (PARTITION_COUNT - 1);
+            }
+            writers[p].write(bean, outputs[p]);
+            files[p].size++;
+        }
+
+        void close() throws IOException {
+            IOException failure = null;
+            for (OutputStream output : outputs) {
+                if (output != null) {
+                    try {
+                        output.close();
+                    } catch (IOException ex) {
+                        failure = (failure != null ? failure : ex);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Reads the beans from a temporary file in chunks.
+     */
+    private final class SpillReader {
+        private final InputStream stream;
+        private final InputStream unclosable;
+        private final JodaBeanBinReader reader = spillSettings.binReader();
+        private final Class<? extends Bean> beanType;
+        private int remaining;
+
+        SpillReader(SpillFile spill, Class<? extends Bean> beanType) throws IOException {
+            this.stream = new BufferedInputStream(new FileInputStream(spill.file));
+            // the reader closes the stream it reads from, which is ignored here
+            this.unclosable = new FilterInputStream(stream) {
+                @Override
+                public void close() {
+                }
+            };
+            this.beanType = beanType;
+            this.remaining = spill.size;
+        }
+
+        // reads the next chunk, empty at the end of the file
+        List<Bean> read() {
+            List<Bean> chunk = new ArrayList<Bean>(Math.min(maxBuildSize, remaining));
+            while (chunk.size() < maxBuildSize && remaining > 0) {
+                chunk.add(reader.read(unclosable, beanType));
+                remaining--;
+            }
+            return chunk;
+        }
+
+        void close() throws IOException {
+            stream.close();
+        }
+    }
+
+}
@@ -0,0 +1,404 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+
+/**
+ * An engine that filters, sorts and groups a collection of beans.
+ * <p>
+ * Filters are expressed using {@link BeanFilter}, sort orders using comparators or
+ * {@link BeanQuery} keys, and groups using a {@code BeanQuery} for the group key.
+ * <p>
+ * If indexes are added, the engine uses an index to find the candidate beans for an
+ * equality or range filter on the same query, instead of scanning all the beans.
+ * The indexes must contain the same beans as the engine.
+ * The result of a filter that uses an index is in index order rather than collection order.
+ * <p>
+ * If an executor is added, large inputs are split into chunks that are processed
+ * by tasks submitted to the executor, with the results combined in collection order.
+ * The beans and queries must therefore be safe to use from other threads.
+ * <p>
+ * This class is immutable and thread-safe if the beans are not changed.
+ * 
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public final class BeanQueryEngine<T extends Bean> {
+
+    /**
+     * The minimum number of beans in each parallel chunk.
+     */
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * The beans.
+     */
+    private final List<T> beans;
+    /**
+     * The indexes.
+     */
+    private final List<BeanIndex<?, T>> indexes;
+    /**
+     * The executor, null if sequential.
+     */
+    private final ExecutorService executor;
+
+    //-------------------------------------------------------------------------
+    /**
+     * Creates an engine for the specified beans.
+     * <p>
+     * The beans are copied into the engine.
+     * 
+     * @param <T>  the type of the bean
+     * @param beans  the beans, not null
+     * @return the engine, not null
+     */
+    public static <T extends Bean> BeanQueryEngine<T> of(Collection<? extends T> beans) {
+        JodaBeanUtils.notNull(beans, "beans");
+        List<T> copy = Collections.unmodifiableList(new ArrayList<T>(beans));
+        return new BeanQueryEngine<T>(copy, Collections.<BeanIndex<?, T>>emptyList(), null);
+    }
+
+    /**
+     * Restricted constructor.
+     */
+    private BeanQueryEngine(List<T> beans, List<BeanIndex<?, T>> indexes, ExecutorService executor) {
+        this.beans = beans;
+        this.indexes = indexes;
+        this.executor = executor;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a copy of this engine that can use the specified index.
+     * 
+     * @param index  the index, containing the same beans as the engine, not null
+     * @return the new engine, not null
+     */
+    public BeanQueryEngine<T> withIndex(BeanIndex<?, T> index) {
+        JodaBeanUtils.notNull(index, "index");
+        List<BeanIndex<?, T>> list = new ArrayList<BeanIndex<?, T>>(indexes);
+        list.add(index);
+        return new BeanQueryEngine<T>(beans, Collections.unmodifiableList(list), executor);
+    }
+
+    /**
+     * Returns a copy of this engine that processes large inputs using the executor.
+     * 
+     * @param executor  the executor, null for sequential processing
+     * @return the new engine, not null
+     */
+    public BeanQueryEngine<T> withExecutor(ExecutorService executor) {
+        return new BeanQueryEngine<T>(beans, indexes, executor);
+    }
+
+    /**
+     * Gets the beans.
+     * 
+     * @return the beans, unmodifiable, not null
+     */
+    public List<T> getBeans() {
+        return beans;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the beans matching the filter.
+     * 
+     * @param filter  the filter, not null
+     * @return the matching beans, not null
+     */
+    public List<T> filter(final BeanFilter filter) {
+        JodaBeanUtils.notNull(filter, "filter");
+        if (filter == BeanFilter.all()) {
+            return new ArrayList<T>(beans);
+        }
+        List<T> input = filter.candidates(indexes);
+        if (input == null) {
+            input = beans;
+        }
+        List<List<T>> results = process(input, new ChunkTask<T, List<T>>() {
+            @Override
+            public List<T> apply(List<T> chunk) {
+                List<T> matched = new ArrayList<T>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    T bean = chunk.get(i);
+                    if (filter.matches(bean)) {
+                        matched.add(bean);
+                    }
+                }
+                return matched;
+            }
+        });
+        if (results.size() == 1) {
+            return results.get(0);
+        }
+        List<T> combined = new ArrayList<T>();
+        for (List<T> result : results) {
+            combined.addAll(result);
+        }
+        return combined;
+    }
+
+    /**
+     * Counts the beans matching the filter.
+     * 
+     * @param filter  the filter, not null
+     * @return the number of matching beans
+     */
+    public int count(BeanFilter filter) {
+        return filter(filter).size();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the beans matching the filter, sorted using the comparator.
+     * <p>
+     * The sort is stable.
+     * If the comparator is a {@link BeanComparator}, the keys are evaluated once per bean.
+     * 
+     * @param filter  the filter, not null
+     * @param comparator  the comparator, not null
+     * @return the matching beans in sorted order, not null
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> sort(BeanFilter filter, final Comparator<? super T> comparator) {
+        JodaBeanUtils.notNull(comparator, "comparator");
+        List<T> matched = filter(filter);
+        if (comparator instanceof BeanComparator) {
+            return ((BeanComparator<T>) comparator).sort(matched, executor);
+        }
+        List<List<T>> sortedChunks = process(matched, new ChunkTask<T, List<T>>() {
+            @Override
+            public List<T> apply(List<T> chunk) {
+                List<T> sorted = new ArrayList<T>(chunk);
+                Collections.sort(sorted, comparator);
+                return sorted;
+            }
+        });
+        return merge(sortedChunks, comparator);
+    }
+
+    /**
+     * Finds the beans matching the filter, sorted ascending by each key in turn.
+     * <p>
+     * The result of each key query must be {@link Comparable}, with nulls sorted last.
+     * The sort is stable.
+     * 
+     * @param filter  the filter, not null
+     * @param keys  the queries to sort by, in order of priority, not empty
+     * @return the matching beans in sorted order, not null
+     */
+    public List<T> sort(BeanFilter filter, BeanQuery<?>... keys) {
+        JodaBeanUtils.notNull(keys, "keys");
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one sort key must be specified");
+        }
+        return sort(filter, BeanComparator.<T>ascending(keys));
+    }
+
+    // merges sorted chunks, taking from the earliest chunk when equal to retain stability
+    private List<T> merge(List<List<T>> sortedChunks, Comparator<? super T> comparator) {
+        if (sortedChunks.size() == 1) {
+            return sortedChunks.get(0);
+        }
+        int total = 0;
+        for (List<T> chunk : sortedChunks) {
+            total += chunk.size();
+        }
+        List<T> result = new ArrayList<T>(total);
+        int[] positions = new int[sortedChunks.size()];
+        for (int n = 0; n < total; n++) {
+            int best = -1;
+            T bestBean = null;
+            for (int c = 0; c < positions.length; c++) {
+                List<T> chunk = sortedChunks.get(c);
+                if (positions[c] < chunk.size()) {
+                    T bean = chunk.get(positions[c]);
+                    if (best < 0 || comparator.compare(bean, bestBean) < 0) {
+                        best = c;
+                        bestBean = bean;
+                    }
+                }
+            }
+            result.add(bestBean);
+            positions[best]++;
+        }
+        return result;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Aggregates a numeric value over the beans matching the filter.
+     * 
+     * @param filter  the filter, not null
+     * @param value  the query for the value to aggregate, not null
+     * @return the aggregate, not null
+     */
+    public BeanAggregate aggregate(BeanFilter filter, final BeanQuery<? extends Number> value) {
+        JodaBeanUtils.notNull(value, "value");
+        List<T> matched = filter(filter);
+        List<BeanAggregate.Accumulator> results = process(matched, new ChunkTask<T, BeanAggregate.Accumulator>() {
+            @Override
+            public BeanAggregate.Accumulator apply(List<T> chunk) {
+                BeanAggregate.Accumulator acc = new BeanAggregate.Accumulator();
+                for (int i = 0; i < chunk.size(); i++) {
+                    acc.add(value.get(chunk.get(i)));
+                }
+                return acc;
+            }
+        });
+        BeanAggregate.Accumulator total = new BeanAggregate.Accumulator();
+        for (BeanAggregate.Accumulator acc : results) {
+            total.add(acc);
+        }
+        return total.toAggregate();
+    }
+
+    /**
+     * Groups the beans matching the filter, counting the beans in each group.
+     * <p>
+     * The groups are returned in the order that each key is first found.
+     * A null key forms a group.
+     * 
+     * @param <K>  the type of the group key
+     * @param filter  the filter, not null
+     * @param groupBy  the query for the group key, not null
+     * @return the aggregate for each group key, with only the count populated, not null
+     */
+    public <K> Map<K, BeanAggregate> group(BeanFilter filter, BeanQuery<K> groupBy) {
+        return group(filter, groupBy, null);
+    }
+
+    /**
+     * Groups the beans matching the filter, aggregating a numeric value in each group.
+     * <p>
+     * The groups are returned in the order that each key is first found.
+     * A null key forms a group.
+     * 
+     * @param <K>  the type of the group key
+     * @param filter  the filter, not null
+     * @param groupBy  the query for the group key, not null
+     * @param value  the query for the value to aggregate, null to only count
+     * @return the aggregate for each group key, not null
+     */
+    public <K> Map<K, BeanAggregate> group(
+            BeanFilter filter, final BeanQuery<K> groupBy, final BeanQuery<? extends Number> value) {
+        JodaBeanUtils.notNull(groupBy, "groupBy");
+        List<T> matched = filter(filter);
+        List<Map<K, BeanAggregate.Accumulator>> results = process(matched,
+                new ChunkTask<T, Map<K, BeanAggregate.Accumulator>>() {
+                    @Override
+                    public Map<K, BeanAggregate.Accumulator> apply(List<T> chunk) {
+                        Map<K, BeanAggregate.Accumulator> groups = new LinkedHashMap<K, BeanAggregate.Accumulator>();
+                        for (int i = 0; i < chunk.size(); i++) {
+                            T bean = chunk.get(i);
+                            K key = groupBy.get(bean);
+                            BeanAggregate.Accumulator acc = groups.get(key);
+                            if (acc == null) {
+                                acc = new BeanAggregate.Accumulator();
+                                groups.put(key, acc);
+                            }
+                            acc.add(value != null ? value.get(bean) : null);
+                        }
+                        return groups;
+                    }
+                });
+        Map<K, BeanAggregate.Accumulator> combined = new LinkedHashMap<K, BeanAggregate.Accumulator>();
+        for (Map<K, BeanAggregate.Accumulator> result : results) {
+            for (Entry<K, BeanAggregate.Accumulator> entry : result.entrySet()) {
+                BeanAggregate.Accumulator acc = combined.get(entry.getKey());
+                if (acc == null) {
+                    combined.put(entry.getKey(), entry.getValue());
+                } else {
+                    acc.add(entry.getValue());
+                }
+            }
+        }
+        Map<K, BeanAggregate> groups = new LinkedHashMap<K, BeanAggregate>();
+        for (Entry<K, BeanAggregate.Accumulator> entry : combined.entrySet()) {
+            groups.put(entry.getKey(), entry.getValue().toAggregate());
+        }
+        return groups;
+    }
+
+    //-----------------------------------------------------------------------
+    // processes the input in chunks, in parallel if the input is large enough, returning results in order
+    private <R> List<R> process(List<T> input, final ChunkTask<T, R> task) {
+        int size = input.size();
+        if (executor == null || size < PARALLEL_THRESHOLD * 2) {
+            return Collections.singletonList(task.apply(input));
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(PARALLEL_THRESHOLD, (size + parallelism - 1) / parallelism);
+        List<Future<R>> futures = new ArrayList<Future<R>>();
+        for (int start = 0; start < size; start += chunkSize) {
+            final List<T> chunk = input.subList(start, Math.min(start + chunkSize, size));
+            futures.add(executor.submit(new Callable<R>() {
+                @Override
+                public R call() {
+                    return task.apply(chunk);
+                }
+            }));
+        }
+        List<R> results = new ArrayList<R>(futures.size());
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Query interrupted", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException("Query failed", ex.getCause());
+            }
+        }
+        return results;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "BeanQueryEngine[size=" + beans.size() + ", indexes=" + indexes.size() + "]";
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A task applied to a chunk of the input.
+     */
+    private interface ChunkTask<T, R> {
+        R apply(List<T> chunk);
+    }
+
+}
@@ -0,0 +1,958 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * A columnar store of beans of a single type.
+ * <p>
+ * Each buildable property of the meta-bean is held in a separate column.
+ * Primitive numeric and boolean properties are held in primitive arrays.
+ * String and enum properties are dictionary-encoded, held as an array of
+ * codes referring to the distinct values. Other properties are held as objects.
+ * <p>
+ * Scanning a column reads a single contiguous array, rather than visiting each bean,
+ * which is much faster for large numbers of beans. The typed columns provide
+ * simple loops, such as {@link DoubleColumn#sum()}, that the JIT compiler can optimize.
+ * Beans are only created when requested by {@link #get(int)} or iteration.
+ * <p>
+ * The bean type must have a builder that accepts all the buildable properties.
+ * Beans can be added but not removed.
+ * <p>
+ * This class is mutable and not thread-safe.
+ * 
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public final class ColumnarBeanStore<T extends Bean> implements Iterable<T> {
+
+    /**
+     * The initial capacity.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The meta-bean.
+     */
+    private final MetaBean metaBean;
+    /**
+     * The columns in meta-property order.
+     */
+    private final Column[] columns;
+    /**
+     * The columns by property name.
+     */
+    private final Map<String, Column> columnMap = new HashMap<String, Column>();
+    /**
+     * The number of beans.
+     */
+    private int size;
+    /**
+     * The capacity of the columns.
+     */
+    private int capacity = INITIAL_CAPACITY;
+
+    //-------------------------------------------------------------------------
+    /**
+     * Creates an empty store for the specified meta-bean.
+     * 
+     * @param <T>  the type of the bean
+     * @param metaBean  the meta-bean, not null
+     * @return the store, not null
+     */
+    public static <T extends Bean> ColumnarBeanStore<T> of(MetaBean metaBean) {
+        JodaBeanUtils.notNull(metaBean, "metaBean");
+        return new ColumnarBeanStore<T>(metaBean);
+    }
+
+    /**
+     * Creates a store containing the specified beans.
+     * 
+     * @param <T>  the type of the bean
+     * @param metaBean  the meta-bean, not null
+     * @param beans  the beans to add, not null
+     * @return the store, not null
+     */
+    public static <T extends Bean> ColumnarBeanStore<T> of(MetaBean metaBean, Iterable<? extends T> beans) {
+        JodaBeanUtils.notNull(beans, "beans");
+        ColumnarBeanStore<T> store = of(metaBean);
+        for (T bean : beans) {
+            store.add(bean);
+        }
+        return store;
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param metaBean  the meta-bean, not null
+     */
+    private ColumnarBeanStore(MetaBean metaBean) {
+        this.metaBean = metaBean;
+        List<Column> list = new ArrayList<Column>();
+        for (MetaProperty<?> mp : metaBean.metaPropertyIterable()) {
+            if (mp.style().isBuildable() && mp.style().isReadable()) {
+                Column column = createColumn(mp);
+                list.add(column);
+                columnMap.put(mp.name(), column);
+            }
+        }
+        this.columns = list.toArray(new Column[list.size()]);
+    }
+
+    // creates the column most suited to the type
+    private Column createColumn(MetaProperty<?> mp) {
+        Class<?> type = mp.propertyType();
+        if (type == Double.TYPE || type == Float.TYPE) {
+            return new DoubleColumn(this, mp, INITIAL_CAPACITY);
+        } else if (type == Long.TYPE) {
+            return new LongColumn(this, mp, INITIAL_CAPACITY);
+        } else if (type == Integer.TYPE || type == Short.TYPE || type == Byte.TYPE || type == Character.TYPE) {
+            return new IntColumn(this, mp, INITIAL_CAPACITY);
+        } else if (type == Boolean.TYPE) {
+            return new BooleanColumn(this, mp, INITIAL_CAPACITY);
+        } else if (type == String.class || type.isEnum()) {
+            return new DictionaryColumn(this, mp, INITIAL_CAPACITY);
+        } else {
+            return new ObjectColumn(this, mp, INITIAL_CAPACITY);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the meta-bean.
+     * 
+     * @return the meta-bean, not null
+     */
+    public MetaBean getMetaBean() {
+        return metaBean;
+    }
+
+    /**
+     * Gets the number of beans in the store.
+     * 
+     * @return the number of beans
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the columns, one for each buildable property.
+     * 
+     * @return the columns, not null
+     */
+    public List<Column> getColumns() {
+        return Arrays.asList(columns.clone());
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Adds a bean to the store, copying the property values into the columns.
+     * <p>
+     * The meta-bean of the bean must be the meta-bean of the store.
+     * A subclass bean is rejected, as its values would not all be stored.
+     * 
+     * @param bean  the bean to add, not null
+     * @throws IllegalArgumentException if the bean has a different meta-bean
+     */
+    public void add(T bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        if (bean.metaBean() != metaBean) {
+            throw new IllegalArgumentException("Bean must have meta-bean " + metaBean.beanName() + ": " + bean.metaBean().beanName());
+        }
+        if (size == capacity) {
+            capacity = capacity * 2;
+            for (Column column : columns) {
+                column.resize(capacity);
+            }
+        }
+        for (Column column : columns) {
+            column.set(size, column.metaProperty.get(bean));
+        }
+        size++;
+    }
+
+    /**
+     * Creates the bean at the specified row.
+     * <p>
+     * A new bean is created on each call.
+     * 
+     * @param row  the row, from zero to size exclusive
+     * @return the bean, not null
+     * @throws IndexOutOfBoundsException if the row is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int row) {
+        checkRow(row);
+        BeanBuilder<? extends Bean> builder = metaBean.builder();
+        for (Column column : columns) {
+            builder.set(column.metaProperty, column.getValue(row));
+        }
+        return (T) builder.build();
+    }
+
+    /**
+     * Gets an iterator that creates each bean as it is reached.
+     * 
+     * @return the iterator, not null
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public T next() {
+                if (row >= size) {
+                    throw new NoSuchElementException("No more beans");
+                }
+                return get(row++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Unable to remove from store");
+            }
+        };
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the column for the specified property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return the column, not null
+     * @throws IllegalArgumentException if there is no column for the property
+     */
+    public Column column(MetaProperty<?> metaProperty) {
+        JodaBeanUtils.notNull(metaProperty, "metaProperty");
+        return column(metaProperty.name());
+    }
+
+    /**
+     * Gets the column for the specified property name.
+     * 
+     * @param propertyName  the property name, not null
+     * @return the column, not null
+     * @throws IllegalArgumentException if there is no column for the property
+     */
+    public Column column(String propertyName) {
+        Column column = columnMap.get(propertyName);
+        if (column == null) {
+            throw new IllegalArgumentException("No column for property: " + propertyName);
+        }
+        return column;
+    }
+
+    /**
+     * Gets the column for a {@code double} or {@code float} property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return the column, not null
+     * @throws IllegalArgumentException if there is no column of the type for the property
+     */
+    public DoubleColumn doubleColumn(MetaProperty<?> metaProperty) {
+        return typedColumn(metaProperty, DoubleColumn.class);
+    }
+
+    /**
+     * Gets the column for a {@code long} property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return the column, not null
+     * @throws IllegalArgumentException if there is no column of the type for the property
+     */
+    public LongColumn longColumn(MetaProperty<?> metaProperty) {
+        return typedColumn(metaProperty, LongColumn.class);
+    }
+
+    /**
+     * Gets the column for an {@code int}, {@code short}, {@code byte} or {@code char} property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return the column, not null
+     * @throws IllegalArgumentException if there is no column of the type for the property
+     */
+    public IntColumn intColumn(MetaProperty<?> metaProperty) {
+        return typedColumn(metaProperty, IntColumn.class);
+    }
+
+    /**
+     * Gets the column for a {@code boolean} property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return the column, not null
+     * @throws IllegalArgumentException if there is no column of the type for the property
+     */
+    public BooleanColumn booleanColumn(MetaProperty<?> metaProperty) {
+        return typedColumn(metaProperty, BooleanColumn.class);
+    }
+
+    /**
+     * Gets the column for a {@code String} or enum property.
+     * 
+     * @param metaProperty  the meta-property, not null
+     * @return the column, not null
+     * @throws IllegalArgumentException if there is no column of the type for the property
+     */
+    public DictionaryColumn dictionaryColumn(MetaProperty<?> metaProperty) {
+        return typedColumn(metaProperty, DictionaryColumn.class);
+    }
+
+    private <C extends Column> C typedColumn(MetaProperty<?> metaProperty, Class<C> type) {
+        Column column = column(metaProperty);
+        if (type.isInstance(column) == false) {
+            throw new IllegalArgumentException(
+                    "Column for property " + metaProperty.name() + " is not a " + type.getSimpleName() + ": " + column);
+        }
+        return type.cast(column);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Invalid row: " + row + ", size: " + size);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "ColumnarBeanStore[" + metaBean.beanType().getSimpleName() + ", size=" + size + "]";
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A column of property values.
+     */
+    public abstract static class Column {
+        /** The store. */
+        final ColumnarBeanStore<?> store;
+        /** The meta-property. */
+        final MetaProperty<?> metaProperty;
+
+        Column(ColumnarBeanStore<?> store, MetaProperty<?> metaProperty) {
+            this.store = store;
+            this.metaProperty = metaProperty;
+        }
+
+        /**
+         * Gets the meta-property of the column.
+         * 
+         * @return the meta-property, not null
+         */
+        public MetaProperty<?> getMetaProperty() {
+            return metaProperty;
+        }
+
+        /**
+         * Gets the number of values in the column, which is the size of the store.
+         * 
+         * @return the number of values
+         */
+        public int size() {
+            return store.size;
+        }
+
+        /**
+         * Gets the value at the specified row, boxing primitive values.
+         * 
+         * @param row  the row, from zero to size exclusive
+         * @return the value, may be null
+         * @throws IndexOutOfBoundsException if the row is invalid
+         */
+        public Object getValue(int row) {
+            store.checkRow(row);
+            return value(row);
+        }
+
+        abstract Object value(int row);
+
+        abstract void set(int row, Object value);
+
+        abstract void resize(int newCapacity);
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "[" + metaProperty.name() + "]";
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A column of {@code double} or {@code float} values.
+     */
+    public static final class DoubleColumn extends Column {
+        /** The values. */
+        private double[] values;
+        /** Whether the property is a float. */
+        private final boolean isFloat;
+
+        DoubleColumn(ColumnarBeanStore<?> store, MetaProperty<?> metaProperty, int capacity) {
+            super(store, metaProperty);
+            this.values = new double[capacity];
+            this.isFloat = metaProperty.propertyType() == Float.TYPE;
+        }
+
+        /**
+         * Gets the value at the specified row.
+         * 
+         * @param row  the row, from zero to size exclusive
+         * @return the value
+         * @throws IndexOutOfBoundsException if the row is invalid
+         */
+        public double get(int row) {
+            store.checkRow(row);
+            return values[row];
+        }
+
+        /**
+         * Calculates the sum of the values.
+         * 
+         * @return the sum, zero if empty
+         */
+        public double sum() {
+            double[] vals = values;
+            int len = store.size;
+            double total = 0d;
+            for (int i = 0; i < len; i++) {
+                total += vals[i];
+            }
+            return total;
+        }
+
+        /**
+         * Finds the minimum value.
+         * 
+         * @return the minimum value, positive infinity if empty
+         */
+        public double min() {
+            double[] vals = values;
+            int len = store.size;
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < len; i++) {
+                min = Math.min(min, vals[i]);
+            }
+            return min;
+        }
+
+        /**
+         * Finds the maximum value.
+         * 
+         * @return the maximum value, negative infinity if empty
+         */
+        public double max() {
+            double[] vals = values;
+            int len = store.size;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < len; i++) {
+                max = Math.max(max, vals[i]);
+            }
+            return max;
+        }
+
+        /**
+         * Finds the rows where the value is within the specified range.
+         * 
+         * @param minInclusive  the minimum value, inclusive
+         * @param maxInclusive  the maximum value, inclusive
+         * @return the matching rows in ascending order, not null
+         */
+        public int[] findRows(double minInclusive, double maxInclusive) {
+            double[] vals = values;
+            int len = store.size;
+            int[] rows = new int[len];
+            int count = 0;
+            for (int i = 0; i < len; i++) {
+                double value = vals[i];
+                if (value >= minInclusive && value <= maxInclusive) {
+                    rows[count++] = i;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        /**
+         * Copies the values to a new array.
+         * 
+         * @return the values, not null
+         */
+        public double[] toArray() {
+            return Arrays.copyOf(values, store.size);
+        }
+
+        @Override
+        Object value(int row) {
+            if (isFloat) {
+                return Float.valueOf((float) values[row]);
+            }
+            return Double.valueOf(values[row]);
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A column of {@code long} values.
+     */
+    public static final class LongColumn extends Column {
+        /** The values. */
+        private long[] values;
+
+        LongColumn(ColumnarBeanStore<?> store, MetaProperty<?> metaProperty, int capacity) {
+            super(store, metaProperty);
+            this.values = new long[capacity];
+        }
+
+        /**
+         * Gets the value at the specified row.
+         * 
+         * @param row  the row, from zero to size exclusive
+         * @return the value
+         * @throws IndexOutOfBoundsException if the row is invalid
+         */
+        public long get(int row) {
+            store.checkRow(row);
+            return values[row];
+        }
+
+        /**
+         * Calculates the sum of the values, which may overflow.
+         * 
+         * @return the sum, zero if empty
+         */
+        public long sum() {
+            long[] vals = values;
+            int len = store.size;
+            long total = 0;
+            for (int i = 0; i < len; i++) {
+                total += vals[i];
+            }
+            return total;
+        }
+
+        /**
+         * Finds the rows where the value is within the specified range.
+         * 
+         * @param minInclusive  the minimum value, inclusive
+         * @param maxInclusive  the maximum value, inclusive
+         * @return the matching rows in ascending order, not null
+         */
+        public int[] findRows(long minInclusive, long maxInclusive) {
+            long[] vals = values;
+            int len = store.size;
+            int[] rows = new int[len];
+            int count = 0;
+            for (int i = 0; i < len; i++) {
+                long value = vals[i];
+                if (value >= minInclusive && value <= maxInclusive) {
+                    rows[count++] = i;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        /**
+         * Copies the values to a new array.
+         * 
+         * @return the values, not null
+         */
+        public long[] toArray() {
+            return Arrays.copyOf(values, store.size);
+        }
+
+        @Override
+        Object value(int row) {
+            return Long.valueOf(values[row]);
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Long) value).longValue();
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A column of {@code int}, {@code short}, {@code byte} or {@code char} values.
+     */
+    public static final class IntColumn extends Column {
+        /** The values. */
+        private int[] values;
+        /** The property type. */
+        private final Class<?> type;
+
+        IntColumn(ColumnarBeanStore<?> store, MetaProperty<?> metaProperty, int capacity) {
+            super(store, metaProperty);
+            this.values = new int[capacity];
+            this.type = metaProperty.propertyType();
+        }
+
+        /**
+         * Gets the value at the specified row.
+         * 
+         * @param row  the row, from zero to size exclusive
+         * @return the value
+         * @throws IndexOutOfBoundsException if the row is invalid
+         */
+        public int get(int row) {
+            store.checkRow(row);
+            return values[row];
+        }
+
+        /**
+         * Calculates the sum of the values.
+         * 
+         * @return the sum, zero if empty
+         */
+        public long sum() {
+            int[] vals = values;
+            int len = store.size;
+            long total = 0;
+            for (int i = 0; i < len; i++) {
+                total += vals[i];
+            }
+            return total;
+        }
+
+        /**
+         * Finds the rows where the value is within the specified range.
+         * 
+         * @param minInclusive  the minimum value, inclusive
+         * @param maxInclusive  the maximum value, inclusive
+         * @return the matching rows in ascending order, not null
+         */
+        public int[] findRows(int minInclusive, int maxInclusive) {
+            int[] vals = values;
+            int len = store.size;
+            int[] rows = new int[len];
+            int count = 0;
+            for (int i = 0; i < len; i++) {
+                int value = vals[i];
+                if (value >= minInclusive && value <= maxInclusive) {
+                    rows[count++] = i;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        /**
+         * Copies the values to a new array.
+         * 
+         * @return the values, not null
+         */
+        public int[] toArray() {
+            return Arrays.copyOf(values, store.size);
+        }
+
+        @Override
+        Object value(int row) {
+            int value = values[row];
+            if (type == Integer.TYPE) {
+                return Integer.valueOf(value);
+            } else if (type == Short.TYPE) {
+                return Short.valueOf((short) value);
+            } else if (type == Byte.TYPE) {
+                return Byte.valueOf((byte) value);
+            }
+            return Character.valueOf((char) value);
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = (value instanceof Character ? ((Character) value).charValue() : ((Number) value).intValue());
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A column of {@code boolean} values.
+     */
+    public static final class BooleanColumn extends Column {
+        /** The values. */
+        private boolean[] values;
+
+        BooleanColumn(ColumnarBeanStore<?> store, MetaProperty<?> metaProperty, int capacity) {
+            super(store, metaProperty);
+            this.values = new boolean[capacity];
+        }
+
+        /**
+         * Gets the value at the specified row.
+         * 
+         * @param row  the row, from zero to size exclusive
+         * @return the value
+         * @throws IndexOutOfBoundsException if the row is invalid
+         */
+        public boolean get(int row) {
+            store.checkRow(row);
+            return values[row];
+        }
+
+        /**
+         * Counts the number of true values.
+         * 
+         * @return the number of true values
+         */
+        public int countTrue() {
+            boolean[] vals = values;
+            int len = store.size;
+            int count = 0;
+            for (int i = 0; i < len; i++) {
+                if (vals[i]) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Finds the rows with the specified value.
+         * 
+         * @param value  the value to find
+         * @return the matching rows in ascending order, not null
+         */
+        public int[] findRows(boolean value) {
+            boolean[] vals = values;
+            int len = store.size;
+            int[] rows = new int[len];
+            int count = 0;
+            for (int i = 0; i < len; i++) {
+                if (vals[i] == value) {
+                    rows[count++] = i;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        @Override
+        Object value(int row) {
+            return Boolean.valueOf(values[row]);
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = ((Boolean) value).booleanValue();
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A column of {@code String} or enum values, encoded using a dictionary.
+     * <p>
+     * Each distinct value is assigned a code, in the order first added.
+     * Null is assigned the code -1.
+     */
+    public static final class DictionaryColumn extends Column {
+        /** The codes. */
+        private int[] codes;
+        /** The distinct values. */
+        private final List<Object> dictionary = new ArrayList<Object>();
+        /** The code for each distinct value. */
+        private final Map<Object, Integer> lookup = new HashMap<Object, Integer>();
+
+        DictionaryColumn(ColumnarBeanStore<?> store, MetaProperty<?> metaProperty, int capacity) {
+            super(store, metaProperty);
+            this.codes = new int[capacity];
+        }
+
+        /**
+         * Gets the code at the specified row.
+         * 
+         * @param row  the row, from zero to size exclusive
+         * @return the code, -1 for null
+         * @throws IndexOutOfBoundsException if the row is invalid
+         */
+        public int getCode(int row) {
+            store.checkRow(row);
+            return codes[row];
+        }
+
+        /**
+         * Gets the number of distinct non-null values.
+         * 
+         * @return the size of the dictionary
+         */
+        public int dictionarySize() {
+            return dictionary.size();
+        }
+
+        /**
+         * Gets the code for the specified value.
+         * 
+         * @param value  the value, null returns -1
+         * @return the code, -1 if null, -2 if not present
+         */
+        public int codeOf(Object value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = lookup.get(value);
+            return code != null ? code.intValue() : -2;
+        }
+
+        /**
+         * Gets the value for the specified code.
+         * 
+         * @param code  the code, -1 returns null
+         * @return the value, null if the code is -1
+         * @throws IndexOutOfBoundsException if the code is invalid
+         */
+        public Object decode(int code) {
+            return code == -1 ? null : dictionary.get(code);
+        }
+
+        /**
+         * Finds the rows with the specified value.
+         * 
+         * @param value  the value to find, may be null
+         * @return the matching rows in ascending order, not null
+         */
+        public int[] findRows(Object value) {
+            int code = codeOf(value);
+            if (code == -2) {
+                return new int[0];
+            }
+            int[] vals = codes;
+            int len = store.size;
+            int[] rows = new int[len];
+            int count = 0;
+            for (int i = 0; i < len; i++) {
+                if (vals[i] == code) {
+                    rows[count++] = i;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        /**
+         * Counts the number of rows for each code.
+         * <p>
+         * The result is indexed by code, with rows containing null excluded.
+         * 
+         * @return the count for each code, not null
+         */
+        public int[] countByCode() {
+            int[] vals = codes;
+            int len = store.size;
+            int[] counts = new int[dictionary.size()];
+            for (int i = 0; i < len; i++) {
+                int code = vals[i];
+                if (code >= 0) {
+                    counts[code]++;
+                }
+            }
+            return counts;
+        }
+
+        @Override
+        Object value(int row) {
+            return decode(codes[row]);
+        }
+
+        @Override
+        void set(int row, Object value) {
+            if (value == null) {
+                codes[row] = -1;
+                return;
+            }
+            Integer code = lookup.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                lookup.put(value, code);
+            }
+            codes[row] = code;
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            codes = Arrays.copyOf(codes, newCapacity);
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A column of object values.
+     */
+    public static final class ObjectColumn extends Column {
+        /** The values. */
+        private Object[] values;
+
+        ObjectColumn(ColumnarBeanStore<?> store, MetaProperty<?> metaProperty, int capacity) {
+            super(store, metaProperty);
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        Object value(int row) {
+            return values[row];
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = value;
+        }
+
+        @Override
+        void resize(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+}
@@ -0,0 +1,294 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+
+/**
+ * A thread-safe index over a collection of beans.
+ * <p>
+ * The index is either hashed, supporting equality lookups, or sorted,
+ * supporting equality and range lookups.
+ * <p>
+ * Reads do not lock. The beans for each key are held in an immutable snapshot that
+ * is replaced when a bean is added or removed, thus a read sees either the state
+ * before or after each write. Writes are serialized by a lock.
+ * Adding a bean appends to the array shared with the previous snapshot where possible,
+ * beyond the end visible to that snapshot, so building the index does not copy the
+ * beans for each key on every add. Removing a bean copies the beans for its key.
+ * A range lookup is weakly consistent, in that it may reflect some but not all
+ * of the writes that occur while it runs.
+ * <p>
+ * This class is mutable and thread-safe.
+ * 
+ * @param <K>  the type of the key
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public final class ConcurrentBeanIndex<K, T extends Bean> implements BeanIndex<K, T> {
+
+    /**
+     * The query.
+     */
+    private final BeanQuery<K> query;
+    /**
+     * The beans by key.
+     */
+    private final ConcurrentMap<K, List<T>> map;
+    /**
+     * The beans by key, null if not sorted.
+     */
+    private final ConcurrentNavigableMap<K, List<T>> sortedMap;
+    /**
+     * The lock for writes.
+     */
+    private final Object lock = new Object();
+    /**
+     * The number of beans.
+     */
+    private volatile int size;
+
+    /**
+     * Creates an empty hashed index.
+     * <p>
+     * {@link org.joda.beans.MetaProperty} implements {@link BeanQuery},
+     * so typically the query is a meta-property.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @return the index, not null
+     */
+    public static <K, T extends Bean> ConcurrentBeanIndex<K, T> hashed(BeanQuery<K> query) {
+        JodaBeanUtils.notNull(query, "query");
+        return new ConcurrentBeanIndex<K, T>(query, new ConcurrentHashMap<K, List<T>>(), null);
+    }
+
+    /**
+     * Creates an empty sorted index where the keys are sorted by their natural order.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @return the index, not null
+     */
+    public static <K extends Comparable<? super K>, T extends Bean> ConcurrentBeanIndex<K, T> sorted(BeanQuery<K> query) {
+        JodaBeanUtils.notNull(query, "query");
+        ConcurrentSkipListMap<K, List<T>> map = new ConcurrentSkipListMap<K, List<T>>();
+        return new ConcurrentBeanIndex<K, T>(query, map, map);
+    }
+
+    /**
+     * Creates an empty sorted index where the keys are sorted by a comparator.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @param comparator  the comparator to sort the keys, not null
+     * @return the index, not null
+     */
+    public static <K, T extends Bean> ConcurrentBeanIndex<K, T> sorted(BeanQuery<K> query, Comparator<? super K> comparator) {
+        JodaBeanUtils.notNull(query, "query");
+        JodaBeanUtils.notNull(comparator, "comparator");
+        ConcurrentSkipListMap<K, List<T>> map = new ConcurrentSkipListMap<K, List<T>>(comparator);
+        return new ConcurrentBeanIndex<K, T>(query, map, map);
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param query  the query, not null
+     * @param map  the map, not null
+     * @param sortedMap  the same map if sorted, null if not sorted
+     */
+    private ConcurrentBeanIndex(BeanQuery<K> query, ConcurrentMap<K, List<T>> map, ConcurrentNavigableMap<K, List<T>> sortedMap) {
+        this.query = query;
+        this.map = map;
+        this.sortedMap = sortedMap;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public BeanQuery<K> getQuery() {
+        return query;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the index is sorted, and thus supports range lookups.
+     * 
+     * @return true if sorted
+     */
+    public boolean isSorted() {
+        return sortedMap != null;
+    }
+
+    // checks if the index is sorted with the keys in their natural order
+    boolean isNaturalOrder() {
+        return sortedMap != null && sortedMap.comparator() == null;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public List<T> get(K key) {
+        List<T> beans = (key != null ? map.get(key) : null);
+        return beans != null ? beans : Collections.<T>emptyList();
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && map.containsKey(key);
+    }
+
+    /**
+     * Gets the beans with keys in the specified range.
+     * <p>
+     * The beans are returned in key order, and in the order added for equal keys.
+     * 
+     * @param from  the lower bound, null for no lower bound
+     * @param fromInclusive  true if beans with a key equal to the lower bound are included
+     * @param to  the upper bound, null for no upper bound
+     * @param toInclusive  true if beans with a key equal to the upper bound are included
+     * @return the beans in the range, not null
+     * @throws IllegalArgumentException if the lower bound is greater than the upper bound
+     * @throws UnsupportedOperationException if the index is not sorted
+     */
+    public List<T> range(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        if (sortedMap == null) {
+            throw new UnsupportedOperationException("Range lookup requires a sorted index");
+        }
+        return SortedBeanIndex.rangeOf(sortedMap, from, fromInclusive, to, toInclusive);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean add(T bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        K key = query.get(bean);
+        if (key == null) {
+            return false;
+        }
+        synchronized (lock) {
+            Snapshot<T> beans = (Snapshot<T>) map.get(key);
+            map.put(key, beans == null ? new Snapshot<T>(new Object[] {bean}, 1) : beans.plus(bean));
+            size++;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(T bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        K key = query.get(bean);
+        if (key == null) {
+            return false;
+        }
+        synchronized (lock) {
+            List<T> beans = map.get(key);
+            if (beans == null) {
+                return false;
+            }
+            int pos = beans.indexOf(bean);
+            if (pos < 0) {
+                return false;
+            }
+            if (beans.size() == 1) {
+                map.remove(key);
+            } else {
+                map.put(key, ((Snapshot<T>) beans).minus(pos));
+            }
+            size--;
+        }
+        return true;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "ConcurrentBeanIndex[" + query + ", size=" + size + "]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * An immutable snapshot of the beans for a key.
+     * <p>
+     * The elements up to the size are never changed once the snapshot is published.
+     * Later snapshots may share the array, using the elements beyond the size.
+     * 
+     * @param <T>  the type of the bean
+     */
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        /** The beans, shared with other snapshots. */
+        private final Object[] array;
+        /** The number of beans in this snapshot. */
+        private final int size;
+
+        Snapshot(Object[] array, int size) {
+            this.array = array;
+            this.size = size;
+        }
+
+        // returns a snapshot with the bean added, only called on the latest snapshot for the key
+        Snapshot<T> plus(T bean) {
+            Object[] target = array;
+            if (size == target.length) {
+                target = Arrays.copyOf(target, size + (size >> 1) + 1);
+            }
+            target[size] = bean;
+            return new Snapshot<T>(target, size + 1);
+        }
+
+        // returns a snapshot with the bean at the index removed, using a new array
+        Snapshot<T> minus(int index) {
+            Object[] target = new Object[size - 1];
+            System.arraycopy(array, 0, target, 0, index);
+            System.arraycopy(array, index + 1, target, index, size - index - 1);
+            return new Snapshot<T>(target, size - 1);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (T) array[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+
+/**
+ * An index over a collection of beans using a hash map, supporting equality lookups.
+ * <p>
+ * This class is mutable and not thread-safe.
+ * See {@link ConcurrentBeanIndex} for a thread-safe index.
+ * 
+ * @param <K>  the type of the key
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public final class HashBeanIndex<K, T extends Bean> implements BeanIndex<K, T> {
+
+    /**
+     * The query.
+     */
+    private final BeanQuery<K> query;
+    /**
+     * The beans by key.
+     */
+    private final Map<K, List<T>> map = new HashMap<K, List<T>>();
+    /**
+     * The number of beans.
+     */
+    private int size;
+
+    /**
+     * Creates an empty index.
+     * <p>
+     * {@link org.joda.beans.MetaProperty} implements {@link BeanQuery},
+     * so typically the query is a meta-property.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @return the index, not null
+     */
+    public static <K, T extends Bean> HashBeanIndex<K, T> of(BeanQuery<K> query) {
+        JodaBeanUtils.notNull(query, "query");
+        return new HashBeanIndex<K, T>(query);
+    }
+
+    /**
+     * Creates an index of the specified beans.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @param beans  the beans to index, not null
+     * @return the index, not null
+     */
+    public static <K, T extends Bean> HashBeanIndex<K, T> of(BeanQuery<K> query, Iterable<? extends T> beans) {
+        JodaBeanUtils.notNull(beans, "beans");
+        HashBeanIndex<K, T> index = of(query);
+        for (T bean : beans) {
+            index.add(bean);
+        }
+        return index;
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param query  the query, not null
+     */
+    private HashBeanIndex(BeanQuery<K> query) {
+        this.query = query;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public BeanQuery<K> getQuery() {
+        return query;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the set of keys in the index.
+     * 
+     * @return the keys, unmodifiable, not null
+     */
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public List<T> get(K key) {
+        List<T> beans = (key != null ? map.get(key) : null);
+        return beans != null ? Collections.unmodifiableList(beans) : Collections.<T>emptyList();
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && map.containsKey(key);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean add(T bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        K key = query.get(bean);
+        if (key == null) {
+            return false;
+        }
+        List<T> beans = map.get(key);
+        if (beans == null) {
+            beans = new ArrayList<T>(2);
+            map.put(key, beans);
+        }
+        beans.add(bean);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(T bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        K key = query.get(bean);
+        List<T> beans = (key != null ? map.get(key) : null);
+        if (beans == null || beans.remove(bean) == false) {
+            return false;
+        }
+        if (beans.isEmpty()) {
+            map.remove(key);
+        }
+        size--;
+        return true;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "HashBeanIndex[" + query + ", size=" + size + "]";
+    }
+
+}
@@ -0,0 +1,301 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.DynamicBean;
+import org.joda.beans.DynamicMetaBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * A query that follows a path of property names, such as "owner.address.city".
+ * <p>
+ * The path is compiled once against the meta-beans of the declared property types,
+ * rejecting unknown property names and paths that pass through a non-bean property.
+ * Compiled queries are cached, so repeatedly obtaining the same path is cheap.
+ * <p>
+ * The query is null-safe, returning null if any bean along the path is null.
+ * Each step remembers the meta-property for the last few bean classes it has seen,
+ * so that evaluating the query over many beans does not allocate, even where
+ * the path passes through subclasses of the declared types.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @param <P>  the type of the result of the query
+ * @author Stephen Colebourne
+ */
+public final class PropertyPathQuery<P> implements BeanQuery<P> {
+
+    /**
+     * The maximum number of meta-beans to cache queries for.
+     */
+    private static final int MAX_CACHED_META_BEANS = 1024;
+    /**
+     * The maximum number of queries to cache per meta-bean.
+     */
+    private static final int MAX_CACHED_PATHS = 256;
+    /**
+     * The cache of compiled queries, bounded so that paths built from data cannot exhaust memory.
+     */
+    private static final ConcurrentMap<MetaBean, ConcurrentMap<String, PropertyPathQuery<?>>> CACHE =
+            new ConcurrentHashMap<MetaBean, ConcurrentMap<String, PropertyPathQuery<?>>>();
+
+    /**
+     * The root meta-bean.
+     */
+    private final MetaBean metaBean;
+    /**
+     * The path.
+     */
+    private final String path;
+    /**
+     * The steps along the path.
+     */
+    private final Step[] steps;
+
+    //-------------------------------------------------------------------------
+    /**
+     * Obtains a query for a path of property names.
+     * 
+     * @param <P>  the result type
+     * @param beanType  the type of the bean at the root of the path, not null
+     * @param path  the path of property names separated by dots, not null
+     * @return the compiled query, not null
+     * @throws IllegalArgumentException if the path is invalid for the bean type
+     */
+    public static <P> PropertyPathQuery<P> of(Class<? extends Bean> beanType, String path) {
+        JodaBeanUtils.notNull(beanType, "beanType");
+        return of(JodaBeanUtils.metaBean(beanType), path);
+    }
+
+    /**
+     * Obtains a query for a path of property names.
+     * <p>
+     * If the meta-bean is dynamic, the properties are resolved as the query is evaluated.
+     * Queries are cached, up to a limit, after which a new query is compiled each time.
+     * 
+     * @param <P>  the result type
+     * @param metaBean  the meta-bean of the bean at the root of the path, not null
+     * @param path  the path of property names separated by dots, not null
+     * @return the compiled query, not null
+     * @throws IllegalArgumentException if the path is invalid for the meta-bean
+     */
+    @SuppressWarnings("unchecked")
+    public static <P> PropertyPathQuery<P> of(MetaBean metaBean, String path) {
+        JodaBeanUtils.notNull(metaBean, "metaBean");
+        JodaBeanUtils.notNull(path, "path");
+        if (metaBean instanceof DynamicMetaBean) {
+            return new PropertyPathQuery<P>(metaBean, path);
+        }
+        ConcurrentMap<String, PropertyPathQuery<?>> queries = CACHE.get(metaBean);
+        if (queries == null) {
+            if (CACHE.size() >= MAX_CACHED_META_BEANS) {
+                return new PropertyPathQuery<P>(metaBean, path);
+            }
+            CACHE.putIfAbsent(metaBean, new ConcurrentHashMap<String, PropertyPathQuery<?>>());
+            queries = CACHE.get(metaBean);
+        }
+        PropertyPathQuery<?> query = queries.get(path);
+        if (query == null) {
+            query = new PropertyPathQuery<P>(metaBean, path);
+            if (queries.size() < MAX_CACHED_PATHS) {
+                PropertyPathQuery<?> existing = queries.putIfAbsent(path, query);
+                if (existing != null) {
+                    query = existing;
+                }
+            }
+        }
+        return (PropertyPathQuery<P>) query;
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Restricted constructor, compiling the path.
+     * 
+     * @param metaBean  the root meta-bean, not null
+     * @param path  the path, not null
+     */
+    private PropertyPathQuery(MetaBean metaBean, String path) {
+        this.metaBean = metaBean;
+        this.path = path;
+        String[] names = path.split("\\.", -1);
+        List<Step> list = new ArrayList<Step>(names.length);
+        MetaBean current = metaBean;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            if (name.length() == 0) {
+                throw new IllegalArgumentException("Invalid property path: " + path);
+            }
+            MetaProperty<?> declared = null;
+            if (current != null) {
+                if (current.metaPropertyExists(name) == false) {
+                    throw new IllegalArgumentException(
+                            "Invalid property path: " + path + ", unknown property '" + name + "' on " + current.beanType().getName());
+                }
+                declared = current.metaProperty(name);
+            }
+            list.add(new Step(name, current, declared));
+            if (i < names.length - 1) {
+                current = nextMetaBean(declared);
+            }
+        }
+        this.steps = list.toArray(new Step[list.size()]);
+    }
+
+    // finds the meta-bean for the next step, null if it must be resolved as the query is evaluated
+    private MetaBean nextMetaBean(MetaProperty<?> declared) {
+        if (declared == null) {
+            return null;
+        }
+        Class<?> type = declared.propertyType();
+        if (Bean.class.isAssignableFrom(type) == false) {
+            if (type.isInterface() || type == Object.class) {
+                return null;
+            }
+            throw new IllegalArgumentException(
+                    "Invalid property path: " + path + ", property '" + declared.name() + "' is not a bean");
+        }
+        if (DynamicBean.class.isAssignableFrom(type)) {
+            return null;
+        }
+        try {
+            return JodaBeanUtils.metaBean(type);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the meta-bean at the root of the path.
+     * 
+     * @return the meta-bean, not null
+     */
+    public MetaBean getMetaBean() {
+        return metaBean;
+    }
+
+    /**
+     * Gets the path of property names.
+     * 
+     * @return the path, not null
+     */
+    public String getPath() {
+        return path;
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Queries the value at the end of the path.
+     * 
+     * @param bean  the bean to query, null returns null
+     * @return the value at the end of the path, null if any bean along the path is null
+     * @throws ClassCastException if a value along the path is not a bean
+     * @throws NoSuchElementException if a bean along the path does not have the property
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public P get(Bean bean) {
+        Object current = bean;
+        for (int i = 0; i < steps.length; i++) {
+            if (current == null) {
+                return null;
+            }
+            current = steps[i].get((Bean) current);
+        }
+        return (P) current;
+    }
+
+    //-------------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return metaBean.beanType().getSimpleName() + ":" + path;
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * A single step along the path, with an inline cache of the meta-property by bean class.
+     */
+    private static final class Step {
+        /** The maximum number of bean classes to cache. */
+        private static final int MAX_CACHED = 4;
+        /** The property name. */
+        private final String name;
+        /** The cache, replaced as a whole when a new bean class is seen. */
+        private volatile Cache cache;
+
+        Step(String name, MetaBean declaringMetaBean, MetaProperty<?> declared) {
+            this.name = name;
+            if (declared != null && declaringMetaBean instanceof DynamicMetaBean == false) {
+                this.cache = new Cache(new Class<?>[] {declaringMetaBean.beanType()}, new MetaProperty<?>[] {declared});
+            } else {
+                this.cache = new Cache(new Class<?>[0], new MetaProperty<?>[0]);
+            }
+        }
+
+        Object get(Bean bean) {
+            Class<?> type = bean.getClass();
+            Cache cached = cache;
+            Class<?>[] types = cached.types;
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == type) {
+                    return cached.metaProperties[i].get(bean);
+                }
+            }
+            MetaProperty<?> metaProperty = bean.metaBean().metaProperty(name);
+            if (bean instanceof DynamicBean == false && types.length < MAX_CACHED) {
+                cache = cached.plus(type, metaProperty);
+            }
+            return metaProperty.get(bean);
+        }
+    }
+
+    /**
+     * An immutable snapshot of the cache for a step.
+     */
+    private static final class Cache {
+        /** The bean classes. */
+        final Class<?>[] types;
+        /** The meta-property for each bean class. */
+        final MetaProperty<?>[] metaProperties;
+
+        Cache(Class<?>[] types, MetaProperty<?>[] metaProperties) {
+            this.types = types;
+            this.metaProperties = metaProperties;
+        }
+
+        Cache plus(Class<?> type, MetaProperty<?> metaProperty) {
+            int size = types.length;
+            Class<?>[] newTypes = new Class<?>[size + 1];
+            MetaProperty<?>[] newMetaProperties = new MetaProperty<?>[size + 1];
+            System.arraycopy(types, 0, newTypes, 0, size);
+            System.arraycopy(metaProperties, 0, newMetaProperties, 0, size);
+            newTypes[size] = type;
+            newMetaProperties[size] = metaProperty;
+            return new Cache(newTypes, newMetaProperties);
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+
+/**
+ * An index over a collection of beans using a sorted map, supporting equality and range lookups.
+ * <p>
+ * This class is mutable and not thread-safe.
+ * See {@link ConcurrentBeanIndex} for a thread-safe index.
+ * 
+ * @param <K>  the type of the key
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public final class SortedBeanIndex<K, T extends Bean> implements BeanIndex<K, T> {
+
+    /**
+     * The query.
+     */
+    private final BeanQuery<K> query;
+    /**
+     * The beans by key.
+     */
+    private final NavigableMap<K, List<T>> map;
+    /**
+     * The number of beans.
+     */
+    private int size;
+
+    /**
+     * Creates an empty index where the keys are sorted by their natural order.
+     * <p>
+     * {@link org.joda.beans.MetaProperty} implements {@link BeanQuery},
+     * so typically the query is a meta-property.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @return the index, not null
+     */
+    public static <K extends Comparable<? super K>, T extends Bean> SortedBeanIndex<K, T> of(BeanQuery<K> query) {
+        JodaBeanUtils.notNull(query, "query");
+        return new SortedBeanIndex<K, T>(query, null);
+    }
+
+    /**
+     * Creates an index of the specified beans where the keys are sorted by their natural order.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @param beans  the beans to index, not null
+     * @return the index, not null
+     */
+    public static <K extends Comparable<? super K>, T extends Bean> SortedBeanIndex<K, T> of(
+            BeanQuery<K> query, Iterable<? extends T> beans) {
+        JodaBeanUtils.notNull(beans, "beans");
+        SortedBeanIndex<K, T> index = of(query);
+        for (T bean : beans) {
+            index.add(bean);
+        }
+        return index;
+    }
+
+    /**
+     * Creates an empty index where the keys are sorted by a comparator.
+     * 
+     * @param <K>  the type of the key
+     * @param <T>  the type of the bean
+     * @param query  the query to obtain the key from each bean, not null
+     * @param comparator  the comparator to sort the keys, not null
+     * @return the index, not null
+     */
+    public static <K, T extends Bean> SortedBeanIndex<K, T> of(BeanQuery<K> query, Comparator<? super K> comparator) {
+        JodaBeanUtils.notNull(query, "query");
+        JodaBeanUtils.notNull(comparator, "comparator");
+        return new SortedBeanIndex<K, T>(query, comparator);
+    }
+
+    /**
+     * Restricted constructor.
+     * 
+     * @param query  the query, not null
+     * @param comparator  the comparator, null for natural order
+     */
+    private SortedBeanIndex(BeanQuery<K> query, Comparator<? super K> comparator) {
+        this.query = query;
+        this.map = new TreeMap<K, List<T>>(comparator);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public BeanQuery<K> getQuery() {
+        return query;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the set of keys in the index, in sorted order.
+     * 
+     * @return the keys, unmodifiable, not null
+     */
+    public SortedSet<K> keySet() {
+        return Collections.unmodifiableSortedSet(map.navigableKeySet());
+    }
+
+    /**
+     * Gets the lowest key in the index.
+     * 
+     * @return the lowest key, null if the index is empty
+     */
+    public K firstKey() {
+        return map.isEmpty() ? null : map.firstKey();
+    }
+
+    /**
+     * Gets the highest key in the index.
+     * 
+     * @return the highest key, null if the index is empty
+     */
+    public K lastKey() {
+        return map.isEmpty() ? null : map.lastKey();
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public List<T> get(K key) {
+        List<T> beans = (key != null ? map.get(key) : null);
+        return beans != null ? Collections.unmodifiableList(beans) : Collections.<T>emptyList();
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && map.containsKey(key);
+    }
+
+    /**
+     * Gets the beans with keys in the specified range.
+     * <p>
+     * The beans are returned in key order, and in the order added for equal keys.
+     * 
+     * @param from  the lower bound, null for no lower bound
+     * @param fromInclusive  true if beans with a key equal to the lower bound are included
+     * @param to  the upper bound, null for no upper bound
+     * @param toInclusive  true if beans with a key equal to the upper bound are included
+     * @return the beans in the range, not null
+     * @throws IllegalArgumentException if the lower bound is greater than the upper bound
+     */
+    public List<T> range(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return rangeOf(map, from, fromInclusive, to, toInclusive);
+    }
+
+    // checks if the keys are sorted in their natural order
+    boolean isNaturalOrder() {
+        return map.comparator() == null;
+    }
+
+    // finds the beans in the range
+    static <K, T> List<T> rangeOf(NavigableMap<K, List<T>> map, K from, boolean fromInclusive, K to, boolean toInclusive) {
+        NavigableMap<K, List<T>> range = map;
+        if (from != null && to != null) {
+            range = map.subMap(from, fromInclusive, to, toInclusive);
+        } else if (from != null) {
+            range = map.tailMap(from, fromInclusive);
+        } else if (to != null) {
+            range = map.headMap(to, toInclusive);
+        }
+        List<T> result = new ArrayList<T>();
+        for (List<T> beans : range.values()) {
+            result.addAll(beans);
+        }
+        return result;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public boolean add(T bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        K key = query.get(bean);
+        if (key == null) {
+            return false;
+        }
+        List<T> beans = map.get(key);
+        if (beans == null) {
+            beans = new ArrayList<T>(2);
+            map.put(key, beans);
+        }
+        beans.add(bean);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(T bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        K key = query.get(bean);
+        List<T> beans = (key != null ? map.get(key) : null);
+        if (beans == null || beans.remove(bean) == false) {
+            return false;
+        }
+        if (beans.isEmpty()) {
+            map.remove(key);
+        }
+        size--;
+        return true;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "SortedBeanIndex[" + query + ", size=" + size + "]";
+    }
+
+}
@@ -19,6 +19,7 @@ import org.joda.beans.BeanBuilder;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
+import org.joda.beans.impl.IndexedBeanBuilder;
 
 /**
  * Default deserializer that expects the input to match the current classpath beans.
@@ -53,6 +54,21 @@ public class DefaultDeserializer implements SerDeserializer {
         return metaBean.builder();
     }
 
+    /**
+     * Creates a builder that buffers the property values until the bean is built.
+     * <p>
+     * Subclasses handling a semantic change can return this from {@code createBuilder},
+     * allowing the values to be examined and altered in {@code build}.
+     * The values are held in an array indexed by the ordinal of each meta-property.
+     * 
+     * @param beanType  the type being processed, not null
+     * @param metaBean  the meta-bean, not null
+     * @return the buffering builder, not null
+     */
+    protected IndexedBeanBuilder<?> createBufferingBuilder(Class<?> beanType, MetaBean metaBean) {
+        return IndexedBeanBuilder.of(metaBean);
+    }
+
     @Override
     public MetaProperty<?> findMetaProperty(Class<?> beanType, MetaBean metaBean, String propertyName) {
         return metaBean.metaProperty(propertyName);
@@ -40,12 +40,12 @@ public final class JodaBeanSer {
      * Obtains the singleton compact instance.
      */
     public static final JodaBeanSer COMPACT = new JodaBeanSer("", "", StringConvert.create(),
-            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE);
+            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE, null, false);
     /**
      * Obtains the singleton pretty-printing instance.
      */
     public static final JodaBeanSer PRETTY = new JodaBeanSer(" ", "\n", StringConvert.create(),
-            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE);
+            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE, null, false);
 
     /**
      * The indent to use.
@@ -71,6 +71,14 @@ public final class JodaBeanSer {
      * The deserializers.
      */
     private final SerDeserializers deserializers;
+    /**
+     * The interner, null if not interning.
+     */
+    private final SerInterner interner;
+    /**
+     * Whether the readers synthesize meta-beans for beans without generated code.
+     */
+    private final boolean metaBeanSynthesis;
 
     /**
      * Creates an instance.
@@ -81,15 +89,20 @@ public final class JodaBeanSer {
      * @param iteratorFactory  the iterator factory, not null
      * @param shortTypes  whether to use short types
      * @param deserializers  the deserializers to use, not null
+     * @param interner  the interner to use, null if not interning
+     * @param metaBeanSynthesis  whether to synthesize meta-beans when reading
      */
     private JodaBeanSer(String indent, String newLine, StringConvert converter,
-                SerIteratorFactory iteratorFactory, boolean shortTypes, SerDeserializers deserializers) {
+                SerIteratorFactory iteratorFactory, boolean shortTypes, SerDeserializers deserializers,
+                SerInterner interner, boolean metaBeanSynthesis) {
         this.indent = indent;
         this.newLine = newLine;
         this.converter = converter;
         this.iteratorFactory = iteratorFactory;
         this.shortTypes = shortTypes;
         this.deserializers = deserializers;
+        this.interner = interner;
+        this.metaBeanSynthesis = metaBeanSynthesis;
     }
 
     //-----------------------------------------------------------------------
@@ -110,7 +123,7 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withIndent(String indent) {
         JodaBeanUtils.notNull(indent, "indent");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
     }
 
     /**
@@ -130,7 +143,7 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withNewLine(String newLine) {
         JodaBeanUtils.notNull(newLine, "newLine");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
     }
 
     /**
@@ -154,7 +167,7 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withConverter(StringConvert converter) {
         JodaBeanUtils.notNull(converter, "converter");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
     }
 
     /**
@@ -174,7 +187,7 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withIteratorFactory(SerIteratorFactory iteratorFactory) {
         JodaBeanUtils.notNull(converter, "converter");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
     }
 
     /**
@@ -193,7 +206,7 @@ public final class JodaBeanSer {
      * @return a copy of this object with the short types flag changed, not null
      */
     public JodaBeanSer withShortTypes(boolean shortTypes) {
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
     }
 
     /**
@@ -217,7 +230,69 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withDeserializers(SerDeserializers deserializers) {
         JodaBeanUtils.notNull(deserializers, "deserializers");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
+    }
+
+    /**
+     * Gets the interner used by the readers.
+     * 
+     * @return the interner, null if immutable beans are not interned
+     */
+    public SerInterner getInterner() {
+        return interner;
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified interner.
+     * <p>
+     * When set, each immutable bean built by a reader is replaced by an equal instance
+     * from the interner if one exists. The interner can be shared between serializers.
+     * 
+     * @param interner  the interner, null to not intern
+     * @return a copy of this object with the interner changed, not null
+     */
+    public JodaBeanSer withInterner(SerInterner interner) {
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
+    }
+
+    /**
+     * Gets whether the readers synthesize meta-beans for beans without generated code.
+     * 
+     * @return true if meta-beans are synthesized
+     */
+    public boolean isMetaBeanSynthesis() {
+        return metaBeanSynthesis;
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified meta-bean synthesis flag.
+     * <p>
+     * When set, a bean type read by the readers that has not registered a meta-bean
+     * has one synthesized, as per {@link JodaBeanUtils#metaBean(Class, boolean)}.
+     * This only applies to types that use the default deserializer.
+     * 
+     * @param metaBeanSynthesis  true to synthesize meta-beans
+     * @return a copy of this object with the flag changed, not null
+     */
+    public JodaBeanSer withMetaBeanSynthesis(boolean metaBeanSynthesis) {
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, interner, metaBeanSynthesis);
+    }
+
+    /**
+     * Finds the deserializer to use for a bean type.
+     * <p>
+     * This is used by the readers, applying the meta-bean synthesis flag
+     * to types that use the default deserializer.
+     * 
+     * @param beanType  the bean type, not null
+     * @return the deserializer, not null
+     */
+    public SerDeserializer findDeserializer(Class<?> beanType) {
+        SerDeserializer deser = deserializers.findDeserializer(beanType);
+        if (metaBeanSynthesis && deser == DefaultDeserializer.INSTANCE) {
+            JodaBeanUtils.metaBean(beanType, true);
+        }
+        return deser;
     }
 
     //-----------------------------------------------------------------------
@@ -323,6 +398,18 @@ public final class JodaBeanSer {
         return new JodaBeanSimpleJsonReader(this);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Creates a warm-up for these settings.
+     * <p>
+     * This is used to initialize meta-beans and the metadata used to serialize them at startup.
+     * 
+     * @return the warm-up, not null
+     */
+    public SerWarmup warmup() {
+        return new SerWarmup(this, Runtime.getRuntime().availableProcessors());
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public String toString() {
@@ -73,13 +73,13 @@ import org.joda.beans.MetaProperty;
  * and {@code build}, buffering the input to process at the end of the bean:
  * <pre>
  *  public BeanBuilder<?> createBuilder(Class<?> beanType, MetaBean metaBean) {
- *    return BufferingBeanBuilder.of(metaBean);
+ *    return createBufferingBuilder(beanType, metaBean);
  *  }
  *
  *  public Object build(Class<?> beanType, BeanBuilder<?> builder) {
- *    BufferingBeanBuilder<?> bld = (BufferingBeanBuilder<?>) builder;
- *    if ("Stephen".equals(bld.getBuffer().get(SimplePerson.meta().forename())) &&
- *         "Colebourne".equals(bld.getBuffer().get(SimplePerson.meta().surname()))) {
+ *    IndexedBeanBuilder<?> bld = (IndexedBeanBuilder<?>) builder;
+ *    if ("Stephen".equals(bld.get(SimplePerson.meta().forename())) &&
+ *         "Colebourne".equals(bld.get(SimplePerson.meta().surname()))) {
  *      bld.set(SimplePerson.meta().forename(), "Steve");
  *    }
  *    return bld.build();
@@ -0,0 +1,300 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.beans.ImmutableBean;
+
+/**
+ * Interns immutable beans as they are deserialized.
+ * <p>
+ * When configured using {@link JodaBeanSer#withInterner(SerInterner)}, each immutable bean
+ * built by a reader is looked up in this cache, and any equal instance already in the
+ * cache is returned instead. As beans are built from the leaves upwards, nested beans
+ * are interned before the beans that contain them.
+ * This reduces retained memory where the same values appear many times, both within
+ * and across messages, at the cost of calculating the hash code of each bean.
+ * <p>
+ * The cache holds its beans weakly, so an interned bean is discarded once it is no
+ * longer used elsewhere. The cache is bounded, with arbitrary entries evicted when full.
+ * Hit and miss statistics are recorded.
+ * <p>
+ * This class is thread-safe and may be shared between readers.
+ *
+ * @author Stephen Colebourne
+ */
+public final class SerInterner {
+
+    /**
+     * The maximum size.
+     */
+    private final int maxSize;
+    /**
+     * The cache, where the key and value are the same weak reference.
+     */
+    private final ConcurrentHashMap<Object, WeakKey> cache;
+    /**
+     * The queue of cleared references.
+     */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+    /**
+     * The approximate size.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * The number of hits.
+     */
+    private final AtomicLong hits = new AtomicLong();
+    /**
+     * The number of misses.
+     */
+    private final AtomicLong misses = new AtomicLong();
+    /**
+     * The number of evictions.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates an interner with the specified maximum size.
+     * 
+     * @param maxSize  the maximum number of beans to hold, greater than zero
+     * @return the interner, not null
+     */
+    public static SerInterner of(int maxSize) {
+        return new SerInterner(maxSize);
+    }
+
+    /**
+     * Creates an instance.
+     * 
+     * @param maxSize  the maximum number of beans to hold, greater than zero
+     */
+    private SerInterner(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be greater than zero");
+        }
+        this.maxSize = maxSize;
+        this.cache = new ConcurrentHashMap<Object, WeakKey>(Math.min(maxSize, 1024));
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Interns the specified object.
+     * <p>
+     * If the object is an immutable bean, an equal bean already in the cache is returned
+     * if there is one, otherwise the object is added to the cache and returned.
+     * Other objects are returned unchanged.
+     * 
+     * @param <T>  the type of the object
+     * @param obj  the object to intern, may be null
+     * @return the interned object, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T obj) {
+        if (obj instanceof ImmutableBean == false) {
+            return obj;
+        }
+        purge();
+        StrongKey lookup = new StrongKey(obj);
+        WeakKey found = cache.get(lookup);
+        if (found != null) {
+            Object existing = found.get();
+            if (existing != null) {
+                hits.incrementAndGet();
+                return (T) existing;
+            }
+        }
+        misses.incrementAndGet();
+        if (size.get() >= maxSize) {
+            evict();
+        }
+        WeakKey key = new WeakKey(obj, lookup.hash, queue);
+        while (true) {
+            WeakKey existingKey = cache.putIfAbsent(key, key);
+            if (existingKey == null) {
+                size.incrementAndGet();
+                return obj;
+            }
+            Object existing = existingKey.get();
+            if (existing != null) {
+                return (T) existing;
+            }
+            // cleared but not yet purged
+            if (cache.remove(existingKey, existingKey)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    // removes cleared references
+    private void purge() {
+        Reference<?> ref;
+        while ((ref = queue.poll()) != null) {
+            if (cache.remove(ref, ref)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    // evicts arbitrary entries to reduce the size to three quarters of the maximum
+    private void evict() {
+        int target = maxSize - maxSize / 4 - 1;
+        for (Iterator<WeakKey> it = cache.values().iterator(); it.hasNext() && size.get() > target; ) {
+            WeakKey key = it.next();
+            if (cache.remove(key, key)) {
+                size.decrementAndGet();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the maximum size of the cache.
+     * 
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the approximate number of beans in the cache.
+     * 
+     * @return the size
+     */
+    public int size() {
+        purge();
+        return size.get();
+    }
+
+    /**
+     * Gets the number of times an equal bean was found in the cache.
+     * 
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of times an equal bean was not found in the cache.
+     * 
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of beans evicted because the cache was full.
+     * 
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Clears the cache, leaving the statistics unchanged.
+     */
+    public void clear() {
+        cache.clear();
+        size.set(0);
+        purge();
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "SerInterner[size=" + size.get() + ", maxSize=" + maxSize +
+                ", hits=" + hits.get() + ", misses=" + misses.get() + ", evictions=" + evictions.get() + "]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * A key held in the cache, referring to the bean weakly.
+     * Equality is based on the equality of the bean, or identity once cleared.
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+        /** The hash code of the bean. */
+        private final int hash;
+
+        WeakKey(Object obj, int hash, ReferenceQueue<Object> queue) {
+            super(obj, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            Object value = get();
+            if (value == null) {
+                return false;
+            }
+            if (obj instanceof WeakKey) {
+                return value.equals(((WeakKey) obj).get());
+            }
+            if (obj instanceof StrongKey) {
+                return value.equals(((StrongKey) obj).value);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A key used for lookup, referring to the bean strongly.
+     */
+    private static final class StrongKey {
+        /** The bean. */
+        private final Object value;
+        /** The hash code of the bean. */
+        private final int hash;
+
+        StrongKey(Object value) {
+            this.value = value;
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof WeakKey) {
+                return value.equals(((WeakKey) obj).get());
+            }
+            return obj instanceof StrongKey && value.equals(((StrongKey) obj).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
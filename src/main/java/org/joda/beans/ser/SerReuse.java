@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.joda.beans.Bean;
+import org.joda.beans.DynamicBean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * Assists with deserialization into existing mutable beans.
+ * <p>
+ * When reading into an existing bean, each property in the input overwrites the
+ * current value in place. Nested mutable beans of the same type are read into,
+ * rather than replaced, and collections held by read-only properties are cleared
+ * and refilled. Properties not in the input are left unchanged.
+ */
+public final class SerReuse {
+
+    /**
+     * Restricted constructor.
+     */
+    private SerReuse() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if an existing value can be read into, rather than replaced.
+     * <p>
+     * Only mutable beans of exactly the same type are read into.
+     * 
+     * @param existing  the existing value, may be null
+     * @param effectiveType  the type being read, not null
+     * @return true if the existing value is a bean that can be read into
+     */
+    public static boolean isReusable(Object existing, Class<?> effectiveType) {
+        return existing != null &&
+                existing.getClass() == effectiveType &&
+                existing instanceof Bean &&
+                (existing instanceof ImmutableBean) == false;
+    }
+
+    /**
+     * Gets the current value of a property, for potential reuse.
+     * 
+     * @param bean  the bean being read into, not null
+     * @param metaProp  the meta-property, not null
+     * @return the current value, null if not readable or not present
+     */
+    public static Object currentValue(Bean bean, MetaProperty<?> metaProp) {
+        if (metaProp.style().isReadable() == false) {
+            return null;
+        }
+        if (bean instanceof DynamicBean && bean.metaBean().metaPropertyExists(metaProp.name()) == false) {
+            return null;
+        }
+        return metaProp.get(bean);
+    }
+
+    /**
+     * Sets a property of a bean being read into.
+     * <p>
+     * If the value is the current value, because it was read into, nothing is set.
+     * If the property is not writable, but holds a collection or map, the collection
+     * or map is cleared and refilled. Otherwise the value is set using the meta-property.
+     * 
+     * @param bean  the bean being read into, not null
+     * @param metaProp  the meta-property, not null
+     * @param current  the current value, may be null
+     * @param value  the value that was read, may be null
+     * @throws UnsupportedOperationException if the property cannot be updated
+     */
+    @SuppressWarnings("unchecked")
+    public static void setValue(Bean bean, MetaProperty<?> metaProp, Object current, Object value) {
+        if (value == current && value != null) {
+            return;
+        }
+        if (metaProp.style().isWritable() == false) {
+            try {
+                if (current instanceof Collection && value instanceof Collection) {
+                    Collection<Object> collection = (Collection<Object>) current;
+                    collection.clear();
+                    collection.addAll((Collection<Object>) value);
+                    return;
+                }
+                if (current instanceof Map && value instanceof Map) {
+                    Map<Object, Object> map = (Map<Object, Object>) current;
+                    map.clear();
+                    map.putAll((Map<Object, Object>) value);
+                    return;
+                }
+            } catch (UnsupportedOperationException ex) {
+                // immutable collection, fall through to set the value
+            }
+        }
+        metaProp.set(bean, value);
+    }
+
+}
@@ -0,0 +1,330 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.joda.beans.Bean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.impl.IndexedBeanBuilder;
+import org.joda.beans.ser.bin.BinBeanSerializer;
+
+/**
+ * Warms up the meta-beans and serialization metadata of a set of beans.
+ * <p>
+ * Bean classes are loaded and initialized, and their meta-beans registered, on first use.
+ * The metadata cached by the meta-beans for serialization is also created on first use.
+ * This can cause a noticeable delay on the first request handled by an application.
+ * This class allows that work to be done explicitly at startup, in parallel,
+ * with the time taken reported per type.
+ * <p>
+ * For each type, the bean class is initialized and its meta-bean found, which creates
+ * any generated binary serializer and its encoded property names. The index of property
+ * names used by the readers to find each meta-property, and the ordinals used by
+ * {@link IndexedBeanBuilder}, are then built. Finally, the lazily resolved field,
+ * generic type and annotations of each meta-property are resolved, and the string
+ * converter of each property type is looked up.
+ * <p>
+ * The types to warm up can be specified directly, found by package prefix, or read
+ * from a profile. A profile is a text file listing one bean class name per line,
+ * typically recorded from a running application using {@link #recordProfile(Writer)}.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author Stephen Colebourne
+ */
+public final class SerWarmup {
+
+    /**
+     * The settings to warm up.
+     */
+    private final JodaBeanSer settings;
+    /**
+     * The number of threads to use.
+     */
+    private final int parallelism;
+
+    /**
+     * Creates an instance.
+     * 
+     * @param settings  the settings, not null
+     * @param parallelism  the number of threads to use, one or greater
+     */
+    SerWarmup(JodaBeanSer settings, int parallelism) {
+        JodaBeanUtils.notNull(settings, "settings");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be one or greater");
+        }
+        this.settings = settings;
+        this.parallelism = parallelism;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a copy of this warm-up with the specified number of threads.
+     * <p>
+     * By default, one thread is used per available processor.
+     * 
+     * @param parallelism  the number of threads to use, one or greater
+     * @return a copy of this warm-up, not null
+     */
+    public SerWarmup withParallelism(int parallelism) {
+        return new SerWarmup(settings, parallelism);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Warms up the specified bean types.
+     * 
+     * @param types  the bean types, not null
+     * @return the result, not null
+     */
+    public SerWarmupResult warmup(Collection<? extends Class<?>> types) {
+        JodaBeanUtils.notNull(types, "types");
+        long start = System.nanoTime();
+        Map<Class<?>, Future<Long>> futures = new LinkedHashMap<Class<?>, Future<Long>>();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (final Class<?> type : new LinkedHashSet<Class<?>>(types)) {
+                futures.put(type, executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() {
+                        return warmupType(type);
+                    }
+                }));
+            }
+            Map<Class<?>, Long> timings = new LinkedHashMap<Class<?>, Long>();
+            Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
+            for (Map.Entry<Class<?>, Future<Long>> entry : futures.entrySet()) {
+                try {
+                    timings.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException ex) {
+                    failures.put(entry.getKey().getName(), ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Warm-up interrupted", ex);
+                }
+            }
+            return new SerWarmupResult(timings, failures, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Warms up all the bean types in the specified package and its sub-packages.
+     * <p>
+     * The classes are found from the directories and jar files of the class loader.
+     * Nested classes are not included.
+     * 
+     * @param packagePrefix  the package prefix, such as 'com.foo', not null
+     * @param classLoader  the class loader to search, not null
+     * @return the result, not null
+     * @throws IllegalArgumentException if the class path cannot be searched
+     */
+    public SerWarmupResult warmupPackage(String packagePrefix, ClassLoader classLoader) {
+        JodaBeanUtils.notNull(packagePrefix, "packagePrefix");
+        JodaBeanUtils.notNull(classLoader, "classLoader");
+        Set<String> names = new TreeSet<String>();
+        String path = packagePrefix.replace('.', '/');
+        try {
+            Enumeration<URL> urls = classLoader.getResources(path);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if (url.getProtocol().equals("file")) {
+                    findClassNames(new File(url.toURI()), packagePrefix, names);
+                } else if (url.getProtocol().equals("jar")) {
+                    JarFile jar = ((JarURLConnection) url.openConnection()).getJarFile();
+                    for (Enumeration<JarEntry> en = jar.entries(); en.hasMoreElements(); ) {
+                        String entryName = en.nextElement().getName();
+                        if (entryName.startsWith(path + "/") && entryName.endsWith(".class")) {
+                            addClassName(entryName.substring(0, entryName.length() - 6).replace('/', '.'), names);
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Unable to search package: " + packagePrefix, ex);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("Unable to search package: " + packagePrefix, ex);
+        }
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        for (String name : names) {
+            try {
+                Class<?> cls = Class.forName(name, false, classLoader);
+                if (Bean.class.isAssignableFrom(cls) && cls.isInterface() == false) {
+                    types.add(cls);
+                }
+            } catch (ClassNotFoundException ex) {
+                // ignore classes that cannot be loaded
+            } catch (LinkageError ex) {
+                // ignore classes that cannot be loaded
+            }
+        }
+        return warmup(types);
+    }
+
+    // finds the class names in a directory
+    private static void findClassNames(File dir, String packageName, Set<String> names) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String fileName = file.getName();
+            if (file.isDirectory()) {
+                findClassNames(file, packageName + "." + fileName, names);
+            } else if (fileName.endsWith(".class")) {
+                addClassName(packageName + "." + fileName.substring(0, fileName.length() - 6), names);
+            }
+        }
+    }
+
+    // adds a class name, excluding nested classes
+    private static void addClassName(String className, Set<String> names) {
+        if (className.indexOf('$') < 0 && className.endsWith("package-info") == false) {
+            names.add(className);
+        }
+    }
+
+    /**
+     * Warms up the bean types listed in a profile.
+     * <p>
+     * The profile has one class name per line.
+     * Blank lines, and lines starting with '#', are ignored.
+     * Classes that cannot be found are reported as failures.
+     * 
+     * @param profile  the profile to read, not null
+     * @param classLoader  the class loader to use, not null
+     * @return the result, not null
+     * @throws IllegalArgumentException if the profile cannot be read
+     */
+    public SerWarmupResult warmupProfile(Reader profile, ClassLoader classLoader) {
+        JodaBeanUtils.notNull(profile, "profile");
+        JodaBeanUtils.notNull(classLoader, "classLoader");
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        Map<String, Throwable> missing = new LinkedHashMap<String, Throwable>();
+        try {
+            BufferedReader reader = new BufferedReader(profile);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.length() > 0 && line.startsWith("#") == false) {
+                    try {
+                        types.add(Class.forName(line, false, classLoader));
+                    } catch (ClassNotFoundException ex) {
+                        missing.put(line, ex);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Unable to read warm-up profile", ex);
+        }
+        SerWarmupResult result = warmup(types);
+        if (missing.isEmpty()) {
+            return result;
+        }
+        missing.putAll(result.getFailures());
+        return new SerWarmupResult(result.getTimings(), missing, result.getTotalNanos());
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Records a profile of the bean types that have registered a meta-bean.
+     * <p>
+     * The profile can be stored and used to warm up a later run of the application.
+     * 
+     * @param profile  the writer to write the profile to, not null
+     * @throws IllegalArgumentException if the profile cannot be written
+     */
+    public static void recordProfile(Writer profile) {
+        JodaBeanUtils.notNull(profile, "profile");
+        Set<String> names = new TreeSet<String>();
+        for (Class<?> type : JodaBeanUtils.registeredBeanTypes()) {
+            names.add(type.getName());
+        }
+        try {
+            profile.write("# Joda-Beans warm-up profile\n");
+            for (String name : names) {
+                profile.write(name);
+                profile.write('\n');
+            }
+            profile.flush();
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Unable to write warm-up profile", ex);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Warms up a single type.
+     * 
+     * @param type  the type, not null
+     * @return the time taken in nanoseconds
+     */
+    long warmupType(Class<?> type) {
+        long start = System.nanoTime();
+        SerDeserializer deser = settings.findDeserializer(type);
+        MetaBean metaBean = deser.findMetaBean(type);
+        // the binary writer and reader check for a generated serializer
+        if (metaBean instanceof BinBeanSerializer) {
+            ((BinBeanSerializer<?>) metaBean).binBeanType();
+        }
+        // the ordinals are cached by the meta-bean
+        IndexedBeanBuilder.of(metaBean);
+        for (MetaProperty<?> metaProp : metaBean.metaPropertyIterable()) {
+            // the readers find each meta-property by name, which builds the index of names
+            metaBean.metaPropertyExists(metaProp.name());
+            // resolves the field, generic type and annotations together
+            metaProp.propertyGenericType();
+            // the converter caches the lookup
+            settings.getConverter().isConvertible(metaProp.propertyType());
+        }
+        return System.nanoTime() - start;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+}
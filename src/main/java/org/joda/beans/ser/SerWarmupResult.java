@@ -0,0 +1,129 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result of warming up a set of beans.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author Stephen Colebourne
+ */
+public final class SerWarmupResult {
+
+    /**
+     * The time taken per type, in nanoseconds.
+     */
+    private final Map<Class<?>, Long> timings;
+    /**
+     * The failures, keyed by class name.
+     */
+    private final Map<String, Throwable> failures;
+    /**
+     * The total elapsed time, in nanoseconds.
+     */
+    private final long totalNanos;
+
+    /**
+     * Creates an instance.
+     * 
+     * @param timings  the time taken per type, not null
+     * @param failures  the failures, not null
+     * @param totalNanos  the total elapsed time
+     */
+    SerWarmupResult(Map<Class<?>, Long> timings, Map<String, Throwable> failures, long totalNanos) {
+        this.timings = Collections.unmodifiableMap(new LinkedHashMap<Class<?>, Long>(timings));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<String, Throwable>(failures));
+        this.totalNanos = totalNanos;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the time taken to warm up each type that succeeded, in nanoseconds.
+     * <p>
+     * As types are warmed up in parallel, and share caches, the time for
+     * one type may include work that benefits other types.
+     * 
+     * @return the timings, unmodifiable, not null
+     */
+    public Map<Class<?>, Long> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Gets the types that failed to warm up, keyed by class name.
+     * 
+     * @return the failures, unmodifiable, not null
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gets the total elapsed time of the warm-up, in nanoseconds.
+     * 
+     * @return the elapsed time
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes a report of the warm-up, listing the slowest types first.
+     * 
+     * @param out  the writer to write to, not null
+     * @throws IOException if an IO error occurs
+     */
+    public void writeReport(Writer out) throws IOException {
+        out.write(toString());
+        out.write('\n');
+        List<Entry<Class<?>, Long>> sorted = new ArrayList<Entry<Class<?>, Long>>(timings.entrySet());
+        Collections.sort(sorted, new Comparator<Entry<Class<?>, Long>>() {
+            @Override
+            public int compare(Entry<Class<?>, Long> entry1, Entry<Class<?>, Long> entry2) {
+                return entry2.getValue().compareTo(entry1.getValue());
+            }
+        });
+        for (Entry<Class<?>, Long> entry : sorted) {
+            out.write("  " + entry.getKey().getName() + ": " +
+                    TimeUnit.NANOSECONDS.toMicros(entry.getValue()) + "us\n");
+        }
+        for (Entry<String, Throwable> entry : failures.entrySet()) {
+            out.write("  " + entry.getKey() + ": FAILED " + entry.getValue() + "\n");
+        }
+        out.flush();
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "SerWarmupResult[types=" + timings.size() + ", failures=" + failures.size() +
+                ", time=" + TimeUnit.NANOSECONDS.toMillis(totalNanos) + "ms]";
+    }
+
+}
@@ -0,0 +1,303 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * The input used by generated implementations of {@link BinBeanSerializer}.
+ * <p>
+ * This provides direct access to the underlying MessagePack input.
+ * Each typed read accepts exactly the same data as the generic code,
+ * delegating back to {@link JodaBeanBinReader} if the data is not in the expected form.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ *
+ * @author Stephen Colebourne
+ */
+public final class BinBeanInput {
+
+    /**
+     * The reader.
+     */
+    private final JodaBeanBinReader reader;
+    /**
+     * The buffer used to read property names.
+     */
+    private byte[] buffer = new byte[64];
+    /**
+     * The names that the last property name was matched against, null if not matched.
+     */
+    byte[][] names;
+    /**
+     * The index of the last property name that was matched.
+     */
+    int index;
+    /**
+     * The last property name that was not matched.
+     */
+    String unknownName = "";
+
+    /**
+     * Creates an instance.
+     * 
+     * @param reader  the reader, not null
+     */
+    BinBeanInput(JodaBeanBinReader reader) {
+        this.reader = reader;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Reads a property name, matching it against the names encoded by {@link BinBeanOutput#encodeNames(String...)}.
+     * <p>
+     * The hint is checked first, allowing data written in property order to be matched with one comparison.
+     * If the name is not matched, -1 is returned and {@link #readOther(MetaBean, BeanBuilder)} must be called.
+     * 
+     * @param encodedNames  the encoded names, not null
+     * @param hint  the index expected to match
+     * @return the index of the matched name, -1 if not matched
+     * @throws IOException if an error occurs
+     */
+    public int readName(byte[][] encodedNames, int hint) throws IOException {
+        DataInputStream input = reader.binInput();
+        int size = reader.acceptStringSize(input.readByte());
+        if (buffer.length < size) {
+            buffer = new byte[Math.max(size, buffer.length * 2)];
+        }
+        input.readFully(buffer, 0, size);
+        if (hint >= 0 && hint < encodedNames.length && matches(encodedNames[hint], size)) {
+            return matched(encodedNames, hint);
+        }
+        for (int i = 0; i < encodedNames.length; i++) {
+            if (i != hint && matches(encodedNames[i], size)) {
+                return matched(encodedNames, i);
+            }
+        }
+        names = null;
+        unknownName = new String(buffer, 0, size, MsgPack.UTF_8);
+        return -1;
+    }
+
+    // the encoded name has a header, which is always the minimal size as it was written by MsgPackOutput
+    private boolean matches(byte[] encoded, int size) {
+        int offset = encoded.length - size;
+        if (offset != headerSize(size)) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (encoded[offset + i] != buffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int matched(byte[][] encodedNames, int matchedIndex) {
+        names = encodedNames;
+        index = matchedIndex;
+        return matchedIndex;
+    }
+
+    private static int headerSize(int size) {
+        return size < 32 ? 1 : (size < 256 ? 2 : (size < 65536 ? 3 : 5));
+    }
+
+    /**
+     * Gets the last property name, used in error messages.
+     * 
+     * @return the name, not null
+     */
+    String currentName() {
+        if (names == null) {
+            return unknownName;
+        }
+        byte[] encoded = names[index];
+        int offset = encoded.length - 1 < 32 ? 1 : (encoded.length - 2 < 256 ? 2 : (encoded.length - 3 < 65536 ? 3 : 5));
+        return new String(encoded, offset, encoded.length - offset, MsgPack.UTF_8);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Reads a {@code String} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value, may be null
+     * @throws Exception if an error occurs
+     */
+    public String readString(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (MsgPack.isString(typeByte)) {
+            return reader.acceptString(typeByte);
+        }
+        if (typeByte == MsgPack.NIL) {
+            return null;
+        }
+        return (String) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    /**
+     * Reads an {@code int} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value
+     * @throws Exception if an error occurs
+     */
+    public int readInt(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (MsgPack.isIntegral(typeByte)) {
+            long value = reader.acceptLong(typeByte);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid binary data: Expected int, but was " + value);
+            }
+            return (int) value;
+        }
+        return (Integer) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    /**
+     * Reads a {@code long} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value
+     * @throws Exception if an error occurs
+     */
+    public long readLong(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (MsgPack.isIntegral(typeByte)) {
+            return reader.acceptLong(typeByte);
+        }
+        return (Long) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    /**
+     * Reads a {@code short} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value
+     * @throws Exception if an error occurs
+     */
+    public short readShort(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (MsgPack.isIntegral(typeByte)) {
+            long value = reader.acceptLong(typeByte);
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid binary data: Expected short, but was " + value);
+            }
+            return (short) value;
+        }
+        return (Short) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    /**
+     * Reads a {@code byte} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value
+     * @throws Exception if an error occurs
+     */
+    public byte readByte(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (MsgPack.isIntegral(typeByte)) {
+            long value = reader.acceptLong(typeByte);
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid binary data: Expected byte, but was " + value);
+            }
+            return (byte) value;
+        }
+        return (Byte) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    /**
+     * Reads a {@code double} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value
+     * @throws Exception if an error occurs
+     */
+    public double readDouble(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (typeByte == MsgPack.FLOAT_64) {
+            return reader.binInput().readDouble();
+        }
+        return (Double) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    /**
+     * Reads a {@code float} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value
+     * @throws Exception if an error occurs
+     */
+    public float readFloat(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (typeByte == MsgPack.FLOAT_32) {
+            return reader.binInput().readFloat();
+        }
+        return (Float) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    /**
+     * Reads a {@code boolean} property value.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value
+     * @throws Exception if an error occurs
+     */
+    public boolean readBoolean(MetaProperty<?> metaProperty) throws Exception {
+        int typeByte = reader.binInput().readByte();
+        if (typeByte == MsgPack.TRUE) {
+            return true;
+        }
+        if (typeByte == MsgPack.FALSE) {
+            return false;
+        }
+        return (Boolean) reader.parseBinProperty(typeByte, metaProperty);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Reads a property value using the generic code.
+     * 
+     * @param metaProperty  the property, not null
+     * @return the value, suitable for setting in the builder, may be null
+     * @throws Exception if an error occurs
+     */
+    public Object readProperty(MetaProperty<?> metaProperty) throws Exception {
+        return reader.parseBinProperty(reader.binInput().readByte(), metaProperty);
+    }
+
+    /**
+     * Reads the value of a property whose name was not matched by {@link #readName(byte[][], int)}.
+     * <p>
+     * The name is looked up in the meta-bean, which handles aliases and rejects unknown names.
+     * 
+     * @param metaBean  the meta-bean, not null
+     * @param builder  the builder to set the value in, not null
+     * @throws Exception if an error occurs
+     */
+    public void readOther(MetaBean metaBean, BeanBuilder<?> builder) throws Exception {
+        MetaProperty<?> metaProperty = metaBean.metaProperty(unknownName);
+        builder.set(metaProperty, readProperty(metaProperty));
+    }
+
+}
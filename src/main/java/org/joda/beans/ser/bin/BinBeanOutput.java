@@ -0,0 +1,179 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.joda.beans.Bean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.ser.SerOptional;
+
+/**
+ * The output used by generated implementations of {@link BinBeanSerializer}.
+ * <p>
+ * This provides direct access to the underlying MessagePack output,
+ * delegating back to {@link JodaBeanBinWriter} for values that are not simple.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ *
+ * @author Stephen Colebourne
+ */
+public final class BinBeanOutput {
+
+    /**
+     * The writer.
+     */
+    private final JodaBeanBinWriter writer;
+
+    /**
+     * Encodes property names as MessagePack strings.
+     * <p>
+     * The generated code calls this once, allowing the names to be written without conversion.
+     * 
+     * @param names  the names to encode, not null
+     * @return the encoded names, including the string header, not null
+     */
+    public static byte[][] encodeNames(String... names) {
+        byte[][] encoded = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(names[i].length() + 1);
+            try {
+                new MsgPackOutput(baos).writeString(names[i]);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            encoded[i] = baos.toByteArray();
+        }
+        return encoded;
+    }
+
+    /**
+     * Creates an instance.
+     * 
+     * @param writer  the writer, not null
+     */
+    BinBeanOutput(JodaBeanBinWriter writer) {
+        this.writer = writer;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes the bean header, including the type of the bean if necessary.
+     * 
+     * @param size  the number of properties that will be written
+     * @throws IOException if an error occurs
+     */
+    public void writeBeanHeader(int size) throws IOException {
+        writer.writeBinBeanHeader(size);
+    }
+
+    /**
+     * Writes a property name previously encoded by {@link #encodeNames(String...)}.
+     * 
+     * @param encodedName  the encoded name, not null
+     * @throws IOException if an error occurs
+     */
+    public void writeName(byte[] encodedName) throws IOException {
+        writer.binOutput().writeEncoded(encodedName);
+    }
+
+    /**
+     * Writes an {@code int}, also used for {@code short} and {@code byte}.
+     * 
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    public void writeInt(int value) throws IOException {
+        writer.binOutput().writeInt(value);
+    }
+
+    /**
+     * Writes a {@code long}.
+     * 
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    public void writeLong(long value) throws IOException {
+        writer.binOutput().writeLong(value);
+    }
+
+    /**
+     * Writes a {@code double}.
+     * 
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    public void writeDouble(double value) throws IOException {
+        writer.binOutput().writeDouble(value);
+    }
+
+    /**
+     * Writes a {@code float}.
+     * 
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    public void writeFloat(float value) throws IOException {
+        writer.binOutput().writeFloat(value);
+    }
+
+    /**
+     * Writes a {@code boolean}.
+     * 
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        writer.binOutput().writeBoolean(value);
+    }
+
+    /**
+     * Writes a {@code String}.
+     * 
+     * @param value  the value, not null
+     * @throws IOException if an error occurs
+     */
+    public void writeString(String value) throws IOException {
+        writer.binOutput().writeString(value);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Extracts the value of a property that is not written directly.
+     * <p>
+     * This handles optional properties in the same way as the generic code.
+     * 
+     * @param metaProperty  the property, not null
+     * @param bean  the bean, not null
+     * @return the value to write, null if the property is not to be written
+     */
+    public Object extractValue(MetaProperty<?> metaProperty, Bean bean) {
+        return SerOptional.extractValue(metaProperty, bean);
+    }
+
+    /**
+     * Writes the value of a property using the generic code.
+     * 
+     * @param metaProperty  the property, not null
+     * @param value  the value obtained from {@link #extractValue(MetaProperty, Bean)}, not null
+     * @throws IOException if an error occurs
+     */
+    public void writeProperty(MetaProperty<?> metaProperty, Object value) throws IOException {
+        writer.writeBinProperty(metaProperty, value);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.IOException;
+
+import org.joda.beans.Bean;
+
+/**
+ * A serializer for a single type of bean to and from the binary format.
+ * <p>
+ * This is implemented by the generated meta-bean of a bean that sets
+ * {@code binSerializer = true} in {@link org.joda.beans.BeanDefinition}.
+ * {@link JodaBeanBinWriter} and {@link JodaBeanBinReader} check the meta-bean and
+ * use the serializer in place of the generic code that accesses each meta-property.
+ * The data written and accepted is identical to that of the generic code.
+ * <p>
+ * Implementations must be thread-safe.
+ *
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public interface BinBeanSerializer<T extends Bean> {
+
+    /**
+     * Gets the type of bean handled by this serializer.
+     * <p>
+     * The serializer is only used for beans of exactly this type, not subclasses.
+     * 
+     * @return the bean type, not null
+     */
+    Class<T> binBeanType();
+
+    /**
+     * Writes the bean.
+     * <p>
+     * The implementation must call {@link BinBeanOutput#writeBeanHeader(int)} once
+     * with the number of properties to be written, followed by each property name and value.
+     * 
+     * @param bean  the bean to write, not null
+     * @param out  the output to write to, not null
+     * @throws IOException if an error occurs
+     */
+    void writeBin(T bean, BinBeanOutput out) throws IOException;
+
+    /**
+     * Reads the bean.
+     * <p>
+     * The map header and any type information have already been read.
+     * The implementation must read exactly the specified number of property names and values.
+     * 
+     * @param in  the input to read from, not null
+     * @param propertyCount  the number of properties to read
+     * @return the bean, not null
+     * @throws Exception if an error occurs
+     */
+    T readBin(BinBeanInput in, int propertyCount) throws Exception;
+
+}
@@ -19,19 +19,29 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
+import org.joda.beans.diff.BeanDiff;
+import org.joda.beans.diff.BeanPatch;
+import org.joda.beans.diff.PropertyChange;
+import org.joda.beans.ser.DefaultDeserializer;
 import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerDeserializer;
 import org.joda.beans.ser.SerIterable;
+import org.joda.beans.ser.SerInterner;
 import org.joda.beans.ser.SerIteratorFactory;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerReuse;
 import org.joda.beans.ser.SerTypeMapper;
 
 /**
@@ -39,6 +49,9 @@ import org.joda.beans.ser.SerTypeMapper;
  * <p>
  * The binary format is defined by {@link JodaBeanBinWriter}.
  * <p>
+ * Where the meta-bean implements {@link BinBeanSerializer} for the exact type being read,
+ * and no custom deserializer is registered, the generated serializer is used to read the bean.
+ * <p>
  * This class contains mutable state and cannot be used from multiple threads.
  * A new instance must be created for each message.
  *
@@ -62,6 +75,10 @@ public class JodaBeanBinReader extends MsgPack {
      * The known types.
      */
     private Map<String, Class<?>> knownTypes = new HashMap<String, Class<?>>();
+    /**
+     * The input passed to generated serializers, created when first needed.
+     */
+    private BinBeanInput binInput;
 
     /**
      * Creates an instance.
@@ -132,6 +149,113 @@ public class JodaBeanBinReader extends MsgPack {
         }
     }
 
+    /**
+     * Reads and parses into an existing mutable bean.
+     * <p>
+     * Each property in the input overwrites the value in the bean.
+     * Nested mutable beans of the same type are read into rather than replaced,
+     * and collections of read-only properties are cleared and refilled.
+     * Properties not in the input are left unchanged.
+     * 
+     * @param <T>  the bean type
+     * @param bean  the bean to read into, not null
+     * @param input  the input bytes, not null
+     * @return the bean, not null
+     * @throws IllegalArgumentException if the bean is immutable or the input is for a different type
+     */
+    public <T extends Bean> T readInto(final T bean, final byte[] input) {
+        return readInto(bean, new ByteArrayInputStream(input));
+    }
+
+    /**
+     * Reads and parses into an existing mutable bean.
+     * <p>
+     * Each property in the input overwrites the value in the bean.
+     * Nested mutable beans of the same type are read into rather than replaced,
+     * and collections of read-only properties are cleared and refilled.
+     * Properties not in the input are left unchanged.
+     * 
+     * @param <T>  the bean type
+     * @param bean  the bean to read into, not null
+     * @param input  the input stream, not null
+     * @return the bean, not null
+     * @throws IllegalArgumentException if the bean is immutable or the input is for a different type
+     */
+    public <T extends Bean> T readInto(final T bean, final InputStream input) {
+        if (bean instanceof ImmutableBean) {
+            throw new IllegalArgumentException("Cannot read into an immutable bean: " + bean.getClass().getName());
+        }
+        if (input instanceof DataInputStream) {
+            this.input = (DataInputStream) input;
+        } else {
+            this.input = new DataInputStream(input);
+        }
+        try {
+            try {
+                parseRootInto(bean);
+                return bean;
+            } finally {
+                input.close();
+            }
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Reads a delta and applies it to a base bean.
+     * <p>
+     * The delta is written by {@link JodaBeanBinWriter#writeDelta(Bean, Bean)}.
+     * The base bean must be equal to the base bean used when writing the delta.
+     * The base bean is not altered, instead the changes are applied using {@link BeanDiff},
+     * rebuilding only the beans on the path of each change.
+     * 
+     * @param <T>  the bean type
+     * @param base  the base bean to apply the delta to, not null
+     * @param input  the input bytes, not null
+     * @return the changed bean, not null
+     * @throws IllegalArgumentException if the delta does not match the base bean
+     */
+    public <T extends Bean> T readDelta(final T base, final byte[] input) {
+        return readDelta(base, new ByteArrayInputStream(input));
+    }
+
+    /**
+     * Reads a delta and applies it to a base bean.
+     * <p>
+     * See {@link #readDelta(Bean, byte[])} for details.
+     * 
+     * @param <T>  the bean type
+     * @param base  the base bean to apply the delta to, not null
+     * @param input  the input stream, not null
+     * @return the changed bean, not null
+     * @throws IllegalArgumentException if the delta does not match the base bean
+     */
+    public <T extends Bean> T readDelta(final T base, final InputStream input) {
+        if (base == null) {
+            throw new NullPointerException("base");
+        }
+        if (input instanceof DataInputStream) {
+            this.input = (DataInputStream) input;
+        } else {
+            this.input = new DataInputStream(input);
+        }
+        try {
+            try {
+                return parseDeltaRoot(base);
+            } finally {
+                input.close();
+            }
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Parses the root bean.
@@ -152,15 +276,148 @@ public class JodaBeanBinReader extends MsgPack {
             throw new IllegalArgumentException("Invalid binary data: Expected version 1, but was: 0x" + toHex(typeByte));
         }
         // parse
-        Object parsed = parseObject(declaredType, null, null, null, true);
+        Object parsed = parseObject(declaredType, null, null, null, true, null);
         return declaredType.cast(parsed);
     }
 
+    /**
+     * Parses the root bean into an existing bean.
+     * 
+     * @param bean  the bean to read into, not null
+     * @throws Exception if an error occurs
+     */
+    private void parseRootInto(final Bean bean) throws Exception {
+        // root array
+        int typeByte = input.readByte();
+        if (typeByte != MIN_FIX_ARRAY + 2) {
+            throw new IllegalArgumentException("Invalid binary data: Expected array, but was: 0x" + toHex(typeByte));
+        }
+        // version
+        typeByte = input.readByte();
+        if (typeByte != 1) {
+            throw new IllegalArgumentException("Invalid binary data: Expected version 1, but was: 0x" + toHex(typeByte));
+        }
+        // parse
+        basePackage = bean.getClass().getPackage().getName() + ".";
+        parseObject(bean.getClass(), null, null, null, true, bean);
+    }
+
+    /**
+     * Parses a delta, applying it to the base bean.
+     * 
+     * @param base  the base bean, not null
+     * @return the changed bean, not null
+     * @throws Exception if an error occurs
+     */
+    private <T extends Bean> T parseDeltaRoot(final T base) throws Exception {
+        // root array
+        int typeByte = input.readByte();
+        if (typeByte != MIN_FIX_ARRAY + 3) {
+            throw new IllegalArgumentException("Invalid binary data: Expected delta array, but was: 0x" + toHex(typeByte));
+        }
+        // version
+        typeByte = input.readByte();
+        if (typeByte != 1) {
+            throw new IllegalArgumentException("Invalid binary data: Expected version 1, but was: 0x" + toHex(typeByte));
+        }
+        // type
+        typeByte = input.readByte();
+        if (typeByte != EXT_8) {
+            throw new IllegalArgumentException("Invalid binary data: Expected delta type, but was: 0x" + toHex(typeByte));
+        }
+        int size = input.readUnsignedByte();
+        if (input.readByte() != JODA_TYPE_BEAN) {
+            throw new IllegalArgumentException("Invalid binary data: Expected bean type");
+        }
+        Class<?> type = SerTypeMapper.decodeType(acceptStringBytes(size), settings, basePackage, knownTypes);
+        if (type != base.getClass()) {
+            throw new IllegalArgumentException("Delta type does not match base bean: " + type.getName() + " and " + base.getClass().getName());
+        }
+        basePackage = type.getPackage().getName() + ".";
+        // operations
+        Map<List<MetaProperty<?>>, PropertyChange> changes = new LinkedHashMap<List<MetaProperty<?>>, PropertyChange>();
+        Map<List<MetaProperty<?>>, List<Object>> lists = new HashMap<List<MetaProperty<?>>, List<Object>>();
+        int opCount = acceptArray(input.readByte());
+        for (int i = 0; i < opCount; i++) {
+            int opSize = acceptArray(input.readByte());
+            int opcode = acceptInteger(input.readByte());
+            if (opSize != (opcode == DELTA_SET ? 3 : 4)) {
+                throw new IllegalArgumentException("Invalid binary data: Expected delta operation, but was size: " + opSize);
+            }
+            // path
+            int pathSize = acceptArray(input.readByte());
+            List<MetaProperty<?>> path = new ArrayList<MetaProperty<?>>(pathSize);
+            Bean owner = base;
+            for (int j = 0; j < pathSize; j++) {
+                String propName = acceptString(input.readByte());
+                if (j > 0) {
+                    Object nested = path.get(j - 1).get(owner);
+                    if (nested instanceof Bean == false) {
+                        throw new IllegalArgumentException("Delta does not match base bean, property is not a bean: " + path.get(j - 1).name());
+                    }
+                    owner = (Bean) nested;
+                }
+                path.add(owner.metaBean().metaProperty(propName));
+            }
+            // operation
+            MetaProperty<?> metaProp = path.get(pathSize - 1);
+            Class<?> ownerType = owner.getClass();
+            if (opcode == DELTA_SET) {
+                Object value = parseObject(SerOptional.extractType(metaProp, ownerType), metaProp, ownerType, null, false, null);
+                changes.put(path, PropertyChange.of(path, metaProp.get(owner), SerOptional.wrapValue(metaProp, ownerType, value)));
+            } else {
+                List<Object> list = lists.get(path);
+                if (list == null) {
+                    Object current = metaProp.get(owner);
+                    if (current instanceof List == false) {
+                        throw new IllegalArgumentException("Delta does not match base bean, property is not a list: " + metaProp.name());
+                    }
+                    list = new ArrayList<Object>((List<?>) current);
+                    lists.put(path, list);
+                }
+                int index = acceptInteger(input.readByte());
+                if (opcode == DELTA_REMOVE) {
+                    int count = acceptInteger(input.readByte());
+                    checkDeltaRange(metaProp, list, index, count);
+                    list.subList(index, index + count).clear();
+                } else if (opcode == DELTA_INSERT || opcode == DELTA_REPLACE) {
+                    int count = acceptArray(input.readByte());
+                    checkDeltaRange(metaProp, list, index, opcode == DELTA_INSERT ? 0 : count);
+                    SerIterable iterable = SerIteratorFactory.INSTANCE.createIterable(metaProp, ownerType);
+                    for (int k = 0; k < count; k++) {
+                        Object element = parseObject(iterable.valueType(), null, null, iterable, false, null);
+                        if (opcode == DELTA_INSERT) {
+                            list.add(index + k, element);
+                        } else {
+                            list.set(index + k, element);
+                        }
+                    }
+                } else {
+                    throw new IllegalArgumentException("Invalid binary data: Unknown delta operation: " + opcode);
+                }
+                changes.put(path, PropertyChange.of(path, metaProp.get(owner), list));
+            }
+        }
+        return BeanDiff.apply(BeanPatch.of(new ArrayList<PropertyChange>(changes.values())), base);
+    }
+
+    private static void checkDeltaRange(MetaProperty<?> metaProp, List<Object> list, int index, int count) {
+        if (index < 0 || count < 0 || index + count > list.size()) {
+            throw new IllegalArgumentException("Delta does not match base bean, invalid index for list: " + metaProp.name());
+        }
+    }
+
     private Object parseBean(int propertyCount, Class<?> beanType) throws Exception {
         String propName = "";
+        boolean generated = false;
         try {
-            SerDeserializer deser = settings.getDeserializers().findDeserializer(beanType);
+            SerDeserializer deser = settings.findDeserializer(beanType);
             MetaBean metaBean = deser.findMetaBean(beanType);
+            BinBeanSerializer<?> serializer = findSerializer(deser, metaBean, beanType);
+            if (serializer != null) {
+                generated = true;
+                return parseBinBean(propertyCount, beanType, serializer);
+            }
             BeanBuilder<?> builder = deser.createBuilder(beanType, metaBean);
             for (int i = 0; i < propertyCount; i++) {
                 // property name
@@ -169,22 +426,87 @@ public class JodaBeanBinReader extends MsgPack {
                 if (metaProp == null) {
                     MsgPackInput.skipObject(input);
                 } else {
-                    Object value = parseObject(SerOptional.extractType(metaProp, beanType), metaProp, beanType, null, false);
+                    Object value = parseObject(SerOptional.extractType(metaProp, beanType), metaProp, beanType, null, false, null);
                     deser.setValue(builder, metaProp, SerOptional.wrapValue(metaProp, beanType, value));
                 }
                 propName = "";
             }
-            return deser.build(beanType, builder);
+            Object bean = deser.build(beanType, builder);
+            SerInterner interner = settings.getInterner();
+            return interner != null ? interner.intern(bean) : bean;
+        } catch (Exception ex) {
+            if (generated) {
+                throw ex;  // already reported with the property name
+            }
+            throw new RuntimeException("Error parsing bean: " + beanType.getName() + "::" + propName + ", " + ex.getMessage(), ex);
+        }
+    }
+
+    // the generated serializer is only used if the deserializer has not been customized
+    private static BinBeanSerializer<?> findSerializer(SerDeserializer deser, MetaBean metaBean, Class<?> beanType) {
+        if (deser == DefaultDeserializer.INSTANCE && metaBean instanceof BinBeanSerializer &&
+                ((BinBeanSerializer<?>) metaBean).binBeanType() == beanType) {
+            return (BinBeanSerializer<?>) metaBean;
+        }
+        return null;
+    }
+
+    private Object parseBinBean(int propertyCount, Class<?> beanType, BinBeanSerializer<?> serializer) throws Exception {
+        if (binInput == null) {
+            binInput = new BinBeanInput(this);
+        }
+        // the name state is restored so that an enclosing bean reports its own property on error
+        byte[][] savedNames = binInput.names;
+        int savedIndex = binInput.index;
+        String savedUnknown = binInput.unknownName;
+        binInput.names = null;
+        binInput.unknownName = "";
+        try {
+            Object bean = serializer.readBin(binInput, propertyCount);
+            SerInterner interner = settings.getInterner();
+            return interner != null ? interner.intern(bean) : bean;
+        } catch (Exception ex) {
+            throw new RuntimeException("Error parsing bean: " + beanType.getName() + "::" + binInput.currentName() + ", " + ex.getMessage(), ex);
+        } finally {
+            binInput.names = savedNames;
+            binInput.index = savedIndex;
+            binInput.unknownName = savedUnknown;
+        }
+    }
+
+    private Object parseBeanInto(int propertyCount, Bean bean) throws Exception {
+        Class<?> beanType = bean.getClass();
+        String propName = "";
+        try {
+            SerDeserializer deser = settings.findDeserializer(beanType);
+            MetaBean metaBean = deser.findMetaBean(beanType);
+            for (int i = 0; i < propertyCount; i++) {
+                // property name
+                propName = acceptString(input.readByte());
+                MetaProperty<?> metaProp = deser.findMetaProperty(beanType, metaBean, propName);
+                if (metaProp == null) {
+                    MsgPackInput.skipObject(input);
+                } else {
+                    Object current = SerReuse.currentValue(bean, metaProp);
+                    Object value = parseObject(SerOptional.extractType(metaProp, beanType), metaProp, beanType, null, false, current);
+                    SerReuse.setValue(bean, metaProp, current, SerOptional.wrapValue(metaProp, beanType, value));
+                }
+                propName = "";
+            }
+            return bean;
         } catch (Exception ex) {
             throw new RuntimeException("Error parsing bean: " + beanType.getName() + "::" + propName + ", " + ex.getMessage(), ex);
         }
     }
 
-    private Object parseObject(Class<?> declaredType, MetaProperty<?> metaProp, Class<?> beanType, SerIterable parentIterable, boolean rootType) throws Exception {
+    private Object parseObject(Class<?> declaredType, MetaProperty<?> metaProp, Class<?> beanType, SerIterable parentIterable, boolean rootType, Object existing) throws Exception {
+        return parseObject(input.readByte(), declaredType, metaProp, beanType, parentIterable, rootType, existing);
+    }
+
+    private Object parseObject(int typeByte, Class<?> declaredType, MetaProperty<?> metaProp, Class<?> beanType, SerIterable parentIterable, boolean rootType, Object existing) throws Exception {
         // establish type
         Class<?> effectiveType = declaredType;
         String metaType = null;
-        int typeByte = input.readByte();
         if (isMap(typeByte)) {
             input.mark(8);
             int mapSize = acceptMap(typeByte);
@@ -208,6 +530,12 @@ public class JodaBeanBinReader extends MsgPack {
                         if (input.readByte() != NIL) {
                             throw new IllegalArgumentException("Invalid binary data: Expected null after bean type");
                         }
+                        if (SerReuse.isReusable(existing, effectiveType)) {
+                            return parseBeanInto(mapSize - 1, (Bean) existing);
+                        }
+                        if (rootType && existing != null) {
+                            throw new IllegalArgumentException("Specified type is incompatible with existing bean: " + effectiveType.getName() + " and " + existing.getClass().getName());
+                        }
                         return parseBean(mapSize - 1, effectiveType);
                     } else if (typeByteTemp == JODA_TYPE_DATA) {
                         if (mapSize != 1) {
@@ -242,6 +570,9 @@ public class JodaBeanBinReader extends MsgPack {
         if (Bean.class.isAssignableFrom(effectiveType)) {
             if (isMap(typeByte)) {
                 int mapSize = acceptMap(typeByte);
+                if (SerReuse.isReusable(existing, effectiveType)) {
+                    return parseBeanInto(mapSize, (Bean) existing);
+                }
                 return parseBean(mapSize, effectiveType);
             } else {
                 return parseSimple(typeByte, effectiveType);
@@ -283,8 +614,8 @@ public class JodaBeanBinReader extends MsgPack {
     private Object parseIterableMap(int typeByte, SerIterable iterable) throws Exception {
         int size = acceptMap(typeByte);
         for (int i = 0; i < size; i++) {
-            Object key = parseObject(iterable.keyType(), null, null, null, false);
-            Object value = parseObject(iterable.valueType(), null, null, iterable, false);
+            Object key = parseObject(iterable.keyType(), null, null, null, false, null);
+            Object value = parseObject(iterable.valueType(), null, null, iterable, false, null);
             iterable.add(key, null, value, 1);
         }
         return iterable.build();
@@ -296,9 +627,9 @@ public class JodaBeanBinReader extends MsgPack {
             if (acceptArray(input.readByte()) != 3) {
                 throw new IllegalArgumentException("Table must have cell array size 3");
             }
-            Object key = parseObject(iterable.keyType(), null, null, null, false);
-            Object column = parseObject(iterable.columnType(), null, null, null, false);
-            Object value = parseObject(iterable.valueType(), null, null, iterable, false);
+            Object key = parseObject(iterable.keyType(), null, null, null, false, null);
+            Object column = parseObject(iterable.columnType(), null, null, null, false, null);
+            Object value = parseObject(iterable.valueType(), null, null, iterable, false, null);
             iterable.add(key, column, value, 1);
         }
         return iterable.build();
@@ -317,14 +648,14 @@ public class JodaBeanBinReader extends MsgPack {
                 }
                 int row = acceptInteger(input.readByte());
                 int column = acceptInteger(input.readByte());
-                Object value = parseObject(iterable.valueType(), null, null, iterable, false);
+                Object value = parseObject(iterable.valueType(), null, null, iterable, false, null);
                 iterable.add(row, column, value, 1);
             }
         } else {
             // dense
             for (int row = 0; row < rows; row++) {
                 for (int column = 0; column < columns; column++) {
-                    Object value = parseObject(iterable.valueType(), null, null, iterable, false);
+                    Object value = parseObject(iterable.valueType(), null, null, iterable, false, null);
                     iterable.add(row, column, value, 1);
                 }
             }
@@ -335,7 +666,7 @@ public class JodaBeanBinReader extends MsgPack {
     private Object parseIterableCounted(int typeByte, SerIterable iterable) throws Exception {
         int size = acceptMap(typeByte);
         for (int i = 0; i < size; i++) {
-            Object value = parseObject(iterable.valueType(), null, null, iterable, false);
+            Object value = parseObject(iterable.valueType(), null, null, iterable, false, null);
             int count = acceptInteger(input.readByte());
             iterable.add(null, null, value, count);
         }
@@ -345,7 +676,7 @@ public class JodaBeanBinReader extends MsgPack {
     private Object parseIterableArray(int typeByte, SerIterable iterable) throws Exception {
         int size = acceptArray(typeByte);
         for (int i = 0; i < size; i++) {
-            iterable.add(null, null, parseObject(iterable.valueType(), null, null, iterable, false), 1);
+            iterable.add(null, null, parseObject(iterable.valueType(), null, null, iterable, false, null), 1);
         }
         return iterable.build();
     }
@@ -365,7 +696,7 @@ public class JodaBeanBinReader extends MsgPack {
                 
             } else if (type == Short.class || type == short.class) {
                 if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
-                    throw new IllegalArgumentException("Invalid binary data: Expected byte, but was " + value);
+                    throw new IllegalArgumentException("Invalid binary data: Expected short, but was " + value);
                 }
                 return Short.valueOf((short) value);
                 
@@ -399,6 +730,18 @@ public class JodaBeanBinReader extends MsgPack {
         throw new IllegalArgumentException("Invalid binary data: Expected " + type.getName() + ", but was: 0x" + toHex(typeByte));
     }
 
+    //-----------------------------------------------------------------------
+    // called by BinBeanInput on behalf of generated serializers
+    DataInputStream binInput() {
+        return input;
+    }
+
+    Object parseBinProperty(int typeByte, MetaProperty<?> metaProp) throws Exception {
+        Class<?> beanType = metaProp.declaringType();
+        Object value = parseObject(typeByte, SerOptional.extractType(metaProp, beanType), metaProp, beanType, null, false, null);
+        return SerOptional.wrapValue(metaProp, beanType, value);
+    }
+
     //-----------------------------------------------------------------------
     private int acceptMap(int typeByte) throws IOException {
         int size;
@@ -434,7 +777,11 @@ public class JodaBeanBinReader extends MsgPack {
         return size;
     }
 
-    private String acceptString(int typeByte) throws IOException {
+    String acceptString(int typeByte) throws IOException {
+        return acceptStringBytes(acceptStringSize(typeByte));
+    }
+
+    int acceptStringSize(int typeByte) throws IOException {
         int size;
         if (typeByte >= MIN_FIX_STR && typeByte <= MAX_FIX_STR) {
             size = (typeByte - MIN_FIX_STR);
@@ -450,7 +797,7 @@ public class JodaBeanBinReader extends MsgPack {
         } else {
             throw new IllegalArgumentException("Invalid binary data: Expected string, but was: 0x" + toHex(typeByte));
         }
-        return acceptStringBytes(size);
+        return size;
     }
 
     private String acceptStringBytes(int size) throws IOException {
@@ -528,7 +875,7 @@ public class JodaBeanBinReader extends MsgPack {
         throw new IllegalArgumentException("Invalid binary data: Expected int, but was: 0x" + toHex(typeByte));
     }
 
-    private long acceptLong(int typeByte) throws IOException {
+    long acceptLong(int typeByte) throws IOException {
         if (typeByte >= MIN_FIX_INT && typeByte <= MAX_FIX_INT) {
             return typeByte;
         }
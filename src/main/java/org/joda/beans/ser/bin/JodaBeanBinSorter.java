@@ -0,0 +1,550 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanQuery;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Sorts a file of beans in the binary format that may be larger than the available memory.
+ * <p>
+ * A bean file is a sequence of beans, each written as a complete message by
+ * {@link JodaBeanBinWriter#write(Bean, OutputStream)}.
+ * Such a file can be created and read using {@link #writeFile} and {@link #readFile}.
+ * <p>
+ * The sort is an external merge sort. The input is read in runs, each limited by
+ * a number of beans and by a budget of serialized bytes. Each run is sorted in memory
+ * and written to a temporary file, then the runs are merged into the output.
+ * If the input fits in a single run, no temporary files are used.
+ * If an executor is specified, runs are sorted and written by tasks submitted to
+ * the executor while the next run is read, thus up to three runs may be in memory at once.
+ * <p>
+ * The sort is stable. This class is immutable and thread-safe.
+ * 
+ * @param <T>  the type of the bean
+ * @author Stephen Colebourne
+ */
+public final class JodaBeanBinSorter<T extends Bean> {
+
+    /**
+     * The default maximum number of beans in a run.
+     */
+    private static final int DEFAULT_RUN_SIZE = 100000;
+    /**
+     * The default budget of serialized bytes in a run.
+     */
+    private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    /**
+     * The maximum number of runs being sorted by the executor at once.
+     */
+    private static final int MAX_PENDING_RUNS = 2;
+    /**
+     * The buffer size for files.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * The settings.
+     */
+    private final JodaBeanSer settings;
+    /**
+     * The bean type.
+     */
+    private final Class<T> beanType;
+    /**
+     * The comparator.
+     */
+    private final Comparator<? super T> comparator;
+    /**
+     * The maximum number of beans in a run.
+     */
+    private final int runSize;
+    /**
+     * The budget of serialized bytes in a run.
+     */
+    private final long memoryBudget;
+    /**
+     * The directory for temporary files, null for the system default.
+     */
+    private final File tempDirectory;
+    /**
+     * The executor, null if sequential.
+     */
+    private final ExecutorService executor;
+
+    //-------------------------------------------------------------------------
+    /**
+     * Creates a sorter using a comparator.
+     * 
+     * @param <T>  the type of the bean
+     * @param settings  the settings to read and write with, not null
+     * @param beanType  the type of the beans in the file, not null
+     * @param comparator  the comparator, not null
+     * @return the sorter, not null
+     */
+    public static <T extends Bean> JodaBeanBinSorter<T> of(
+            JodaBeanSer settings, Class<T> beanType, Comparator<? super T> comparator) {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(beanType, "beanType");
+        JodaBeanUtils.notNull(comparator, "comparator");
+        return new JodaBeanBinSorter<T>(
+                settings, beanType, comparator, DEFAULT_RUN_SIZE, DEFAULT_MEMORY_BUDGET, null, null);
+    }
+
+    /**
+     * Creates a sorter using a query, as per {@link JodaBeanUtils#comparator(BeanQuery, boolean)}.
+     * 
+     * @param <T>  the type of the bean
+     * @param settings  the settings to read and write with, not null
+     * @param beanType  the type of the beans in the file, not null
+     * @param query  the query to sort by, returning a {@code Comparable}, not null
+     * @param ascending  true for ascending, false for descending
+     * @return the sorter, not null
+     */
+    public static <T extends Bean> JodaBeanBinSorter<T> of(
+            JodaBeanSer settings, Class<T> beanType, BeanQuery<?> query, boolean ascending) {
+        return of(settings, beanType, JodaBeanUtils.comparator(query, ascending));
+    }
+
+    /**
+     * Restricted constructor.
+     */
+    private JodaBeanBinSorter(
+            JodaBeanSer settings, Class<T> beanType, Comparator<? super T> comparator,
+            int runSize, long memoryBudget, File tempDirectory, ExecutorService executor) {
+        this.settings = settings;
+        this.beanType = beanType;
+        this.comparator = comparator;
+        this.runSize = runSize;
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory;
+        this.executor = executor;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a copy of this sorter with the maximum number of beans in a run.
+     * 
+     * @param runSize  the maximum number of beans in a run, one or greater
+     * @return the new sorter, not null
+     */
+    public JodaBeanBinSorter<T> withRunSize(int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Run size must be one or greater");
+        }
+        return new JodaBeanBinSorter<T>(settings, beanType, comparator, runSize, memoryBudget, tempDirectory, executor);
+    }
+
+    /**
+     * Returns a copy of this sorter with the budget of serialized bytes in a run.
+     * <p>
+     * A run ends when the serialized size of the beans read reaches the budget.
+     * The memory used by the beans in a run is typically a small multiple of the budget.
+     * 
+     * @param memoryBudget  the budget in bytes, one or greater
+     * @return the new sorter, not null
+     */
+    public JodaBeanBinSorter<T> withMemoryBudget(long memoryBudget) {
+        if (memoryBudget < 1) {
+            throw new IllegalArgumentException("Memory budget must be one or greater");
+        }
+        return new JodaBeanBinSorter<T>(settings, beanType, comparator, runSize, memoryBudget, tempDirectory, executor);
+    }
+
+    /**
+     * Returns a copy of this sorter using the specified directory for temporary files.
+     * 
+     * @param tempDirectory  the directory, null for the system default
+     * @return the new sorter, not null
+     */
+    public JodaBeanBinSorter<T> withTempDirectory(File tempDirectory) {
+        return new JodaBeanBinSorter<T>(settings, beanType, comparator, runSize, memoryBudget, tempDirectory, executor);
+    }
+
+    /**
+     * Returns a copy of this sorter that sorts runs using the executor.
+     * 
+     * @param executor  the executor, null to sort sequentially
+     * @return the new sorter, not null
+     */
+    public JodaBeanBinSorter<T> withExecutor(ExecutorService executor) {
+        return new JodaBeanBinSorter<T>(settings, beanType, comparator, runSize, memoryBudget, tempDirectory, executor);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sorts a bean file.
+     * <p>
+     * The input and output files must differ.
+     * 
+     * @param input  the input file, not null
+     * @param output  the output file, not null
+     * @throws IOException if an IO error occurs
+     */
+    public void sort(File input, File output) throws IOException {
+        JodaBeanUtils.notNull(input, "input");
+        JodaBeanUtils.notNull(output, "output");
+        InputStream in = new FileInputStream(input);
+        try {
+            OutputStream out = new FileOutputStream(output);
+            try {
+                sort(in, out);
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Sorts a stream of beans.
+     * <p>
+     * The streams are not closed.
+     * 
+     * @param input  the input stream, not null
+     * @param output  the output stream, not null
+     * @throws IOException if an IO error occurs
+     */
+    public void sort(InputStream input, OutputStream output) throws IOException {
+        JodaBeanUtils.notNull(input, "input");
+        JodaBeanUtils.notNull(output, "output");
+        BeanInput<T> in = new BeanInput<T>(settings, input, beanType);
+        List<File> runFiles = new ArrayList<File>();
+        LinkedList<Future<File>> pending = new LinkedList<Future<File>>();
+        try {
+            List<T> run = readRun(in);
+            if (in.hasNext() == false) {
+                // single run, no need for temporary files
+                Collections.sort(run, comparator);
+                writeBeans(run, output);
+                return;
+            }
+            while (run.isEmpty() == false) {
+                if (executor == null) {
+                    runFiles.add(sortAndSpill(run));
+                } else {
+                    if (pending.size() >= MAX_PENDING_RUNS) {
+                        runFiles.add(await(pending.removeFirst()));
+                    }
+                    final List<T> toSort = run;
+                    pending.add(executor.submit(new Callable<File>() {
+                        @Override
+                        public File call() throws IOException {
+                            return sortAndSpill(toSort);
+                        }
+                    }));
+                }
+                run = readRun(in);
+            }
+            while (pending.isEmpty() == false) {
+                runFiles.add(await(pending.removeFirst()));
+            }
+            merge(runFiles, output);
+        } finally {
+            for (Future<File> future : pending) {
+                try {
+                    runFiles.add(future.get());
+                } catch (Exception ex) {
+                    // ignore, as already failing
+                }
+            }
+            for (File file : runFiles) {
+                file.delete();
+            }
+        }
+    }
+
+    // reads the next run, empty at the end of the input
+    private List<T> readRun(BeanInput<T> in) {
+        List<T> run = new ArrayList<T>();
+        long start = in.bytesRead();
+        while (run.size() < runSize && in.bytesRead() - start < memoryBudget && in.hasNext()) {
+            run.add(in.next());
+        }
+        return run;
+    }
+
+    // sorts the run and writes it to a temporary file
+    private File sortAndSpill(List<T> run) throws IOException {
+        Collections.sort(run, comparator);
+        File file = File.createTempFile("joda-beans-sort", ".bin", tempDirectory);
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                writeBeans(run, out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException ex) {
+            file.delete();
+            throw ex;
+        }
+        return file;
+    }
+
+    private File await(Future<File> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sort interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("Sort failed", ex.getCause());
+        }
+    }
+
+    // k-way merge of the sorted runs, taking from the earliest run when equal to retain stability
+    private void merge(List<File> runFiles, OutputStream output) throws IOException {
+        List<InputStream> streams = new ArrayList<InputStream>(runFiles.size());
+        try {
+            PriorityQueue<MergeEntry<T>> queue = new PriorityQueue<MergeEntry<T>>(
+                    Math.max(1, runFiles.size()), new Comparator<MergeEntry<T>>() {
+                        @Override
+                        public int compare(MergeEntry<T> entry1, MergeEntry<T> entry2) {
+                            int cmp = comparator.compare(entry1.bean, entry2.bean);
+                            return cmp != 0 ? cmp : entry1.runIndex - entry2.runIndex;
+                        }
+                    });
+            for (int i = 0; i < runFiles.size(); i++) {
+                InputStream stream = new FileInputStream(runFiles.get(i));
+                streams.add(stream);
+                BeanInput<T> in = new BeanInput<T>(settings, stream, beanType);
+                if (in.hasNext()) {
+                    queue.add(new MergeEntry<T>(in.next(), in, i));
+                }
+            }
+            OutputStream out = new BufferedOutputStream(new NonClosingOutputStream(output), BUFFER_SIZE);
+            JodaBeanBinWriter writer = settings.binWriter();
+            while (queue.isEmpty() == false) {
+                MergeEntry<T> entry = queue.poll();
+                writer.write(entry.bean, out);
+                if (entry.input.hasNext()) {
+                    queue.add(new MergeEntry<T>(entry.input.next(), entry.input, entry.runIndex));
+                }
+            }
+            out.flush();
+        } finally {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+        }
+    }
+
+    private void writeBeans(List<T> beans, OutputStream output) throws IOException {
+        OutputStream out = new BufferedOutputStream(new NonClosingOutputStream(output), BUFFER_SIZE);
+        JodaBeanBinWriter writer = settings.binWriter();
+        for (T bean : beans) {
+            writer.write(bean, out);
+        }
+        out.flush();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes a bean file.
+     * 
+     * @param settings  the settings to write with, not null
+     * @param beans  the beans to write, not null
+     * @param file  the file to write to, not null
+     * @throws IOException if an IO error occurs
+     */
+    public static void writeFile(JodaBeanSer settings, Iterable<? extends Bean> beans, File file) throws IOException {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(beans, "beans");
+        JodaBeanUtils.notNull(file, "file");
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+        try {
+            JodaBeanBinWriter writer = settings.binWriter();
+            for (Bean bean : beans) {
+                writer.write(bean, out);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads a bean file.
+     * 
+     * @param <T>  the type of the bean
+     * @param settings  the settings to read with, not null
+     * @param file  the file to read from, not null
+     * @param beanType  the type of the beans, not null
+     * @return the beans, not null
+     * @throws IOException if an IO error occurs
+     */
+    public static <T extends Bean> List<T> readFile(JodaBeanSer settings, File file, Class<T> beanType) throws IOException {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(file, "file");
+        JodaBeanUtils.notNull(beanType, "beanType");
+        InputStream stream = new FileInputStream(file);
+        try {
+            BeanInput<T> in = new BeanInput<T>(settings, stream, beanType);
+            List<T> beans = new ArrayList<T>();
+            while (in.hasNext()) {
+                beans.add(in.next());
+            }
+            return beans;
+        } finally {
+            stream.close();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "JodaBeanBinSorter[" + beanType.getSimpleName() + ", runSize=" + runSize + ", memoryBudget=" + memoryBudget + "]";
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Reads a sequence of beans from a stream, counting the bytes read.
+     */
+    private static final class BeanInput<T> extends FilterInputStream {
+        private final JodaBeanBinReader reader;
+        private final Class<T> beanType;
+        private final PushbackInputStream pushback;
+        private long bytesRead;
+
+        BeanInput(JodaBeanSer settings, InputStream stream, Class<T> beanType) {
+            this(settings, new PushbackInputStream(new BufferedInputStream(stream, BUFFER_SIZE)), beanType);
+        }
+
+        private BeanInput(JodaBeanSer settings, PushbackInputStream pushback, Class<T> beanType) {
+            super(pushback);
+            this.reader = settings.binReader();
+            this.beanType = beanType;
+            this.pushback = pushback;
+        }
+
+        boolean hasNext() {
+            try {
+                int b = pushback.read();
+                if (b < 0) {
+                    return false;
+                }
+                pushback.unread(b);
+                return true;
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        T next() {
+            // the reader closes the stream it reads from, which is ignored here
+            return reader.read(this, beanType);
+        }
+
+        long bytesRead() {
+            return bytesRead;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int count = super.read(buf, off, len);
+            if (count > 0) {
+                bytesRead += count;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+            // do not close the underlying stream
+        }
+    }
+
+    /**
+     * An output stream that does not close the underlying stream.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream output;
+
+        NonClosingOutputStream(OutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            output.write(b);
+        }
+
+        @Override
+        public void write(byte[] buf, int off, int len) throws IOException {
+            output.write(buf, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            output.flush();
+        }
+    }
+
+    /**
+     * The current bean of a run being merged.
+     */
+    private static final class MergeEntry<T> {
+        final T bean;
+        final BeanInput<T> input;
+        final int runIndex;
+
+        MergeEntry(T bean, BeanInput<T> input, int runIndex) {
+            this.bean = bean;
+            this.input = input;
+            this.runIndex = runIndex;
+        }
+    }
+
+}
@@ -18,11 +18,18 @@ package org.joda.beans.ser.bin;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.joda.beans.Bean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
+import org.joda.beans.diff.BeanDiff;
+import org.joda.beans.diff.BeanPatch;
+import org.joda.beans.diff.PropertyChange;
 import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerIterator;
@@ -58,8 +65,17 @@ import org.joda.beans.ser.SerTypeMapper;
  * is not about a bean, a tuple is written using a size 1 map where the key is the
  * 'ext' data and the value is the data being annotated.
  * <p>
+ * The differences between two beans can be written as a delta using {@code writeDelta}.
+ * A delta is an array of the version, the root type 'ext' and an array of operations.
+ * Each operation is an array of the operation code, the path of property names and the data.
+ * A 'set' operation has the new value, a 'remove' operation has the index and count,
+ * and the 'insert' and 'replace' operations have the index and an array of elements.
+ * <p>
  * Type names are shortened by the package of the root type if possible.
  * Certain basic types are also handled, such as String, Integer, File and URI.
+ * <p>
+ * Where the meta-bean of a bean implements {@link BinBeanSerializer} for the exact type
+ * of the bean, the generated serializer is used to write it, producing the same data.
  *
  * @author Stephen Colebourne
  */
@@ -85,6 +101,22 @@ public class JodaBeanBinWriter {
      * The known types.
      */
     private Map<Class<?>, String> knownTypes = new HashMap<Class<?>, String>();
+    /**
+     * The output passed to generated serializers, created when first needed.
+     */
+    private BinBeanOutput binOutput;
+    /**
+     * The bean whose header is pending, written when the generated serializer knows the size.
+     */
+    private Bean pendingBean;
+    /**
+     * The declared type of the pending bean.
+     */
+    private Class<?> pendingDeclaredType;
+    /**
+     * The root type flag of the pending bean.
+     */
+    private RootType pendingRootType;
 
     /**
      * Creates an instance.
@@ -155,6 +187,53 @@ public class JodaBeanBinWriter {
         writeRoot(bean, rootType);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Writes the differences between two beans to an array of bytes.
+     * <p>
+     * The delta contains only the properties that differ, identified by their path from the root bean.
+     * Where the values of a list property share a common prefix or suffix, only the elements
+     * that differ are sent, using insert, remove and replace operations.
+     * The delta is read using {@link JodaBeanBinReader#readDelta(Bean, byte[])}
+     * with a bean equal to the base bean.
+     * 
+     * @param base  the base bean, not null
+     * @param changed  the changed bean, with the same meta-bean as the base bean, not null
+     * @return the binary data, not null
+     */
+    public byte[] writeDelta(final Bean base, final Bean changed) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(256);
+        try {
+            writeDelta(base, changed, baos);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes the differences between two beans to the {@code OutputStream}.
+     * <p>
+     * See {@link #writeDelta(Bean, Bean)} for details.
+     * 
+     * @param base  the base bean, not null
+     * @param changed  the changed bean, with the same meta-bean as the base bean, not null
+     * @param output  the output stream, not null
+     */
+    public void writeDelta(final Bean base, final Bean changed, OutputStream output) throws IOException {
+        if (base == null) {
+            throw new NullPointerException("base");
+        }
+        if (changed == null) {
+            throw new NullPointerException("changed");
+        }
+        if (output == null) {
+            throw new NullPointerException("output");
+        }
+        this.output = new MsgPackOutput(output);
+        writeDeltaRoot(base, changed);
+    }
+
     //-----------------------------------------------------------------------
     private void writeRoot(final Bean bean, final boolean rootType) throws IOException {
         output.writeArrayHeader(2);
@@ -163,6 +242,17 @@ public class JodaBeanBinWriter {
     }
 
     private void writeBean(final Bean bean, final Class<?> declaredType, RootType rootTypeFlag) throws IOException {
+        BinBeanSerializer<Bean> serializer = findSerializer(bean);
+        if (serializer != null) {
+            if (binOutput == null) {
+                binOutput = new BinBeanOutput(this);
+            }
+            pendingBean = bean;
+            pendingDeclaredType = declaredType;
+            pendingRootType = rootTypeFlag;
+            serializer.writeBin(bean, binOutput);
+            return;
+        }
         int count = bean.metaBean().metaPropertyCount();
         MetaProperty<?>[] props = new MetaProperty<?>[count];
         Object[] values = new Object[count];
@@ -176,6 +266,15 @@ public class JodaBeanBinWriter {
                 }
             }
         }
+        writeBeanHeader(bean, declaredType, rootTypeFlag, size);
+        for (int i = 0; i < size; i++) {
+            MetaProperty<?> prop = props[i];
+            output.writeString(prop.name());
+            writePropertyValue(prop, bean.getClass(), values[i]);
+        }
+    }
+
+    private void writeBeanHeader(final Bean bean, final Class<?> declaredType, RootType rootTypeFlag, int size) throws IOException {
         if (rootTypeFlag == RootType.ROOT_WITH_TYPE || (rootTypeFlag == RootType.NOT_ROOT && bean.getClass() != declaredType)) {
             String typeStr = SerTypeMapper.encodeType(bean.getClass(), settings, basePackage, knownTypes);
             if (rootTypeFlag == RootType.ROOT_WITH_TYPE) {
@@ -187,23 +286,145 @@ public class JodaBeanBinWriter {
         } else {
             output.writeMapHeader(size);
         }
-        for (int i = 0; i < size; i++) {
-            MetaProperty<?> prop = props[i];
-            Object value = values[i];
-            output.writeString(prop.name());
-            Class<?> propType = SerOptional.extractType(prop, bean.getClass());
-            if (value instanceof Bean) {
-                if (settings.getConverter().isConvertible(value.getClass())) {
-                    writeSimple(propType, value);
-                } else {
-                    writeBean((Bean) value, propType, RootType.NOT_ROOT);
+    }
+
+    // finds the generated serializer, which only handles the exact type it was generated for
+    @SuppressWarnings("unchecked")
+    private static BinBeanSerializer<Bean> findSerializer(final Bean bean) {
+        MetaBean metaBean = bean.metaBean();
+        if (metaBean instanceof BinBeanSerializer && ((BinBeanSerializer<?>) metaBean).binBeanType() == bean.getClass()) {
+            return (BinBeanSerializer<Bean>) metaBean;
+        }
+        return null;
+    }
+
+    //-----------------------------------------------------------------------
+    // called by BinBeanOutput on behalf of generated serializers
+    MsgPackOutput binOutput() {
+        return output;
+    }
+
+    void writeBinBeanHeader(int size) throws IOException {
+        Bean bean = pendingBean;
+        if (bean == null) {
+            throw new IllegalStateException("Bean header must be written once, before the properties");
+        }
+        pendingBean = null;
+        writeBeanHeader(bean, pendingDeclaredType, pendingRootType, size);
+    }
+
+    void writeBinProperty(final MetaProperty<?> prop, final Object value) throws IOException {
+        writePropertyValue(prop, prop.declaringType(), value);
+    }
+
+    private void writePropertyValue(final MetaProperty<?> prop, final Class<?> beanType, final Object value) throws IOException {
+        Class<?> propType = SerOptional.extractType(prop, beanType);
+        if (value instanceof Bean) {
+            if (settings.getConverter().isConvertible(value.getClass())) {
+                writeSimple(propType, value);
+            } else {
+                writeBean((Bean) value, propType, RootType.NOT_ROOT);
+            }
+        } else {
+            SerIterator itemIterator = settings.getIteratorFactory().create(value, prop, beanType);
+            if (itemIterator != null) {
+                writeElements(itemIterator);
+            } else {
+                writeSimple(propType, value);
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    private void writeDeltaRoot(final Bean base, final Bean changed) throws IOException {
+        BeanPatch patch = BeanDiff.diff(base, changed);
+        List<DeltaOp> ops = new ArrayList<DeltaOp>(patch.size());
+        for (PropertyChange change : patch) {
+            List<MetaProperty<?>> path = change.getPath();
+            Bean owner = changed;
+            for (int i = 0; i < path.size() - 1; i++) {
+                owner = (Bean) path.get(i).get(owner);
+            }
+            addDeltaOps(ops, change, owner);
+        }
+        String typeStr = SerTypeMapper.encodeType(changed.getClass(), settings, basePackage, knownTypes);
+        basePackage = changed.getClass().getPackage().getName() + ".";
+        output.writeArrayHeader(3);
+        output.writeInt(1);  // version 1
+        output.writeExtensionString(MsgPack.JODA_TYPE_BEAN, typeStr);
+        output.writeArrayHeader(ops.size());
+        for (DeltaOp op : ops) {
+            writeDeltaOp(op);
+        }
+    }
+
+    // uses list operations if the lists share a prefix or suffix, otherwise sets the whole value
+    private void addDeltaOps(final List<DeltaOp> ops, final PropertyChange change, final Bean owner) {
+        if (change.getOldValue() instanceof List && change.getNewValue() instanceof List) {
+            List<?> oldList = (List<?>) change.getOldValue();
+            List<?> newList = (List<?>) change.getNewValue();
+            SerIterator itemIterator = settings.getIteratorFactory().create(newList, change.getMetaProperty(), owner.getClass());
+            if (itemIterator != null && itemIterator.category() == SerCategory.COLLECTION && itemIterator.metaTypeRequired() == false) {
+                int oldSize = oldList.size();
+                int newSize = newList.size();
+                int minSize = Math.min(oldSize, newSize);
+                int prefix = 0;
+                while (prefix < minSize && JodaBeanUtils.equal(oldList.get(prefix), newList.get(prefix))) {
+                    prefix++;
                 }
+                int suffix = 0;
+                while (suffix < minSize - prefix &&
+                        JodaBeanUtils.equal(oldList.get(oldSize - 1 - suffix), newList.get(newSize - 1 - suffix))) {
+                    suffix++;
+                }
+                if (prefix + suffix > 0) {
+                    int oldMid = oldSize - prefix - suffix;
+                    int newMid = newSize - prefix - suffix;
+                    int replaced = Math.min(oldMid, newMid);
+                    if (replaced > 0) {
+                        ops.add(new DeltaOp(MsgPack.DELTA_REPLACE, change, owner, prefix, replaced));
+                    }
+                    if (oldMid > newMid) {
+                        ops.add(new DeltaOp(MsgPack.DELTA_REMOVE, change, owner, prefix + replaced, oldMid - newMid));
+                    } else if (newMid > oldMid) {
+                        ops.add(new DeltaOp(MsgPack.DELTA_INSERT, change, owner, prefix + replaced, newMid - oldMid));
+                    }
+                    return;
+                }
+            }
+        }
+        ops.add(new DeltaOp(MsgPack.DELTA_SET, change, owner, 0, 0));
+    }
+
+    private void writeDeltaOp(final DeltaOp op) throws IOException {
+        MetaProperty<?> prop = op.change.getMetaProperty();
+        output.writeArrayHeader(op.opcode == MsgPack.DELTA_SET ? 3 : 4);
+        output.writeInt(op.opcode);
+        List<MetaProperty<?>> path = op.change.getPath();
+        output.writeArrayHeader(path.size());
+        for (MetaProperty<?> pathProp : path) {
+            output.writeString(pathProp.name());
+        }
+        if (op.opcode == MsgPack.DELTA_SET) {
+            Object value = SerOptional.extractValue(prop, op.owner);
+            if (value == null) {
+                output.writeNil();
             } else {
-                SerIterator itemIterator = settings.getIteratorFactory().create(value, prop, bean.getClass());
-                if (itemIterator != null) {
-                    writeElements(itemIterator);
-                } else {
-                    writeSimple(propType, value);
+                writePropertyValue(prop, op.owner.getClass(), value);
+            }
+        } else if (op.opcode == MsgPack.DELTA_REMOVE) {
+            output.writeInt(op.index);
+            output.writeInt(op.count);
+        } else {
+            // the elements are at the same index in the new list
+            output.writeInt(op.index);
+            output.writeArrayHeader(op.count);
+            SerIterator itemIterator = settings.getIteratorFactory().create(op.change.getNewValue(), prop, op.owner.getClass());
+            int end = op.index + op.count;
+            for (int i = 0; i < end && itemIterator.hasNext(); i++) {
+                itemIterator.next();
+                if (i >= op.index) {
+                    writeObject(itemIterator.valueType(), itemIterator.value(), itemIterator);
                 }
             }
         }
@@ -387,4 +608,24 @@ public class JodaBeanBinWriter {
         NOT_ROOT,
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * A single operation in a delta.
+     */
+    private static final class DeltaOp {
+        private final int opcode;
+        private final PropertyChange change;
+        private final Bean owner;
+        private final int index;
+        private final int count;
+
+        DeltaOp(int opcode, PropertyChange change, Bean owner, int index, int count) {
+            this.opcode = opcode;
+            this.change = change;
+            this.owner = owner;
+            this.index = index;
+            this.count = count;
+        }
+    }
+
 }
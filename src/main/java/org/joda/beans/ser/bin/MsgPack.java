@@ -202,6 +202,23 @@ abstract class MsgPack {
      */
     static final int JODA_TYPE_META = 34;
 
+    /**
+     * Delta operation code to set the value of a property.
+     */
+    static final int DELTA_SET = 0;
+    /**
+     * Delta operation code to insert elements into a list.
+     */
+    static final int DELTA_INSERT = 1;
+    /**
+     * Delta operation code to remove elements from a list.
+     */
+    static final int DELTA_REMOVE = 2;
+    /**
+     * Delta operation code to replace elements in a list.
+     */
+    static final int DELTA_REPLACE = 3;
+
     //-----------------------------------------------------------------------
     /**
      * Converts a byte to a hex string for debugging.
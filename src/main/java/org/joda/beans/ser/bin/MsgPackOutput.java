@@ -220,6 +220,16 @@ final class MsgPackOutput extends MsgPack {
         output.write(bytes);
     }
 
+    /**
+     * Writes bytes that are already MessagePack encoded.
+     *
+     * @param encoded  the encoded bytes, such as a string including its header
+     * @throws IOException if an error occurs
+     */
+    void writeEncoded(byte[] encoded) throws IOException {
+        output.write(encoded);
+    }
+
     private byte[] toUTF8(String value) {
         // inline common ASCII case for much better performance
         final int size = value.length();
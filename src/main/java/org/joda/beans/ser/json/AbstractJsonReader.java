@@ -25,6 +25,7 @@ import java.util.Map;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
@@ -32,8 +33,10 @@ import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerDeserializer;
 import org.joda.beans.ser.SerIterable;
+import org.joda.beans.ser.SerInterner;
 import org.joda.beans.ser.SerIteratorFactory;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerReuse;
 import org.joda.beans.ser.SerTypeMapper;
 
 /**
@@ -83,7 +86,7 @@ abstract class AbstractJsonReader {
      */
     <T> T parseRoot(JsonInput input, Class<T> declaredType) throws Exception {
         this.input = input;
-        Object parsed = parseObject(input.acceptEvent(JsonEvent.OBJECT), declaredType, null, null, null, true);
+        Object parsed = parseObject(input.acceptEvent(JsonEvent.OBJECT), declaredType, null, null, null, true, null);
         return declaredType.cast(parsed);
     }
 
@@ -91,7 +94,7 @@ abstract class AbstractJsonReader {
     private Object parseBean(JsonEvent event, Class<?> beanType) throws Exception {
         String propName = "";
         try {
-            SerDeserializer deser = settings.getDeserializers().findDeserializer(beanType);
+            SerDeserializer deser = settings.findDeserializer(beanType);
             MetaBean metaBean = deser.findMetaBean(beanType);
             BeanBuilder<?> builder = deser.createBuilder(beanType, metaBean);
             while (event != JsonEvent.OBJECT_END) {
@@ -102,13 +105,60 @@ abstract class AbstractJsonReader {
                     input.skipData();
                 } else {
                     Object value = parseObject(input.readEvent(),
-                            SerOptional.extractType(metaProp, beanType), metaProp, beanType, null, false);
+                            SerOptional.extractType(metaProp, beanType), metaProp, beanType, null, false, null);
                     deser.setValue(builder, metaProp, SerOptional.wrapValue(metaProp, beanType, value));
                 }
                 propName = "";
                 event = input.acceptObjectSeparator();
             }
-            return deser.build(beanType, builder);
+            Object bean = deser.build(beanType, builder);
+            SerInterner interner = settings.getInterner();
+            return interner != null ? interner.intern(bean) : bean;
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(
+                    "Error parsing bean: " + beanType.getName() + "::" + propName + ", " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Parses the root bean into an existing bean.
+     * 
+     * @param input  the input, not null
+     * @param bean  the bean to read into, not null
+     * @throws Exception if an error occurs
+     */
+    void parseRootInto(JsonInput input, Bean bean) throws Exception {
+        if (bean instanceof ImmutableBean) {
+            throw new IllegalArgumentException("Cannot read into an immutable bean: " + bean.getClass().getName());
+        }
+        this.input = input;
+        basePackage = bean.getClass().getPackage().getName() + ".";
+        parseObject(input.acceptEvent(JsonEvent.OBJECT), bean.getClass(), null, null, null, true, bean);
+    }
+
+    // parse into an existing bean, event after object start passed in
+    private Object parseBeanInto(JsonEvent event, Bean bean) throws Exception {
+        Class<?> beanType = bean.getClass();
+        String propName = "";
+        try {
+            SerDeserializer deser = settings.findDeserializer(beanType);
+            MetaBean metaBean = deser.findMetaBean(beanType);
+            while (event != JsonEvent.OBJECT_END) {
+                // property name
+                propName = input.acceptObjectKey(event);
+                MetaProperty<?> metaProp = deser.findMetaProperty(beanType, metaBean, propName);
+                if (metaProp == null) {
+                    input.skipData();
+                } else {
+                    Object current = SerReuse.currentValue(bean, metaProp);
+                    Object value = parseObject(input.readEvent(),
+                            SerOptional.extractType(metaProp, beanType), metaProp, beanType, null, false, current);
+                    SerReuse.setValue(bean, metaProp, current, SerOptional.wrapValue(metaProp, beanType, value));
+                }
+                propName = "";
+                event = input.acceptObjectSeparator();
+            }
+            return bean;
         } catch (Exception ex) {
             throw new IllegalArgumentException(
                     "Error parsing bean: " + beanType.getName() + "::" + propName + ", " + ex.getMessage(), ex);
@@ -119,14 +169,14 @@ abstract class AbstractJsonReader {
     private Object parseObject(
             JsonEvent event,
             Class<?> declaredType, MetaProperty<?> metaProp, Class<?> beanType,
-            SerIterable parentIterable, boolean rootType) throws Exception {
+            SerIterable parentIterable, boolean rootType, Object existing) throws Exception {
         // establish type
         if (event == JsonEvent.OBJECT) {
             event = input.readEvent();
             if (event == JsonEvent.STRING) {
                 String key = input.parseObjectKey();
                 if (key.equals(BEAN)) {
-                    return parseTypedBean(declaredType, rootType);
+                    return parseTypedBean(declaredType, rootType, existing);
                 } else if (key.equals(TYPE)) {
                     return parseTypedSimple(declaredType);
                 } else if (key.equals(META)) {
@@ -146,6 +196,9 @@ abstract class AbstractJsonReader {
         // parse based on type
         if (Bean.class.isAssignableFrom(declaredType)) {
             if (event == JsonEvent.OBJECT) {
+                if (SerReuse.isReusable(existing, declaredType)) {
+                    return parseBeanInto(input.readEvent(), (Bean) existing);
+                }
                 return parseBean(input.readEvent(), declaredType);
             } else {
                 return parseSimple(event, declaredType);
@@ -180,7 +233,7 @@ abstract class AbstractJsonReader {
         throw new IllegalArgumentException("JSON contained an object without information about the Java type");
     }
 
-    private Object parseTypedBean(Class<?> declaredType, boolean rootType) throws Exception {
+    private Object parseTypedBean(Class<?> declaredType, boolean rootType, Object existing) throws Exception {
         String typeStr = input.acceptString();
         Class<?> effectiveType = SerTypeMapper.decodeType(typeStr, settings, basePackage, knownTypes);
         if (rootType) {
@@ -197,6 +250,13 @@ abstract class AbstractJsonReader {
         if (event == JsonEvent.COMMA) {
             event = input.readEvent();
         }
+        if (SerReuse.isReusable(existing, effectiveType)) {
+            return parseBeanInto(event, (Bean) existing);
+        }
+        if (rootType && existing != null) {
+            throw new IllegalArgumentException("Specified type is incompatible with existing bean: " +
+                effectiveType.getName() + " and " + existing.getClass().getName());
+        }
         return parseBean(event, effectiveType);
     }
 
@@ -250,7 +310,7 @@ abstract class AbstractJsonReader {
             while (event != JsonEvent.OBJECT_END) {
                 String keyStr = input.acceptObjectKey(event);
                 Object key = settings.getConverter().convertFromString(iterable.keyType(), keyStr);
-                Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false);
+                Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false, null);
                 iterable.add(key, null, value, 1);
                 event = input.acceptObjectSeparator();
             }
@@ -258,9 +318,9 @@ abstract class AbstractJsonReader {
             event = input.readEvent();
             while (event != JsonEvent.ARRAY_END) {
                 input.ensureEvent(event, JsonEvent.ARRAY);
-                Object key = parseObject(input.readEvent(), iterable.keyType(), null, null, null, false);
+                Object key = parseObject(input.readEvent(), iterable.keyType(), null, null, null, false, null);
                 input.acceptEvent(JsonEvent.COMMA);
-                Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false);
+                Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false, null);
                 input.acceptEvent(JsonEvent.ARRAY_END);
                 iterable.add(key, null, value, 1);
                 event = input.acceptArraySeparator();
@@ -277,11 +337,11 @@ abstract class AbstractJsonReader {
         event = input.readEvent();
         while (event != JsonEvent.ARRAY_END) {
             input.ensureEvent(event, JsonEvent.ARRAY);
-            Object key = parseObject(input.readEvent(), iterable.keyType(), null, null, null, false);
+            Object key = parseObject(input.readEvent(), iterable.keyType(), null, null, null, false, null);
             input.acceptEvent(JsonEvent.COMMA);
-            Object column = parseObject(input.readEvent(), iterable.columnType(), null, null, null, false);
+            Object column = parseObject(input.readEvent(), iterable.columnType(), null, null, null, false, null);
             input.acceptEvent(JsonEvent.COMMA);
-            Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false);
+            Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false, null);
             iterable.add(key, column, value, 1);
             input.acceptEvent(JsonEvent.ARRAY_END);
             event = input.acceptArraySeparator();
@@ -306,7 +366,7 @@ abstract class AbstractJsonReader {
             input.acceptEvent(JsonEvent.NUMBER_INTEGRAL);
             int column = (int) input.parseNumberIntegral();
             input.acceptEvent(JsonEvent.COMMA);
-            Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false);
+            Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false, null);
             input.acceptEvent(JsonEvent.ARRAY_END);
             iterable.add(row, column, value, 1);
             event = input.acceptArraySeparator();
@@ -319,7 +379,7 @@ abstract class AbstractJsonReader {
         event = input.readEvent();
         while (event != JsonEvent.ARRAY_END) {
             input.ensureEvent(event, JsonEvent.ARRAY);
-            Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false);
+            Object value = parseObject(input.readEvent(), iterable.valueType(), null, null, iterable, false, null);
             input.acceptEvent(JsonEvent.COMMA);
             input.acceptEvent(JsonEvent.NUMBER_INTEGRAL);
             iterable.add(null, null, value, (int) input.parseNumberIntegral());
@@ -333,7 +393,7 @@ abstract class AbstractJsonReader {
         input.ensureEvent(event, JsonEvent.ARRAY);
         event = input.readEvent();
         while (event != JsonEvent.ARRAY_END) {
-            Object value = parseObject(event, iterable.valueType(), null, null, iterable, false);
+            Object value = parseObject(event, iterable.valueType(), null, null, iterable, false, null);
             iterable.add(null, null, value, 1);
             event = input.acceptArraySeparator();
         }
@@ -96,4 +96,52 @@ public class JodaBeanJsonReader extends AbstractJsonReader {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Reads and parses into an existing mutable bean.
+     * <p>
+     * Each property in the input overwrites the value in the bean.
+     * Nested mutable beans of the same type are read into rather than replaced,
+     * and collections of read-only properties are cleared and refilled.
+     * Properties not in the input are left unchanged.
+     * 
+     * @param <T>  the bean type
+     * @param bean  the bean to read into, not null
+     * @param input  the input string, not null
+     * @return the bean, not null
+     * @throws IllegalArgumentException if the bean is immutable or the input is for a different type
+     */
+    public <T extends Bean> T readInto(T bean, String input) {
+        JodaBeanUtils.notNull(input, "input");
+        return readInto(bean, new StringReader(input));
+    }
+
+    /**
+     * Reads and parses into an existing mutable bean.
+     * <p>
+     * Each property in the input overwrites the value in the bean.
+     * Nested mutable beans of the same type are read into rather than replaced,
+     * and collections of read-only properties are cleared and refilled.
+     * Properties not in the input are left unchanged.
+     * 
+     * @param <T>  the bean type
+     * @param bean  the bean to read into, not null
+     * @param input  the input reader, not null
+     * @return the bean, not null
+     * @throws IllegalArgumentException if the bean is immutable or the input is for a different type
+     */
+    public <T extends Bean> T readInto(T bean, Reader input) {
+        JodaBeanUtils.notNull(bean, "bean");
+        JodaBeanUtils.notNull(input, "input");
+        try {
+            JsonInput jsonInput = new JsonInput(input);
+            parseRootInto(jsonInput, bean);
+            return bean;
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
 }
@@ -50,6 +50,7 @@ import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerDeserializer;
 import org.joda.beans.ser.SerIterable;
+import org.joda.beans.ser.SerInterner;
 import org.joda.beans.ser.SerIteratorFactory;
 import org.joda.beans.ser.SerOptional;
 import org.joda.beans.ser.SerTypeMapper;
@@ -259,7 +260,7 @@ public class JodaBeanXmlReader {
                 event = nextEvent(">bean ");
             }
             // handle structured bean
-            SerDeserializer deser = settings.getDeserializers().findDeserializer(beanType);
+            SerDeserializer deser = settings.findDeserializer(beanType);
             MetaBean metaBean = deser.findMetaBean(beanType);
             BeanBuilder<?> builder = deser.createBuilder(beanType, metaBean);
             // handle beans with structure
@@ -310,7 +311,9 @@ public class JodaBeanXmlReader {
                 }
                 event = nextEvent(".bean ");
             }
-            return deser.build(beanType, builder);
+            Object bean = deser.build(beanType, builder);
+            SerInterner interner = settings.getInterner();
+            return interner != null ? interner.intern(bean) : bean;
         } catch (Exception ex) {
             throw new RuntimeException("Error parsing bean: " + beanType.getName() + "::" + propName + ", " + ex.getMessage(), ex);
         }
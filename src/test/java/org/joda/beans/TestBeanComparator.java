@@ -0,0 +1,120 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.joda.beans.gen.Address;
+import org.joda.beans.gen.ImmWith;
+import org.joda.beans.query.BeanComparator;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test BeanComparator.
+ */
+@Test
+public class TestBeanComparator {
+
+    private static Address address(int number, String city) {
+        Address address = new Address();
+        address.setNumber(number);
+        address.setCity(city);
+        return address;
+    }
+
+    private static final Address A = address(3, "London");
+    private static final Address B = address(1, "Paris");
+    private static final Address C = address(2, "London");
+    private static final Address D = address(5, null);
+    private static final List<Address> ALL = Arrays.asList(A, B, C, D);
+
+    //-------------------------------------------------------------------------
+    public void test_compare() {
+        BeanComparator<Address> test = BeanComparator.<Address>builder()
+                .ascending(Address.meta().city())
+                .descending(Address.meta().number())
+                .build();
+        List<Address> list = new ArrayList<Address>(ALL);
+        Collections.sort(list, test);
+        assertEquals(list, Arrays.asList(A, C, B, D));
+        assertEquals(test.sort(ALL), Arrays.asList(A, C, B, D));
+    }
+
+    public void test_nullsFirst() {
+        BeanComparator<Address> test = BeanComparator.<Address>builder()
+                .key(Address.meta().city(), true, true)
+                .build();
+        List<Address> list = new ArrayList<Address>(ALL);
+        Collections.sort(list, test);
+        assertEquals(list, Arrays.asList(D, B, A, C));
+        assertEquals(test.sort(ALL), Arrays.asList(D, B, A, C));
+    }
+
+    public void test_ascending() {
+        BeanComparator<Address> test = BeanComparator.ascending(Address.meta().number());
+        assertEquals(test.sort(ALL), Arrays.asList(B, C, A, D));
+        assertEquals(test.compare(A, B) > 0, true);
+        assertEquals(test.compare(A, A), 0);
+    }
+
+    public void test_doubleKey() {
+        List<ImmWith> beans = new ArrayList<ImmWith>();
+        for (int i = 0; i < 100; i++) {
+            beans.add(ImmWith.builder().name("N" + i).age(i).score((i * 37) % 100 - 50.5d).tags(ImmutableList.<String>of()).build());
+        }
+        BeanComparator<ImmWith> test = BeanComparator.<ImmWith>builder().descending(ImmWith.meta().score()).build();
+        List<ImmWith> expected = new ArrayList<ImmWith>(beans);
+        Collections.sort(expected, test);
+        assertEquals(test.sort(beans), expected);
+        assertEquals(expected.get(0).getScore(), 48.5d, 0d);
+    }
+
+    public void test_stableLarge() {
+        List<Address> beans = new ArrayList<Address>();
+        for (int i = 0; i < 40000; i++) {
+            beans.add(address((i * 7919) % 97, "City" + (i % 13)));
+        }
+        BeanComparator<Address> test = BeanComparator.ascending(Address.meta().number());
+        List<Address> expected = new ArrayList<Address>(beans);
+        Collections.sort(expected, test);
+        assertEquals(test.sort(beans), expected);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Address> sorted = test.sort(beans, executor);
+            for (int i = 0; i < sorted.size(); i++) {
+                assertSame(sorted.get(i), expected.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void test_noKeys() {
+        BeanComparator.<Address>builder().build();
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.beans.gen.Address;
+import org.joda.beans.query.ConcurrentBeanIndex;
+import org.joda.beans.query.HashBeanIndex;
+import org.joda.beans.query.SortedBeanIndex;
+import org.testng.annotations.Test;
+
+/**
+ * Test indexes.
+ */
+@Test
+public class TestBeanIndex {
+
+    private static Address address(int number, String city) {
+        Address address = new Address();
+        address.setNumber(number);
+        address.setCity(city);
+        return address;
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_hash() {
+        Address a = address(1, "London");
+        Address b = address(2, "Paris");
+        Address c = address(3, "London");
+        Address d = address(4, null);
+        HashBeanIndex<String, Address> index = HashBeanIndex.of(Address.meta().city(), Arrays.asList(a, b, c, d));
+        assertEquals(index.size(), 3);
+        assertEquals(index.get("London"), Arrays.asList(a, c));
+        assertEquals(index.get("Paris"), Arrays.asList(b));
+        assertEquals(index.get("Rome"), Collections.emptyList());
+        assertEquals(index.get(null), Collections.emptyList());
+        assertTrue(index.containsKey("Paris"));
+        assertFalse(index.containsKey("Rome"));
+        assertEquals(index.getQuery(), Address.meta().city());
+    }
+
+    public void test_hash_addRemove() {
+        Address a = address(1, "London");
+        Address b = address(2, "London");
+        HashBeanIndex<String, Address> index = HashBeanIndex.of(Address.meta().city());
+        assertTrue(index.add(a));
+        assertTrue(index.add(b));
+        assertFalse(index.add(address(3, null)));
+        assertEquals(index.size(), 2);
+        assertTrue(index.remove(a));
+        assertFalse(index.remove(a));
+        assertEquals(index.get("London"), Arrays.asList(b));
+        assertTrue(index.remove(b));
+        assertFalse(index.containsKey("London"));
+        assertEquals(index.size(), 0);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void test_hash_getUnmodifiable() {
+        HashBeanIndex<String, Address> index = HashBeanIndex.of(Address.meta().city(), Arrays.asList(address(1, "London")));
+        index.get("London").clear();
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_sorted() {
+        Address a = address(1, "London");
+        Address b = address(2, "Paris");
+        Address c = address(3, "London");
+        Address d = address(4, "Rome");
+        SortedBeanIndex<Integer, Address> index = SortedBeanIndex.of(Address.meta().number(), Arrays.asList(d, c, b, a));
+        assertEquals(index.size(), 4);
+        assertEquals(index.get(2), Arrays.asList(b));
+        assertEquals(index.firstKey(), Integer.valueOf(1));
+        assertEquals(index.lastKey(), Integer.valueOf(4));
+        assertEquals(new ArrayList<Integer>(index.keySet()), Arrays.asList(1, 2, 3, 4));
+        assertEquals(index.range(2, true, 3, true), Arrays.asList(b, c));
+        assertEquals(index.range(2, false, 4, false), Arrays.asList(c));
+        assertEquals(index.range(null, false, 2, true), Arrays.asList(a, b));
+        assertEquals(index.range(3, true, null, false), Arrays.asList(c, d));
+        assertEquals(index.range(null, false, null, false), Arrays.asList(a, b, c, d));
+    }
+
+    public void test_sorted_comparator() {
+        Address a = address(1, "London");
+        Address b = address(2, "Paris");
+        Address c = address(3, "Rome");
+        SortedBeanIndex<String, Address> index = SortedBeanIndex.of(Address.meta().city(), Collections.<String>reverseOrder());
+        index.add(a);
+        index.add(b);
+        index.add(c);
+        assertEquals(index.firstKey(), "Rome");
+        assertEquals(index.range("Rome", false, "London", true), Arrays.asList(b, a));
+        assertTrue(index.remove(b));
+        assertEquals(index.range(null, false, null, false), Arrays.asList(c, a));
+    }
+
+    public void test_sorted_empty() {
+        SortedBeanIndex<Integer, Address> index = SortedBeanIndex.of(Address.meta().number());
+        assertEquals(index.firstKey(), null);
+        assertEquals(index.lastKey(), null);
+        assertEquals(index.range(1, true, 2, true), Collections.emptyList());
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_concurrent_hashed() {
+        Address a = address(1, "London");
+        Address b = address(2, "London");
+        ConcurrentBeanIndex<String, Address> index = ConcurrentBeanIndex.hashed(Address.meta().city());
+        assertFalse(index.isSorted());
+        index.add(a);
+        List<Address> snapshot = index.get("London");
+        index.add(b);
+        assertEquals(snapshot, Arrays.asList(a));
+        assertEquals(index.get("London"), Arrays.asList(a, b));
+        assertEquals(index.size(), 2);
+        assertTrue(index.remove(a));
+        assertEquals(index.get("London"), Arrays.asList(b));
+        assertTrue(index.remove(b));
+        assertFalse(index.containsKey("London"));
+    }
+
+    public void test_concurrent_snapshotsShareArray() {
+        ConcurrentBeanIndex<String, Address> index = ConcurrentBeanIndex.hashed(Address.meta().city());
+        List<Address> expected = new ArrayList<Address>();
+        List<List<Address>> snapshots = new ArrayList<List<Address>>();
+        for (int i = 0; i < 100; i++) {
+            Address address = address(i, "London");
+            index.add(address);
+            expected.add(address);
+            snapshots.add(index.get("London"));
+        }
+        index.remove(expected.get(50));
+        index.add(address(100, "London"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(snapshots.get(i), expected.subList(0, i + 1));
+        }
+        assertEquals(index.get("London").size(), 100);
+        assertEquals(index.get("London").get(50), expected.get(51));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void test_concurrent_hashed_range() {
+        ConcurrentBeanIndex<String, Address> index = ConcurrentBeanIndex.hashed(Address.meta().city());
+        index.range("A", true, "Z", true);
+    }
+
+    public void test_concurrent_sorted() {
+        Address a = address(1, "London");
+        Address b = address(2, "Paris");
+        Address c = address(3, "Rome");
+        ConcurrentBeanIndex<Integer, Address> index = ConcurrentBeanIndex.sorted(Address.meta().number());
+        assertTrue(index.isSorted());
+        index.add(c);
+        index.add(a);
+        index.add(b);
+        assertEquals(index.range(1, false, 3, true), Arrays.asList(b, c));
+        assertEquals(index.get(1), Arrays.asList(a));
+    }
+
+    public void test_concurrent_readWhileWriting() throws Exception {
+        final ConcurrentBeanIndex<Integer, Address> index = ConcurrentBeanIndex.sorted(Address.meta().number());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t * 1000;
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 1000; i++) {
+                            index.add(address(offset + i, "City"));
+                            index.range(offset, true, offset + i, true);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertEquals(index.size(), 4000);
+        assertEquals(index.range(0, true, 3999, true).size(), 4000);
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.joda.beans.gen.Address;
+import org.joda.beans.query.BeanJoin;
+import org.joda.beans.query.BeanJoin.Match;
+import org.joda.beans.ser.JodaBeanSer;
+import org.testng.annotations.Test;
+
+/**
+ * Test BeanJoin.
+ */
+@Test
+public class TestBeanJoin {
+
+    private static Address address(int number, String street, String city) {
+        Address address = new Address();
+        address.setNumber(number);
+        address.setStreet(street);
+        address.setCity(city);
+        return address;
+    }
+
+    private static final Address L1 = address(1, "High Street", "London");
+    private static final Address L2 = address(2, "Rue Royale", "Paris");
+    private static final Address L3 = address(3, "Via Roma", "Rome");
+    private static final Address L4 = address(4, "Nowhere", null);
+    private static final Address R1 = address(10, "High Street", "London");
+    private static final Address R2 = address(11, "Baker Street", "London");
+    private static final Address R3 = address(12, "Rue Royale", "Paris");
+    private static final List<Address> LEFT = Arrays.asList(L1, L2, L3, L4);
+    private static final List<Address> RIGHT = Arrays.asList(R1, R2, R3);
+
+    private static Set<List<Address>> set(List<Match<Address, Address>> matches) {
+        Set<List<Address>> result = new HashSet<List<Address>>();
+        for (Match<Address, Address> match : matches) {
+            result.add(Arrays.asList(match.getLeft(), match.getRight()));
+        }
+        return result;
+    }
+
+    private static Set<List<Address>> set(Address... pairs) {
+        Set<List<Address>> result = new HashSet<List<Address>>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            result.add(Arrays.asList(pairs[i], pairs[i + 1]));
+        }
+        return result;
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_inner() {
+        BeanJoin<Address, Address> join = BeanJoin.on(Address.meta().city(), Address.meta().city());
+        assertEquals(set(join.inner(LEFT, RIGHT)), set(L1, R1, L1, R2, L2, R3));
+        assertEquals(set(join.inner(RIGHT, LEFT)), set(R1, L1, R2, L1, R3, L2));
+    }
+
+    public void test_leftOuter() {
+        BeanJoin<Address, Address> join = BeanJoin.on(Address.meta().city(), Address.meta().city());
+        assertEquals(set(join.leftOuter(LEFT, RIGHT)), set(L1, R1, L1, R2, L2, R3, L3, null, L4, null));
+        assertEquals(set(join.leftOuter(RIGHT, LEFT)), set(R1, L1, R2, L1, R3, L2));
+        assertEquals(join.leftOuter(LEFT, new ArrayList<Address>()).size(), 4);
+    }
+
+    public void test_anti() {
+        BeanJoin<Address, Address> join = BeanJoin.on(Address.meta().city(), Address.meta().city());
+        assertEquals(new HashSet<Address>(join.anti(LEFT, RIGHT)), new HashSet<Address>(Arrays.asList(L3, L4)));
+        assertEquals(join.anti(RIGHT, LEFT), new ArrayList<Address>());
+        // left side smaller, so the hash table is built from the left
+        assertEquals(join.anti(Arrays.asList(L3, L1), RIGHT), Arrays.asList(L3));
+    }
+
+    public void test_composite() {
+        BeanJoin<Address, Address> join = BeanJoin.on(
+                Arrays.asList(Address.meta().city(), Address.meta().street()),
+                Arrays.asList(Address.meta().city(), Address.meta().street()));
+        assertEquals(set(join.inner(LEFT, RIGHT)), set(L1, R1, L2, R3));
+        assertEquals(new HashSet<Address>(join.anti(LEFT, RIGHT)), new HashSet<Address>(Arrays.asList(L3, L4)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_composite_mismatchedSize() {
+        BeanJoin.on(
+                Arrays.asList(Address.meta().city(), Address.meta().street()),
+                Arrays.asList(Address.meta().city()));
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_parallel() {
+        List<Address> left = new ArrayList<Address>();
+        for (int i = 0; i < 50000; i++) {
+            left.add(address(i, "Street", "City" + (i % 1000)));
+        }
+        List<Address> right = new ArrayList<Address>();
+        for (int i = 0; i < 500; i++) {
+            right.add(address(i, "Street", "City" + (i * 4)));
+        }
+        BeanJoin<Address, Address> join = BeanJoin.on(Address.meta().city(), Address.meta().city());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BeanJoin<Address, Address> parallel = join.withExecutor(executor);
+            assertEquals(set(parallel.inner(left, right)), set(join.inner(left, right)));
+            assertEquals(parallel.inner(left, right).size(), 12500);
+            assertEquals(parallel.leftOuter(left, right).size(), 50000);
+            assertEquals(parallel.anti(left, right).size(), 37500);
+            assertEquals(parallel.anti(right, left).size(), 250);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void test_spill() {
+        List<Address> left = new ArrayList<Address>();
+        for (int i = 0; i < 200; i++) {
+            left.add(address(i, "Street", "City" + (i % 20)));
+        }
+        List<Address> right = new ArrayList<Address>();
+        for (int i = 0; i < 30; i++) {
+            right.add(address(i, "Street", "City" + (i * 2)));
+        }
+        BeanJoin<Address, Address> join = BeanJoin.on(Address.meta().city(), Address.meta().city());
+        BeanJoin<Address, Address> spilled = join.withSpill(JodaBeanSer.COMPACT, Address.class, Address.class, 5, null);
+        assertEquals(set(spilled.inner(left, right)), set(join.inner(left, right)));
+        assertEquals(set(spilled.leftOuter(left, right)), set(join.leftOuter(left, right)));
+        assertEquals(new HashSet<Address>(spilled.anti(left, right)), new HashSet<Address>(join.anti(left, right)));
+        assertEquals(spilled.anti(left, right).size(), 100);
+    }
+
+    public void test_spill_repartition() {
+        List<Address> left = new ArrayList<Address>();
+        for (int i = 0; i < 3000; i++) {
+            left.add(address(i, "Street", "City" + (i % 700)));
+        }
+        List<Address> right = new ArrayList<Address>();
+        for (int i = 0; i < 1000; i++) {
+            right.add(address(i, "Street", "City" + (i % 900)));
+        }
+        BeanJoin<Address, Address> join = BeanJoin.on(Address.meta().city(), Address.meta().city());
+        BeanJoin<Address, Address> spilled = join.withSpill(JodaBeanSer.COMPACT, Address.class, Address.class, 5, null);
+        assertEquals(set(spilled.inner(left, right)), set(join.inner(left, right)));
+        assertEquals(spilled.inner(left, right).size(), join.inner(left, right).size());
+        assertEquals(spilled.leftOuter(left, right).size(), join.leftOuter(left, right).size());
+        assertEquals(spilled.anti(left, right).size(), 0);
+        assertEquals(spilled.anti(right, left).size(), 200);
+    }
+
+    public void test_spill_skewed() {
+        List<Address> left = new ArrayList<Address>();
+        for (int i = 0; i < 50; i++) {
+            left.add(address(i, "Street", "London"));
+        }
+        List<Address> right = new ArrayList<Address>();
+        for (int i = 0; i < 20; i++) {
+            right.add(address(i, "Street", "London"));
+        }
+        right.add(address(20, "Street", "Paris"));
+        BeanJoin<Address, Address> join = BeanJoin.on(Address.meta().city(), Address.meta().city());
+        BeanJoin<Address, Address> spilled = join.withSpill(JodaBeanSer.COMPACT, Address.class, Address.class, 5, null);
+        assertEquals(spilled.inner(left, right).size(), 1000);
+        assertEquals(set(spilled.inner(left, right)), set(join.inner(left, right)));
+        assertEquals(spilled.anti(right, left), Arrays.asList(address(20, "Street", "Paris")));
+    }
+
+    public void test_spill_iterable() {
+        Iterable<Address> left = new Iterable<Address>() {
+            private boolean iterated;
+            @Override
+            public Iterator<Address> iterator() {
+                assertEquals(iterated, false);
+                iterated = true;
+                return new Iterator<Address>() {
+                    private int count;
+                    @Override
+                    public boolean hasNext() {
+                        return count < 100;
+                    }
+                    @Override
+                    public Address next() {
+                        count++;
+                        return address(count, "Street", "City" + (count % 10));
+                    }
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+        List<Address> right = new ArrayList<Address>();
+        for (int i = 0; i < 20; i++) {
+            right.add(address(i, "Street", "City" + i));
+        }
+        BeanJoin<Address, Address> spilled = BeanJoin.<Address, Address>on(Address.meta().city(), Address.meta().city())
+                .withSpill(JodaBeanSer.COMPACT, Address.class, Address.class, 5, null);
+        assertEquals(spilled.inner(left, right).size(), 100);
+    }
+
+}
@@ -16,12 +16,17 @@
 package org.joda.beans;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 
 import java.util.Arrays;
 
 import org.joda.beans.gen.Address;
+import org.joda.beans.gen.CompanyAddress;
 import org.joda.beans.gen.Person;
 import org.joda.beans.query.ChainedBeanQuery;
+import org.joda.beans.query.PropertyPathQuery;
 import org.testng.annotations.Test;
 
 /**
@@ -115,4 +120,87 @@ public class TestBeanQuery {
         ChainedBeanQuery.of(Address.meta().owner(), Address.meta().owner(), Address.meta().owner(), null);
     }
 
+    //-------------------------------------------------------------------------
+    public void test_path() {
+        Person person = new Person();
+        person.setMainAddress(new Address());
+        person.getMainAddress().setOwner(new Person());
+        person.getMainAddress().getOwner().setSurname("Joda");
+        
+        PropertyPathQuery<String> bq = PropertyPathQuery.of(Person.class, "mainAddress.owner.surname");
+        assertEquals(bq.get(person), "Joda");
+        assertEquals(bq.getMetaBean(), Person.meta());
+        assertEquals(bq.getPath(), "mainAddress.owner.surname");
+        assertEquals(bq.toString(), "Person:mainAddress.owner.surname");
+    }
+
+    public void test_path_cached() {
+        PropertyPathQuery<String> bq1 = PropertyPathQuery.of(Person.class, "mainAddress.city");
+        PropertyPathQuery<String> bq2 = PropertyPathQuery.of(Person.meta(), "mainAddress.city");
+        assertSame(bq1, bq2);
+    }
+
+    public void test_path_cacheBounded() {
+        // the root type is not used by the other tests, so their queries remain cached
+        String path = "owner";
+        for (int i = 0; i < 300; i++) {
+            path += ".mainAddress.owner";
+            PropertyPathQuery.of(Address.class, path);
+        }
+        PropertyPathQuery<String> bq1 = PropertyPathQuery.of(Address.class, path + ".surname");
+        PropertyPathQuery<String> bq2 = PropertyPathQuery.of(Address.class, path + ".surname");
+        assertNotSame(bq1, bq2);
+        assertEquals(bq2.getPath(), bq1.getPath());
+    }
+
+    public void test_path_nullSafe() {
+        Person person = new Person();
+        PropertyPathQuery<String> bq = PropertyPathQuery.of(Person.class, "mainAddress.owner.surname");
+        assertNull(bq.get(person));
+        person.setMainAddress(new Address());
+        assertNull(bq.get(person));
+        assertNull(bq.get(null));
+    }
+
+    public void test_path_subclass() {
+        PropertyPathQuery<String> bq = PropertyPathQuery.of(Person.class, "mainAddress.city");
+        Person person1 = new Person();
+        person1.setMainAddress(new Address());
+        person1.getMainAddress().setCity("London");
+        Person person2 = new Person();
+        person2.setMainAddress(new CompanyAddress());
+        person2.getMainAddress().setCity("Paris");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(bq.get(person1), "London");
+            assertEquals(bq.get(person2), "Paris");
+        }
+    }
+
+    public void test_path_dynamic() {
+        Person person = new Person();
+        person.getExtensions().set("code", "A");
+        PropertyPathQuery<Object> bq = PropertyPathQuery.of(Person.class, "extensions.code");
+        assertEquals(bq.get(person), "A");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_path_unknownProperty() {
+        PropertyPathQuery.of(Person.class, "mainAddress.rubbish");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_path_notBean() {
+        PropertyPathQuery.of(Person.class, "surname.length");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_path_empty() {
+        PropertyPathQuery.of(Person.class, "mainAddress..city");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_path_null() {
+        PropertyPathQuery.of(Person.class, null);
+    }
+
 }
@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.joda.beans.gen.Address;
+import org.joda.beans.query.BeanAggregate;
+import org.joda.beans.query.BeanFilter;
+import org.joda.beans.query.BeanQueryEngine;
+import org.joda.beans.query.HashBeanIndex;
+import org.joda.beans.query.SortedBeanIndex;
+import org.testng.annotations.Test;
+
+/**
+ * Test BeanQueryEngine.
+ */
+@Test
+public class TestBeanQueryEngine {
+
+    private static Address address(int number, String street, String city) {
+        Address address = new Address();
+        address.setNumber(number);
+        address.setStreet(street);
+        address.setCity(city);
+        return address;
+    }
+
+    private static final Address A = address(3, "High Street", "London");
+    private static final Address B = address(1, "Rue Royale", "Paris");
+    private static final Address C = address(2, "Baker Street", "London");
+    private static final Address D = address(5, "Via Roma", null);
+    private static final List<Address> ALL = Arrays.asList(A, B, C, D);
+
+    //-------------------------------------------------------------------------
+    public void test_filter() {
+        BeanQueryEngine<Address> engine = BeanQueryEngine.of(ALL);
+        assertEquals(engine.filter(BeanFilter.all()), ALL);
+        assertEquals(engine.filter(BeanFilter.equalTo(Address.meta().city(), "London")), Arrays.asList(A, C));
+        assertEquals(engine.filter(BeanFilter.isNull(Address.meta().city())), Arrays.asList(D));
+        assertEquals(engine.filter(BeanFilter.in(Address.meta().city(), Arrays.asList("Paris", "Rome"))), Arrays.asList(B));
+        assertEquals(engine.filter(BeanFilter.between(Address.meta().number(), 2, 3)), Arrays.asList(A, C));
+        assertEquals(engine.filter(BeanFilter.between(Address.meta().number(), 2, false, null, false)), Arrays.asList(A, D));
+        assertEquals(engine.filter(BeanFilter.not(BeanFilter.equalTo(Address.meta().city(), "London"))), Arrays.asList(B, D));
+        assertEquals(engine.filter(BeanFilter.and(
+                BeanFilter.equalTo(Address.meta().city(), "London"),
+                BeanFilter.between(Address.meta().number(), 3, 10))), Arrays.asList(A));
+        assertEquals(engine.filter(BeanFilter.or(
+                BeanFilter.equalTo(Address.meta().city(), "Paris"),
+                BeanFilter.between(Address.meta().number(), 4, 10))), Arrays.asList(B, D));
+        assertEquals(engine.count(BeanFilter.equalTo(Address.meta().city(), "London")), 2);
+    }
+
+    public void test_filter_index() {
+        HashBeanIndex<String, Address> cityIndex = HashBeanIndex.of(Address.meta().city(), ALL);
+        SortedBeanIndex<Integer, Address> numberIndex = SortedBeanIndex.of(Address.meta().number(), ALL);
+        BeanQueryEngine<Address> engine = BeanQueryEngine.of(ALL).withIndex(cityIndex).withIndex(numberIndex);
+        assertEquals(engine.filter(BeanFilter.equalTo(Address.meta().city(), "London")), Arrays.asList(A, C));
+        assertEquals(engine.filter(BeanFilter.isNull(Address.meta().city())), Arrays.asList(D));
+        // index order
+        assertEquals(engine.filter(BeanFilter.between(Address.meta().number(), 2, 3)), Arrays.asList(C, A));
+        assertEquals(engine.filter(BeanFilter.and(
+                BeanFilter.between(Address.meta().number(), 1, 3),
+                BeanFilter.equalTo(Address.meta().street(), "Rue Royale"))), Arrays.asList(B));
+    }
+
+    public void test_filter_index_emptyRange() {
+        SortedBeanIndex<Integer, Address> numberIndex = SortedBeanIndex.of(Address.meta().number(), ALL);
+        BeanQueryEngine<Address> engine = BeanQueryEngine.of(ALL).withIndex(numberIndex);
+        assertEquals(engine.filter(BeanFilter.between(Address.meta().number(), 3, 2)), Collections.emptyList());
+        assertEquals(engine.filter(BeanFilter.between(Address.meta().number(), 3, true, 3, false)), Collections.emptyList());
+        assertEquals(engine.filter(BeanFilter.between(Address.meta().number(), 3, true, 3, true)), Arrays.asList(A));
+    }
+
+    public void test_filter_index_comparatorNotUsed() {
+        SortedBeanIndex<Integer, Address> numberIndex =
+                SortedBeanIndex.of(Address.meta().number(), Collections.<Integer>reverseOrder());
+        for (Address address : ALL) {
+            numberIndex.add(address);
+        }
+        BeanQueryEngine<Address> engine = BeanQueryEngine.of(ALL).withIndex(numberIndex);
+        // source order, as the index is not used
+        assertEquals(engine.filter(BeanFilter.between(Address.meta().number(), 2, 3)), Arrays.asList(A, C));
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_sort() {
+        BeanQueryEngine<Address> engine = BeanQueryEngine.of(ALL);
+        assertEquals(engine.sort(BeanFilter.all(), Address.meta().number()), Arrays.asList(B, C, A, D));
+        assertEquals(engine.sort(BeanFilter.equalTo(Address.meta().city(), "London"), Address.meta().street()), Arrays.asList(C, A));
+        assertEquals(engine.sort(BeanFilter.all(), Collections.reverseOrder(JodaBeanUtils.comparatorAscending(Address.meta().number()))),
+                Arrays.asList(D, A, C, B));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_sort_noKeys() {
+        BeanQueryEngine.of(ALL).sort(BeanFilter.all(), new BeanQuery<?>[0]);
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_aggregate() {
+        BeanQueryEngine<Address> engine = BeanQueryEngine.of(ALL);
+        BeanAggregate agg = engine.aggregate(BeanFilter.all(), Address.meta().number());
+        assertEquals(agg.getCount(), 4);
+        assertEquals(agg.getSum(), 11d, 0d);
+        assertEquals(agg.getMin(), 1d, 0d);
+        assertEquals(agg.getMax(), 5d, 0d);
+        assertEquals(agg.getAverage(), 2.75d, 0d);
+        assertTrue(Double.isNaN(engine.aggregate(BeanFilter.isNull(Address.meta().street()), Address.meta().number()).getAverage()));
+    }
+
+    public void test_group() {
+        BeanQueryEngine<Address> engine = BeanQueryEngine.of(ALL);
+        Map<String, BeanAggregate> groups = engine.group(BeanFilter.all(), Address.meta().city(), Address.meta().number());
+        assertEquals(new ArrayList<String>(groups.keySet()), Arrays.asList("London", "Paris", null));
+        assertEquals(groups.get("London").getCount(), 2);
+        assertEquals(groups.get("London").getSum(), 5d, 0d);
+        assertEquals(groups.get("London").getAverage(), 2.5d, 0d);
+        assertEquals(groups.get(null).getMax(), 5d, 0d);
+        
+        Map<String, BeanAggregate> counts = engine.group(BeanFilter.all(), Address.meta().city());
+        assertEquals(counts.get("London").getCount(), 2);
+        assertEquals(counts.get("London").getValueCount(), 0);
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_parallel() {
+        List<Address> beans = new ArrayList<Address>();
+        for (int i = 0; i < 50000; i++) {
+            beans.add(address((i * 7919) % 50000, "Street", "City" + (i % 10)));
+        }
+        BeanQueryEngine<Address> sequential = BeanQueryEngine.of(beans);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BeanQueryEngine<Address> parallel = sequential.withExecutor(executor);
+            BeanFilter filter = BeanFilter.between(Address.meta().number(), 100, 40000);
+            assertEquals(parallel.filter(filter), sequential.filter(filter));
+            assertEquals(parallel.sort(filter, Address.meta().city(), Address.meta().number()),
+                    sequential.sort(filter, Address.meta().city(), Address.meta().number()));
+            assertEquals(parallel.aggregate(filter, Address.meta().number()).getSum(),
+                    sequential.aggregate(filter, Address.meta().number()).getSum(), 0d);
+            assertEquals(parallel.group(filter, Address.meta().city(), Address.meta().number()),
+                    sequential.group(filter, Address.meta().city(), Address.meta().number()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
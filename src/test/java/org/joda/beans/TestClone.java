@@ -18,14 +18,23 @@ package org.joda.beans;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.joda.beans.gen.Address;
 import org.joda.beans.gen.ClonePerson;
 import org.joda.beans.gen.Company;
+import org.joda.beans.gen.ImmAddress;
+import org.joda.beans.gen.ImmPerson;
 import org.joda.beans.gen.NoClone;
+import org.joda.beans.gen.Person;
 import org.testng.annotations.Test;
 
 import java.lang.reflect.Method;
@@ -71,4 +80,112 @@ public class TestClone {
         }
     }
 
+    //-----------------------------------------------------------------------
+    public void test_cloneAlways_sharesImmutable() {
+        ImmAddress address = ImmAddress.builder()
+                .number(12)
+                .street("Park Lane")
+                .city("Smallville")
+                .owner(ImmPerson.builder().forename("John").surname("Doggett").build())
+                .build();
+        ImmPerson base = ImmPerson.builder().forename("John").surname("Doggett").mainAddress(address).build();
+        ImmPerson cloned = JodaBeanUtils.cloneAlways(base);
+        assertEquals(cloned, base);
+        assertNotSame(cloned, base);
+        assertSame(cloned.getMainAddress(), address);
+        assertSame(JodaBeanUtils.clone(base), base);
+    }
+
+    public void test_clone_sharedReferencesNotPreserved() {
+        Address address = new Address();
+        address.setCity("London");
+        ClonePerson base = new ClonePerson();
+        base.setDateOfBirth(new Date());
+        base.setAddresses(Arrays.asList(address, address));
+        ClonePerson cloned = JodaBeanUtils.clone(base);
+        assertEquals(cloned, base);
+        assertNotSame(cloned.getAddresses().get(0), cloned.getAddresses().get(1));
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_cloneGraph_sharedReferences() {
+        Address address = new Address();
+        address.setCity("London");
+        ClonePerson base = new ClonePerson();
+        base.setDateOfBirth(new Date());
+        base.setAddresses(Arrays.asList(address, address));
+        base.setMiddleNames(new String[] {"A", "B"});
+        ClonePerson cloned = JodaBeanUtils.cloneGraph(base);
+        assertEquals(cloned, base);
+        assertNotSame(cloned.getAddresses().get(0), address);
+        assertSame(cloned.getAddresses().get(0), cloned.getAddresses().get(1));
+        assertNotSame(cloned.getMiddleNames(), base.getMiddleNames());
+    }
+
+    public void test_cloneGraph_cycle() {
+        Person person = new Person();
+        person.setSurname("Cable");
+        Address address = new Address();
+        address.setCity("London");
+        address.setOwner(person);
+        person.setMainAddress(address);
+        person.getAddressList().add(address);
+        Person cloned = JodaBeanUtils.cloneGraph(person);
+        assertNotSame(cloned, person);
+        assertEquals(cloned.getSurname(), "Cable");
+        assertNotSame(cloned.getMainAddress(), address);
+        assertSame(cloned.getMainAddress().getOwner(), cloned);
+        assertSame(cloned.getAddressList().get(0), cloned.getMainAddress());
+    }
+
+    public void test_cloneGraph_cycleInList() {
+        List<List<Address>> list = new ArrayList<List<Address>>();
+        List<Address> inner = new ArrayList<Address>();
+        list.add(inner);
+        list.add(inner);
+        Person base = new Person();
+        base.setAddressesList(list);
+        Person cloned = JodaBeanUtils.cloneGraph(base);
+        assertEquals(cloned, base);
+        assertNotSame(cloned.getAddressesList().get(0), inner);
+        assertSame(cloned.getAddressesList().get(0), cloned.getAddressesList().get(1));
+    }
+
+    public void test_cloneGraph_null() {
+        assertNull(JodaBeanUtils.<Bean>cloneGraph(null));
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_cloneParallel() {
+        List<Address> addresses = new ArrayList<Address>();
+        for (int i = 0; i < 5000; i++) {
+            Address address = new Address();
+            address.setNumber(i);
+            address.setCity("City" + i);
+            addresses.add(address);
+        }
+        ClonePerson base = new ClonePerson();
+        base.setDateOfBirth(new Date());
+        base.setAddresses(addresses);
+        base.setCompanies(new Company[2000]);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ClonePerson cloned = JodaBeanUtils.cloneParallel(base, executor);
+            assertEquals(cloned, base);
+            assertEquals(cloned.getAddresses().size(), 5000);
+            for (int i = 0; i < 5000; i++) {
+                assertNotSame(cloned.getAddresses().get(i), addresses.get(i));
+                assertEquals(cloned.getAddresses().get(i).getNumber(), i);
+            }
+            assertEquals(cloned.getCompanies().length, 2000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_cloneParallel_nullExecutor() {
+        JodaBeanUtils.cloneParallel(new ClonePerson(), null);
+    }
+
 }
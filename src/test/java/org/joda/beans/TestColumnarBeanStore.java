@@ -0,0 +1,169 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.beans.gen.Address;
+import org.joda.beans.gen.CompanyAddress;
+import org.joda.beans.gen.ImmWith;
+import org.joda.beans.gen.PrimitiveBean;
+import org.joda.beans.query.ColumnarBeanStore;
+import org.joda.beans.query.ColumnarBeanStore.DictionaryColumn;
+import org.joda.beans.query.ColumnarBeanStore.DoubleColumn;
+import org.joda.beans.query.ColumnarBeanStore.IntColumn;
+import org.joda.beans.query.ColumnarBeanStore.ObjectColumn;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test ColumnarBeanStore.
+ */
+@Test
+public class TestColumnarBeanStore {
+
+    private static ImmWith imm(String name, int age, double score) {
+        return ImmWith.builder().name(name).age(age).score(score).tags(ImmutableList.of(name)).build();
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_immutable() {
+        List<ImmWith> beans = new ArrayList<ImmWith>();
+        for (int i = 0; i < 100; i++) {
+            beans.add(imm(i % 2 == 0 ? "Even" : "Odd", i, i * 0.5d));
+        }
+        ColumnarBeanStore<ImmWith> store = ColumnarBeanStore.of(ImmWith.meta(), beans);
+        assertEquals(store.size(), 100);
+        assertEquals(store.getMetaBean(), ImmWith.meta());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(store.get(i), beans.get(i));
+        }
+        List<ImmWith> iterated = new ArrayList<ImmWith>();
+        for (ImmWith bean : store) {
+            iterated.add(bean);
+        }
+        assertEquals(iterated, beans);
+        assertTrue(store.column(ImmWith.meta().tags()) instanceof ObjectColumn);
+    }
+
+    public void test_numericColumns() {
+        ColumnarBeanStore<ImmWith> store = ColumnarBeanStore.of(ImmWith.meta());
+        store.add(imm("A", 1, 1.5d));
+        store.add(imm("B", 2, 2.5d));
+        store.add(imm("C", 3, -1d));
+        
+        DoubleColumn score = store.doubleColumn(ImmWith.meta().score());
+        assertEquals(score.size(), 3);
+        assertEquals(score.get(1), 2.5d, 0d);
+        assertEquals(score.sum(), 3d, 0d);
+        assertEquals(score.min(), -1d, 0d);
+        assertEquals(score.max(), 2.5d, 0d);
+        assertEquals(score.findRows(0d, 2d), new int[] {0});
+        assertEquals(score.toArray(), new double[] {1.5d, 2.5d, -1d});
+        
+        IntColumn age = store.intColumn(ImmWith.meta().age());
+        assertEquals(age.sum(), 6);
+        assertEquals(age.findRows(2, 3), new int[] {1, 2});
+        assertEquals(age.getValue(0), 1);
+    }
+
+    public void test_dictionaryColumn() {
+        Address a = new Address();
+        a.setCity("London");
+        Address b = new Address();
+        b.setCity("Paris");
+        Address c = new Address();
+        c.setCity("London");
+        Address d = new Address();
+        ColumnarBeanStore<Address> store = ColumnarBeanStore.of(Address.meta(), Arrays.asList(a, b, c, d));
+        
+        DictionaryColumn city = store.dictionaryColumn(Address.meta().city());
+        assertEquals(city.dictionarySize(), 2);
+        assertEquals(city.codeOf("London"), 0);
+        assertEquals(city.codeOf("Paris"), 1);
+        assertEquals(city.codeOf("Rome"), -2);
+        assertEquals(city.codeOf(null), -1);
+        assertEquals(city.getCode(3), -1);
+        assertEquals(city.decode(1), "Paris");
+        assertEquals(city.findRows("London"), new int[] {0, 2});
+        assertEquals(city.findRows(null), new int[] {3});
+        assertEquals(city.findRows("Rome"), new int[0]);
+        assertEquals(city.countByCode(), new int[] {2, 1});
+        assertEquals(store.get(2), c);
+        assertEquals(store.get(3), d);
+    }
+
+    public void test_primitives() {
+        PrimitiveBean bean = new PrimitiveBean();
+        bean.setValueLong(1L << 40);
+        bean.setValueInt(-3);
+        bean.setValueShort((short) 4);
+        bean.setValueByte((byte) -5);
+        bean.setValueDouble(6.5d);
+        bean.setValueFloat(7.25f);
+        bean.setValueChar('z');
+        bean.setValueBoolean(true);
+        ColumnarBeanStore<PrimitiveBean> store = ColumnarBeanStore.of(PrimitiveBean.meta(), Arrays.asList(bean, new PrimitiveBean()));
+        assertEquals(store.get(0), bean);
+        assertEquals(store.get(1), new PrimitiveBean());
+        assertEquals(store.longColumn(PrimitiveBean.meta().valueLong()).sum(), 1L << 40);
+        assertEquals(store.booleanColumn(PrimitiveBean.meta().valueBoolean()).countTrue(), 1);
+        assertEquals(store.booleanColumn(PrimitiveBean.meta().valueBoolean()).findRows(false), new int[] {1});
+        assertEquals(store.intColumn(PrimitiveBean.meta().valueChar()).get(0), 'z');
+    }
+
+    public void test_growth() {
+        ColumnarBeanStore<ImmWith> store = ColumnarBeanStore.of(ImmWith.meta());
+        for (int i = 0; i < 1000; i++) {
+            store.add(imm("N", i, 1d));
+        }
+        assertEquals(store.size(), 1000);
+        assertEquals(store.doubleColumn(ImmWith.meta().score()).sum(), 1000d, 0d);
+        assertEquals(store.get(999).getAge(), 999);
+    }
+
+    //-------------------------------------------------------------------------
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void test_get_invalidRow() {
+        ColumnarBeanStore<ImmWith> store = ColumnarBeanStore.of(ImmWith.meta());
+        store.get(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_add_subclass() {
+        ColumnarBeanStore<Address> store = ColumnarBeanStore.of(Address.meta());
+        store.add(new CompanyAddress());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_column_wrongType() {
+        ColumnarBeanStore<ImmWith> store = ColumnarBeanStore.of(ImmWith.meta());
+        store.doubleColumn(ImmWith.meta().age());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_column_unknown() {
+        ColumnarBeanStore<ImmWith> store = ColumnarBeanStore.of(ImmWith.meta());
+        store.column("rubbish");
+    }
+
+}
@@ -16,12 +16,20 @@
 package org.joda.beans;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.joda.beans.impl.flexi.FlexiBean;
 import org.testng.annotations.Test;
@@ -126,4 +134,102 @@ public class TestFlexiBean {
         flexi.put("bad-name", "a");
     }
 
+    //-----------------------------------------------------------------------
+    public void test_removeAndReAdd_order() {
+        FlexiBean test = new FlexiBean();
+        test.set("a", "x");
+        test.set("b", "y");
+        test.set("c", "z");
+        test.remove("a");
+        test.set("a", "w");
+        assertEquals(new ArrayList<String>(test.propertyNames()), Arrays.asList("b", "c", "a"));
+        assertEquals(test.get("a"), "w");
+        assertEquals(test.toString(), "FlexiBean{b=y, c=z, a=w}");
+    }
+
+    public void test_propertyNames_remove() {
+        FlexiBean test = new FlexiBean();
+        test.set("a", "x");
+        test.set("b", "y");
+        Iterator<String> it = test.propertyNames().iterator();
+        assertEquals(it.next(), "a");
+        it.remove();
+        assertEquals(test.size(), 1);
+        assertEquals(test.propertyNames().remove("b"), true);
+        assertEquals(test.size(), 0);
+    }
+
+    public void test_manyProperties() {
+        FlexiBean test = new FlexiBean();
+        for (int i = 0; i < 200; i++) {
+            test.set("p" + i, i);
+        }
+        assertEquals(test.size(), 200);
+        assertEquals(test.get("p150"), 150);
+        test.remove("p0");
+        assertEquals(test.size(), 199);
+        assertNull(test.get("p0"));
+        assertEquals(test.propertyNames().iterator().next(), "p1");
+        assertEquals(test.metaBean().metaPropertyCount(), 199);
+    }
+
+    public void test_equalsHashCode_insertionOrder() {
+        FlexiBean a = new FlexiBean();
+        a.set("a", "x");
+        a.set("b", null);
+        FlexiBean b = new FlexiBean();
+        b.set("b", null);
+        b.set("a", "x");
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("a", "x");
+        map.put("b", null);
+        assertEquals(a.hashCode(), map.hashCode());
+    }
+
+    public void test_equalsHashCode_arrays() {
+        // arrays are compared by identity, as in a map
+        int[] array = new int[] {1, 2};
+        FlexiBean a = new FlexiBean();
+        a.set("a", array);
+        FlexiBean b = new FlexiBean();
+        b.set("a", new int[] {1, 2});
+        assertFalse(a.equals(b));
+        b.set("a", array);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("a", array);
+        assertEquals(a.hashCode(), map.hashCode());
+        // dictionary mode
+        FlexiBean c = new FlexiBean();
+        for (int i = 0; i < 100; i++) {
+            c.set("p" + i, i);
+        }
+        c.set("a", array);
+        FlexiBean d = new FlexiBean(c);
+        d.set("a", new int[] {1, 2});
+        assertFalse(c.equals(d));
+        d.set("a", array);
+        assertEquals(c, d);
+        assertEquals(c.hashCode(), d.hashCode());
+    }
+
+    public void test_serialization_order() throws Exception {
+        FlexiBean base = new FlexiBean();
+        base.set("a", "x");
+        base.set("b", 6);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(base);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        FlexiBean test = (FlexiBean) ois.readObject();
+        assertEquals(test, base);
+        assertEquals(test.toString(), "FlexiBean{a=x, b=6}");
+        test.set("c", "z");
+        assertEquals(test.metaBean().metaPropertyCount(), 3);
+    }
+
 }
@@ -16,6 +16,8 @@
 package org.joda.beans;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
 import java.util.Calendar;
 import java.util.GregorianCalendar;
@@ -28,6 +30,7 @@ import org.joda.beans.gen.ImmPerson;
 import org.joda.beans.gen.ImmPersonNonFinal;
 import org.joda.beans.gen.ImmSubPersonNonFinal;
 import org.joda.beans.gen.ImmSubSubPersonFinal;
+import org.joda.beans.gen.ImmWith;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
@@ -83,6 +86,53 @@ public class TestImmutable {
         assertEquals(address.getStreet(), "Park Road");
     }
 
+    public void test_withMethods() {
+        ImmutableList<String> tags = ImmutableList.of("a", "b");
+        ImmWith base = ImmWith.builder().name("Etienne").age(30).score(1.5d).tags(tags).codes("X").build();
+        
+        ImmWith test = base.withName("Amelie");
+        assertEquals(test.getName(), "Amelie");
+        assertEquals(test.getAge(), 30);
+        assertSame(test.getTags(), base.getTags());
+        assertEquals(test, base.toBuilder().name("Amelie").build());
+        
+        assertEquals(base.withAge(31).getAge(), 31);
+        assertEquals(base.withScore(2.5d).getScore(), 2.5d, 0d);
+        assertEquals(base.withTags(ImmutableList.of("c")).getTags(), ImmutableList.of("c"));
+        assertEquals(base.withCodes(new String[] {"Y"}).getCodes(), new String[] {"Y"});
+    }
+
+    public void test_withMethods_unchanged() {
+        ImmutableList<String> tags = ImmutableList.of("a", "b");
+        ImmWith base = ImmWith.builder().name("Etienne").age(30).score(Double.NaN).tags(tags).build();
+        assertSame(base.withName(base.getName()), base);
+        assertSame(base.withAge(30), base);
+        assertSame(base.withScore(Double.NaN), base);
+        assertSame(base.withTags(tags), base);
+        assertSame(base.withCodes(null), base);
+        assertNotSame(base.withName("Etienne2"), base);
+    }
+
+    public void test_withMethods_copiesNewValue() {
+        ImmWith base = ImmWith.builder().name("Etienne").tags(ImmutableList.<String>of()).build();
+        String[] codes = new String[] {"X"};
+        ImmWith test = base.withCodes(codes);
+        codes[0] = "Y";
+        assertEquals(test.getCodes(), new String[] {"X"});
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_withMethods_validatesNewValue() {
+        ImmWith base = ImmWith.builder().name("Etienne").tags(ImmutableList.<String>of()).build();
+        base.withName(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_withMethods_runsValidator() {
+        ImmWith base = ImmWith.builder().name("Etienne").tags(ImmutableList.<String>of()).build();
+        base.withAge(-1);
+    }
+
     //-----------------------------------------------------------------------
     @Test(expectedExceptions=NoSuchElementException.class)
     public void test_builder_getInvalidPropertyName() {
@@ -162,6 +162,35 @@ public class TestJodaBeanUtils {
         assertEquals(JodaBeanUtils.propertiesHashCode(a), JodaBeanUtils.propertiesHashCode(b));
     }
 
+    public void test_propertiesEqual_propertiesHashCode_sameType() {
+        Pair a = new Pair();
+        a.setFirst("A");
+        Pair b = new Pair();
+        b.setFirst("A");
+        assertEquals(JodaBeanUtils.propertiesEqual(a, b), true);
+        assertEquals(JodaBeanUtils.propertiesHashCode(a), JodaBeanUtils.propertiesHashCode(b));
+        
+        b.setSecond("B");
+        assertEquals(JodaBeanUtils.propertiesEqual(a, b), false);
+        assertEquals(JodaBeanUtils.propertiesEqual(b, a), false);
+        
+        Address address = new Address();
+        assertEquals(JodaBeanUtils.propertiesEqual(a, address), false);
+        assertEquals(JodaBeanUtils.propertiesEqual(address, a), false);
+    }
+
+    public void test_propertiesToString() {
+        Pair a = new Pair();
+        a.setFirst("A");
+        assertEquals(JodaBeanUtils.propertiesToString(a, "Pair"), "Pair{first=A, second=null}");
+        assertEquals(JodaBeanUtils.propertiesToString(a, null), "{first=A, second=null}");
+        
+        FlexiBean b = new FlexiBean();
+        assertEquals(JodaBeanUtils.propertiesToString(b, "Flexi"), "Flexi{}");
+        b.set("first", "A");
+        assertEquals(JodaBeanUtils.propertiesToString(b, "Flexi"), "Flexi{first=A}");
+    }
+
     //-------------------------------------------------------------------------
     public void test_equal() {
         assertEquals(JodaBeanUtils.equal("A", new Character('A').toString()), true);
@@ -17,15 +17,22 @@ package org.joda.beans;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Currency;
+import java.util.NoSuchElementException;
 
 import org.joda.beans.gen.ImmPerson;
 import org.joda.beans.gen.Light;
 import org.joda.beans.gen.MutableLight;
+import org.joda.beans.gen.UngeneratedLight;
+import org.joda.beans.gen.UngeneratedPoint;
 import org.joda.beans.impl.StandaloneMetaProperty;
+import org.joda.beans.impl.light.LightMetaBean;
 import org.joda.beans.ser.JodaBeanSer;
 import org.testng.annotations.Test;
 
@@ -123,4 +130,76 @@ public class TestLight {
         assertFalse(JodaBeanSer.PRETTY.xmlWriter().write(bean).contains("<town>"));
     }
 
+    @SuppressWarnings("unchecked")
+    public void test_immutable_with() {
+        ImmPerson person = ImmPerson.builder().forename("John").surname("Doggett").build();
+        Light bean = (Light) Light.meta().builder()
+                .set("number", 12)
+                .set("street", "Park Lane")
+                .set("city", "Smallville")
+                .set("owner", person)
+                .set("list", ImmutableList.of("a"))
+                .build();
+        LightMetaBean<Light> meta = (LightMetaBean<Light>) Light.meta();
+        
+        Light test = meta.with(bean, meta.metaProperty("city"), "Metropolis");
+        assertNotSame(test, bean);
+        assertEquals(test.getCity(), "Metropolis");
+        assertEquals(test.getNumber(), 12);
+        assertSame(test.getOwner(), person);
+        assertSame(test.getList(), bean.getList());
+        
+        assertEquals(meta.with(bean, meta.metaProperty("number"), 13).getNumber(), 13);
+        assertSame(meta.with(bean, meta.metaProperty("number"), 12), bean);
+        assertSame(meta.with(bean, meta.metaProperty("owner"), person), bean);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void test_immutable_with_invalidProperty() {
+        LightMetaBean<Light> meta = (LightMetaBean<Light>) Light.meta();
+        Light bean = (Light) meta.builder()
+                .set("street", "Park Lane")
+                .set("city", "Smallville")
+                .set("owner", ImmPerson.builder().forename("John").surname("Doggett").build())
+                .set("list", ImmutableList.of())
+                .build();
+        meta.with(bean, ImmPerson.meta().forename(), "Fox");
+    }
+
+    public void test_synthesized_perCall() {
+        MetaBean meta = JodaBeanUtils.metaBean(UngeneratedLight.class, true);
+        assertEquals(meta.beanType(), UngeneratedLight.class);
+        assertEquals(meta.metaPropertyCount(), 2);
+        assertSame(JodaBeanUtils.metaBean(UngeneratedLight.class), meta);
+        
+        UngeneratedLight bean = (UngeneratedLight) meta.builder()
+                .setString("number", "12")
+                .set("name", "Park Lane")
+                .build();
+        assertEquals(bean.getNumber(), 12);
+        assertEquals(bean.getName(), "Park Lane");
+        assertEquals(bean.metaBean(), meta);
+        assertEquals(bean.property("name").get(), "Park Lane");
+        assertEquals(meta.metaProperty("number").style(), PropertyStyle.IMMUTABLE);
+        assertEquals(JodaBeanUtils.clone(bean), bean);
+    }
+
+    public void test_synthesized_settings() {
+        try {
+            JodaBeanUtils.metaBean(UngeneratedPoint.class);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected, as the bean does not opt in and no reader has synthesized it
+        }
+        String json = "{\"@bean\":\"" + UngeneratedPoint.class.getName() + "\",\"x\":3,\"y\":4}";
+        assertFalse(JodaBeanSer.COMPACT.isMetaBeanSynthesis());
+        JodaBeanSer settings = JodaBeanSer.COMPACT.withMetaBeanSynthesis(true);
+        assertTrue(settings.isMetaBeanSynthesis());
+        UngeneratedPoint bean = (UngeneratedPoint) settings.jsonReader().read(json);
+        assertEquals(bean.getX(), 3);
+        assertEquals(bean.getY(), 4);
+        assertEquals(JodaBeanUtils.metaBean(UngeneratedPoint.class).beanType(), UngeneratedPoint.class);
+    }
+
 }
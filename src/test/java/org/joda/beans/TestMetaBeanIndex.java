@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test MetaBeanIndex.
+ */
+@Test
+public class TestMetaBeanIndex {
+
+    /** Set by the static initializer of the test bean. */
+    public static volatile boolean beanInitialized;
+
+    public void test_load_find() throws Exception {
+        File dir = File.createTempFile("joda-beans", "index");
+        dir.delete();
+        File file = new File(dir, MetaBeanIndex.RESOURCE);
+        file.getParentFile().mkdirs();
+        Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            out.write("# test\n");
+            out.write("org.joda.beans.gen.MetaBeanIndexLoad=org.joda.beans.gen.MetaBeanIndexLoad$Meta\n");
+            out.write("org.joda.beans.gen.Unknown=org.joda.beans.gen.Unknown$Meta\n");
+        } finally {
+            out.close();
+        }
+        try {
+            ClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()}, null);
+            assertEquals(MetaBeanIndex.load(loader), 2);
+            assertEquals(MetaBeanIndex.load(loader), 0);
+            
+            Class<?> cls = Class.forName("org.joda.beans.gen.MetaBeanIndexLoad", false, getClass().getClassLoader());
+            MetaBean metaBean = JodaBeanUtils.metaBean(cls);
+            assertFalse(beanInitialized);
+            assertEquals(metaBean.beanType(), cls);
+            assertEquals(metaBean.metaPropertyCount(), 1);
+            assertSame(JodaBeanUtils.metaBean(cls), metaBean);
+            
+            Bean bean = metaBean.builder().set("name", "Stephen").build();
+            assertTrue(beanInitialized);
+            assertEquals(bean.property("name").get(), "Stephen");
+            assertSame(JodaBeanUtils.metaBean(cls), metaBean);
+        } finally {
+            MetaBeanIndex.clear();
+            file.delete();
+            file.getParentFile().delete();
+            file.getParentFile().getParentFile().delete();
+            dir.delete();
+        }
+    }
+
+}
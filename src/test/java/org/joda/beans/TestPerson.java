@@ -255,6 +255,13 @@ public class TestPerson {
         
         assertEquals(test.size(), 1);
         assertEquals(test.get(0) instanceof PropertyDefinition, true);
+        assertSame(prop.annotations(), test);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void test_metaProperty_annotations_unmodifiable() {
+        MetaProperty<List<Address>> prop = Person.meta().addressList();
+        prop.annotations().clear();
     }
 
     public void test_metaProperty_annotations_extensions() {
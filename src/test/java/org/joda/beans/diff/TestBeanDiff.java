@@ -0,0 +1,162 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.diff;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.joda.beans.gen.Address;
+import org.joda.beans.gen.ImmAddress;
+import org.joda.beans.gen.ImmPerson;
+import org.joda.beans.gen.Person;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test BeanDiff.
+ */
+@Test
+public class TestBeanDiff {
+
+    private static final ImmPerson OWNER = ImmPerson.builder().forename("John").surname("Doggett").build();
+    private static final ImmAddress ADDRESS = ImmAddress.builder()
+            .number(12)
+            .street("Park Lane")
+            .city("Smallville")
+            .owner(OWNER)
+            .build();
+
+    //-----------------------------------------------------------------------
+    public void test_diff_same() {
+        assertSame(BeanDiff.diff(ADDRESS, ADDRESS), BeanPatch.EMPTY);
+        assertSame(BeanDiff.diff(ADDRESS, ADDRESS.toBuilder().build()), BeanPatch.EMPTY);
+    }
+
+    public void test_diff_simple() {
+        ImmAddress changed = ADDRESS.toBuilder().street("Park Road").number(13).build();
+        BeanPatch patch = BeanDiff.diff(ADDRESS, changed);
+        assertEquals(patch.size(), 2);
+        assertEquals(patch.getChanges().get(0), PropertyChange.of(ImmAddress.meta().number(), 12, 13));
+        assertEquals(patch.getChanges().get(1), PropertyChange.of(ImmAddress.meta().street(), "Park Lane", "Park Road"));
+        assertEquals(patch.getChanges().get(1).getPathName(), "street");
+        assertEquals(patch.getChanges().get(1).toString(), "street: Park Lane -> Park Road");
+    }
+
+    public void test_diff_nested() {
+        ImmPerson owner = OWNER.toBuilder().surname("Scully").build();
+        ImmAddress changed = ADDRESS.toBuilder().owner(owner).build();
+        BeanPatch patch = BeanDiff.diff(ADDRESS, changed);
+        assertEquals(patch.size(), 1);
+        PropertyChange change = patch.getChanges().get(0);
+        assertEquals(change.getPath(), ImmutableList.of(ImmAddress.meta().owner(), ImmPerson.meta().surname()));
+        assertEquals(change.getPathName(), "owner.surname");
+        assertEquals(change.getMetaProperty(), ImmPerson.meta().surname());
+        assertEquals(change.getOldValue(), "Doggett");
+        assertEquals(change.getNewValue(), "Scully");
+    }
+
+    public void test_diff_nestedNull() {
+        Person person = new Person();
+        Address base = new Address();
+        base.setOwner(person);
+        Address changed = new Address();
+        BeanPatch patch = BeanDiff.diff(base, changed);
+        assertEquals(patch, BeanPatch.of(PropertyChange.of(Address.meta().owner(), person, null)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_diff_differentMetaBean() {
+        BeanDiff.diff(ADDRESS, OWNER);
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_apply() {
+        ImmPerson owner = OWNER.toBuilder().surname("Scully").build();
+        ImmAddress changed = ADDRESS.toBuilder().owner(owner).city("Metropolis").build();
+        BeanPatch patch = BeanDiff.diff(ADDRESS, changed);
+        
+        ImmAddress test = BeanDiff.apply(patch, ADDRESS);
+        assertEquals(test, changed);
+        assertNotSame(test.getOwner(), owner);
+        assertSame(test.getStreet(), ADDRESS.getStreet());
+        
+        assertEquals(BeanDiff.apply(patch.reverse(), test), ADDRESS);
+    }
+
+    public void test_apply_sharesUntouched() {
+        ImmAddress changed = ADDRESS.toBuilder().number(99).build();
+        ImmAddress test = BeanDiff.apply(BeanDiff.diff(ADDRESS, changed), ADDRESS);
+        assertEquals(test.getNumber(), 99);
+        assertSame(test.getOwner(), OWNER);
+    }
+
+    public void test_apply_empty() {
+        assertSame(BeanDiff.apply(BeanPatch.EMPTY, ADDRESS), ADDRESS);
+    }
+
+    public void test_apply_mutable() {
+        Person person = new Person();
+        person.setForename("John");
+        Address base = new Address();
+        base.setStreet("Park Lane");
+        base.setOwner(person);
+        Person person2 = new Person();
+        person2.setForename("Jane");
+        Address changed = new Address();
+        changed.setStreet("Park Lane");
+        changed.setOwner(person2);
+        
+        BeanPatch patch = BeanDiff.diff(base, changed);
+        assertEquals(patch.size(), 1);
+        assertEquals(patch.getChanges().get(0).getPathName(), "owner.forename");
+        
+        Address test = BeanDiff.apply(patch, base);
+        assertNotSame(test, base);
+        assertEquals(test.getOwner().getForename(), "Jane");
+        assertEquals(base.getOwner().getForename(), "John");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_apply_mismatch() {
+        ImmAddress changed = ADDRESS.toBuilder().street("Park Road").build();
+        BeanPatch patch = BeanDiff.diff(ADDRESS, changed);
+        BeanDiff.apply(patch, changed);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_apply_conflict() {
+        BeanPatch patch = BeanPatch.of(
+                PropertyChange.of(ImmAddress.meta().owner(), OWNER, null),
+                PropertyChange.of(ImmutableList.of(ImmAddress.meta().owner(), ImmPerson.meta().surname()), "Doggett", "Scully"));
+        BeanDiff.apply(patch, ADDRESS);
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_patch() {
+        PropertyChange change = PropertyChange.of(ImmAddress.meta().street(), "A", "B");
+        BeanPatch patch = BeanPatch.of(change);
+        assertEquals(patch.isEmpty(), false);
+        assertEquals(patch.reverse().getChanges().get(0), PropertyChange.of(ImmAddress.meta().street(), "B", "A"));
+        assertEquals(patch, BeanPatch.of(ImmutableList.of(change)));
+        assertEquals(patch.hashCode(), BeanPatch.of(ImmutableList.of(change)).hashCode());
+        assertTrue(patch.iterator().hasNext());
+        assertSame(BeanPatch.of(ImmutableList.<PropertyChange>of()), BeanPatch.EMPTY);
+    }
+
+}
@@ -0,0 +1,1071 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.gen;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.DerivedProperty;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.ser.bin.BinBeanInput;
+import org.joda.beans.ser.bin.BinBeanOutput;
+import org.joda.beans.ser.bin.BinBeanSerializer;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Mock immutable bean to test generated binary serializers.
+ * 
+ * @author Stephen Colebourne
+ */
+@BeanDefinition(binSerializer = true)
+public final class ImmBinSerializer implements ImmutableBean {
+
+    @PropertyDefinition(alias = "label")
+    private final String name;
+    @PropertyDefinition
+    private final int count;
+    @PropertyDefinition
+    private final long total;
+    @PropertyDefinition
+    private final short small;
+    @PropertyDefinition
+    private final byte tiny;
+    @PropertyDefinition
+    private final double price;
+    @PropertyDefinition
+    private final float ratio;
+    @PropertyDefinition
+    private final boolean active;
+    @PropertyDefinition
+    private final Integer boxed;
+    @PropertyDefinition(validate = "notNull")
+    private final ImmutableList<String> tags;
+    @PropertyDefinition(get = "clone")
+    private final int[] codes;
+    @PropertyDefinition
+    private final ImmBinSerializer child;
+
+    @DerivedProperty
+    public String getSummary() {
+        return name + ":" + count;
+    }
+
+    //------------------------- AUTOGENERATED START -------------------------
+    ///CLOVER:OFF
+    /**
+     * The meta-bean for {@code ImmBinSerializer}.
+     * @return the meta-bean, not null
+     */
+    public static ImmBinSerializer.Meta meta() {
+        return ImmBinSerializer.Meta.INSTANCE;
+    }
+
+    static {
+        JodaBeanUtils.registerMetaBean(ImmBinSerializer.Meta.INSTANCE);
+    }
+
+    /**
+     * Returns a builder used to create an instance of the bean.
+     * @return the builder, not null
+     */
+    public static ImmBinSerializer.Builder builder() {
+        return new ImmBinSerializer.Builder();
+    }
+
+    private ImmBinSerializer(
+            String name,
+            int count,
+            long total,
+            short small,
+            byte tiny,
+            double price,
+            float ratio,
+            boolean active,
+            Integer boxed,
+            List<String> tags,
+            int[] codes,
+            ImmBinSerializer child) {
+        JodaBeanUtils.notNull(tags, "tags");
+        this.name = name;
+        this.count = count;
+        this.total = total;
+        this.small = small;
+        this.tiny = tiny;
+        this.price = price;
+        this.ratio = ratio;
+        this.active = active;
+        this.boxed = boxed;
+        this.tags = ImmutableList.copyOf(tags);
+        this.codes = (codes != null ? codes.clone() : null);
+        this.child = child;
+    }
+
+    @Override
+    public ImmBinSerializer.Meta metaBean() {
+        return ImmBinSerializer.Meta.INSTANCE;
+    }
+
+    @Override
+    public <R> Property<R> property(String propertyName) {
+        return metaBean().<R>metaProperty(propertyName).createProperty(this);
+    }
+
+    @Override
+    public Set<String> propertyNames() {
+        return metaBean().metaPropertyMap().keySet();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the name.
+     * @return the value of the property
+     */
+    public String getName() {
+        return name;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the count.
+     * @return the value of the property
+     */
+    public int getCount() {
+        return count;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the total.
+     * @return the value of the property
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the small.
+     * @return the value of the property
+     */
+    public short getSmall() {
+        return small;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the tiny.
+     * @return the value of the property
+     */
+    public byte getTiny() {
+        return tiny;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the price.
+     * @return the value of the property
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the ratio.
+     * @return the value of the property
+     */
+    public float getRatio() {
+        return ratio;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the active.
+     * @return the value of the property
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the boxed.
+     * @return the value of the property
+     */
+    public Integer getBoxed() {
+        return boxed;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the tags.
+     * @return the value of the property, not null
+     */
+    public ImmutableList<String> getTags() {
+        return tags;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the codes.
+     * @return the value of the property
+     */
+    public int[] getCodes() {
+        return (codes != null ? codes.clone() : null);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the child.
+     * @return the value of the property
+     */
+    public ImmBinSerializer getChild() {
+        return child;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a builder that allows this bean to be mutated.
+     * @return the mutable builder, not null
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj != null && obj.getClass() == this.getClass()) {
+            ImmBinSerializer other = (ImmBinSerializer) obj;
+            return JodaBeanUtils.equal(name, other.name) &&
+                    (count == other.count) &&
+                    (total == other.total) &&
+                    (small == other.small) &&
+                    (tiny == other.tiny) &&
+                    JodaBeanUtils.equal(price, other.price) &&
+                    JodaBeanUtils.equal(ratio, other.ratio) &&
+                    (active == other.active) &&
+                    JodaBeanUtils.equal(boxed, other.boxed) &&
+                    JodaBeanUtils.equal(tags, other.tags) &&
+                    JodaBeanUtils.equal(codes, other.codes) &&
+                    JodaBeanUtils.equal(child, other.child);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = getClass().hashCode();
+        hash = hash * 31 + JodaBeanUtils.hashCode(name);
+        hash = hash * 31 + JodaBeanUtils.hashCode(count);
+        hash = hash * 31 + JodaBeanUtils.hashCode(total);
+        hash = hash * 31 + JodaBeanUtils.hashCode(small);
+        hash = hash * 31 + JodaBeanUtils.hashCode(tiny);
+        hash = hash * 31 + JodaBeanUtils.hashCode(price);
+        hash = hash * 31 + JodaBeanUtils.hashCode(ratio);
+        hash = hash * 31 + JodaBeanUtils.hashCode(active);
+        hash = hash * 31 + JodaBeanUtils.hashCode(boxed);
+        hash = hash * 31 + JodaBeanUtils.hashCode(tags);
+        hash = hash * 31 + JodaBeanUtils.hashCode(codes);
+        hash = hash * 31 + JodaBeanUtils.hashCode(child);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(448);
+        buf.append("ImmBinSerializer{");
+        buf.append("name").append('=').append(name).append(',').append(' ');
+        buf.append("count").append('=').append(count).append(',').append(' ');
+        buf.append("total").append('=').append(total).append(',').append(' ');
+        buf.append("small").append('=').append(small).append(',').append(' ');
+        buf.append("tiny").append('=').append(tiny).append(',').append(' ');
+        buf.append("price").append('=').append(price).append(',').append(' ');
+        buf.append("ratio").append('=').append(ratio).append(',').append(' ');
+        buf.append("active").append('=').append(active).append(',').append(' ');
+        buf.append("boxed").append('=').append(boxed).append(',').append(' ');
+        buf.append("tags").append('=').append(tags).append(',').append(' ');
+        buf.append("codes").append('=').append(codes).append(',').append(' ');
+        buf.append("child").append('=').append(child).append(',').append(' ');
+        buf.append("summary").append('=').append(JodaBeanUtils.toString(getSummary()));
+        buf.append('}');
+        return buf.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-bean for {@code ImmBinSerializer}.
+     */
+    public static final class Meta extends DirectMetaBean implements BinBeanSerializer<ImmBinSerializer> {
+        /**
+         * The singleton instance of the meta-bean.
+         */
+        static final Meta INSTANCE = new Meta();
+
+        /**
+         * The meta-property for the {@code name} property.
+         */
+        private final MetaProperty<String> name = DirectMetaProperty.ofImmutable(
+                this, "name", ImmBinSerializer.class, String.class);
+        /**
+         * The meta-property for the {@code count} property.
+         */
+        private final MetaProperty<Integer> count = DirectMetaProperty.ofImmutable(
+                this, "count", ImmBinSerializer.class, Integer.TYPE);
+        /**
+         * The meta-property for the {@code total} property.
+         */
+        private final MetaProperty<Long> total = DirectMetaProperty.ofImmutable(
+                this, "total", ImmBinSerializer.class, Long.TYPE);
+        /**
+         * The meta-property for the {@code small} property.
+         */
+        private final MetaProperty<Short> small = DirectMetaProperty.ofImmutable(
+                this, "small", ImmBinSerializer.class, Short.TYPE);
+        /**
+         * The meta-property for the {@code tiny} property.
+         */
+        private final MetaProperty<Byte> tiny = DirectMetaProperty.ofImmutable(
+                this, "tiny", ImmBinSerializer.class, Byte.TYPE);
+        /**
+         * The meta-property for the {@code price} property.
+         */
+        private final MetaProperty<Double> price = DirectMetaProperty.ofImmutable(
+                this, "price", ImmBinSerializer.class, Double.TYPE);
+        /**
+         * The meta-property for the {@code ratio} property.
+         */
+        private final MetaProperty<Float> ratio = DirectMetaProperty.ofImmutable(
+                this, "ratio", ImmBinSerializer.class, Float.TYPE);
+        /**
+         * The meta-property for the {@code active} property.
+         */
+        private final MetaProperty<Boolean> active = DirectMetaProperty.ofImmutable(
+                this, "active", ImmBinSerializer.class, Boolean.TYPE);
+        /**
+         * The meta-property for the {@code boxed} property.
+         */
+        private final MetaProperty<Integer> boxed = DirectMetaProperty.ofImmutable(
+                this, "boxed", ImmBinSerializer.class, Integer.class);
+        /**
+         * The meta-property for the {@code tags} property.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes" })
+        private final MetaProperty<ImmutableList<String>> tags = DirectMetaProperty.ofImmutable(
+                this, "tags", ImmBinSerializer.class, (Class) ImmutableList.class);
+        /**
+         * The meta-property for the {@code codes} property.
+         */
+        private final MetaProperty<int[]> codes = DirectMetaProperty.ofImmutable(
+                this, "codes", ImmBinSerializer.class, int[].class);
+        /**
+         * The meta-property for the {@code child} property.
+         */
+        private final MetaProperty<ImmBinSerializer> child = DirectMetaProperty.ofImmutable(
+                this, "child", ImmBinSerializer.class, ImmBinSerializer.class);
+        /**
+         * The meta-property for the {@code summary} property.
+         */
+        private final MetaProperty<String> summary = DirectMetaProperty.ofDerived(
+                this, "summary", ImmBinSerializer.class, String.class);
+        /**
+         * The meta-properties.
+         */
+        private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+                this, null,
+                "name",
+                "count",
+                "total",
+                "small",
+                "tiny",
+                "price",
+                "ratio",
+                "active",
+                "boxed",
+                "tags",
+                "codes",
+                "child",
+                "summary");
+
+        /**
+         * The encoded names of the serialized properties.
+         */
+        private final byte[][] binNames$ = BinBeanOutput.encodeNames(
+                "name",
+                "count",
+                "total",
+                "small",
+                "tiny",
+                "price",
+                "ratio",
+                "active",
+                "boxed",
+                "tags",
+                "codes",
+                "child");
+
+        /**
+         * Restricted constructor.
+         */
+        private Meta() {
+        }
+
+        @Override
+        protected MetaProperty<?> metaPropertyGet(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    return name;
+                case 94851343:  // count
+                    return count;
+                case 110549828:  // total
+                    return total;
+                case 109548807:  // small
+                    return small;
+                case 3560192:  // tiny
+                    return tiny;
+                case 106934601:  // price
+                    return price;
+                case 108285963:  // ratio
+                    return ratio;
+                case -1422950650:  // active
+                    return active;
+                case 93930410:  // boxed
+                    return boxed;
+                case 3552281:  // tags
+                    return tags;
+                case 94834726:  // codes
+                    return codes;
+                case 94631196:  // child
+                    return child;
+                case -1857640538:  // summary
+                    return summary;
+            }
+            return super.metaPropertyGet(propertyName);
+        }
+
+        @Override
+        public ImmBinSerializer.Builder builder() {
+            return new ImmBinSerializer.Builder();
+        }
+
+        @Override
+        public Class<? extends ImmBinSerializer> beanType() {
+            return ImmBinSerializer.class;
+        }
+
+        @Override
+        public Map<String, MetaProperty<?>> metaPropertyMap() {
+            return metaPropertyMap$;
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * The meta-property for the {@code name} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<String> name() {
+            return name;
+        }
+
+        /**
+         * The meta-property for the {@code count} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Integer> count() {
+            return count;
+        }
+
+        /**
+         * The meta-property for the {@code total} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Long> total() {
+            return total;
+        }
+
+        /**
+         * The meta-property for the {@code small} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Short> small() {
+            return small;
+        }
+
+        /**
+         * The meta-property for the {@code tiny} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Byte> tiny() {
+            return tiny;
+        }
+
+        /**
+         * The meta-property for the {@code price} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Double> price() {
+            return price;
+        }
+
+        /**
+         * The meta-property for the {@code ratio} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Float> ratio() {
+            return ratio;
+        }
+
+        /**
+         * The meta-property for the {@code active} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Boolean> active() {
+            return active;
+        }
+
+        /**
+         * The meta-property for the {@code boxed} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Integer> boxed() {
+            return boxed;
+        }
+
+        /**
+         * The meta-property for the {@code tags} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<ImmutableList<String>> tags() {
+            return tags;
+        }
+
+        /**
+         * The meta-property for the {@code codes} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<int[]> codes() {
+            return codes;
+        }
+
+        /**
+         * The meta-property for the {@code child} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<ImmBinSerializer> child() {
+            return child;
+        }
+
+        /**
+         * The meta-property for the {@code summary} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<String> summary() {
+            return summary;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    return ((ImmBinSerializer) bean).getName();
+                case 94851343:  // count
+                    return ((ImmBinSerializer) bean).getCount();
+                case 110549828:  // total
+                    return ((ImmBinSerializer) bean).getTotal();
+                case 109548807:  // small
+                    return ((ImmBinSerializer) bean).getSmall();
+                case 3560192:  // tiny
+                    return ((ImmBinSerializer) bean).getTiny();
+                case 106934601:  // price
+                    return ((ImmBinSerializer) bean).getPrice();
+                case 108285963:  // ratio
+                    return ((ImmBinSerializer) bean).getRatio();
+                case -1422950650:  // active
+                    return ((ImmBinSerializer) bean).isActive();
+                case 93930410:  // boxed
+                    return ((ImmBinSerializer) bean).getBoxed();
+                case 3552281:  // tags
+                    return ((ImmBinSerializer) bean).getTags();
+                case 94834726:  // codes
+                    return ((ImmBinSerializer) bean).getCodes();
+                case 94631196:  // child
+                    return ((ImmBinSerializer) bean).getChild();
+                case -1857640538:  // summary
+                    return ((ImmBinSerializer) bean).getSummary();
+            }
+            return super.propertyGet(bean, propertyName, quiet);
+        }
+
+        @Override
+        protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+            metaProperty(propertyName);
+            if (quiet) {
+                return;
+            }
+            throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public Class<ImmBinSerializer> binBeanType() {
+            return ImmBinSerializer.class;
+        }
+
+        @Override
+        public void writeBin(ImmBinSerializer bean, BinBeanOutput out) throws IOException {
+            Object boxed$ = out.extractValue(this.boxed, bean);
+            Object tags$ = out.extractValue(this.tags, bean);
+            Object codes$ = out.extractValue(this.codes, bean);
+            Object child$ = out.extractValue(this.child, bean);
+            int size = 7;
+            size += (bean.name != null ? 1 : 0);
+            size += (boxed$ != null ? 1 : 0);
+            size += (tags$ != null ? 1 : 0);
+            size += (codes$ != null ? 1 : 0);
+            size += (child$ != null ? 1 : 0);
+            out.writeBeanHeader(size);
+            if (bean.name != null) {
+                out.writeName(binNames$[0]);
+                out.writeString(bean.name);
+            }
+            out.writeName(binNames$[1]);
+            out.writeInt(bean.count);
+            out.writeName(binNames$[2]);
+            out.writeLong(bean.total);
+            out.writeName(binNames$[3]);
+            out.writeInt(bean.small);
+            out.writeName(binNames$[4]);
+            out.writeInt(bean.tiny);
+            out.writeName(binNames$[5]);
+            out.writeDouble(bean.price);
+            out.writeName(binNames$[6]);
+            out.writeFloat(bean.ratio);
+            out.writeName(binNames$[7]);
+            out.writeBoolean(bean.active);
+            if (boxed$ != null) {
+                out.writeName(binNames$[8]);
+                out.writeProperty(this.boxed, boxed$);
+            }
+            if (tags$ != null) {
+                out.writeName(binNames$[9]);
+                out.writeProperty(this.tags, tags$);
+            }
+            if (codes$ != null) {
+                out.writeName(binNames$[10]);
+                out.writeProperty(this.codes, codes$);
+            }
+            if (child$ != null) {
+                out.writeName(binNames$[11]);
+                out.writeProperty(this.child, child$);
+            }
+        }
+
+        @Override
+        public ImmBinSerializer readBin(BinBeanInput in, int propertyCount) throws Exception {
+            ImmBinSerializer.Builder builder = new ImmBinSerializer.Builder();
+            int index = -1;
+            for (int i = 0; i < propertyCount; i++) {
+                index = in.readName(binNames$, index + 1);
+                switch (index) {
+                    case 0:  // name
+                        builder.name = in.readString(this.name);
+                        break;
+                    case 1:  // count
+                        builder.count = in.readInt(this.count);
+                        break;
+                    case 2:  // total
+                        builder.total = in.readLong(this.total);
+                        break;
+                    case 3:  // small
+                        builder.small = in.readShort(this.small);
+                        break;
+                    case 4:  // tiny
+                        builder.tiny = in.readByte(this.tiny);
+                        break;
+                    case 5:  // price
+                        builder.price = in.readDouble(this.price);
+                        break;
+                    case 6:  // ratio
+                        builder.ratio = in.readFloat(this.ratio);
+                        break;
+                    case 7:  // active
+                        builder.active = in.readBoolean(this.active);
+                        break;
+                    case 8:  // boxed
+                        builder.set(this.boxed, in.readProperty(this.boxed));
+                        break;
+                    case 9:  // tags
+                        builder.set(this.tags, in.readProperty(this.tags));
+                        break;
+                    case 10:  // codes
+                        builder.set(this.codes, in.readProperty(this.codes));
+                        break;
+                    case 11:  // child
+                        builder.set(this.child, in.readProperty(this.child));
+                        break;
+                    default:
+                        in.readOther(this, builder);
+                        break;
+                }
+            }
+            return builder.build();
+        }
+
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The bean-builder for {@code ImmBinSerializer}.
+     */
+    public static final class Builder extends DirectFieldsBeanBuilder<ImmBinSerializer> {
+
+        private String name;
+        private int count;
+        private long total;
+        private short small;
+        private byte tiny;
+        private double price;
+        private float ratio;
+        private boolean active;
+        private Integer boxed;
+        private List<String> tags = ImmutableList.of();
+        private int[] codes;
+        private ImmBinSerializer child;
+
+        /**
+         * Restricted constructor.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Restricted copy constructor.
+         * @param beanToCopy  the bean to copy from, not null
+         */
+        private Builder(ImmBinSerializer beanToCopy) {
+            this.name = beanToCopy.getName();
+            this.count = beanToCopy.getCount();
+            this.total = beanToCopy.getTotal();
+            this.small = beanToCopy.getSmall();
+            this.tiny = beanToCopy.getTiny();
+            this.price = beanToCopy.getPrice();
+            this.ratio = beanToCopy.getRatio();
+            this.active = beanToCopy.isActive();
+            this.boxed = beanToCopy.getBoxed();
+            this.tags = beanToCopy.getTags();
+            this.codes = (beanToCopy.getCodes() != null ? beanToCopy.getCodes().clone() : null);
+            this.child = beanToCopy.getChild();
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public Object get(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    return name;
+                case 94851343:  // count
+                    return count;
+                case 110549828:  // total
+                    return total;
+                case 109548807:  // small
+                    return small;
+                case 3560192:  // tiny
+                    return tiny;
+                case 106934601:  // price
+                    return price;
+                case 108285963:  // ratio
+                    return ratio;
+                case -1422950650:  // active
+                    return active;
+                case 93930410:  // boxed
+                    return boxed;
+                case 3552281:  // tags
+                    return tags;
+                case 94834726:  // codes
+                    return codes;
+                case 94631196:  // child
+                    return child;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Builder set(String propertyName, Object newValue) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    this.name = (String) newValue;
+                    break;
+                case 94851343:  // count
+                    this.count = (Integer) newValue;
+                    break;
+                case 110549828:  // total
+                    this.total = (Long) newValue;
+                    break;
+                case 109548807:  // small
+                    this.small = (Short) newValue;
+                    break;
+                case 3560192:  // tiny
+                    this.tiny = (Byte) newValue;
+                    break;
+                case 106934601:  // price
+                    this.price = (Double) newValue;
+                    break;
+                case 108285963:  // ratio
+                    this.ratio = (Float) newValue;
+                    break;
+                case -1422950650:  // active
+                    this.active = (Boolean) newValue;
+                    break;
+                case 93930410:  // boxed
+                    this.boxed = (Integer) newValue;
+                    break;
+                case 3552281:  // tags
+                    this.tags = (List<String>) newValue;
+                    break;
+                case 94834726:  // codes
+                    this.codes = (int[]) newValue;
+                    break;
+                case 94631196:  // child
+                    this.child = (ImmBinSerializer) newValue;
+                    break;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+            return this;
+        }
+
+        @Override
+        public Builder set(MetaProperty<?> property, Object value) {
+            super.set(property, value);
+            return this;
+        }
+
+        @Override
+        public Builder setString(String propertyName, String value) {
+            setString(meta().metaProperty(propertyName), value);
+            return this;
+        }
+
+        @Override
+        public Builder setString(MetaProperty<?> property, String value) {
+            super.setString(property, value);
+            return this;
+        }
+
+        @Override
+        public Builder setAll(Map<String, ? extends Object> propertyValueMap) {
+            super.setAll(propertyValueMap);
+            return this;
+        }
+
+        @Override
+        public ImmBinSerializer build() {
+            return new ImmBinSerializer(
+                    name,
+                    count,
+                    total,
+                    small,
+                    tiny,
+                    price,
+                    ratio,
+                    active,
+                    boxed,
+                    tags,
+                    codes,
+                    child);
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * Sets the name.
+         * @param name  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the count.
+         * @param count  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder count(int count) {
+            this.count = count;
+            return this;
+        }
+
+        /**
+         * Sets the total.
+         * @param total  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder total(long total) {
+            this.total = total;
+            return this;
+        }
+
+        /**
+         * Sets the small.
+         * @param small  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder small(short small) {
+            this.small = small;
+            return this;
+        }
+
+        /**
+         * Sets the tiny.
+         * @param tiny  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder tiny(byte tiny) {
+            this.tiny = tiny;
+            return this;
+        }
+
+        /**
+         * Sets the price.
+         * @param price  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder price(double price) {
+            this.price = price;
+            return this;
+        }
+
+        /**
+         * Sets the ratio.
+         * @param ratio  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder ratio(float ratio) {
+            this.ratio = ratio;
+            return this;
+        }
+
+        /**
+         * Sets the active.
+         * @param active  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder active(boolean active) {
+            this.active = active;
+            return this;
+        }
+
+        /**
+         * Sets the boxed.
+         * @param boxed  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder boxed(Integer boxed) {
+            this.boxed = boxed;
+            return this;
+        }
+
+        /**
+         * Sets the tags.
+         * @param tags  the new value, not null
+         * @return this, for chaining, not null
+         */
+        public Builder tags(List<String> tags) {
+            JodaBeanUtils.notNull(tags, "tags");
+            this.tags = tags;
+            return this;
+        }
+
+        /**
+         * Sets the {@code tags} property in the builder
+         * from an array of objects.
+         * @param tags  the new value, not null
+         * @return this, for chaining, not null
+         */
+        public Builder tags(String... tags) {
+            return tags(ImmutableList.copyOf(tags));
+        }
+
+        /**
+         * Sets the codes.
+         * @param codes  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder codes(int... codes) {
+            this.codes = codes;
+            return this;
+        }
+
+        /**
+         * Sets the child.
+         * @param child  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder child(ImmBinSerializer child) {
+            this.child = child;
+            return this;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder(416);
+            buf.append("ImmBinSerializer.Builder{");
+            buf.append("name").append('=').append(JodaBeanUtils.toString(name)).append(',').append(' ');
+            buf.append("count").append('=').append(JodaBeanUtils.toString(count)).append(',').append(' ');
+            buf.append("total").append('=').append(JodaBeanUtils.toString(total)).append(',').append(' ');
+            buf.append("small").append('=').append(JodaBeanUtils.toString(small)).append(',').append(' ');
+            buf.append("tiny").append('=').append(JodaBeanUtils.toString(tiny)).append(',').append(' ');
+            buf.append("price").append('=').append(JodaBeanUtils.toString(price)).append(',').append(' ');
+            buf.append("ratio").append('=').append(JodaBeanUtils.toString(ratio)).append(',').append(' ');
+            buf.append("active").append('=').append(JodaBeanUtils.toString(active)).append(',').append(' ');
+            buf.append("boxed").append('=').append(JodaBeanUtils.toString(boxed)).append(',').append(' ');
+            buf.append("tags").append('=').append(JodaBeanUtils.toString(tags)).append(',').append(' ');
+            buf.append("codes").append('=').append(JodaBeanUtils.toString(codes)).append(',').append(' ');
+            buf.append("child").append('=').append(JodaBeanUtils.toString(child));
+            buf.append('}');
+            return buf.toString();
+        }
+
+    }
+
+    ///CLOVER:ON
+    //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,944 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.gen;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.DerivedProperty;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Mock immutable bean matching {@code ImmBinSerializer} without a generated binary serializer.
+ * 
+ * @author Stephen Colebourne
+ */
+@BeanDefinition
+public final class ImmBinSerializerNoGen implements ImmutableBean {
+
+    @PropertyDefinition(alias = "label")
+    private final String name;
+    @PropertyDefinition
+    private final int count;
+    @PropertyDefinition
+    private final long total;
+    @PropertyDefinition
+    private final short small;
+    @PropertyDefinition
+    private final byte tiny;
+    @PropertyDefinition
+    private final double price;
+    @PropertyDefinition
+    private final float ratio;
+    @PropertyDefinition
+    private final boolean active;
+    @PropertyDefinition
+    private final Integer boxed;
+    @PropertyDefinition(validate = "notNull")
+    private final ImmutableList<String> tags;
+    @PropertyDefinition(get = "clone")
+    private final int[] codes;
+    @PropertyDefinition
+    private final ImmBinSerializerNoGen child;
+
+    @DerivedProperty
+    public String getSummary() {
+        return name + ":" + count;
+    }
+
+    //------------------------- AUTOGENERATED START -------------------------
+    ///CLOVER:OFF
+    /**
+     * The meta-bean for {@code ImmBinSerializerNoGen}.
+     * @return the meta-bean, not null
+     */
+    public static ImmBinSerializerNoGen.Meta meta() {
+        return ImmBinSerializerNoGen.Meta.INSTANCE;
+    }
+
+    static {
+        JodaBeanUtils.registerMetaBean(ImmBinSerializerNoGen.Meta.INSTANCE);
+    }
+
+    /**
+     * Returns a builder used to create an instance of the bean.
+     * @return the builder, not null
+     */
+    public static ImmBinSerializerNoGen.Builder builder() {
+        return new ImmBinSerializerNoGen.Builder();
+    }
+
+    private ImmBinSerializerNoGen(
+            String name,
+            int count,
+            long total,
+            short small,
+            byte tiny,
+            double price,
+            float ratio,
+            boolean active,
+            Integer boxed,
+            List<String> tags,
+            int[] codes,
+            ImmBinSerializerNoGen child) {
+        JodaBeanUtils.notNull(tags, "tags");
+        this.name = name;
+        this.count = count;
+        this.total = total;
+        this.small = small;
+        this.tiny = tiny;
+        this.price = price;
+        this.ratio = ratio;
+        this.active = active;
+        this.boxed = boxed;
+        this.tags = ImmutableList.copyOf(tags);
+        this.codes = (codes != null ? codes.clone() : null);
+        this.child = child;
+    }
+
+    @Override
+    public ImmBinSerializerNoGen.Meta metaBean() {
+        return ImmBinSerializerNoGen.Meta.INSTANCE;
+    }
+
+    @Override
+    public <R> Property<R> property(String propertyName) {
+        return metaBean().<R>metaProperty(propertyName).createProperty(this);
+    }
+
+    @Override
+    public Set<String> propertyNames() {
+        return metaBean().metaPropertyMap().keySet();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the name.
+     * @return the value of the property
+     */
+    public String getName() {
+        return name;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the count.
+     * @return the value of the property
+     */
+    public int getCount() {
+        return count;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the total.
+     * @return the value of the property
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the small.
+     * @return the value of the property
+     */
+    public short getSmall() {
+        return small;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the tiny.
+     * @return the value of the property
+     */
+    public byte getTiny() {
+        return tiny;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the price.
+     * @return the value of the property
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the ratio.
+     * @return the value of the property
+     */
+    public float getRatio() {
+        return ratio;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the active.
+     * @return the value of the property
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the boxed.
+     * @return the value of the property
+     */
+    public Integer getBoxed() {
+        return boxed;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the tags.
+     * @return the value of the property, not null
+     */
+    public ImmutableList<String> getTags() {
+        return tags;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the codes.
+     * @return the value of the property
+     */
+    public int[] getCodes() {
+        return (codes != null ? codes.clone() : null);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the child.
+     * @return the value of the property
+     */
+    public ImmBinSerializerNoGen getChild() {
+        return child;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a builder that allows this bean to be mutated.
+     * @return the mutable builder, not null
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj != null && obj.getClass() == this.getClass()) {
+            ImmBinSerializerNoGen other = (ImmBinSerializerNoGen) obj;
+            return JodaBeanUtils.equal(name, other.name) &&
+                    (count == other.count) &&
+                    (total == other.total) &&
+                    (small == other.small) &&
+                    (tiny == other.tiny) &&
+                    JodaBeanUtils.equal(price, other.price) &&
+                    JodaBeanUtils.equal(ratio, other.ratio) &&
+                    (active == other.active) &&
+                    JodaBeanUtils.equal(boxed, other.boxed) &&
+                    JodaBeanUtils.equal(tags, other.tags) &&
+                    JodaBeanUtils.equal(codes, other.codes) &&
+                    JodaBeanUtils.equal(child, other.child);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = getClass().hashCode();
+        hash = hash * 31 + JodaBeanUtils.hashCode(name);
+        hash = hash * 31 + JodaBeanUtils.hashCode(count);
+        hash = hash * 31 + JodaBeanUtils.hashCode(total);
+        hash = hash * 31 + JodaBeanUtils.hashCode(small);
+        hash = hash * 31 + JodaBeanUtils.hashCode(tiny);
+        hash = hash * 31 + JodaBeanUtils.hashCode(price);
+        hash = hash * 31 + JodaBeanUtils.hashCode(ratio);
+        hash = hash * 31 + JodaBeanUtils.hashCode(active);
+        hash = hash * 31 + JodaBeanUtils.hashCode(boxed);
+        hash = hash * 31 + JodaBeanUtils.hashCode(tags);
+        hash = hash * 31 + JodaBeanUtils.hashCode(codes);
+        hash = hash * 31 + JodaBeanUtils.hashCode(child);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(448);
+        buf.append("ImmBinSerializerNoGen{");
+        buf.append("name").append('=').append(name).append(',').append(' ');
+        buf.append("count").append('=').append(count).append(',').append(' ');
+        buf.append("total").append('=').append(total).append(',').append(' ');
+        buf.append("small").append('=').append(small).append(',').append(' ');
+        buf.append("tiny").append('=').append(tiny).append(',').append(' ');
+        buf.append("price").append('=').append(price).append(',').append(' ');
+        buf.append("ratio").append('=').append(ratio).append(',').append(' ');
+        buf.append("active").append('=').append(active).append(',').append(' ');
+        buf.append("boxed").append('=').append(boxed).append(',').append(' ');
+        buf.append("tags").append('=').append(tags).append(',').append(' ');
+        buf.append("codes").append('=').append(codes).append(',').append(' ');
+        buf.append("child").append('=').append(child).append(',').append(' ');
+        buf.append("summary").append('=').append(JodaBeanUtils.toString(getSummary()));
+        buf.append('}');
+        return buf.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-bean for {@code ImmBinSerializerNoGen}.
+     */
+    public static final class Meta extends DirectMetaBean {
+        /**
+         * The singleton instance of the meta-bean.
+         */
+        static final Meta INSTANCE = new Meta();
+
+        /**
+         * The meta-property for the {@code name} property.
+         */
+        private final MetaProperty<String> name = DirectMetaProperty.ofImmutable(
+                this, "name", ImmBinSerializerNoGen.class, String.class);
+        /**
+         * The meta-property for the {@code count} property.
+         */
+        private final MetaProperty<Integer> count = DirectMetaProperty.ofImmutable(
+                this, "count", ImmBinSerializerNoGen.class, Integer.TYPE);
+        /**
+         * The meta-property for the {@code total} property.
+         */
+        private final MetaProperty<Long> total = DirectMetaProperty.ofImmutable(
+                this, "total", ImmBinSerializerNoGen.class, Long.TYPE);
+        /**
+         * The meta-property for the {@code small} property.
+         */
+        private final MetaProperty<Short> small = DirectMetaProperty.ofImmutable(
+                this, "small", ImmBinSerializerNoGen.class, Short.TYPE);
+        /**
+         * The meta-property for the {@code tiny} property.
+         */
+        private final MetaProperty<Byte> tiny = DirectMetaProperty.ofImmutable(
+                this, "tiny", ImmBinSerializerNoGen.class, Byte.TYPE);
+        /**
+         * The meta-property for the {@code price} property.
+         */
+        private final MetaProperty<Double> price = DirectMetaProperty.ofImmutable(
+                this, "price", ImmBinSerializerNoGen.class, Double.TYPE);
+        /**
+         * The meta-property for the {@code ratio} property.
+         */
+        private final MetaProperty<Float> ratio = DirectMetaProperty.ofImmutable(
+                this, "ratio", ImmBinSerializerNoGen.class, Float.TYPE);
+        /**
+         * The meta-property for the {@code active} property.
+         */
+        private final MetaProperty<Boolean> active = DirectMetaProperty.ofImmutable(
+                this, "active", ImmBinSerializerNoGen.class, Boolean.TYPE);
+        /**
+         * The meta-property for the {@code boxed} property.
+         */
+        private final MetaProperty<Integer> boxed = DirectMetaProperty.ofImmutable(
+                this, "boxed", ImmBinSerializerNoGen.class, Integer.class);
+        /**
+         * The meta-property for the {@code tags} property.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes" })
+        private final MetaProperty<ImmutableList<String>> tags = DirectMetaProperty.ofImmutable(
+                this, "tags", ImmBinSerializerNoGen.class, (Class) ImmutableList.class);
+        /**
+         * The meta-property for the {@code codes} property.
+         */
+        private final MetaProperty<int[]> codes = DirectMetaProperty.ofImmutable(
+                this, "codes", ImmBinSerializerNoGen.class, int[].class);
+        /**
+         * The meta-property for the {@code child} property.
+         */
+        private final MetaProperty<ImmBinSerializerNoGen> child = DirectMetaProperty.ofImmutable(
+                this, "child", ImmBinSerializerNoGen.class, ImmBinSerializerNoGen.class);
+        /**
+         * The meta-property for the {@code summary} property.
+         */
+        private final MetaProperty<String> summary = DirectMetaProperty.ofDerived(
+                this, "summary", ImmBinSerializerNoGen.class, String.class);
+        /**
+         * The meta-properties.
+         */
+        private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+                this, null,
+                "name",
+                "count",
+                "total",
+                "small",
+                "tiny",
+                "price",
+                "ratio",
+                "active",
+                "boxed",
+                "tags",
+                "codes",
+                "child",
+                "summary");
+
+        /**
+         * Restricted constructor.
+         */
+        private Meta() {
+        }
+
+        @Override
+        protected MetaProperty<?> metaPropertyGet(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    return name;
+                case 94851343:  // count
+                    return count;
+                case 110549828:  // total
+                    return total;
+                case 109548807:  // small
+                    return small;
+                case 3560192:  // tiny
+                    return tiny;
+                case 106934601:  // price
+                    return price;
+                case 108285963:  // ratio
+                    return ratio;
+                case -1422950650:  // active
+                    return active;
+                case 93930410:  // boxed
+                    return boxed;
+                case 3552281:  // tags
+                    return tags;
+                case 94834726:  // codes
+                    return codes;
+                case 94631196:  // child
+                    return child;
+                case -1857640538:  // summary
+                    return summary;
+            }
+            return super.metaPropertyGet(propertyName);
+        }
+
+        @Override
+        public ImmBinSerializerNoGen.Builder builder() {
+            return new ImmBinSerializerNoGen.Builder();
+        }
+
+        @Override
+        public Class<? extends ImmBinSerializerNoGen> beanType() {
+            return ImmBinSerializerNoGen.class;
+        }
+
+        @Override
+        public Map<String, MetaProperty<?>> metaPropertyMap() {
+            return metaPropertyMap$;
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * The meta-property for the {@code name} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<String> name() {
+            return name;
+        }
+
+        /**
+         * The meta-property for the {@code count} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Integer> count() {
+            return count;
+        }
+
+        /**
+         * The meta-property for the {@code total} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Long> total() {
+            return total;
+        }
+
+        /**
+         * The meta-property for the {@code small} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Short> small() {
+            return small;
+        }
+
+        /**
+         * The meta-property for the {@code tiny} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Byte> tiny() {
+            return tiny;
+        }
+
+        /**
+         * The meta-property for the {@code price} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Double> price() {
+            return price;
+        }
+
+        /**
+         * The meta-property for the {@code ratio} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Float> ratio() {
+            return ratio;
+        }
+
+        /**
+         * The meta-property for the {@code active} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Boolean> active() {
+            return active;
+        }
+
+        /**
+         * The meta-property for the {@code boxed} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Integer> boxed() {
+            return boxed;
+        }
+
+        /**
+         * The meta-property for the {@code tags} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<ImmutableList<String>> tags() {
+            return tags;
+        }
+
+        /**
+         * The meta-property for the {@code codes} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<int[]> codes() {
+            return codes;
+        }
+
+        /**
+         * The meta-property for the {@code child} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<ImmBinSerializerNoGen> child() {
+            return child;
+        }
+
+        /**
+         * The meta-property for the {@code summary} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<String> summary() {
+            return summary;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    return ((ImmBinSerializerNoGen) bean).getName();
+                case 94851343:  // count
+                    return ((ImmBinSerializerNoGen) bean).getCount();
+                case 110549828:  // total
+                    return ((ImmBinSerializerNoGen) bean).getTotal();
+                case 109548807:  // small
+                    return ((ImmBinSerializerNoGen) bean).getSmall();
+                case 3560192:  // tiny
+                    return ((ImmBinSerializerNoGen) bean).getTiny();
+                case 106934601:  // price
+                    return ((ImmBinSerializerNoGen) bean).getPrice();
+                case 108285963:  // ratio
+                    return ((ImmBinSerializerNoGen) bean).getRatio();
+                case -1422950650:  // active
+                    return ((ImmBinSerializerNoGen) bean).isActive();
+                case 93930410:  // boxed
+                    return ((ImmBinSerializerNoGen) bean).getBoxed();
+                case 3552281:  // tags
+                    return ((ImmBinSerializerNoGen) bean).getTags();
+                case 94834726:  // codes
+                    return ((ImmBinSerializerNoGen) bean).getCodes();
+                case 94631196:  // child
+                    return ((ImmBinSerializerNoGen) bean).getChild();
+                case -1857640538:  // summary
+                    return ((ImmBinSerializerNoGen) bean).getSummary();
+            }
+            return super.propertyGet(bean, propertyName, quiet);
+        }
+
+        @Override
+        protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+            metaProperty(propertyName);
+            if (quiet) {
+                return;
+            }
+            throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+        }
+
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The bean-builder for {@code ImmBinSerializerNoGen}.
+     */
+    public static final class Builder extends DirectFieldsBeanBuilder<ImmBinSerializerNoGen> {
+
+        private String name;
+        private int count;
+        private long total;
+        private short small;
+        private byte tiny;
+        private double price;
+        private float ratio;
+        private boolean active;
+        private Integer boxed;
+        private List<String> tags = ImmutableList.of();
+        private int[] codes;
+        private ImmBinSerializerNoGen child;
+
+        /**
+         * Restricted constructor.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Restricted copy constructor.
+         * @param beanToCopy  the bean to copy from, not null
+         */
+        private Builder(ImmBinSerializerNoGen beanToCopy) {
+            this.name = beanToCopy.getName();
+            this.count = beanToCopy.getCount();
+            this.total = beanToCopy.getTotal();
+            this.small = beanToCopy.getSmall();
+            this.tiny = beanToCopy.getTiny();
+            this.price = beanToCopy.getPrice();
+            this.ratio = beanToCopy.getRatio();
+            this.active = beanToCopy.isActive();
+            this.boxed = beanToCopy.getBoxed();
+            this.tags = beanToCopy.getTags();
+            this.codes = (beanToCopy.getCodes() != null ? beanToCopy.getCodes().clone() : null);
+            this.child = beanToCopy.getChild();
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public Object get(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    return name;
+                case 94851343:  // count
+                    return count;
+                case 110549828:  // total
+                    return total;
+                case 109548807:  // small
+                    return small;
+                case 3560192:  // tiny
+                    return tiny;
+                case 106934601:  // price
+                    return price;
+                case 108285963:  // ratio
+                    return ratio;
+                case -1422950650:  // active
+                    return active;
+                case 93930410:  // boxed
+                    return boxed;
+                case 3552281:  // tags
+                    return tags;
+                case 94834726:  // codes
+                    return codes;
+                case 94631196:  // child
+                    return child;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Builder set(String propertyName, Object newValue) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                case 102727412:  // label (alias)
+                    this.name = (String) newValue;
+                    break;
+                case 94851343:  // count
+                    this.count = (Integer) newValue;
+                    break;
+                case 110549828:  // total
+                    this.total = (Long) newValue;
+                    break;
+                case 109548807:  // small
+                    this.small = (Short) newValue;
+                    break;
+                case 3560192:  // tiny
+                    this.tiny = (Byte) newValue;
+                    break;
+                case 106934601:  // price
+                    this.price = (Double) newValue;
+                    break;
+                case 108285963:  // ratio
+                    this.ratio = (Float) newValue;
+                    break;
+                case -1422950650:  // active
+                    this.active = (Boolean) newValue;
+                    break;
+                case 93930410:  // boxed
+                    this.boxed = (Integer) newValue;
+                    break;
+                case 3552281:  // tags
+                    this.tags = (List<String>) newValue;
+                    break;
+                case 94834726:  // codes
+                    this.codes = (int[]) newValue;
+                    break;
+                case 94631196:  // child
+                    this.child = (ImmBinSerializerNoGen) newValue;
+                    break;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+            return this;
+        }
+
+        @Override
+        public Builder set(MetaProperty<?> property, Object value) {
+            super.set(property, value);
+            return this;
+        }
+
+        @Override
+        public Builder setString(String propertyName, String value) {
+            setString(meta().metaProperty(propertyName), value);
+            return this;
+        }
+
+        @Override
+        public Builder setString(MetaProperty<?> property, String value) {
+            super.setString(property, value);
+            return this;
+        }
+
+        @Override
+        public Builder setAll(Map<String, ? extends Object> propertyValueMap) {
+            super.setAll(propertyValueMap);
+            return this;
+        }
+
+        @Override
+        public ImmBinSerializerNoGen build() {
+            return new ImmBinSerializerNoGen(
+                    name,
+                    count,
+                    total,
+                    small,
+                    tiny,
+                    price,
+                    ratio,
+                    active,
+                    boxed,
+                    tags,
+                    codes,
+                    child);
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * Sets the name.
+         * @param name  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the count.
+         * @param count  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder count(int count) {
+            this.count = count;
+            return this;
+        }
+
+        /**
+         * Sets the total.
+         * @param total  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder total(long total) {
+            this.total = total;
+            return this;
+        }
+
+        /**
+         * Sets the small.
+         * @param small  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder small(short small) {
+            this.small = small;
+            return this;
+        }
+
+        /**
+         * Sets the tiny.
+         * @param tiny  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder tiny(byte tiny) {
+            this.tiny = tiny;
+            return this;
+        }
+
+        /**
+         * Sets the price.
+         * @param price  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder price(double price) {
+            this.price = price;
+            return this;
+        }
+
+        /**
+         * Sets the ratio.
+         * @param ratio  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder ratio(float ratio) {
+            this.ratio = ratio;
+            return this;
+        }
+
+        /**
+         * Sets the active.
+         * @param active  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder active(boolean active) {
+            this.active = active;
+            return this;
+        }
+
+        /**
+         * Sets the boxed.
+         * @param boxed  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder boxed(Integer boxed) {
+            this.boxed = boxed;
+            return this;
+        }
+
+        /**
+         * Sets the tags.
+         * @param tags  the new value, not null
+         * @return this, for chaining, not null
+         */
+        public Builder tags(List<String> tags) {
+            JodaBeanUtils.notNull(tags, "tags");
+            this.tags = tags;
+            return this;
+        }
+
+        /**
+         * Sets the {@code tags} property in the builder
+         * from an array of objects.
+         * @param tags  the new value, not null
+         * @return this, for chaining, not null
+         */
+        public Builder tags(String... tags) {
+            return tags(ImmutableList.copyOf(tags));
+        }
+
+        /**
+         * Sets the codes.
+         * @param codes  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder codes(int... codes) {
+            this.codes = codes;
+            return this;
+        }
+
+        /**
+         * Sets the child.
+         * @param child  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder child(ImmBinSerializerNoGen child) {
+            this.child = child;
+            return this;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder(416);
+            buf.append("ImmBinSerializerNoGen.Builder{");
+            buf.append("name").append('=').append(JodaBeanUtils.toString(name)).append(',').append(' ');
+            buf.append("count").append('=').append(JodaBeanUtils.toString(count)).append(',').append(' ');
+            buf.append("total").append('=').append(JodaBeanUtils.toString(total)).append(',').append(' ');
+            buf.append("small").append('=').append(JodaBeanUtils.toString(small)).append(',').append(' ');
+            buf.append("tiny").append('=').append(JodaBeanUtils.toString(tiny)).append(',').append(' ');
+            buf.append("price").append('=').append(JodaBeanUtils.toString(price)).append(',').append(' ');
+            buf.append("ratio").append('=').append(JodaBeanUtils.toString(ratio)).append(',').append(' ');
+            buf.append("active").append('=').append(JodaBeanUtils.toString(active)).append(',').append(' ');
+            buf.append("boxed").append('=').append(JodaBeanUtils.toString(boxed)).append(',').append(' ');
+            buf.append("tags").append('=').append(JodaBeanUtils.toString(tags)).append(',').append(' ');
+            buf.append("codes").append('=').append(JodaBeanUtils.toString(codes)).append(',').append(' ');
+            buf.append("child").append('=').append(JodaBeanUtils.toString(child));
+            buf.append('}');
+            return buf.toString();
+        }
+
+    }
+
+    ///CLOVER:ON
+    //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,646 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.gen;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableValidator;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Mock immutable bean to test 'with' methods.
+ * 
+ * @author Stephen Colebourne
+ */
+@BeanDefinition(withMethods = true)
+public final class ImmWith implements ImmutableBean {
+
+    @PropertyDefinition(validate = "notNull")
+    private final String name;
+    @PropertyDefinition
+    private final int age;
+    @PropertyDefinition
+    private final double score;
+    @PropertyDefinition(validate = "notNull")
+    private final ImmutableList<String> tags;
+    @PropertyDefinition(get = "clone")
+    private final String[] codes;
+
+    @ImmutableValidator
+    private void validate() {
+        if (age < 0) {
+            throw new IllegalArgumentException("Age must not be negative");
+        }
+    }
+
+    //------------------------- AUTOGENERATED START -------------------------
+    ///CLOVER:OFF
+    /**
+     * The meta-bean for {@code ImmWith}.
+     * @return the meta-bean, not null
+     */
+    public static ImmWith.Meta meta() {
+        return ImmWith.Meta.INSTANCE;
+    }
+
+    static {
+        JodaBeanUtils.registerMetaBean(ImmWith.Meta.INSTANCE);
+    }
+
+    /**
+     * Returns a builder used to create an instance of the bean.
+     * @return the builder, not null
+     */
+    public static ImmWith.Builder builder() {
+        return new ImmWith.Builder();
+    }
+
+    private ImmWith(
+            String name,
+            int age,
+            double score,
+            List<String> tags,
+            String[] codes) {
+        JodaBeanUtils.notNull(name, "name");
+        JodaBeanUtils.notNull(tags, "tags");
+        this.name = name;
+        this.age = age;
+        this.score = score;
+        this.tags = ImmutableList.copyOf(tags);
+        this.codes = (codes != null ? codes.clone() : null);
+        validate();
+    }
+
+    /**
+     * Restricted constructor used by the 'with' methods.
+     * The new value has already been copied and validated, the other values are shared.
+     * @param base  the bean to share the unchanged values of, not null
+     * @param changed  the index of the changed property
+     * @param value  the new value of the changed property
+     */
+    @SuppressWarnings("unchecked")
+    private ImmWith(ImmWith base, int changed, Object value) {
+        this.name = (changed == 0 ? (String) value : base.name);
+        this.age = (changed == 1 ? (Integer) value : base.age);
+        this.score = (changed == 2 ? (Double) value : base.score);
+        this.tags = (changed == 3 ? (ImmutableList<String>) value : base.tags);
+        this.codes = (changed == 4 ? (String[]) value : base.codes);
+        validate();
+    }
+
+    @Override
+    public ImmWith.Meta metaBean() {
+        return ImmWith.Meta.INSTANCE;
+    }
+
+    @Override
+    public <R> Property<R> property(String propertyName) {
+        return metaBean().<R>metaProperty(propertyName).createProperty(this);
+    }
+
+    @Override
+    public Set<String> propertyNames() {
+        return metaBean().metaPropertyMap().keySet();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the name.
+     * @return the value of the property, not null
+     */
+    public String getName() {
+        return name;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the age.
+     * @return the value of the property
+     */
+    public int getAge() {
+        return age;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the score.
+     * @return the value of the property
+     */
+    public double getScore() {
+        return score;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the tags.
+     * @return the value of the property, not null
+     */
+    public ImmutableList<String> getTags() {
+        return tags;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the codes.
+     * @return the value of the property
+     */
+    public String[] getCodes() {
+        return (codes != null ? codes.clone() : null);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a builder that allows this bean to be mutated.
+     * @return the mutable builder, not null
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Returns a copy of this bean with the {@code name} property changed.
+     * <p>
+     * Only the new value is copied and validated, the other values are shared with this bean.
+     * @param name  the new value of the property, not null
+     * @return a bean with the new value, this bean if the value is unchanged, not null
+     */
+    public ImmWith withName(String name) {
+        if (this.name == name) {
+            return this;
+        }
+        JodaBeanUtils.notNull(name, "name");
+        return new ImmWith(this, 0, name);
+    }
+
+    /**
+     * Returns a copy of this bean with the {@code age} property changed.
+     * <p>
+     * Only the new value is copied and validated, the other values are shared with this bean.
+     * @param age  the new value of the property
+     * @return a bean with the new value, this bean if the value is unchanged, not null
+     */
+    public ImmWith withAge(int age) {
+        if (this.age == age) {
+            return this;
+        }
+        return new ImmWith(this, 1, age);
+    }
+
+    /**
+     * Returns a copy of this bean with the {@code score} property changed.
+     * <p>
+     * Only the new value is copied and validated, the other values are shared with this bean.
+     * @param score  the new value of the property
+     * @return a bean with the new value, this bean if the value is unchanged, not null
+     */
+    public ImmWith withScore(double score) {
+        if (JodaBeanUtils.equal(this.score, score)) {
+            return this;
+        }
+        return new ImmWith(this, 2, score);
+    }
+
+    /**
+     * Returns a copy of this bean with the {@code tags} property changed.
+     * <p>
+     * Only the new value is copied and validated, the other values are shared with this bean.
+     * @param tags  the new value of the property, not null
+     * @return a bean with the new value, this bean if the value is unchanged, not null
+     */
+    public ImmWith withTags(List<String> tags) {
+        if (this.tags == tags) {
+            return this;
+        }
+        JodaBeanUtils.notNull(tags, "tags");
+        ImmutableList<String> tagsCopy = ImmutableList.copyOf(tags);
+        return new ImmWith(this, 3, tagsCopy);
+    }
+
+    /**
+     * Returns a copy of this bean with the {@code codes} property changed.
+     * <p>
+     * Only the new value is copied and validated, the other values are shared with this bean.
+     * @param codes  the new value of the property
+     * @return a bean with the new value, this bean if the value is unchanged, not null
+     */
+    public ImmWith withCodes(String[] codes) {
+        if (this.codes == codes) {
+            return this;
+        }
+        String[] codesCopy = (codes != null ? codes.clone() : null);
+        return new ImmWith(this, 4, codesCopy);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj != null && obj.getClass() == this.getClass()) {
+            ImmWith other = (ImmWith) obj;
+            return JodaBeanUtils.equal(name, other.name) &&
+                    (age == other.age) &&
+                    JodaBeanUtils.equal(score, other.score) &&
+                    JodaBeanUtils.equal(tags, other.tags) &&
+                    JodaBeanUtils.equal(codes, other.codes);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = getClass().hashCode();
+        hash = hash * 31 + JodaBeanUtils.hashCode(name);
+        hash = hash * 31 + JodaBeanUtils.hashCode(age);
+        hash = hash * 31 + JodaBeanUtils.hashCode(score);
+        hash = hash * 31 + JodaBeanUtils.hashCode(tags);
+        hash = hash * 31 + JodaBeanUtils.hashCode(codes);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(192);
+        buf.append("ImmWith{");
+        buf.append("name").append('=').append(name).append(',').append(' ');
+        buf.append("age").append('=').append(age).append(',').append(' ');
+        buf.append("score").append('=').append(score).append(',').append(' ');
+        buf.append("tags").append('=').append(tags).append(',').append(' ');
+        buf.append("codes").append('=').append(JodaBeanUtils.toString(codes));
+        buf.append('}');
+        return buf.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-bean for {@code ImmWith}.
+     */
+    public static final class Meta extends DirectMetaBean {
+        /**
+         * The singleton instance of the meta-bean.
+         */
+        static final Meta INSTANCE = new Meta();
+
+        /**
+         * The meta-property for the {@code name} property.
+         */
+        private final MetaProperty<String> name = DirectMetaProperty.ofImmutable(
+                this, "name", ImmWith.class, String.class);
+        /**
+         * The meta-property for the {@code age} property.
+         */
+        private final MetaProperty<Integer> age = DirectMetaProperty.ofImmutable(
+                this, "age", ImmWith.class, Integer.TYPE);
+        /**
+         * The meta-property for the {@code score} property.
+         */
+        private final MetaProperty<Double> score = DirectMetaProperty.ofImmutable(
+                this, "score", ImmWith.class, Double.TYPE);
+        /**
+         * The meta-property for the {@code tags} property.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes" })
+        private final MetaProperty<ImmutableList<String>> tags = DirectMetaProperty.ofImmutable(
+                this, "tags", ImmWith.class, (Class) ImmutableList.class);
+        /**
+         * The meta-property for the {@code codes} property.
+         */
+        private final MetaProperty<String[]> codes = DirectMetaProperty.ofImmutable(
+                this, "codes", ImmWith.class, String[].class);
+        /**
+         * The meta-properties.
+         */
+        private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+                this, null,
+                "name",
+                "age",
+                "score",
+                "tags",
+                "codes");
+
+        /**
+         * Restricted constructor.
+         */
+        private Meta() {
+        }
+
+        @Override
+        protected MetaProperty<?> metaPropertyGet(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                    return name;
+                case 96511:  // age
+                    return age;
+                case 109264530:  // score
+                    return score;
+                case 3552281:  // tags
+                    return tags;
+                case 94834726:  // codes
+                    return codes;
+            }
+            return super.metaPropertyGet(propertyName);
+        }
+
+        @Override
+        public ImmWith.Builder builder() {
+            return new ImmWith.Builder();
+        }
+
+        @Override
+        public Class<? extends ImmWith> beanType() {
+            return ImmWith.class;
+        }
+
+        @Override
+        public Map<String, MetaProperty<?>> metaPropertyMap() {
+            return metaPropertyMap$;
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * The meta-property for the {@code name} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<String> name() {
+            return name;
+        }
+
+        /**
+         * The meta-property for the {@code age} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Integer> age() {
+            return age;
+        }
+
+        /**
+         * The meta-property for the {@code score} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<Double> score() {
+            return score;
+        }
+
+        /**
+         * The meta-property for the {@code tags} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<ImmutableList<String>> tags() {
+            return tags;
+        }
+
+        /**
+         * The meta-property for the {@code codes} property.
+         * @return the meta-property, not null
+         */
+        public MetaProperty<String[]> codes() {
+            return codes;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                    return ((ImmWith) bean).getName();
+                case 96511:  // age
+                    return ((ImmWith) bean).getAge();
+                case 109264530:  // score
+                    return ((ImmWith) bean).getScore();
+                case 3552281:  // tags
+                    return ((ImmWith) bean).getTags();
+                case 94834726:  // codes
+                    return ((ImmWith) bean).getCodes();
+            }
+            return super.propertyGet(bean, propertyName, quiet);
+        }
+
+        @Override
+        protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+            metaProperty(propertyName);
+            if (quiet) {
+                return;
+            }
+            throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+        }
+
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The bean-builder for {@code ImmWith}.
+     */
+    public static final class Builder extends DirectFieldsBeanBuilder<ImmWith> {
+
+        private String name;
+        private int age;
+        private double score;
+        private List<String> tags = ImmutableList.of();
+        private String[] codes;
+
+        /**
+         * Restricted constructor.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Restricted copy constructor.
+         * @param beanToCopy  the bean to copy from, not null
+         */
+        private Builder(ImmWith beanToCopy) {
+            this.name = beanToCopy.getName();
+            this.age = beanToCopy.getAge();
+            this.score = beanToCopy.getScore();
+            this.tags = beanToCopy.getTags();
+            this.codes = (beanToCopy.getCodes() != null ? beanToCopy.getCodes().clone() : null);
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public Object get(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                    return name;
+                case 96511:  // age
+                    return age;
+                case 109264530:  // score
+                    return score;
+                case 3552281:  // tags
+                    return tags;
+                case 94834726:  // codes
+                    return codes;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Builder set(String propertyName, Object newValue) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                    this.name = (String) newValue;
+                    break;
+                case 96511:  // age
+                    this.age = (Integer) newValue;
+                    break;
+                case 109264530:  // score
+                    this.score = (Double) newValue;
+                    break;
+                case 3552281:  // tags
+                    this.tags = (List<String>) newValue;
+                    break;
+                case 94834726:  // codes
+                    this.codes = (String[]) newValue;
+                    break;
+                default:
+                    throw new NoSuchElementException("Unknown property: " + propertyName);
+            }
+            return this;
+        }
+
+        @Override
+        public Builder set(MetaProperty<?> property, Object value) {
+            super.set(property, value);
+            return this;
+        }
+
+        @Override
+        public Builder setString(String propertyName, String value) {
+            setString(meta().metaProperty(propertyName), value);
+            return this;
+        }
+
+        @Override
+        public Builder setString(MetaProperty<?> property, String value) {
+            super.setString(property, value);
+            return this;
+        }
+
+        @Override
+        public Builder setAll(Map<String, ? extends Object> propertyValueMap) {
+            super.setAll(propertyValueMap);
+            return this;
+        }
+
+        @Override
+        public ImmWith build() {
+            return new ImmWith(
+                    name,
+                    age,
+                    score,
+                    tags,
+                    codes);
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * Sets the name.
+         * @param name  the new value, not null
+         * @return this, for chaining, not null
+         */
+        public Builder name(String name) {
+            JodaBeanUtils.notNull(name, "name");
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the age.
+         * @param age  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder age(int age) {
+            this.age = age;
+            return this;
+        }
+
+        /**
+         * Sets the score.
+         * @param score  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder score(double score) {
+            this.score = score;
+            return this;
+        }
+
+        /**
+         * Sets the tags.
+         * @param tags  the new value, not null
+         * @return this, for chaining, not null
+         */
+        public Builder tags(List<String> tags) {
+            JodaBeanUtils.notNull(tags, "tags");
+            this.tags = tags;
+            return this;
+        }
+
+        /**
+         * Sets the {@code tags} property in the builder
+         * from an array of objects.
+         * @param tags  the new value, not null
+         * @return this, for chaining, not null
+         */
+        public Builder tags(String... tags) {
+            return tags(ImmutableList.copyOf(tags));
+        }
+
+        /**
+         * Sets the codes.
+         * @param codes  the new value
+         * @return this, for chaining, not null
+         */
+        public Builder codes(String... codes) {
+            this.codes = codes;
+            return this;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder(192);
+            buf.append("ImmWith.Builder{");
+            buf.append("name").append('=').append(JodaBeanUtils.toString(name)).append(',').append(' ');
+            buf.append("age").append('=').append(JodaBeanUtils.toString(age)).append(',').append(' ');
+            buf.append("score").append('=').append(JodaBeanUtils.toString(score)).append(',').append(' ');
+            buf.append("tags").append('=').append(JodaBeanUtils.toString(tags)).append(',').append(' ');
+            buf.append("codes").append('=').append(JodaBeanUtils.toString(codes));
+            buf.append('}');
+            return buf.toString();
+        }
+
+    }
+
+    ///CLOVER:ON
+    //-------------------------- AUTOGENERATED END --------------------------
+}
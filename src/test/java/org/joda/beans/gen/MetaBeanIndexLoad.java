@@ -0,0 +1,226 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.gen;
+
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.TestMetaBeanIndex;
+import org.joda.beans.impl.direct.DirectBean;
+import java.util.Map;
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.Property;
+import org.joda.beans.impl.direct.DirectBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+/**
+ * Used only in one place to test the meta-bean index.
+ * 
+ * @author Stephen Colebourne
+ */
+@BeanDefinition
+public class MetaBeanIndexLoad extends DirectBean {
+
+    static {
+        TestMetaBeanIndex.beanInitialized = true;
+    }
+
+    /** The name. */
+    @PropertyDefinition
+    private String name;
+
+    /**
+     * Creates an instance.
+     */
+    public MetaBeanIndexLoad() {
+    }
+
+    //------------------------- AUTOGENERATED START -------------------------
+    ///CLOVER:OFF
+    /**
+     * The meta-bean for {@code MetaBeanIndexLoad}.
+     * @return the meta-bean, not null
+     */
+    public static MetaBeanIndexLoad.Meta meta() {
+        return MetaBeanIndexLoad.Meta.INSTANCE;
+    }
+
+    static {
+        JodaBeanUtils.registerMetaBean(MetaBeanIndexLoad.Meta.INSTANCE);
+    }
+
+    @Override
+    public MetaBeanIndexLoad.Meta metaBean() {
+        return MetaBeanIndexLoad.Meta.INSTANCE;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the name.
+     * @return the value of the property
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name.
+     * @param name  the new value of the property
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the the {@code name} property.
+     * @return the property, not null
+     */
+    public final Property<String> name() {
+        return metaBean().name().createProperty(this);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public MetaBeanIndexLoad clone() {
+        return JodaBeanUtils.cloneAlways(this);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj != null && obj.getClass() == this.getClass()) {
+            MetaBeanIndexLoad other = (MetaBeanIndexLoad) obj;
+            return JodaBeanUtils.equal(getName(), other.getName());
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = getClass().hashCode();
+        hash = hash * 31 + JodaBeanUtils.hashCode(getName());
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(64);
+        buf.append("MetaBeanIndexLoad{");
+        int len = buf.length();
+        toString(buf);
+        if (buf.length() > len) {
+            buf.setLength(buf.length() - 2);
+        }
+        buf.append('}');
+        return buf.toString();
+    }
+
+    protected void toString(StringBuilder buf) {
+        buf.append("name").append('=').append(JodaBeanUtils.toString(getName())).append(',').append(' ');
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-bean for {@code MetaBeanIndexLoad}.
+     */
+    public static class Meta extends DirectMetaBean {
+        /**
+         * The singleton instance of the meta-bean.
+         */
+        static final Meta INSTANCE = new Meta();
+
+        /**
+         * The meta-property for the {@code name} property.
+         */
+        private final MetaProperty<String> name = DirectMetaProperty.ofReadWrite(
+                this, "name", MetaBeanIndexLoad.class, String.class);
+        /**
+         * The meta-properties.
+         */
+        private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+                this, null,
+                "name");
+
+        /**
+         * Restricted constructor.
+         */
+        protected Meta() {
+        }
+
+        @Override
+        protected MetaProperty<?> metaPropertyGet(String propertyName) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                    return name;
+            }
+            return super.metaPropertyGet(propertyName);
+        }
+
+        @Override
+        public BeanBuilder<? extends MetaBeanIndexLoad> builder() {
+            return new DirectBeanBuilder<MetaBeanIndexLoad>(new MetaBeanIndexLoad());
+        }
+
+        @Override
+        public Class<? extends MetaBeanIndexLoad> beanType() {
+            return MetaBeanIndexLoad.class;
+        }
+
+        @Override
+        public Map<String, MetaProperty<?>> metaPropertyMap() {
+            return metaPropertyMap$;
+        }
+
+        //-----------------------------------------------------------------------
+        /**
+         * The meta-property for the {@code name} property.
+         * @return the meta-property, not null
+         */
+        public final MetaProperty<String> name() {
+            return name;
+        }
+
+        //-----------------------------------------------------------------------
+        @Override
+        protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                    return ((MetaBeanIndexLoad) bean).getName();
+            }
+            return super.propertyGet(bean, propertyName, quiet);
+        }
+
+        @Override
+        protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+            switch (propertyName.hashCode()) {
+                case 3373707:  // name
+                    ((MetaBeanIndexLoad) bean).setName((String) newValue);
+                    return;
+            }
+            super.propertySet(bean, propertyName, newValue, quiet);
+        }
+
+    }
+
+    ///CLOVER:ON
+    //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.gen;
+
+import java.util.Set;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+
+/**
+ * Mock light bean without any generated code, used for testing.
+ * 
+ * @author Stephen Colebourne
+ */
+public final class UngeneratedLight implements ImmutableBean {
+
+    /**
+     * The number.
+     */
+    @PropertyDefinition
+    private final int number;
+    /**
+     * The name.
+     */
+    @PropertyDefinition
+    private final String name;
+
+    /**
+     * Creates an instance.
+     * @param number  the number
+     * @param name  the name
+     */
+    UngeneratedLight(int number, String name) {
+        this.number = number;
+        this.name = name;
+    }
+
+    //-----------------------------------------------------------------------
+    public int getNumber() {
+        return number;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public MetaBean metaBean() {
+        return JodaBeanUtils.metaBean(UngeneratedLight.class, true);
+    }
+
+    @Override
+    public <R> Property<R> property(String propertyName) {
+        return metaBean().<R>metaProperty(propertyName).createProperty(this);
+    }
+
+    @Override
+    public Set<String> propertyNames() {
+        return metaBean().metaPropertyMap().keySet();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj != null && obj.getClass() == this.getClass()) {
+            return JodaBeanUtils.propertiesEqual(this, (UngeneratedLight) obj);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return JodaBeanUtils.propertiesHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return JodaBeanUtils.propertiesToString(this, "UngeneratedLight");
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.NoSuchElementException;
+
+import org.joda.beans.gen.Light;
+import org.joda.beans.gen.ImmPerson;
+import org.joda.beans.gen.Person;
+import org.joda.beans.impl.flexi.FlexiBean;
+import org.joda.beans.impl.light.LightMetaBean;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test IndexedBeanBuilder.
+ */
+@Test
+public class TestIndexedBeanBuilder {
+
+    public void test_immutable() {
+        IndexedBeanBuilder<?> test = IndexedBeanBuilder.of(ImmPerson.meta());
+        test.set("forename", "Stephen");
+        test.set(ImmPerson.meta().surname(), "Colebourne");
+        test.setString("numberOfCars", "2");
+        assertEquals(test.get("forename"), "Stephen");
+        assertEquals(test.get(ImmPerson.meta().surname()), "Colebourne");
+        assertEquals(test.isSet(ImmPerson.meta().surname()), true);
+        assertEquals(test.isSet(ImmPerson.meta().dateOfBirth()), false);
+        assertNull(test.get(ImmPerson.meta().dateOfBirth()));
+        ImmPerson person = (ImmPerson) test.build();
+        assertEquals(person.getForename(), "Stephen");
+        assertEquals(person.getSurname(), "Colebourne");
+        assertEquals(person.getNumberOfCars(), 2);
+    }
+
+    public void test_remove() {
+        IndexedBeanBuilder<?> test = IndexedBeanBuilder.of(Person.meta());
+        test.set(Person.meta().forename(), "Stephen");
+        test.set(Person.meta().surname(), null);
+        assertEquals(test.isSet(Person.meta().surname()), true);
+        test.remove(Person.meta().forename());
+        assertEquals(test.isSet(Person.meta().forename()), false);
+        Person person = (Person) test.build();
+        assertNull(person.getForename());
+        assertNull(person.getSurname());
+    }
+
+    public void test_dynamic() {
+        IndexedBeanBuilder<?> test = IndexedBeanBuilder.of(FlexiBean.meta());
+        test.set("a", "x");
+        test.set("b", "y");
+        assertEquals(test.get("a"), "x");
+        FlexiBean bean = (FlexiBean) test.build();
+        assertEquals(bean.toString(), "FlexiBean{a=x, b=y}");
+    }
+
+    public void test_ordinals_heldByMetaBean() {
+        BasicMetaBean metaBean = ImmPerson.meta();
+        IndexedBeanBuilder.of(metaBean);
+        assertSame(metaBean.ordinals(), metaBean.ordinals());
+    }
+
+    public void test_ordinals_heldByLightMetaBean() {
+        LightMetaBean<?> metaBean = (LightMetaBean<?>) Light.meta();
+        assertSame(IndexedBeanBuilder.ordinals(metaBean), metaBean.ordinals());
+        assertSame(IndexedBeanBuilder.ordinals(metaBean), IndexedBeanBuilder.ordinals(metaBean));
+        IndexedBeanBuilder<?> test = IndexedBeanBuilder.of(metaBean);
+        test.set("number", 12);
+        test.set("street", "Park Lane");
+        test.set("city", "Smallville");
+        test.set("owner", ImmPerson.builder().forename("John").surname("Doggett").build());
+        test.set("list", ImmutableList.of("a"));
+        Light bean = (Light) test.build();
+        assertEquals(bean.getNumber(), 12);
+        assertEquals(bean.getCity(), "Smallville");
+        assertEquals(bean.getList(), ImmutableList.of("a"));
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void test_unknownProperty() {
+        IndexedBeanBuilder.of(ImmPerson.meta()).set("rubbish", "");
+    }
+
+}
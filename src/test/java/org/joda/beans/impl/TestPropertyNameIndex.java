@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test PropertyNameIndex.
+ */
+@Test
+public class TestPropertyNameIndex {
+
+    public void test_of() {
+        PropertyNameIndex test = PropertyNameIndex.of("number", "street", "city", "owner");
+        assertEquals(test.size(), 4);
+        assertEquals(test.name(0), "number");
+        assertEquals(test.name(3), "owner");
+        assertEquals(test.indexOf("number"), 0);
+        assertEquals(test.indexOf("street"), 1);
+        assertEquals(test.indexOf("city"), 2);
+        assertEquals(test.indexOf("owner"), 3);
+        assertEquals(test.indexOf(new String("city")), 2);
+        assertEquals(test.indexOf("town"), -1);
+        assertEquals(test.indexOf(""), -1);
+        assertEquals(test.indexOf(null), -1);
+        assertEquals(test.indexOf(Integer.valueOf(2)), -1);
+    }
+
+    public void test_of_empty() {
+        PropertyNameIndex test = PropertyNameIndex.of();
+        assertEquals(test.size(), 0);
+        assertEquals(test.indexOf("number"), -1);
+    }
+
+    public void test_of_large() {
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 500; i++) {
+            names.add("property" + i);
+        }
+        PropertyNameIndex test = PropertyNameIndex.of(names);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(test.indexOf("property" + i), i);
+        }
+        assertEquals(test.indexOf("property500"), -1);
+    }
+
+    public void test_of_sameHashCode() {
+        // "Aa" and "BB" have the same hash code
+        PropertyNameIndex test = PropertyNameIndex.of("Aa", "BB", "AaAa", "BBBB", "AaBB");
+        assertEquals(test.indexOf("Aa"), 0);
+        assertEquals(test.indexOf("BB"), 1);
+        assertEquals(test.indexOf("AaAa"), 2);
+        assertEquals(test.indexOf("BBBB"), 3);
+        assertEquals(test.indexOf("AaBB"), 4);
+        assertEquals(test.indexOf("BBAa"), -1);
+    }
+
+    public void test_of_allSameHashCode() {
+        // every name has the same hash code, so a seeded hash must be used
+        List<String> names = new ArrayList<String>();
+        names.add("");
+        for (int i = 0; i < 10; i++) {
+            List<String> longer = new ArrayList<String>();
+            for (String name : names) {
+                longer.add(name + "Aa");
+                longer.add(name + "BB");
+            }
+            names = longer;
+        }
+        assertEquals(names.size(), 1024);
+        assertEquals(names.get(0).hashCode(), names.get(1023).hashCode());
+        PropertyNameIndex test = PropertyNameIndex.of(names);
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(test.indexOf(names.get(i)), i);
+        }
+        assertEquals(test.indexOf("AaAaAaAaAaAaAaAaAa"), -1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_of_duplicate() {
+        PropertyNameIndex.of("number", "street", "number");
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void test_of_nullName() {
+        PropertyNameIndex.of("number", null);
+    }
+
+}
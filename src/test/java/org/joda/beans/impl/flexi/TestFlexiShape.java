@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl.flexi;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test FlexiShape.
+ */
+@Test
+public class TestFlexiShape {
+
+    public void test_shared() {
+        FlexiShape shape = FlexiShape.EMPTY.with("alpha").with("beta");
+        assertSame(FlexiShape.EMPTY.with("alpha").with("beta"), shape);
+        assertEquals(shape.size(), 2);
+        assertEquals(shape.indexOf("beta"), 1);
+        assertEquals(shape.indexOf("gamma"), -1);
+        assertSame(shape.without(0), FlexiShape.EMPTY.with("beta"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_invalidKey() {
+        FlexiShape.EMPTY.with("1a");
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_transitions_limited() {
+        FlexiShape base = FlexiShape.EMPTY.with("transitionTest");
+        List<FlexiShape> live = new ArrayList<FlexiShape>();
+        for (int i = 0; i < 32; i++) {
+            live.add(base.with("t" + i));
+        }
+        assertNull(base.with("t32"));
+        assertSame(base.with("t0"), live.get(0));
+    }
+
+    public void test_transitions_rootAllowsMore() {
+        List<FlexiShape> live = new ArrayList<FlexiShape>();
+        for (int i = 0; i < 100; i++) {
+            FlexiShape shape = FlexiShape.EMPTY.with("rootTest" + i);
+            assertNotNull(shape);
+            live.add(shape);
+        }
+    }
+
+    public void test_size_limited() {
+        FlexiShape shape = FlexiShape.EMPTY;
+        for (int i = 0; i < 64; i++) {
+            shape = shape.with("sizeTest" + i);
+        }
+        assertEquals(shape.size(), 64);
+        assertNull(shape.with("sizeTest64"));
+    }
+
+}
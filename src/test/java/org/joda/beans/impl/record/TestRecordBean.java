@@ -0,0 +1,192 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.impl.record;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.ser.JodaBeanSer;
+import org.testng.annotations.Test;
+
+/**
+ * Test RecordBean.
+ */
+@Test
+public class TestRecordBean {
+
+    public void test_schema() {
+        RecordMetaBean schema = RecordMetaBean.of("id", "name", "price");
+        assertSame(RecordMetaBean.of("id", "name", "price"), schema);
+        assertSame(RecordMetaBean.of(Arrays.asList("id", "name", "price")), schema);
+        assertEquals(schema.columnCount(), 3);
+        assertEquals(schema.columnName(1), "name");
+        assertEquals(schema.columnIndex("price"), 2);
+        assertEquals(schema.columnIndex("other"), -1);
+        assertEquals(schema.metaPropertyCount(), 3);
+        assertEquals(schema.beanType(), RecordBean.class);
+        assertEquals(new ArrayList<String>(schema.metaPropertyMap().keySet()), Arrays.asList("id", "name", "price"));
+        assertSame(schema.withColumn("qty").withoutColumn(3), schema);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_schema_duplicate() {
+        RecordMetaBean.of("id", "id");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_schema_empty() {
+        RecordMetaBean.of("id", "");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void test_schema_metaPropertyDefine() {
+        RecordMetaBean.of("id").metaPropertyDefine("name", String.class);
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_positional() {
+        RecordMetaBean schema = RecordMetaBean.of("id", "name");
+        RecordBean test = schema.createRecord(1, "Apple");
+        assertSame(test.metaBean(), schema);
+        assertEquals(test.size(), 2);
+        assertEquals(test.get(0), 1);
+        assertEquals(test.get("name"), "Apple");
+        assertNull(test.get("other"));
+        test.set(1, "Pear");
+        assertEquals(test.get("name"), "Pear");
+        assertEquals(test.toString(), "RecordBean{id=1, name=Pear}");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_createRecord_wrongSize() {
+        RecordMetaBean.of("id", "name").createRecord(1);
+    }
+
+    public void test_metaProperty() {
+        RecordMetaBean schema = RecordMetaBean.of("id", "name");
+        RecordBean test = schema.createRecord(1, "Apple");
+        MetaProperty<Object> mp = schema.metaProperty("name");
+        assertEquals(mp.get(test), "Apple");
+        mp.set(test, "Pear");
+        assertEquals(test.get(1), "Pear");
+        assertEquals(test.property("id").get(), 1);
+        // meta-property from another schema
+        RecordBean other = RecordMetaBean.of("name", "id").createRecord("Plum", 2);
+        assertEquals(mp.get(other), "Plum");
+    }
+
+    public void test_propertyDefineRemove() {
+        RecordMetaBean schema = RecordMetaBean.of("id", "name");
+        RecordBean test = schema.createRecord(1, "Apple");
+        test.set("price", 12);
+        assertSame(test.metaBean(), RecordMetaBean.of("id", "name", "price"));
+        assertEquals(test.get(2), 12);
+        test.propertyRemove("id");
+        assertSame(test.metaBean(), RecordMetaBean.of("name", "price"));
+        assertEquals(test.toMap().toString(), "{name=Apple, price=12}");
+        assertEquals(schema.columnCount(), 2);
+    }
+
+    public void test_builder() {
+        RecordMetaBean schema = RecordMetaBean.of("id", "name");
+        RecordBean test1 = schema.builder().set("name", "Apple").set("price", 12).build();
+        assertEquals(test1.toString(), "RecordBean{id=null, name=Apple, price=12}");
+        // second build uses the schema of the first
+        RecordBean test2 = schema.builder().set("id", 2).set("name", "Pear").set("price", 14).build();
+        assertSame(test2.metaBean(), test1.metaBean());
+        // fewer columns than the previous build
+        RecordBean test3 = schema.builder().set("id", 3).build();
+        assertSame(test3.metaBean(), schema);
+    }
+
+    public void test_clone() {
+        RecordBean base = RecordMetaBean.of("id").createRecord(1);
+        RecordBean test = base.clone();
+        assertNotSame(test, base);
+        assertEquals(test, base);
+        test.set(0, 2);
+        assertEquals(base.get(0), 1);
+    }
+
+    public void test_equalsHashCode() {
+        RecordBean a1 = RecordMetaBean.of("a", "b").createRecord("x", null);
+        RecordBean a2 = RecordMetaBean.of("b", "a").createRecord(null, "x");
+        RecordBean b = RecordMetaBean.of("a", "b").createRecord("x", "y");
+        assertEquals(a1.equals(a2), true);
+        assertEquals(a2.equals(a1), true);
+        assertEquals(a1.hashCode(), a2.hashCode());
+        assertEquals(a1.equals(b), false);
+        assertEquals(b.equals(a1), false);
+        assertEquals(b.equals("Weird type"), false);
+        assertEquals(b.equals(null), false);
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("a", "x");
+        map.put("b", null);
+        assertEquals(a1.hashCode(), map.hashCode());
+    }
+
+    public void test_equalsHashCode_arrays() {
+        // arrays are compared by identity, as in a map
+        int[] array = new int[] {1, 2};
+        RecordBean a1 = RecordMetaBean.of("a", "b").createRecord(array, "x");
+        RecordBean a2 = RecordMetaBean.of("a", "b").createRecord(array, "x");
+        RecordBean b = RecordMetaBean.of("a", "b").createRecord(new int[] {1, 2}, "x");
+        assertEquals(a1.equals(a2), true);
+        assertEquals(a1.hashCode(), a2.hashCode());
+        assertEquals(a1.equals(b), false);
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_metaBean_lookup() {
+        assertEquals(JodaBeanUtils.metaBean(RecordBean.class).metaPropertyCount(), 0);
+    }
+
+    public void test_serialize_bin() {
+        RecordMetaBean schema = RecordMetaBean.of("id", "name");
+        RecordBean bean = schema.createRecord(1, "Apple");
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(bean);
+        RecordBean parsed1 = JodaBeanSer.COMPACT.binReader().read(bytes, RecordBean.class);
+        RecordBean parsed2 = JodaBeanSer.COMPACT.binReader().read(bytes, RecordBean.class);
+        assertEquals(parsed1, bean);
+        assertSame(parsed1.metaBean(), schema);
+        assertSame(parsed2.metaBean(), schema);
+    }
+
+    public void test_serialize_json() {
+        RecordBean bean = RecordMetaBean.of("id", "name").createRecord(1, "Apple");
+        String json = JodaBeanSer.COMPACT.jsonWriter().write(bean);
+        assertEquals(json, "{\"@bean\":\"org.joda.beans.impl.record.RecordBean\",\"id\":1,\"name\":\"Apple\"}");
+        RecordBean parsed = JodaBeanSer.COMPACT.jsonReader().read(json, RecordBean.class);
+        assertEquals(parsed, bean);
+    }
+
+    public void test_serialize_xml() {
+        RecordBean bean = RecordMetaBean.of("id", "name").createRecord(1, "Apple");
+        String xml = JodaBeanSer.COMPACT.xmlWriter().write(bean);
+        RecordBean parsed = JodaBeanSer.COMPACT.xmlReader().read(xml, RecordBean.class);
+        assertEquals(parsed, bean);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.joda.beans.gen.Address;
+import org.joda.beans.gen.ImmPerson;
+import org.testng.annotations.Test;
+
+/**
+ * Test SerInterner.
+ */
+@Test
+public class TestSerInterner {
+
+    private static ImmPerson person(String forename) {
+        return ImmPerson.builder().forename(forename).surname("Colebourne").build();
+    }
+
+    public void test_intern() {
+        SerInterner test = SerInterner.of(10);
+        ImmPerson person1 = person("Stephen");
+        ImmPerson person2 = person("Stephen");
+        assertNotSame(person1, person2);
+        assertSame(test.intern(person1), person1);
+        assertSame(test.intern(person2), person1);
+        assertEquals(test.getHitCount(), 1);
+        assertEquals(test.getMissCount(), 1);
+        assertEquals(test.size(), 1);
+        assertTrue(test.toString().startsWith("SerInterner[size=1"));
+    }
+
+    public void test_intern_notImmutable() {
+        SerInterner test = SerInterner.of(10);
+        Address address = new Address();
+        assertSame(test.intern(address), address);
+        assertSame(test.intern(null), null);
+        assertSame(test.intern("Hello"), "Hello");
+        assertEquals(test.getMissCount(), 0);
+        assertEquals(test.size(), 0);
+    }
+
+    public void test_intern_bounded() {
+        SerInterner test = SerInterner.of(8);
+        for (int i = 0; i < 20; i++) {
+            test.intern(person("P" + i));
+        }
+        assertTrue(test.size() <= 8);
+        assertTrue(test.getEvictionCount() > 0);
+        test.clear();
+        assertEquals(test.size(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_of_invalid() {
+        SerInterner.of(0);
+    }
+
+    public void test_readers() {
+        SerInterner interner = SerInterner.of(100);
+        JodaBeanSer ser = JodaBeanSer.COMPACT.withInterner(interner);
+        assertSame(ser.getInterner(), interner);
+        ImmPerson person = person("Stephen");
+        byte[] bytes = ser.binWriter().write(person);
+        ImmPerson read1 = ser.binReader().read(bytes, ImmPerson.class);
+        ImmPerson read2 = ser.binReader().read(bytes, ImmPerson.class);
+        assertSame(read2, read1);
+        String json = ser.jsonWriter().write(person);
+        assertSame(ser.jsonReader().read(json, ImmPerson.class), read1);
+        String xml = ser.xmlWriter().write(person);
+        assertSame(ser.xmlReader().read(xml, ImmPerson.class), read1);
+        assertEquals(interner.getHitCount(), 3);
+        // not interned by default
+        assertNotSame(JodaBeanSer.COMPACT.binReader().read(bytes, ImmPerson.class), read1);
+    }
+
+}
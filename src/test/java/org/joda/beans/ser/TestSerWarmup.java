@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.beans.MetaBean;
+import org.joda.beans.gen.ImmAddress;
+import org.joda.beans.gen.ImmBinSerializer;
+import org.joda.beans.gen.ImmPerson;
+import org.joda.beans.gen.Light;
+import org.joda.beans.impl.BasicMetaBean;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.flexi.FlexiBean;
+import org.joda.beans.impl.map.MapBean;
+import org.testng.annotations.Test;
+
+/**
+ * Test SerWarmup.
+ */
+@Test
+public class TestSerWarmup {
+
+    public void test_warmup_types() {
+        List<Class<?>> types = Arrays.<Class<?>>asList(ImmAddress.class, ImmPerson.class, Light.class, String.class);
+        SerWarmupResult result = JodaBeanSer.COMPACT.warmup().withParallelism(2).warmup(types);
+        assertEquals(result.getTimings().size(), 3);
+        assertTrue(result.getTimings().containsKey(ImmAddress.class));
+        assertTrue(result.getTimings().containsKey(Light.class));
+        assertEquals(result.getFailures().size(), 1);
+        assertTrue(result.getFailures().containsKey("java.lang.String"));
+        assertTrue(result.getTotalNanos() > 0);
+    }
+
+    public void test_warmup_package() {
+        SerWarmupResult result = JodaBeanSer.COMPACT.warmup().warmupPackage("org.joda.beans.impl", getClass().getClassLoader());
+        assertTrue(result.getTimings().containsKey(FlexiBean.class));
+        assertTrue(result.getTimings().containsKey(MapBean.class));
+    }
+
+    public void test_warmup_profile() throws Exception {
+        JodaBeanSer.COMPACT.warmup().warmup(Arrays.<Class<?>>asList(ImmPerson.class));
+        StringWriter buf = new StringWriter();
+        SerWarmup.recordProfile(buf);
+        assertTrue(buf.toString().contains("org.joda.beans.gen.ImmPerson\n"));
+        
+        String profile = "# comment\norg.joda.beans.gen.ImmPerson\n\norg.joda.beans.gen.Unknown\n";
+        SerWarmupResult result = JodaBeanSer.COMPACT.warmup().warmupProfile(new StringReader(profile), getClass().getClassLoader());
+        assertEquals(result.getTimings().keySet().iterator().next(), ImmPerson.class);
+        assertEquals(result.getFailures().keySet().iterator().next(), "org.joda.beans.gen.Unknown");
+        
+        StringWriter report = new StringWriter();
+        result.writeReport(report);
+        assertTrue(report.toString().contains("org.joda.beans.gen.ImmPerson: "));
+        assertTrue(report.toString().contains("org.joda.beans.gen.Unknown: FAILED"));
+    }
+
+    public void test_warmup_populatesCaches() throws Exception {
+        MetaBean metaBean = ImmBinSerializer.meta();
+        SerWarmupResult result = JodaBeanSer.COMPACT.warmup().warmup(Arrays.<Class<?>>asList(ImmBinSerializer.class));
+        assertEquals(result.getFailures().size(), 0);
+        assertNotNull(field(metaBean.metaPropertyMap(), DirectMetaPropertyMap.class, "index"));
+        assertNotNull(field(metaBean, BasicMetaBean.class, "ordinals"));
+    }
+
+    private static Object field(Object obj, Class<?> declaringType, String name) throws Exception {
+        Field field = declaringType.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(obj);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_withParallelism_invalid() {
+        JodaBeanSer.COMPACT.warmup().withParallelism(0);
+    }
+
+}
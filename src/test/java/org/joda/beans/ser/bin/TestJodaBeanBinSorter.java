@@ -0,0 +1,151 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.gen.Address;
+import org.joda.beans.ser.JodaBeanSer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test JodaBeanBinSorter.
+ */
+@Test
+public class TestJodaBeanBinSorter {
+
+    private File dir;
+    private File input;
+    private File output;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = File.createTempFile("joda-beans-test", "");
+        dir.delete();
+        dir.mkdir();
+        input = new File(dir, "input.bin");
+        output = new File(dir, "output.bin");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    private static List<Address> addresses(int count) {
+        List<Address> list = new ArrayList<Address>();
+        for (int i = 0; i < count; i++) {
+            Address address = new Address();
+            address.setNumber((i * 7919) % count);
+            address.setStreet("Street" + i);
+            address.setCity("City" + (i % 7));
+            list.add(address);
+        }
+        return list;
+    }
+
+    private static List<Address> sorted(List<Address> list) {
+        List<Address> copy = new ArrayList<Address>(list);
+        Collections.sort(copy, JodaBeanUtils.comparator(Address.meta().city(), true));
+        return copy;
+    }
+
+    //-------------------------------------------------------------------------
+    public void test_writeFile_readFile() throws IOException {
+        List<Address> beans = addresses(10);
+        JodaBeanBinSorter.writeFile(JodaBeanSer.COMPACT, beans, input);
+        assertEquals(JodaBeanBinSorter.readFile(JodaBeanSer.COMPACT, input, Address.class), beans);
+    }
+
+    public void test_sort_singleRun() throws IOException {
+        List<Address> beans = addresses(100);
+        JodaBeanBinSorter.writeFile(JodaBeanSer.COMPACT, beans, input);
+        JodaBeanBinSorter<Address> sorter = JodaBeanBinSorter.of(JodaBeanSer.COMPACT, Address.class, Address.meta().city(), true)
+                .withTempDirectory(dir);
+        sorter.sort(input, output);
+        assertEquals(JodaBeanBinSorter.readFile(JodaBeanSer.COMPACT, output, Address.class), sorted(beans));
+        assertEquals(dir.listFiles().length, 2);
+    }
+
+    public void test_sort_manyRuns_stable() throws IOException {
+        List<Address> beans = addresses(1000);
+        JodaBeanBinSorter.writeFile(JodaBeanSer.COMPACT, beans, input);
+        JodaBeanBinSorter<Address> sorter = JodaBeanBinSorter.of(JodaBeanSer.COMPACT, Address.class, Address.meta().city(), true)
+                .withRunSize(64)
+                .withTempDirectory(dir);
+        sorter.sort(input, output);
+        assertEquals(JodaBeanBinSorter.readFile(JodaBeanSer.COMPACT, output, Address.class), sorted(beans));
+        // temporary files removed
+        assertEquals(dir.listFiles().length, 2);
+    }
+
+    public void test_sort_memoryBudget() throws IOException {
+        List<Address> beans = addresses(500);
+        JodaBeanBinSorter.writeFile(JodaBeanSer.COMPACT, beans, input);
+        JodaBeanBinSorter<Address> sorter = JodaBeanBinSorter.of(JodaBeanSer.COMPACT, Address.class, Address.meta().city(), true)
+                .withMemoryBudget(2000)
+                .withTempDirectory(dir);
+        sorter.sort(input, output);
+        assertEquals(JodaBeanBinSorter.readFile(JodaBeanSer.COMPACT, output, Address.class), sorted(beans));
+    }
+
+    public void test_sort_executor() throws IOException {
+        List<Address> beans = addresses(2000);
+        JodaBeanBinSorter.writeFile(JodaBeanSer.COMPACT, beans, input);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            JodaBeanBinSorter<Address> sorter = JodaBeanBinSorter.of(JodaBeanSer.COMPACT, Address.class, Address.meta().city(), true)
+                    .withRunSize(100)
+                    .withTempDirectory(dir)
+                    .withExecutor(executor);
+            sorter.sort(input, output);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(JodaBeanBinSorter.readFile(JodaBeanSer.COMPACT, output, Address.class), sorted(beans));
+        assertEquals(dir.listFiles().length, 2);
+    }
+
+    public void test_sort_streams_empty() throws IOException {
+        JodaBeanBinSorter<Address> sorter = JodaBeanBinSorter.of(JodaBeanSer.COMPACT, Address.class, Address.meta().city(), true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sorter.sort(new ByteArrayInputStream(new byte[0]), out);
+        assertTrue(out.size() == 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_withRunSize_invalid() {
+        JodaBeanBinSorter.of(JodaBeanSer.COMPACT, Address.class, Address.meta().city(), true).withRunSize(0);
+    }
+
+}
@@ -16,16 +16,24 @@
 package org.joda.beans.ser.bin;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.List;
 
 import org.joda.beans.Bean;
 import org.joda.beans.gen.Address;
 import org.joda.beans.gen.Company;
 import org.joda.beans.gen.ImmAddress;
+import org.joda.beans.gen.ImmBinSerializer;
+import org.joda.beans.gen.ImmBinSerializerNoGen;
 import org.joda.beans.gen.ImmOptional;
+import org.joda.beans.gen.ImmPerson;
+import org.joda.beans.gen.ImmWith;
 import org.joda.beans.gen.JodaConvertBean;
 import org.joda.beans.gen.JodaConvertWrapper;
 import org.joda.beans.gen.Person;
@@ -35,6 +43,8 @@ import org.joda.beans.ser.SerTestHelper;
 import org.joda.beans.test.BeanAssert;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
+
 /**
  * Test property roundtrip using binary.
  */
@@ -72,6 +82,113 @@ public class TestSerializeBin {
         BeanAssert.assertBeanEquals(bean, optional);
     }
 
+    //-----------------------------------------------------------------------
+    public void test_readInto() {
+        Address address = SerTestHelper.testAddress();
+        byte[] bytes = JodaBeanSer.PRETTY.binWriter().write(address);
+        
+        Address target = new Address();
+        target.setNumber(12);
+        target.setStreet("Old Street");
+        Person owner = new Person();
+        owner.setForename("Old");
+        owner.getAddressList().add(new Address());
+        List<Address> addressList = owner.getAddressList();
+        target.setOwner(owner);
+        
+        Address bean = JodaBeanSer.PRETTY.binReader().readInto(target, bytes);
+        assertSame(bean, target);
+        assertSame(bean.getOwner(), owner);
+        assertSame(bean.getOwner().getAddressList(), addressList);
+        BeanAssert.assertBeanEquals(bean, address);
+        
+        // read again into the same instances
+        Address again = JodaBeanSer.PRETTY.binReader().readInto(target, bytes);
+        assertSame(again, target);
+        assertSame(again.getOwner(), owner);
+        BeanAssert.assertBeanEquals(again, address);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_readInto_immutable() {
+        ImmOptional optional = SerTestHelper.testImmOptional();
+        JodaBeanSer.PRETTY.binReader().readInto(optional, JodaBeanSer.PRETTY.binWriter().write(optional));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_readInto_wrongType() {
+        Address address = SerTestHelper.testAddress();
+        JodaBeanSer.PRETTY.binReader().readInto(new Person(), JodaBeanSer.PRETTY.binWriter().write(address));
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_delta_nested() {
+        ImmAddress base = SerTestHelper.testImmAddress();
+        ImmPerson owner = base.getOwner().toBuilder().surname("Scully").build();
+        ImmAddress changed = base.toBuilder().owner(owner).city("Metropolis").build();
+        
+        byte[] delta = JodaBeanSer.COMPACT.binWriter().writeDelta(base, changed);
+        assertTrue(delta.length < JodaBeanSer.COMPACT.binWriter().write(changed).length / 4);
+        
+        ImmAddress test = JodaBeanSer.COMPACT.binReader().readDelta(base, delta);
+        BeanAssert.assertBeanEquals(test, changed);
+        assertSame(test.getObjectInMap(), base.getObjectInMap());
+    }
+
+    public void test_delta_unchanged() {
+        ImmAddress base = SerTestHelper.testImmAddress();
+        byte[] delta = JodaBeanSer.COMPACT.binWriter().writeDelta(base, base);
+        assertSame(JodaBeanSer.COMPACT.binReader().readDelta(base, delta), base);
+    }
+
+    public void test_delta_list() {
+        ImmWith base = ImmWith.builder()
+                .name("Etienne")
+                .tags(ImmutableList.of("a", "b", "c", "d", "e"))
+                .build();
+        ImmWith replaced = base.withTags(ImmutableList.of("a", "b", "X", "d", "e"));
+        ImmWith inserted = base.withTags(ImmutableList.of("a", "b", "X", "Y", "c", "d", "e"));
+        ImmWith removed = base.withTags(ImmutableList.of("a", "e"));
+        ImmWith appended = base.withTags(ImmutableList.of("a", "b", "c", "d", "e", "f")).withAge(6);
+        ImmWith all = base.withTags(ImmutableList.of("X"));
+        for (ImmWith changed : ImmutableList.of(replaced, inserted, removed, appended, all)) {
+            byte[] delta = JodaBeanSer.COMPACT.binWriter().writeDelta(base, changed);
+            assertEquals(JodaBeanSer.COMPACT.binReader().readDelta(base, delta), changed);
+        }
+    }
+
+    public void test_delta_mutable() {
+        Address base = SerTestHelper.testAddress();
+        Address changed = base.clone();
+        changed.setStreet("Park Road");
+        changed.setOwner(null);
+        
+        byte[] delta = JodaBeanSer.COMPACT.binWriter().writeDelta(base, changed);
+        Address test = JodaBeanSer.COMPACT.binReader().readDelta(base, delta);
+        BeanAssert.assertBeanEquals(test, changed);
+        assertEquals(base, SerTestHelper.testAddress());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_delta_wrongBase() {
+        ImmWith base = ImmWith.builder().name("Etienne").tags(ImmutableList.of("a", "b", "c", "d")).build();
+        byte[] delta = JodaBeanSer.COMPACT.binWriter().writeDelta(base, base.withTags(ImmutableList.of("a", "d")));
+        JodaBeanSer.COMPACT.binReader().readDelta(base.withTags(ImmutableList.of("a")), delta);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_delta_wrongType() {
+        ImmWith base = ImmWith.builder().name("Etienne").tags(ImmutableList.of("a", "b")).build();
+        byte[] delta = JodaBeanSer.COMPACT.binWriter().writeDelta(base, base.withName("Amelie"));
+        JodaBeanSer.COMPACT.binReader().readDelta(SerTestHelper.testImmAddress(), delta);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_delta_fullFormat() {
+        ImmWith base = ImmWith.builder().name("Etienne").tags(ImmutableList.of("a", "b")).build();
+        JodaBeanSer.COMPACT.binReader().readDelta(base, JodaBeanSer.COMPACT.binWriter().write(base));
+    }
+
     //-----------------------------------------------------------------------
     public void test_readWrite_primitives() throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -339,6 +456,158 @@ public class TestSerializeBin {
         JodaBeanSer.COMPACT.binReader().read(bytes, Bean.class);
     }
 
+    //-----------------------------------------------------------------------
+    private static ImmBinSerializer binSerializerBean() {
+        ImmBinSerializer child = ImmBinSerializer.builder()
+                .count(-1)
+                .tags(ImmutableList.<String>of())
+                .build();
+        return ImmBinSerializer.builder()
+                .name("Bin")
+                .count(300)
+                .total(1L << 40)
+                .small((short) -200)
+                .tiny((byte) 7)
+                .price(1.25d)
+                .ratio(0.5f)
+                .active(true)
+                .boxed(6)
+                .tags(ImmutableList.of("a", "b"))
+                .codes(new int[] {1, 2})
+                .child(child)
+                .build();
+    }
+
+    private static ImmBinSerializerNoGen binSerializerNoGenBean() {
+        ImmBinSerializerNoGen child = ImmBinSerializerNoGen.builder()
+                .count(-1)
+                .tags(ImmutableList.<String>of())
+                .build();
+        return ImmBinSerializerNoGen.builder()
+                .name("Bin")
+                .count(300)
+                .total(1L << 40)
+                .small((short) -200)
+                .tiny((byte) 7)
+                .price(1.25d)
+                .ratio(0.5f)
+                .active(true)
+                .boxed(6)
+                .tags(ImmutableList.of("a", "b"))
+                .codes(new int[] {1, 2})
+                .child(child)
+                .build();
+    }
+
+    public void test_binSerializer_sameData() {
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(binSerializerBean(), false);
+        byte[] noGenBytes = JodaBeanSer.COMPACT.binWriter().write(binSerializerNoGenBean(), false);
+        assertEquals(bytes, noGenBytes);
+    }
+
+    public void test_binSerializer_roundTrip() {
+        ImmBinSerializer bean = binSerializerBean();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(bean);
+        ImmBinSerializer read = (ImmBinSerializer) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(read, bean);
+    }
+
+    public void test_binSerializer_crossRead() {
+        byte[] noGenBytes = JodaBeanSer.COMPACT.binWriter().write(binSerializerNoGenBean(), false);
+        ImmBinSerializer read = JodaBeanSer.COMPACT.binReader().read(noGenBytes, ImmBinSerializer.class);
+        BeanAssert.assertBeanEquals(read, binSerializerBean());
+        
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(binSerializerBean(), false);
+        ImmBinSerializerNoGen readNoGen = JodaBeanSer.COMPACT.binReader().read(bytes, ImmBinSerializerNoGen.class);
+        BeanAssert.assertBeanEquals(readNoGen, binSerializerNoGenBean());
+    }
+
+    public void test_binSerializer_read_reorderedAliasAndString() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MsgPackOutput out = new MsgPackOutput(baos);
+        out.writeArrayHeader(2);
+        out.writeInt(1);
+        out.writeMapHeader(3);
+        out.writeString("count");
+        out.writeString("12");
+        out.writeString("tags");
+        out.writeArrayHeader(0);
+        out.writeString("label");
+        out.writeString("Aliased");
+        ImmBinSerializer read = JodaBeanSer.COMPACT.binReader().read(baos.toByteArray(), ImmBinSerializer.class);
+        assertEquals(read.getName(), "Aliased");
+        assertEquals(read.getCount(), 12);
+    }
+
+    public void test_binSerializer_read_errorNamesProperty() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MsgPackOutput out = new MsgPackOutput(baos);
+        out.writeArrayHeader(2);
+        out.writeInt(1);
+        out.writeMapHeader(1);
+        out.writeString("child");
+        out.writeMapHeader(1);
+        out.writeString("count");
+        out.writeLong(1L << 40);
+        try {
+            JodaBeanSer.COMPACT.binReader().read(baos.toByteArray(), ImmBinSerializer.class);
+        } catch (RuntimeException ex) {
+            assertNotNull(ex.getMessage());
+            assertTrue(ex.getMessage().startsWith("Error parsing bean: " + ImmBinSerializer.class.getName() + "::child, " +
+                    "Error parsing bean: " + ImmBinSerializer.class.getName() + "::count, "), ex.getMessage());
+            return;
+        }
+        throw new AssertionError("Expected exception");
+    }
+
+    public void test_binSerializer_read_shortOutOfRange() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MsgPackOutput out = new MsgPackOutput(baos);
+        out.writeArrayHeader(2);
+        out.writeInt(1);
+        out.writeMapHeader(1);
+        out.writeString("small");
+        out.writeInt(40000);
+        try {
+            JodaBeanSer.COMPACT.binReader().read(baos.toByteArray(), ImmBinSerializer.class);
+        } catch (RuntimeException ex) {
+            assertNotNull(ex.getMessage());
+            assertTrue(ex.getMessage().contains("Expected short, but was 40000"), ex.getMessage());
+            return;
+        }
+        throw new AssertionError("Expected exception");
+    }
+
+    public void test_read_shortOutOfRange_noBinSerializer() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MsgPackOutput out = new MsgPackOutput(baos);
+        out.writeArrayHeader(2);
+        out.writeInt(1);
+        out.writeMapHeader(1);
+        out.writeString("small");
+        out.writeInt(40000);
+        try {
+            JodaBeanSer.COMPACT.binReader().read(baos.toByteArray(), ImmBinSerializerNoGen.class);
+        } catch (RuntimeException ex) {
+            assertNotNull(ex.getMessage());
+            assertTrue(ex.getMessage().contains("Expected short, but was 40000"), ex.getMessage());
+            return;
+        }
+        throw new AssertionError("Expected exception");
+    }
+
+    @Test(expectedExceptions = RuntimeException.class)
+    public void test_binSerializer_read_unknownProperty() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MsgPackOutput out = new MsgPackOutput(baos);
+        out.writeArrayHeader(2);
+        out.writeInt(1);
+        out.writeMapHeader(1);
+        out.writeString("unknown");
+        out.writeInt(1);
+        JodaBeanSer.COMPACT.binReader().read(baos.toByteArray(), ImmBinSerializer.class);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void test_write_nullKeyInMap() {
         Address address = new Address();
@@ -16,10 +16,12 @@
 package org.joda.beans.ser.json;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.List;
 
 import org.joda.beans.Bean;
 import org.joda.beans.gen.Address;
@@ -79,6 +81,45 @@ public class TestSerializeJson {
         BeanAssert.assertBeanEquals(bean, optional);
     }
 
+    //-----------------------------------------------------------------------
+    public void test_readInto() {
+        Address address = SerTestHelper.testAddress();
+        String json = JodaBeanSer.PRETTY.jsonWriter().write(address);
+        
+        Address target = new Address();
+        target.setNumber(12);
+        target.setStreet("Old Street");
+        Person owner = new Person();
+        owner.setForename("Old");
+        owner.getAddressList().add(new Address());
+        List<Address> addressList = owner.getAddressList();
+        target.setOwner(owner);
+        
+        Address bean = JodaBeanSer.PRETTY.jsonReader().readInto(target, json);
+        assertSame(bean, target);
+        assertSame(bean.getOwner(), owner);
+        assertSame(bean.getOwner().getAddressList(), addressList);
+        BeanAssert.assertBeanEquals(bean, address);
+        
+        // read again into the same instances
+        Address again = JodaBeanSer.PRETTY.jsonReader().readInto(target, json);
+        assertSame(again, target);
+        assertSame(again.getOwner(), owner);
+        BeanAssert.assertBeanEquals(again, address);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_readInto_immutable() {
+        ImmOptional optional = SerTestHelper.testImmOptional();
+        JodaBeanSer.PRETTY.jsonReader().readInto(optional, JodaBeanSer.PRETTY.jsonWriter().write(optional));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_readInto_wrongType() {
+        Address address = SerTestHelper.testAddress();
+        JodaBeanSer.PRETTY.jsonReader().readInto(new Person(), JodaBeanSer.PRETTY.jsonWriter().write(address));
+    }
+
     //-----------------------------------------------------------------------
     public void test_readWriteBeanEmptyChild_pretty() {
         FlexiBean bean = new FlexiBean();
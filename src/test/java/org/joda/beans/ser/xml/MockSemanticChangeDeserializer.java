@@ -18,7 +18,7 @@ package org.joda.beans.ser.xml;
 import org.joda.beans.BeanBuilder;
 import org.joda.beans.MetaBean;
 import org.joda.beans.gen.SimplePerson;
-import org.joda.beans.impl.BufferingBeanBuilder;
+import org.joda.beans.impl.IndexedBeanBuilder;
 import org.joda.beans.ser.DefaultDeserializer;
 import org.joda.beans.ser.SerDeserializer;
 
@@ -43,14 +43,14 @@ public class MockSemanticChangeDeserializer extends DefaultDeserializer {
     //-----------------------------------------------------------------------
     @Override
     public BeanBuilder<?> createBuilder(Class<?> beanType, MetaBean metaBean) {
-        return BufferingBeanBuilder.of(metaBean);
+        return createBufferingBuilder(beanType, metaBean);
     }
 
     @Override
     public Object build(Class<?> beanType, BeanBuilder<?> builder) {
-        BufferingBeanBuilder<?> bld = (BufferingBeanBuilder<?>) builder;
-        if ("Stephen".equals(bld.getBuffer().get(SimplePerson.meta().forename())) &&
-                "Colebourne".equals(bld.getBuffer().get(SimplePerson.meta().surname()))) {
+        IndexedBeanBuilder<?> bld = (IndexedBeanBuilder<?>) builder;
+        if ("Stephen".equals(bld.get(SimplePerson.meta().forename())) &&
+                "Colebourne".equals(bld.get(SimplePerson.meta().surname()))) {
             bld.set(SimplePerson.meta().forename(), "Steve");
         }
         return bld.build();